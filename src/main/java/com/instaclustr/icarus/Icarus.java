@@ -15,6 +15,7 @@ import java.util.concurrent.Callable;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Injector;
+import com.google.inject.util.Modules;
 import com.instaclustr.cassandra.CassandraModule;
 import com.instaclustr.esop.guice.StorageModules;
 import com.instaclustr.esop.impl._import.ImportModule;
@@ -40,8 +41,10 @@ import com.instaclustr.icarus.operations.flush.FlushModule;
 import com.instaclustr.icarus.operations.rebuild.RebuildModule;
 import com.instaclustr.icarus.operations.refresh.RefreshModule;
 import com.instaclustr.icarus.operations.scrub.ScrubModule;
+import com.instaclustr.icarus.operations.snapshot.SnapshotModule;
 import com.instaclustr.icarus.operations.icarus.IcarusModule;
 import com.instaclustr.icarus.operations.upgradesstables.UpgradeSSTablesModule;
+import com.instaclustr.icarus.service.ManagedJmxModule;
 import com.instaclustr.icarus.service.ServicesModule;
 import com.instaclustr.jackson.JacksonModule;
 import com.instaclustr.operations.OperationsModule;
@@ -136,15 +139,15 @@ public final class Icarus extends CLIApplication implements Callable<Void> {
         return new ArrayList<AbstractModule>() {{
             add(new VersionModule(getVersion()));
             add(new ServiceManagerModule());
-            add(new CassandraModule(new CassandraJMXConnectionInfo(jmxSpec.jmxPassword,
-                                                                   jmxSpec.jmxUser,
-                                                                   jmxSpec.jmxCredentials,
-                                                                   jmxSpec.jmxServiceURL,
-                                                                   jmxSpec.trustStore,
-                                                                   jmxSpec.trustStorePassword,
-                                                                   jmxSpec.keyStore,
-                                                                   jmxSpec.keyStorePassword,
-                                                                   jmxSpec.jmxClientAuth)));
+            add(cassandraModule(new CassandraModule(new CassandraJMXConnectionInfo(jmxSpec.jmxPassword,
+                                                                                   jmxSpec.jmxUser,
+                                                                                   jmxSpec.jmxCredentials,
+                                                                                   jmxSpec.jmxServiceURL,
+                                                                                   jmxSpec.trustStore,
+                                                                                   jmxSpec.trustStorePassword,
+                                                                                   jmxSpec.keyStore,
+                                                                                   jmxSpec.keyStorePassword,
+                                                                                   jmxSpec.jmxClientAuth))));
             add(new JerseyHttpServerModule(icarusSpec.httpServerAddress, icarusSpec.disableCors));
             add(new OperationsModule(icarusSpec.operationsExpirationPeriod));
             add(new ExecutorsModule());
@@ -159,6 +162,19 @@ public final class Icarus extends CLIApplication implements Callable<Void> {
         }};
     }
 
+    private static AbstractModule cassandraModule(final CassandraModule cassandraModule) {
+        return new AbstractModule() {
+            @Override
+            protected void configure() {
+                if (ManagedJmxModule.MANAGED_JMX) {
+                    install(Modules.override(cassandraModule).with(new ManagedJmxModule()));
+                } else {
+                    install(cassandraModule);
+                }
+            }
+        };
+    }
+
     public static List<AbstractModule> backupRestoreModules(final HashSpec hashSpec) {
         return new ArrayList<AbstractModule>() {{
             add(new StorageModules());
@@ -187,6 +203,7 @@ public final class Icarus extends CLIApplication implements Callable<Void> {
             add(new RefreshModule());
             add(new FlushModule());
             add(new ImportModule());
+            add(new SnapshotModule());
         }};
     }
 
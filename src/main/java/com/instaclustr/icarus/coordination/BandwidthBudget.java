@@ -0,0 +1,110 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.measure.DataRate;
+import com.instaclustr.measure.DataRate.DataRateUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Shares a bandwidth budget of a global backup among nodes which are backing up at the moment.
+ * <p>
+ * A node is given an equal share of the budget when its backup is sent to it. Shares of nodes already backing up
+ * are changed whenever a node starts or finishes, so a node which has finished early gives its share back to the others
+ * and nodes together never get more than the budget.
+ */
+public class BandwidthBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(BandwidthBudget.class);
+
+    private final long bytesPerSecond;
+    private final Map<IcarusClient, Share> shares = new IdentityHashMap<>();
+
+    public BandwidthBudget(final long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * @return bandwidth of a node which is about to start its backup
+     */
+    public synchronized DataRate acquire(final IcarusClient client) {
+        final Share share = new Share();
+
+        shares.put(client, share);
+        share.bytesPerSecond = getShare();
+        rebalance();
+
+        return toDataRate(share.bytesPerSecond);
+    }
+
+    /**
+     * Called once a backup of a node is submitted, from then on the share of the node is changed remotely.
+     */
+    public synchronized void submitted(final IcarusClient client, final UUID operationId) {
+        final Share share = shares.get(client);
+
+        if (share != null) {
+            share.operationId = operationId;
+            rebalance();
+        }
+    }
+
+    /**
+     * Gives the share of a node back to the others.
+     */
+    public synchronized void release(final IcarusClient client) {
+        if (shares.remove(client) != null) {
+            rebalance();
+        }
+    }
+
+    private long getShare() {
+        return Math.max(1, bytesPerSecond / Math.max(1, shares.size()));
+    }
+
+    private void rebalance() {
+        final long share = getShare();
+
+        for (final Map.Entry<IcarusClient, Share> entry : shares.entrySet()) {
+            // a node which is not submitted yet has its share sent with its request, it is changed once it is submitted
+            if (entry.getValue().operationId != null && entry.getValue().bytesPerSecond != share) {
+                entry.getValue().bytesPerSecond = share;
+                entry.getValue().change(entry.getKey(), share);
+            }
+        }
+    }
+
+    private static DataRate toDataRate(final long bytesPerSecond) {
+        return new DataRate(bytesPerSecond, DataRateUnit.BPS);
+    }
+
+    private static class Share {
+
+        private long bytesPerSecond;
+        // id of a backup on a node, null until it is submitted
+        private UUID operationId;
+        // changes of a node are sent one after another so an older one does not overwrite a newer one
+        private CompletableFuture<Void> lastChange = CompletableFuture.completedFuture(null);
+
+        private void change(final IcarusClient client, final long bytesPerSecond) {
+            final UUID id = operationId;
+
+            lastChange = lastChange.handle((result, throwable) -> null).thenCompose(ignored -> client.setBandwidthAsync(id, toDataRate(bytesPerSecond)).whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    logger.warn(format("Unable to change bandwidth of backup %s on node %s to %s: %s",
+                                       id,
+                                       client.getHost(),
+                                       toDataRate(bytesPerSecond),
+                                       throwable.getMessage()));
+                }
+            }));
+        }
+    }
+}
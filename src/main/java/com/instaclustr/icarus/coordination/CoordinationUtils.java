@@ -1,24 +1,48 @@
 package com.instaclustr.icarus.coordination;
 
 import static java.lang.String.format;
+import static java.util.stream.Collectors.toSet;
 
 import java.net.InetAddress;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Sets;
 import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
 import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.instaclustr.operations.FunctionWithEx;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationRequest;
 import com.instaclustr.sidecar.picocli.SidecarSpec;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 public class CoordinationUtils {
 
+    private static final Logger logger = LoggerFactory.getLogger(CoordinationUtils.class);
+
+    /**
+     * When true, a coordinator of a global request spanning multiple DCs delegates the coordination of each DC
+     * to one sidecar in that DC and it polls only these sub-coordinators instead of every node.
+     */
+    public static final boolean HIERARCHICAL_COORDINATION = Boolean.parseBoolean(System.getProperty("icarus.coordination.hierarchical", "false"));
+
     public static Map<InetAddress, IcarusClient> constructSidecars(final ClusterTopology topology,
                                                                    final SidecarSpec icarusSpec,
-                                                                   final ObjectMapper objectMapper) {
+                                                                   final ObjectMapper objectMapper,
+                                                                   final IcarusClientTransport transport) {
 
         final String clusterName = topology.clusterName;
         final Map<InetAddress, UUID> endpoints = topology.endpoints;
@@ -41,13 +65,84 @@ public class CoordinationUtils {
                     .withPort(icarusSpec.httpServerAddress.getPort())
                     .withClusterName(clusterName)
                     .withDc(endpointDcs.get(entry.getKey()))
+                    .withRack(topology.endpointRacks == null ? null : topology.endpointRacks.get(entry.getKey()))
                     .withHostId(entry.getValue())
                     .withObjectMapper(objectMapper)
-                    .build();
+                    .build(transport);
 
             inetAddressSidecarMap.put(entry.getKey(), icarusClient);
         }
 
         return inetAddressSidecarMap;
     }
+
+    /**
+     * Runs callables asynchronously, at most maxConcurrency of them at the same time. A next callable is
+     * submitted as soon as some running one finishes, so no thread is blocked while remote operations are running.
+     *
+     * @param callables      callables to run
+     * @param maxConcurrency maximum number of callables running at the same time
+     * @param onFinish       called for every finished callable with its resulting operation
+     * @return future completed when all callables are finished
+     */
+    public static <T extends OperationRequest> CompletableFuture<Void> executeAsync(final List<? extends OperationCallable<?, T>> callables,
+                                                                                final int maxConcurrency,
+                                                                                final BiConsumer<Operation<T>, Throwable> onFinish) {
+        return executeAsync(callables, SchedulingPolicy.parallel(Math.max(1, maxConcurrency)), onFinish);
+    }
+
+    public static <T extends OperationRequest> CompletableFuture<Void> executeAsync(final List<? extends OperationCallable<?, T>> callables,
+                                                                                final SchedulingPolicy policy,
+                                                                                final BiConsumer<Operation<T>, Throwable> onFinish) {
+        return new OperationScheduler<>(callables, policy, onFinish).execute();
+    }
+
+    /**
+     * Picks a sub-coordinator for every DC of given clients. A node this sidecar runs next to is never picked as it is
+     * already coordinating, a DC where there is no other node is not in the result and it has to be coordinated directly.
+     *
+     * @param clients     clients of all nodes a global request runs against
+     * @param localHostId host id of the local node
+     * @return map of DC to a client of its sub-coordinator, empty if there is just one DC or hierarchical coordination is disabled
+     */
+    public static Map<String, IcarusClient> pickSubCoordinators(final Map<InetAddress, IcarusClient> clients, final UUID localHostId) {
+        return pickSubCoordinators(clients, localHostId, HIERARCHICAL_COORDINATION);
+    }
+
+    /**
+     * @param hierarchical whether hierarchical coordination is enabled
+     */
+    public static Map<String, IcarusClient> pickSubCoordinators(final Map<InetAddress, IcarusClient> clients,
+                                                                final UUID localHostId,
+                                                                final boolean hierarchical) {
+        final Map<String, IcarusClient> subCoordinators = new TreeMap<>();
+
+        if (!hierarchical) {
+            return subCoordinators;
+        }
+
+        final Set<String> dcs = clients.values().stream().map(IcarusClient::getDc).filter(Objects::nonNull).collect(toSet());
+
+        if (dcs.size() < 2) {
+            return subCoordinators;
+        }
+
+        clients.values().stream()
+                .filter(client -> client.getDc() != null && client.getHostId().isPresent() && !client.getHostId().get().equals(localHostId))
+                .sorted(Comparator.comparing(IcarusClient::getHost))
+                .forEach(client -> subCoordinators.putIfAbsent(client.getDc(), client));
+
+        logger.info(format("Delegating coordination of DCs to sub-coordinators %s", subCoordinators));
+
+        return subCoordinators;
+    }
+
+    public static UUID getLocalHostId(final CassandraJMXService cassandraJMXService) throws Exception {
+        return UUID.fromString(cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, String>() {
+            @Override
+            public String apply(final StorageServiceMBean object) {
+                return object.getLocalHostId();
+            }
+        }));
+    }
 }
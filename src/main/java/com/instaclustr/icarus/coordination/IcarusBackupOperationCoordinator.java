@@ -1,41 +1,76 @@
 package com.instaclustr.icarus.coordination;
 
 import static com.instaclustr.icarus.coordination.CoordinationUtils.constructSidecars;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.executeAsync;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.getLocalHostId;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.pickSubCoordinators;
 import static java.lang.String.format;
-import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import javax.inject.Provider;
+import java.io.IOException;
 import java.net.InetAddress;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import com.instaclustr.cassandra.CassandraVersion;
 import com.instaclustr.esop.guice.BackuperFactory;
 import com.instaclustr.esop.guice.BucketServiceFactory;
+import com.instaclustr.esop.impl.AbstractTracker;
 import com.instaclustr.esop.impl.BucketService;
 import com.instaclustr.esop.impl.CassandraData;
+import com.instaclustr.esop.impl.Manifest;
+import com.instaclustr.esop.impl.ManifestEntry;
+import com.instaclustr.esop.impl.Snapshots;
 import com.instaclustr.esop.impl.StorageLocation;
 import com.instaclustr.esop.impl.backup.BackupOperation;
 import com.instaclustr.esop.impl.backup.BackupOperationRequest;
 import com.instaclustr.esop.impl.backup.Backuper;
 import com.instaclustr.esop.impl.backup.UploadTracker;
+import com.instaclustr.esop.impl.backup.UploadTracker.UploadUnit;
 import com.instaclustr.esop.impl.backup.coordination.BaseBackupOperationCoordinator;
+import com.instaclustr.esop.impl.backup.coordination.ClearSnapshotOperation;
+import com.instaclustr.esop.impl.backup.coordination.ClearSnapshotOperation.ClearSnapshotOperationRequest;
+import com.instaclustr.esop.impl.backup.coordination.TakeSnapshotOperation;
+import com.instaclustr.esop.impl.backup.coordination.TakeSnapshotOperation.TakeSnapshotOperationRequest;
 import com.instaclustr.esop.impl.hash.HashSpec;
+import com.instaclustr.esop.impl.interaction.CassandraSchemaVersion;
+import com.instaclustr.esop.impl.interaction.CassandraTokens;
 import com.instaclustr.esop.topology.CassandraClusterTopology;
 import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.esop.topology.CassandraSimpleTopology;
+import com.instaclustr.esop.topology.CassandraSimpleTopology.CassandraSimpleTopologyResult;
+import com.instaclustr.icarus.operations.flush.FlushOperationRequest;
+import com.instaclustr.icarus.operations.snapshot.DeleteSnapshotOperationRequest;
+import com.instaclustr.icarus.operations.snapshot.GlobalBackupSnapshots;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperationRequest;
 import com.instaclustr.icarus.rest.IcarusClient;
 import com.instaclustr.icarus.rest.IcarusClient.OperationResult;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.instaclustr.icarus.service.ClusterTopologyService;
+import com.instaclustr.icarus.service.UploadBandwidthService;
+import com.instaclustr.measure.DataRate;
+import com.instaclustr.measure.DataRate.DataRateUnit;
 import com.instaclustr.operations.GlobalOperationProgressTracker;
 import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import com.instaclustr.operations.OperationFactory;
+import com.instaclustr.operations.OperationRequest;
 import com.instaclustr.sidecar.picocli.SidecarSpec;
-import com.instaclustr.threading.Executors.ExecutorServiceSupplier;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,10 +79,35 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
 
     private static final int MAX_NUMBER_OF_CONCURRENT_OPERATIONS = Integer.parseInt(System.getProperty("instaclustr.sidecar.operations.executor.size", "100"));
 
+    // see SchedulingPolicy#fromSystemProperties, e.g. -Dicarus.backup.scheduling=waves -Dicarus.backup.scheduling.max.per.rack=2
+    private static final String SCHEDULING_PROPERTIES_PREFIX = "icarus.backup";
+
+    /**
+     * When true, a global backup first flushes all nodes in parallel and lets them take the snapshot at the same moment,
+     * only then backups of nodes upload these snapshots, scheduled as any other global backup. A backup delegating DCs
+     * to sub-coordinators always takes snapshots this way, so all DCs end up with the snapshot of the same tag.
+     */
+    public static final boolean SNAPSHOT_BARRIER = Boolean.parseBoolean(System.getProperty("icarus.backup.snapshot.barrier", "false"));
+    // time in milliseconds between the submission of snapshots and the moment nodes take them, it has to cover submission to all nodes
+    public static final long SNAPSHOT_BARRIER_DELAY_MILLIS = Long.parseLong(System.getProperty("icarus.backup.snapshot.barrier.delay", "5000"));
+
+    /**
+     * When true, global backups this node coordinates are incremental, a node uploads only SSTable components it has not uploaded
+     * to a storage location yet, as recorded by {@link UploadedSSTableIndex}. A manifest still references all components of a snapshot
+     * so it is restored as any other. Nodes learn a backup is incremental from the snapshot the coordinator takes on them,
+     * see {@link GlobalBackupSnapshots}, so backups submitted to a node on their own are never incremental, whatever this is set to there.
+     */
+    public static final boolean INCREMENTAL = Boolean.parseBoolean(System.getProperty("icarus.backup.incremental", "false"));
+
     private static final Logger logger = LoggerFactory.getLogger(IcarusBackupOperationCoordinator.class);
 
     private final SidecarSpec icarusSpec;
-    private final ExecutorServiceSupplier executorServiceSupplier;
+    private final IcarusClientTransport icarusClientTransport;
+    private final ClusterTopologyService clusterTopologyService;
+    private final Map<Class<? extends OperationRequest>, OperationFactory<?>> operationFactories = new HashMap<>();
+    private final UploadedSSTableIndex uploadedSSTableIndex;
+    private final GlobalBackupSnapshots globalBackupSnapshots;
+    private final UploadBandwidthService uploadBandwidthService;
 
     @Inject
     public IcarusBackupOperationCoordinator(final CassandraJMXService cassandraJMXService,
@@ -55,20 +115,41 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
                                             final Map<String, BackuperFactory> backuperFactoryMap,
                                             final Map<String, BucketServiceFactory> bucketServiceFactoryMap,
                                             final SidecarSpec icarusSpec,
-                                            final ExecutorServiceSupplier executorServiceSupplier,
                                             final ObjectMapper objectMapper,
                                             final UploadTracker uploadTracker,
-                                            final HashSpec hashSpec) {
+                                            final HashSpec hashSpec,
+                                            final IcarusClientTransport icarusClientTransport,
+                                            final ClusterTopologyService clusterTopologyService,
+                                            // factories are bound raw, so they have to be injected as such
+                                            @SuppressWarnings("rawtypes") final Map<Class<? extends OperationRequest>, OperationFactory> operationFactories,
+                                            final UploadedSSTableIndex uploadedSSTableIndex,
+                                            final GlobalBackupSnapshots globalBackupSnapshots,
+                                            final UploadBandwidthService uploadBandwidthService) {
         super(cassandraJMXService, cassandraVersionProvider, backuperFactoryMap, bucketServiceFactoryMap, objectMapper, uploadTracker, hashSpec);
         this.icarusSpec = icarusSpec;
-        this.executorServiceSupplier = executorServiceSupplier;
+        this.icarusClientTransport = icarusClientTransport;
+        this.clusterTopologyService = clusterTopologyService;
+        operationFactories.forEach(this.operationFactories::put);
+        this.uploadedSSTableIndex = uploadedSSTableIndex;
+        this.globalBackupSnapshots = globalBackupSnapshots;
+        this.uploadBandwidthService = uploadBandwidthService;
     }
 
     @Override
     public void coordinate(final Operation<BackupOperationRequest> operation) {
 
         if (!operation.request.globalRequest) {
-            super.coordinate(operation);
+            // a backup dispatched by a global backup which has taken, or tried to take, its snapshot
+            final boolean dispatched = globalBackupSnapshots.contains(operation.request.snapshotTag);
+            final boolean snapshotTaken = dispatched && hasSnapshot(operation.request);
+
+            // bandwidth of a node backing up as a part of a cluster budget might be changed while it uploads
+            if (dispatched) {
+                backup(operation, !snapshotTaken, globalBackupSnapshots.isIncremental(operation.request.snapshotTag));
+            } else {
+                super.coordinate(operation);
+            }
+
             return;
         }
 
@@ -86,16 +167,22 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
         ClusterTopology topology;
 
         try {
-            topology = new CassandraClusterTopology(cassandraJMXService, operation.request.dc).act();
+            topology = clusterTopologyService.getClusterTopology(operation.request.dc);
         } catch (final Exception ex) {
             operation.addError(Operation.Error.from(ex, "Unable to get cluster topology, have you specified your credentials and connection details to jmx properly?"));
             return;
         }
 
-        final Map<InetAddress, IcarusClient> icarusClientMap = constructSidecars(topology, icarusSpec, objectMapper);
+        final Map<InetAddress, IcarusClient> icarusClientMap = constructSidecars(topology, icarusSpec, objectMapper, icarusClientTransport);
 
         logger.info("Executing backup requests against {}", icarusClientMap.toString());
 
+        // a coordinator which delegated a DC to us has taken snapshots already
+        final boolean delegated = globalBackupSnapshots.contains(operation.request.snapshotTag);
+        final boolean incremental = delegated ? globalBackupSnapshots.isIncremental(operation.request.snapshotTag) : INCREMENTAL;
+        // see UploadBandwidthService, a budget of a cluster, or of our DC when we were delegated one, is not a part of a request
+        final DataRate clusterBandwidth = uploadBandwidthService.getClusterBandwidth(operation.request);
+
         operation.request.schemaVersion = topology.schemaVersion;
         operation.request.snapshotTag = resolveSnapshotTag(operation.request, topology.timestamp);
 
@@ -141,13 +228,48 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
             return;
         }
 
-        final GlobalOperationProgressTracker progressTracker = new GlobalOperationProgressTracker(operation, numberOfOperations(icarusClientMap));
+        final UUID localHostId;
+        Map<String, IcarusClient> subCoordinators;
+
+        try {
+            localHostId = getLocalHostId(cassandraJMXService);
+            subCoordinators = pickSubCoordinators(icarusClientMap, localHostId);
+        } catch (final Exception ex) {
+            operation.addError(Operation.Error.from(ex, "Unable to resolve sub-coordinators of a backup"));
+            return;
+        }
+
+        // sub-coordinators know the tag they were delegated is resolved only once they have taken its snapshot,
+        // and nodes know their backup is incremental, or that its bandwidth might be changed, by it
+        final boolean snapshotBarrier = !delegated && (SNAPSHOT_BARRIER || incremental || clusterBandwidth != null || !subCoordinators.isEmpty());
+
+        final List<FlushOperationRequest> flushRequests = snapshotBarrier ? flushRequests(operation.request) : Collections.emptyList();
 
-        executeDistributedBackup(operation,
-                                 icarusClientMap,
-                                 backupRequestPreparation,
-                                 topology,
-                                 progressTracker);
+        final GlobalOperationProgressTracker progressTracker = new NodeProgressTracker(operation,
+                                                                                       numberOfOperations(icarusClientMap, subCoordinators)
+                                                                                           + (snapshotBarrier ? icarusClientMap.size() * (flushRequests.size() + 1) : 0));
+
+        Set<String> backedUp = Collections.emptySet();
+
+        try {
+            if (snapshotBarrier) {
+                final Set<String> failed = takeSnapshots(operation, icarusClientMap, flushRequests, incremental, progressTracker);
+
+                subCoordinators = repickSubCoordinators(subCoordinators, icarusClientMap, localHostId, failed);
+            }
+
+            backedUp = executeDistributedBackup(operation,
+                                                icarusClientMap,
+                                                subCoordinators,
+                                                backupRequestPreparation,
+                                                topology,
+                                                clusterBandwidth,
+                                                progressTracker);
+        } finally {
+            if (snapshotBarrier) {
+                clearSnapshots(operation, icarusClientMap, backedUp);
+            }
+        }
 
         if (operation.hasErrors()) {
             logger.error("Backup operation failed and it is finishing prematurely ...");
@@ -165,9 +287,354 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
         progressTracker.complete();
     }
 
-    private int numberOfOperations(final Map<InetAddress, IcarusClient> icarusWrapper) {
-        // backup requests to nodes + upload of topology
-        return icarusWrapper.size() + 1;
+    private int numberOfOperations(final Map<InetAddress, IcarusClient> icarusWrapper, final Map<String, IcarusClient> subCoordinators) {
+        // backup requests to nodes not in delegated DCs + requests to sub-coordinators + upload of topology
+        return (int) icarusWrapper.values().stream().filter(client -> !subCoordinators.containsKey(client.getDc())).count() + subCoordinators.size() + 1;
+    }
+
+    /**
+     * A sub-coordinator receives a global request limited to its DC, with snapshot name and schema version already resolved
+     * so all DCs end up with the same snapshot, and with the bucket already checked by us.
+     */
+    private Operation<BackupOperationRequest> prepareDelegation(final String dc, final BackupOperationRequest globalRequest) {
+        try {
+            final BackupOperationRequest clonedRequest = (BackupOperationRequest) globalRequest.clone();
+            clonedRequest.globalRequest = true;
+            clonedRequest.dc = dc;
+            clonedRequest.skipBucketVerification = true;
+
+            return new BackupOperation(clonedRequest);
+        } catch (final Exception ex) {
+            throw new RuntimeException(format("Unable to prepare backup operation for sub-coordinator of dc %s.", dc), ex);
+        }
+    }
+
+    @Override
+    protected String resolveSnapshotTag(final BackupOperationRequest request, final long timestamp) {
+        // request delegated to us by a coordinator of a multi-dc backup is already resolved
+        if (globalBackupSnapshots.contains(request.snapshotTag)) {
+            return request.snapshotTag;
+        }
+
+        return super.resolveSnapshotTag(request, timestamp);
+    }
+
+    /**
+     * Flushes all nodes in parallel and then lets all of them take the snapshot at the same moment, so snapshots
+     * of nodes are apart only by a clock skew instead of by the time it takes to get to a node in the upload phase.
+     * A node which has not taken its snapshot here takes it upon its backup, as if there was no barrier.
+     *
+     * @return hosts the snapshot has failed on
+     */
+    private Set<String> takeSnapshots(final Operation<BackupOperationRequest> globalOperation,
+                               final Map<InetAddress, IcarusClient> icarusClientMap,
+                               final List<FlushOperationRequest> flushRequests,
+                               final boolean incremental,
+                               final GlobalOperationProgressTracker progressTracker) {
+        final List<BarrierOperationCallable<FlushOperationRequest>> flushes = new ArrayList<>();
+
+        for (final IcarusClient client : icarusClientMap.values()) {
+            for (final FlushOperationRequest flushRequest : flushRequests) {
+                flushes.add(new BarrierOperationCallable<>(createOperation(flushRequest), globalOperation.request.timeout, client, progressTracker, "flush"));
+            }
+        }
+
+        // a snapshot flushes tables too, it is just slower when there is a lot to flush, so a failed flush is not fatal
+        executeBarrierPhase(flushes, "flush");
+
+        final Instant startAt = Instant.now().plusMillis(SNAPSHOT_BARRIER_DELAY_MILLIS);
+
+        logger.info(format("Taking snapshot %s on %s nodes at %s", globalOperation.request.snapshotTag, icarusClientMap.size(), startAt));
+
+        final List<BarrierOperationCallable<SnapshotOperationRequest>> snapshots = new ArrayList<>();
+
+        for (final IcarusClient client : icarusClientMap.values()) {
+            snapshots.add(new BarrierOperationCallable<>(createOperation(new SnapshotOperationRequest(globalOperation.request.snapshotTag,
+                                                                                                       globalOperation.request.entities,
+                                                                                                       startAt,
+                                                                                                       true,
+                                                                                                       incremental)),
+                                                         globalOperation.request.timeout,
+                                                         client,
+                                                         progressTracker,
+                                                         "snapshot"));
+        }
+
+        final Set<String> failed = executeBarrierPhase(snapshots, "snapshot");
+
+        if (!failed.isEmpty()) {
+            logger.warn(format("Snapshot %s was not taken on nodes %s, they will take it upon their backups", globalOperation.request.snapshotTag, failed));
+        }
+
+        return failed;
+    }
+
+    /**
+     * A sub-coordinator which has not taken the snapshot might not know its tag is resolved already,
+     * so it is replaced by another node of its DC which has taken it, if there is any.
+     */
+    private static Map<String, IcarusClient> repickSubCoordinators(final Map<String, IcarusClient> subCoordinators,
+                                                                   final Map<InetAddress, IcarusClient> icarusClientMap,
+                                                                   final UUID localHostId,
+                                                                   final Set<String> failed) {
+        final Map<String, IcarusClient> repicked = new TreeMap<>(subCoordinators);
+
+        for (final Map.Entry<String, IcarusClient> entry : subCoordinators.entrySet()) {
+            if (!failed.contains(entry.getValue().getHost())) {
+                continue;
+            }
+
+            icarusClientMap.values().stream()
+                    .filter(client -> entry.getKey().equals(client.getDc()))
+                    .filter(client -> !failed.contains(client.getHost()))
+                    .filter(client -> !client.getHostId().map(localHostId::equals).orElse(false))
+                    .findFirst()
+                    .ifPresent(client -> {
+                        logger.info(format("Snapshot was not taken on sub-coordinator %s of dc %s, delegating to %s instead",
+                                           entry.getValue().getHost(),
+                                           entry.getKey(),
+                                           client.getHost()));
+                        repicked.put(entry.getKey(), client);
+                    });
+        }
+
+        return repicked;
+    }
+
+    /**
+     * Deletes snapshots taken before backups from nodes which have not backed them up, a backup of a node clears its snapshot itself.
+     *
+     * @param backedUp hosts which were backed up
+     */
+    private void clearSnapshots(final Operation<BackupOperationRequest> globalOperation,
+                                final Map<InetAddress, IcarusClient> icarusClientMap,
+                                final Set<String> backedUp) {
+        final List<BarrierOperationCallable<DeleteSnapshotOperationRequest>> clears = new ArrayList<>();
+
+        for (final IcarusClient client : icarusClientMap.values()) {
+            if (backedUp.contains(client.getHost())) {
+                continue;
+            }
+
+            final Operation<DeleteSnapshotOperationRequest> clear = createOperation(new DeleteSnapshotOperationRequest(globalOperation.request.snapshotTag));
+
+            // progress of the backup is complete regardless of these
+            clears.add(new BarrierOperationCallable<>(clear, globalOperation.request.timeout, client, new GlobalOperationProgressTracker(clear, 1), "clear snapshot"));
+        }
+
+        if (clears.isEmpty()) {
+            return;
+        }
+
+        logger.info(format("Deleting snapshot %s from %s nodes which were not backed up", globalOperation.request.snapshotTag, clears.size()));
+
+        final Set<String> failed = executeBarrierPhase(clears, "clear snapshot");
+
+        if (!failed.isEmpty()) {
+            logger.warn(format("Snapshot %s was not deleted from nodes %s", globalOperation.request.snapshotTag, failed));
+        }
+    }
+
+    /**
+     * @return hosts the phase has failed on
+     */
+    private <T extends OperationRequest> Set<String> executeBarrierPhase(final List<BarrierOperationCallable<T>> callables, final String phase) {
+        try {
+            // all nodes at once, that is the point of a barrier
+            executeAsync(callables, SchedulingPolicy.parallel(0), (result, throwable) -> {}).get();
+        } catch (ExecutionException | InterruptedException ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            logger.warn(format("Unable to execute %s phase of backup: %s", phase, ex.getMessage()));
+        }
+
+        // a callable holds the operation it has finished with, one which has not run is not completed either
+        return callables.stream()
+                .filter(callable -> callable.operation.state != State.COMPLETED)
+                .map(callable -> callable.icarusClient.getHost())
+                .collect(Collectors.toSet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends OperationRequest> Operation<T> createOperation(final T request) {
+        return ((OperationFactory<T>) operationFactories.get(request.getClass())).createOperation(request);
+    }
+
+    private static List<FlushOperationRequest> flushRequests(final BackupOperationRequest request) {
+        if (request.entities == null || request.entities.areEmpty()) {
+            // all non-system keyspaces
+            return Collections.singletonList(new FlushOperationRequest(null, null));
+        }
+
+        if (request.entities.keyspacesOnly()) {
+            return request.entities.getKeyspaces().stream().map(keyspace -> new FlushOperationRequest(keyspace, null)).collect(Collectors.toList());
+        }
+
+        return request.entities.getKeyspacesAndTables().asMap().entrySet().stream()
+                .map(entry -> new FlushOperationRequest(entry.getKey(), new HashSet<>(entry.getValue())))
+                .collect(Collectors.toList());
+    }
+
+    private boolean hasSnapshot(final BackupOperationRequest request) {
+        try {
+            return Snapshots.parse(request.dataDirs, request.snapshotTag).get(request.snapshotTag).isPresent();
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to find out if there is snapshot %s: %s", request.snapshotTag, ex.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Backs up a node as the base coordinator does, except it does not take a snapshot a coordinator of a global backup
+     * has taken already and, for an incremental backup, it does not upload SSTable components uploaded by previous backups.
+     */
+    private void backup(final Operation<BackupOperationRequest> operation, final boolean takeSnapshot, final boolean incremental) {
+        final BackupOperationRequest request = operation.request;
+
+        // a snapshot is cleared only once we know its tag
+        boolean snapshotTaken = !takeSnapshot;
+
+        try {
+            if (!request.skipBucketVerification) {
+                final BucketService bucketService = bucketServiceFactoryMap.get(request.storageLocation.storageProvider).createBucketService(request);
+
+                try {
+                    bucketService.checkBucket(request.storageLocation.bucket, request.createMissingBucket);
+                } finally {
+                    bucketService.close();
+                }
+            }
+
+            CassandraData.parse(request.dataDirs.get(0)).setDatabaseEntitiesFromRequest(request.entities);
+
+            if (request.storageLocation.incompleteNodeLocation()) {
+                final CassandraSimpleTopologyResult result = new CassandraSimpleTopology(cassandraJMXService).act();
+                request.storageLocation = StorageLocation.update(request.storageLocation, result.getClusterName(), result.getDc(), result.getHostId());
+                logger.info("Storage location was updated to " + request.storageLocation.rawLocation);
+            }
+
+            final List<String> tokens = new CassandraTokens(cassandraJMXService).act();
+
+            if (takeSnapshot) {
+                if (!Snapshots.snapshotContainsTimestamp(request.snapshotTag)) {
+                    if (request.schemaVersion == null) {
+                        request.schemaVersion = new CassandraSchemaVersion(cassandraJMXService).act();
+                    }
+
+                    request.snapshotTag = resolveSnapshotTag(request, System.currentTimeMillis());
+                }
+
+                logger.info("Taking snapshot with name {}", request.snapshotTag);
+
+                snapshotTaken = true;
+
+                final TakeSnapshotOperation takeSnapshotOperation = new TakeSnapshotOperation(cassandraJMXService,
+                                                                                              new TakeSnapshotOperationRequest(request.entities, request.snapshotTag),
+                                                                                              cassandraVersionProvider);
+
+                takeSnapshotOperation.run();
+
+                if (takeSnapshotOperation.hasErrors()) {
+                    operation.addErrors(takeSnapshotOperation.errors);
+                    return;
+                }
+            } else {
+                logger.info(format("Uploading snapshot %s taken before", request.snapshotTag));
+            }
+
+            Snapshots.hashSpec = hashSpec;
+
+            final Optional<Snapshots.Snapshot> snapshot = Snapshots.parse(request.dataDirs, request.snapshotTag).get(request.snapshotTag);
+
+            if (!snapshot.isPresent()) {
+                throw new IllegalStateException(format("There is not any snapshot of tag %s", request.snapshotTag));
+            }
+
+            final Manifest manifest = Manifest.from(snapshot.get());
+            manifest.setSchemaVersion(request.schemaVersion);
+            manifest.setTokens(tokens);
+            manifest.setManifest(Manifest.getManifestAsManifestEntry(Manifest.getLocalManifestPath(request.snapshotTag), request));
+
+            final List<ManifestEntry> entries = manifest.getManifestEntries(false);
+
+            try (final Backuper backuper = backuperFactoryMap.get(request.storageLocation.storageProvider).createBackuper(request)) {
+                backuper.init(manifest.getManifestEntries(true));
+
+                final List<ManifestEntry> toUpload = incremental ? uploadedSSTableIndex.notUploaded(request.storageLocation, entries, key -> manifestExists(backuper, manifest.getManifest(), key)) : entries;
+
+                if (toUpload.size() < entries.size()) {
+                    logger.info(format("Skipping %s of %s files of snapshot %s uploaded by previous backups",
+                                       entries.size() - toUpload.size(),
+                                       entries.size(),
+                                       request.snapshotTag));
+                }
+
+                AbstractTracker.Session<UploadUnit> session = null;
+
+                try {
+                    // see UploadBandwidthService, the bandwidth of a request is divided among connections upon submission
+                    synchronized (request) {
+                        session = uploadTracker.submit(backuper, operation, toUpload, request.snapshotTag, request.concurrentConnections);
+                    }
+
+                    session.waitUntilConsideredFinished();
+                    uploadTracker.cancelIfNecessary(session);
+
+                    final List<UploadUnit> failedUnits = session.getFailedUnits();
+
+                    if (!failedUnits.isEmpty()) {
+                        throw new IOException(format("Unable to upload some files successfully: %s",
+                                                     failedUnits.stream().map(unit -> unit.getManifestEntry().objectKey.toString()).collect(Collectors.joining(","))));
+                    }
+                } finally {
+                    uploadTracker.removeSession(session);
+                }
+
+                // a manifest references skipped files too, they are in the bucket already
+                manifest.setSize(manifest.getManifestEntries(true).stream().map(entry -> entry.size).reduce(Long::sum).orElse(0L));
+
+                backuper.uploadText(objectMapper.writeValueAsString(manifest), backuper.objectKeyToNodeAwareRemoteReference(manifest.getManifest().objectKey));
+
+                if (request.uploadClusterTopology) {
+                    ClusterTopology.upload(backuper, new CassandraClusterTopology(cassandraJMXService, null).act(), objectMapper, request.snapshotTag);
+                }
+
+                if (incremental) {
+                    uploadedSSTableIndex.update(request.storageLocation, manifest.getManifest().objectKey.toString(), entries, toUpload);
+                }
+            }
+        } catch (final Exception ex) {
+            operation.addError(Operation.Error.from(ex));
+        } finally {
+            if (snapshotTaken) {
+                final ClearSnapshotOperation clearSnapshotOperation = new ClearSnapshotOperation(cassandraJMXService, new ClearSnapshotOperationRequest(request.snapshotTag));
+
+                clearSnapshotOperation.run();
+
+                operation.addErrors(clearSnapshotOperation.errors);
+            }
+
+            globalBackupSnapshots.remove(request.snapshotTag);
+        }
+    }
+
+    /**
+     * Asks for a manifest of a previous backup as a backup asks for any other file before its upload, so it is freshened when it is there.
+     *
+     * @param current entry of a manifest of the running backup, a manifest of a previous one differs only by its key
+     */
+    private static boolean manifestExists(final Backuper backuper, final ManifestEntry current, final String objectKey) {
+        try {
+            final ManifestEntry manifest = current.clone();
+            manifest.objectKey = Paths.get(objectKey);
+
+            return backuper.freshenRemoteObject(manifest, backuper.objectKeyToNodeAwareRemoteReference(manifest.objectKey)) == Backuper.FreshenResult.FRESHENED;
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to find out if there is manifest %s, files it references will be uploaded again: %s", objectKey, ex.getMessage()));
+            return false;
+        }
     }
 
     private interface BackupRequestPreparation {
@@ -175,27 +642,60 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
         Operation<BackupOperationRequest> prepare(final IcarusClient client, final BackupOperationRequest globalRequest, final ClusterTopology topology);
     }
 
-    private void executeDistributedBackup(final Operation<BackupOperationRequest> globalOperation,
+    /**
+     * @return hosts which were backed up, all hosts of a DC are backed up once its sub-coordinator has completed
+     */
+    private Set<String> executeDistributedBackup(final Operation<BackupOperationRequest> globalOperation,
                                           final Map<InetAddress, IcarusClient> icarusClientMap,
+                                          final Map<String, IcarusClient> subCoordinators,
                                           final BackupRequestPreparation requestPreparation,
                                           final ClusterTopology topology,
+                                          final DataRate clusterBandwidth,
                                           final GlobalOperationProgressTracker progressTracker) {
-        final ExecutorService executorService = executorServiceSupplier.get(MAX_NUMBER_OF_CONCURRENT_OPERATIONS);
+        final List<BackupOperationCallable> callables = new ArrayList<>();
 
         try {
-            final List<BackupOperationCallable> callables = new ArrayList<>();
+            final long budget = clusterBandwidth != null ? clusterBandwidth.asBytesPerSecond().value : 0;
+            final Map<String, Long> nodesPerDc = icarusClientMap.values().stream().collect(Collectors.groupingBy(IcarusClient::getDc, Collectors.counting()));
+            final long delegatedNodes = subCoordinators.keySet().stream().mapToLong(dc -> nodesPerDc.getOrDefault(dc, 0L)).sum();
+            final BandwidthBudget bandwidthBudget = budget > 0 ? new BandwidthBudget(share(budget, icarusClientMap.size() - delegatedNodes, icarusClientMap.size())) : null;
+
+            if (bandwidthBudget != null) {
+                logger.info(format("Sharing bandwidth budget %s among nodes backing up at the moment", clusterBandwidth));
+            }
 
             // create
 
             for (final Map.Entry<InetAddress, IcarusClient> entry : icarusClientMap.entrySet()) {
+                if (subCoordinators.containsKey(entry.getValue().getDc())) {
+                    continue;
+                }
+
                 callables.add(new BackupOperationCallable(requestPreparation.prepare(entry.getValue(), globalOperation.request, topology),
                                                           entry.getValue(),
-                                                          progressTracker));
+                                                          Collections.singleton(entry.getValue().getHost()),
+                                                          progressTracker,
+                                                          bandwidthBudget,
+                                                          null));
+            }
+
+            for (final Map.Entry<String, IcarusClient> entry : subCoordinators.entrySet()) {
+                final DataRate dcBandwidth = budget > 0 ? new DataRate(share(budget, nodesPerDc.getOrDefault(entry.getKey(), 0L), icarusClientMap.size()), DataRateUnit.BPS) : null;
+
+                callables.add(new BackupOperationCallable(prepareDelegation(entry.getKey(), globalOperation.request),
+                                                          entry.getValue(),
+                                                          icarusClientMap.values().stream()
+                                                                  .filter(client -> entry.getKey().equals(client.getDc()))
+                                                                  .map(IcarusClient::getHost)
+                                                                  .collect(Collectors.toSet()),
+                                                          progressTracker,
+                                                          null,
+                                                          dcBandwidth));
             }
 
             // submit & gather results
 
-            allOf(callables.stream().map(c -> supplyAsync(c, executorService).whenComplete((result, throwable) -> {
+            executeAsync(callables, SchedulingPolicy.fromSystemProperties(SCHEDULING_PROPERTIES_PREFIX, MAX_NUMBER_OF_CONCURRENT_OPERATIONS), (result, throwable) -> {
                 if (throwable != null) {
                     throwable.printStackTrace();
                     logger.warn(format("Backup to %s has failed. ", result.request.storageLocation));
@@ -208,25 +708,84 @@ public class IcarusBackupOperationCoordinator extends BaseBackupOperationCoordin
                 } catch (final Exception ex) {
                     logger.error(format("Unable to close a sidecar client for operation %s upon gathering results from other sidecars: %s", result.id, ex.getMessage()));
                 }
-            })).toArray(CompletableFuture<?>[]::new)).get();
+            }).get();
         } catch (ExecutionException | InterruptedException ex) {
             ex.printStackTrace();
             globalOperation.addError(Operation.Error.from(new OperationCoordinatorException("Unable to coordinate backup! " + ex.getMessage(), ex)));
-        } finally {
-            executorService.shutdownNow();
         }
+
+        return callables.stream()
+                .filter(callable -> callable.operation.state == State.COMPLETED)
+                .flatMap(callable -> callable.hosts.stream())
+                .collect(Collectors.toSet());
+    }
+
+    private static class BarrierOperationCallable<T extends OperationRequest> extends OperationCallable<Operation<T>, T> {
+
+        public BarrierOperationCallable(final Operation<T> operation,
+                                        final int timeout,
+                                        final IcarusClient icarusClient,
+                                        final GlobalOperationProgressTracker progressTracker,
+                                        final String phase) {
+            super(operation, timeout, icarusClient, progressTracker, phase);
+        }
+    }
+
+    private static long share(final long budget, final long nodes, final long allNodes) {
+        return Math.max(1, budget * nodes / Math.max(1, allNodes));
     }
 
     private static class BackupOperationCallable extends OperationCallable<BackupOperation, BackupOperationRequest> {
 
+        // hosts backed up by this operation, more of them when it is delegated to a sub-coordinator
+        private final Set<String> hosts;
+        // null when a backup is not a part of a cluster budget
+        private final BandwidthBudget bandwidthBudget;
+        // budget of a DC delegated to a sub-coordinator, null when there is not any
+        private final DataRate clusterBandwidth;
+
         public BackupOperationCallable(final Operation<BackupOperationRequest> operation,
                                        final IcarusClient icarusClient,
-                                       final GlobalOperationProgressTracker progressTracker) {
+                                       final Set<String> hosts,
+                                       final GlobalOperationProgressTracker progressTracker,
+                                       final BandwidthBudget bandwidthBudget,
+                                       final DataRate clusterBandwidth) {
             super(operation, operation.request.timeout, icarusClient, progressTracker, "backup");
+            this.hosts = hosts;
+            this.bandwidthBudget = bandwidthBudget;
+            this.clusterBandwidth = clusterBandwidth;
         }
 
+        @Override
         public OperationResult<BackupOperation> sendOperation() {
-            return super.icarusClient.backup(super.operation.request);
+            acquireBandwidth();
+            return icarusClient.performOperationSubmission(operationKey, operation.request, clusterBandwidth);
+        }
+
+        @Override
+        public CompletableFuture<OperationResult<BackupOperation>> sendOperationAsync() {
+            acquireBandwidth();
+            return icarusClient.submitAsync(operationKey, operation.request, clusterBandwidth, RETRY_POLICY);
+        }
+
+        @Override
+        protected void onSubmitted(final BackupOperation submitted) {
+            if (bandwidthBudget != null) {
+                bandwidthBudget.submitted(icarusClient, submitted.id);
+            }
+        }
+
+        @Override
+        protected void onFinished(final Operation<BackupOperationRequest> finished) {
+            if (bandwidthBudget != null) {
+                bandwidthBudget.release(icarusClient);
+            }
+        }
+
+        private void acquireBandwidth() {
+            if (bandwidthBudget != null) {
+                operation.request.bandwidth = bandwidthBudget.acquire(icarusClient);
+            }
         }
     }
 }
@@ -6,13 +6,17 @@ import static com.instaclustr.esop.impl.restore.RestorationPhase.RestorationPhas
 import static com.instaclustr.esop.impl.restore.RestorationPhase.RestorationPhaseType.INIT;
 import static com.instaclustr.esop.impl.restore.RestorationPhase.RestorationPhaseType.TRUNCATE;
 import static com.instaclustr.icarus.coordination.CoordinationUtils.constructSidecars;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.executeAsync;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.getLocalHostId;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.pickSubCoordinators;
+import static com.instaclustr.operations.Operation.State.COMPLETED;
 import static java.lang.String.format;
-import static java.util.concurrent.CompletableFuture.allOf;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import java.io.Closeable;
 import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -22,7 +26,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
@@ -36,14 +40,15 @@ import com.instaclustr.esop.impl.restore.RestorationStrategyResolver;
 import com.instaclustr.esop.impl.restore.RestoreOperation;
 import com.instaclustr.esop.impl.restore.RestoreOperationRequest;
 import com.instaclustr.esop.impl.restore.coordination.BaseRestoreOperationCoordinator;
-import com.instaclustr.esop.topology.CassandraClusterTopology;
 import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.icarus.coordination.RestoreCheckpoint.NodeCheckpoint;
 import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.instaclustr.icarus.service.ClusterTopologyService;
 import com.instaclustr.operations.GlobalOperationProgressTracker;
 import com.instaclustr.operations.Operation;
 import com.instaclustr.operations.OperationsService;
 import com.instaclustr.sidecar.picocli.SidecarSpec;
-import com.instaclustr.threading.Executors.ExecutorServiceSupplier;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,30 +57,39 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
 
     private static final Logger logger = LoggerFactory.getLogger(IcarusBackupOperationCoordinator.class);
 
+    // pipelines init and download, and import and cleanup phases of a global restore per node, see executePhases
+    private static final boolean PIPELINED_PHASES = Boolean.parseBoolean(System.getProperty("icarus.restore.pipelined", "false"));
+
     private final CassandraJMXService cassandraJMXService;
     private final SidecarSpec icarusSpec;
 
-    private final ExecutorServiceSupplier executorServiceSupplier;
     private final OperationsService operationsService;
     private final ObjectMapper objectMapper;
     private final Map<String, BucketServiceFactory> bucketServiceFactoryMap;
+    private final IcarusClientTransport icarusClientTransport;
+    private final ClusterTopologyService clusterTopologyService;
+    private final RestoreCheckpointStore restoreCheckpointStore;
 
     @Inject
     public IcarusRestoreOperationCoordinator(final Map<String, RestorerFactory> restorerFactoryMap,
                                              final RestorationStrategyResolver restorationStrategyResolver,
                                              final CassandraJMXService cassandraJMXService,
                                              final SidecarSpec icarusSpec,
-                                             final ExecutorServiceSupplier executorServiceSupplier,
                                              final OperationsService operationsService,
                                              final ObjectMapper objectMapper,
-                                             final Map<String, BucketServiceFactory> bucketServiceFactoryMap) {
+                                             final Map<String, BucketServiceFactory> bucketServiceFactoryMap,
+                                             final IcarusClientTransport icarusClientTransport,
+                                             final ClusterTopologyService clusterTopologyService,
+                                             final RestoreCheckpointStore restoreCheckpointStore) {
         super(restorerFactoryMap, restorationStrategyResolver);
         this.cassandraJMXService = cassandraJMXService;
         this.icarusSpec = icarusSpec;
-        this.executorServiceSupplier = executorServiceSupplier;
         this.operationsService = operationsService;
         this.objectMapper = objectMapper;
         this.bucketServiceFactoryMap = bucketServiceFactoryMap;
+        this.icarusClientTransport = icarusClientTransport;
+        this.clusterTopologyService = clusterTopologyService;
+        this.restoreCheckpointStore = restoreCheckpointStore;
     }
 
     @Override
@@ -168,34 +182,57 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
             throw new IllegalStateException(ex.getMessage());
         }
 
+        // a restore is either resumed from the checkpoint of a previous coordinator or it starts a new one
+        final RestoreCheckpoint checkpoint = restoreCheckpointStore.takeResume(operation.request).orElseGet(() -> new RestoreCheckpoint(operation, PIPELINED_PHASES));
+
+        if (!checkpoint.id.equals(operation.id)) {
+            logger.info(format("Resuming restore %s in operation %s, %s steps were completed before", checkpoint.id, operation.id, checkpoint.completedSteps));
+            checkpoint.operationId = operation.id;
+        }
+
+        restoreCheckpointStore.save(checkpoint);
+
         try (final IcarusWrapper icarusWrapper = new IcarusWrapper(getSidecarClients(operation.request.dc))) {
             final IcarusWrapper oneClient = getOneClient(icarusWrapper);
+            final Map<String, IcarusClient> subCoordinators = pickSubCoordinators(icarusWrapper.icarusClients, getLocalHostId(cassandraJMXService));
+            final Map<String, IcarusClient> noSubCoordinators = Collections.emptyMap();
 
-            final GlobalOperationProgressTracker progressTracker = new GlobalOperationProgressTracker(operation,
-                                                                                                      numberOfOperations(icarusWrapper, operation.request.singlePhase));
-
-            ResultSupplier[] resultSuppliers;
+            final List<Step> steps;
 
             if (operation.request.singlePhase) {
-                resultSuppliers = new ResultSupplier[]{
-                        () -> executePhase(getPhase(operation.request.restorationPhase), operation, icarusWrapper, progressTracker)
-                };
+                steps = Collections.singletonList(new Step(getPhase(operation.request.restorationPhase), icarusWrapper, subCoordinators));
+            } else if (checkpoint.pipelined) {
+                // only truncate needs all nodes to be downloaded and no node to be importing yet
+                steps = Arrays.asList(new Step(Arrays.asList(new InitPhasePreparation(), new DownloadPhasePreparation()), icarusWrapper, subCoordinators),
+                                      new Step(new TruncatePhasePreparation(), oneClient, noSubCoordinators),
+                                      new Step(Arrays.asList(new ImportingPhasePreparation(), new CleaningPhasePreparation()), icarusWrapper, subCoordinators));
             } else {
-                resultSuppliers = new ResultSupplier[]{
-                        () -> executePhase(new InitPhasePreparation(), operation, icarusWrapper, progressTracker),
-                        () -> executePhase(new DownloadPhasePreparation(), operation, icarusWrapper, progressTracker),
-                        () -> executePhase(new TruncatePhasePreparation(), operation, oneClient, progressTracker),
-                        () -> executePhase(new ImportingPhasePreparation(), operation, icarusWrapper, progressTracker),
-                        () -> executePhase(new CleaningPhasePreparation(), operation, icarusWrapper, progressTracker),
-                };
+                steps = Arrays.asList(new Step(new InitPhasePreparation(), icarusWrapper, subCoordinators),
+                                      new Step(new DownloadPhasePreparation(), icarusWrapper, subCoordinators),
+                                      new Step(new TruncatePhasePreparation(), oneClient, noSubCoordinators),
+                                      new Step(new ImportingPhasePreparation(), icarusWrapper, subCoordinators),
+                                      new Step(new CleaningPhasePreparation(), icarusWrapper, subCoordinators));
             }
 
-            for (final ResultSupplier supplier : resultSuppliers) {
-                supplier.getWithEx();
+            final GlobalOperationProgressTracker progressTracker = new NodeProgressTracker(operation, steps.stream().mapToInt(Step::numberOfOperations).sum());
+
+            for (int i = 0; i < steps.size(); i++) {
+                final Step step = steps.get(i);
+
+                if (i < checkpoint.completedSteps) {
+                    logger.info(format("Skipping %s of restore %s as it was completed before", step, checkpoint.id));
+                    progressTracker.update(step.numberOfOperations());
+                    continue;
+                }
+
+                executePhases(step.phasePreparations, operation, step.icarusWrapper, step.subCoordinators, progressTracker, checkpoint);
 
                 if (operation.hasErrors()) {
                     break;
                 }
+
+                checkpoint.stepCompleted(i);
+                restoreCheckpointStore.save(checkpoint);
             }
 
             // complete in every case
@@ -203,15 +240,46 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
         } catch (final Exception ex) {
             operation.addError(Operation.Error.from(new OperationCoordinatorException("Unable to coordinate distributed restore.", ex)));
         }
+
+        if (operation.hasErrors()) {
+            restoreCheckpointStore.save(checkpoint);
+            logger.warn(format("Restore %s has not completed, it might be resumed from its checkpoint", checkpoint.id));
+        } else {
+            restoreCheckpointStore.delete(checkpoint);
+        }
     }
 
-    private int numberOfOperations(final IcarusWrapper icarusWrapper, final boolean singlePhase) {
-        final int numberOfClients = icarusWrapper.icarusClients.size();
-        if (singlePhase) {
-            return numberOfClients;
+    /**
+     * Phases executed against given nodes, a next step starts only after the previous one is finished on all of them.
+     */
+    private static final class Step {
+
+        private final List<PhasePreparation> phasePreparations;
+        private final IcarusWrapper icarusWrapper;
+        private final Map<String, IcarusClient> subCoordinators;
+
+        private Step(final PhasePreparation phasePreparation, final IcarusWrapper icarusWrapper, final Map<String, IcarusClient> subCoordinators) {
+            this(Collections.singletonList(phasePreparation), icarusWrapper, subCoordinators);
+        }
+
+        private Step(final List<PhasePreparation> phasePreparations, final IcarusWrapper icarusWrapper, final Map<String, IcarusClient> subCoordinators) {
+            this.phasePreparations = phasePreparations;
+            this.icarusWrapper = icarusWrapper;
+            this.subCoordinators = subCoordinators;
+        }
+
+        private int numberOfOperations() {
+            // nodes of delegated DCs are reported by their sub-coordinator as one operation
+            final int numberOfClients = (int) icarusWrapper.icarusClients.values().stream().filter(client -> !subCoordinators.containsKey(client.getDc())).count()
+                    + subCoordinators.size();
+
+            return numberOfClients * phasePreparations.size();
+        }
+
+        @Override
+        public String toString() {
+            return phasePreparations.stream().map(phasePreparation -> phasePreparation.getPhaseType().toString()).collect(Collectors.joining(", ", "phases ", ""));
         }
-        // init, download, import and cleanup will be done on each node = num of clients * 4 + 1 node for truncate phase
-        return numberOfClients * 4 + 1;
     }
 
     public static class IcarusWrapper implements Closeable {
@@ -237,12 +305,6 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
         }
     }
 
-    @FunctionalInterface
-    private interface ResultSupplier {
-
-        void getWithEx() throws Exception;
-    }
-
     private IcarusWrapper getOneClient(final IcarusWrapper icarusWrapper) {
         if (icarusWrapper.icarusClients != null) {
             final Iterator<Entry<InetAddress, IcarusClient>> it = icarusWrapper.icarusClients.entrySet().iterator();
@@ -272,6 +334,23 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
             }
         }
 
+        /**
+         * Prepares a global single-phase request for a sub-coordinator of a DC.
+         */
+        Operation<RestoreOperationRequest> prepareDelegation(final String dc, final RestoreOperationRequest request) throws OperationCoordinatorException {
+            try {
+                final RestoreOperation restoreOperation = cloneOp(request);
+                restoreOperation.request.restorationPhase = getPhaseType();
+                restoreOperation.request.singlePhase = true;
+                restoreOperation.request.globalRequest = true;
+                restoreOperation.request.dc = dc;
+
+                return restoreOperation;
+            } catch (final Exception ex) {
+                throw new OperationCoordinatorException(format("Unable to prepare operation for %s phase for sub-coordinator of dc %s.", getPhaseType(), dc), ex);
+            }
+        }
+
         abstract RestorationPhaseType getPhaseType();
 
         RestoreOperation cloneOp(final RestoreOperationRequest request) throws CloneNotSupportedException {
@@ -344,30 +423,75 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
     }
 
     private Map<InetAddress, IcarusClient> getSidecarClients(final String dc) throws Exception {
-        final ClusterTopology clusterTopology = new CassandraClusterTopology(cassandraJMXService, dc).act();
-        return constructSidecars(clusterTopology, icarusSpec, objectMapper);
+        final ClusterTopology clusterTopology = clusterTopologyService.getClusterTopology(dc);
+        return constructSidecars(clusterTopology, icarusSpec, objectMapper, icarusClientTransport);
     }
 
-    private void executePhase(final PhasePreparation phasePreparation,
-                              final Operation<RestoreOperationRequest> globalOperation,
-                              final IcarusWrapper icarusWrapper,
-                              final GlobalOperationProgressTracker progressTracker) throws OperationCoordinatorException {
-        final ExecutorService executorService = executorServiceSupplier.get(MAX_NUMBER_OF_CONCURRENT_OPERATIONS);
-
+    /**
+     * Executes given phases against all nodes. Each node advances to its next phase as soon as its previous phase
+     * is finished, independently of other nodes, so there is a barrier only after all phases.
+     * <p>
+     * Nodes of a DC which has a sub-coordinator are not called directly, each phase is delegated to the sub-coordinator
+     * as a single-phase global request for its DC.
+     * <p>
+     * Phases the checkpoint knows to be completed on a node are not executed again.
+     */
+    private void executePhases(final List<PhasePreparation> phasePreparations,
+                               final Operation<RestoreOperationRequest> globalOperation,
+                               final IcarusWrapper icarusWrapper,
+                               final Map<String, IcarusClient> subCoordinators,
+                               final GlobalOperationProgressTracker progressTracker,
+                               final RestoreCheckpoint checkpoint) throws OperationCoordinatorException {
         try {
             final List<RestoreOperationCallable> callables = new ArrayList<>();
 
             // create
 
             for (final Entry<InetAddress, IcarusClient> entry : icarusWrapper.icarusClients.entrySet()) {
-                callables.add(new RestoreOperationCallable(phasePreparation.prepare(entry.getValue(), globalOperation.request),
-                                                           entry.getValue(),
-                                                           progressTracker));
+                if (subCoordinators.containsKey(entry.getValue().getDc())) {
+                    continue;
+                }
+
+                final List<RestoreOperationCallable> phases = new ArrayList<>();
+
+                for (final PhasePreparation phasePreparation : phasePreparations) {
+                    final NodeCheckpoint node = checkpoint.node(phasePreparation.getPhaseType(), entry.getValue());
+
+                    if (shouldExecute(checkpoint, node, progressTracker)) {
+                        phases.add(new RestoreOperationCallable(phasePreparation.prepare(entry.getValue(), globalOperation.request),
+                                                                entry.getValue(),
+                                                                progressTracker,
+                                                                checkpoint,
+                                                                node,
+                                                                restoreCheckpointStore));
+                    }
+                }
+
+                addCallable(callables, phases, progressTracker);
+            }
+
+            for (final Entry<String, IcarusClient> entry : subCoordinators.entrySet()) {
+                final List<RestoreOperationCallable> phases = new ArrayList<>();
+
+                for (final PhasePreparation phasePreparation : phasePreparations) {
+                    final NodeCheckpoint node = checkpoint.node(phasePreparation.getPhaseType(), entry.getValue());
+
+                    if (shouldExecute(checkpoint, node, progressTracker)) {
+                        phases.add(new RestoreOperationCallable(phasePreparation.prepareDelegation(entry.getKey(), globalOperation.request),
+                                                                entry.getValue(),
+                                                                progressTracker,
+                                                                checkpoint,
+                                                                node,
+                                                                restoreCheckpointStore));
+                    }
+                }
+
+                addCallable(callables, phases, progressTracker);
             }
 
             // submit & gather results
 
-            allOf(callables.stream().map(c -> supplyAsync(c, executorService).whenComplete((result, throwable) -> {
+            executeAsync(callables, MAX_NUMBER_OF_CONCURRENT_OPERATIONS, (result, throwable) -> {
                 if (throwable != null) {
                     throwable.printStackTrace();
                     logger.warn(format("Restore from %s has failed. ", result.request.storageLocation));
@@ -382,25 +506,107 @@ public class IcarusRestoreOperationCoordinator extends BaseRestoreOperationCoord
                 } catch (final Exception ex) {
                     logger.error(format("Unable to close a sidecar client for operation %s upon gathering results from other sidecars: %s", result.id, ex.getMessage()));
                 }
-            })).toArray(CompletableFuture<?>[]::new)).get();
+            }).get();
 
         } catch (ExecutionException | InterruptedException ex) {
             globalOperation.addError(Operation.Error.from(new OperationCoordinatorException("Unable to coordinate restoration!", ex)));
-        } finally {
-            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * @return false if a phase is completed on a node already, failed phase is executed again under a new key
+     */
+    private static boolean shouldExecute(final RestoreCheckpoint checkpoint, final NodeCheckpoint node, final GlobalOperationProgressTracker progressTracker) {
+        if (node.state == COMPLETED) {
+            progressTracker.update(1.0f);
+            return false;
+        }
+
+        if (node.state != null && node.state.isTerminalState()) {
+            checkpoint.retry(node);
+        }
+
+        return true;
+    }
+
+    private static void addCallable(final List<RestoreOperationCallable> callables,
+                                    final List<RestoreOperationCallable> phases,
+                                    final GlobalOperationProgressTracker progressTracker) {
+        if (phases.size() == 1) {
+            callables.add(phases.get(0));
+        } else if (phases.size() > 1) {
+            callables.add(new PipelinedRestoreOperationCallable(phases, progressTracker));
         }
     }
 
     private static class RestoreOperationCallable extends OperationCallable<RestoreOperation, RestoreOperationRequest> {
 
+        private final RestoreCheckpoint checkpoint;
+        private final NodeCheckpoint node;
+        private final RestoreCheckpointStore checkpointStore;
+
         public RestoreOperationCallable(final Operation<RestoreOperationRequest> operation,
                                         final IcarusClient icarusClient,
-                                        final GlobalOperationProgressTracker progressTracker) {
-            super(operation, operation.request.timeout, icarusClient, progressTracker, operation.request.restorationPhase.toString().toLowerCase());
+                                        final GlobalOperationProgressTracker progressTracker,
+                                        final RestoreCheckpoint checkpoint,
+                                        final NodeCheckpoint node,
+                                        final RestoreCheckpointStore checkpointStore) {
+            super(operation,
+                  operation.request.timeout,
+                  icarusClient,
+                  progressTracker,
+                  operation.request.restorationPhase.toString().toLowerCase(),
+                  node.operationKey(checkpoint.id));
+            this.checkpoint = checkpoint;
+            this.node = node;
+            this.checkpointStore = checkpointStore;
+        }
+
+        @Override
+        protected void onSubmitted(final RestoreOperation submitted) {
+            checkpoint.submitted(node, submitted);
+            checkpointStore.saveLater(checkpoint);
         }
 
-        public IcarusClient.OperationResult<RestoreOperation> sendOperation() {
-            return icarusClient.restore(operation.request);
+        @Override
+        protected void onFinished(final Operation<RestoreOperationRequest> finished) {
+            checkpoint.finished(node, finished);
+            checkpointStore.saveLater(checkpoint);
+        }
+    }
+
+    /**
+     * Runs restoration phases against a node one after another and stops on the first one which has not completed.
+     * Resulting operation is the one of the last executed phase.
+     */
+    private static class PipelinedRestoreOperationCallable extends RestoreOperationCallable {
+
+        private final List<RestoreOperationCallable> phases;
+
+        public PipelinedRestoreOperationCallable(final List<RestoreOperationCallable> phases,
+                                                 final GlobalOperationProgressTracker progressTracker) {
+            super(phases.get(0).operation,
+                  phases.get(0).icarusClient,
+                  progressTracker,
+                  phases.get(0).checkpoint,
+                  phases.get(0).node,
+                  phases.get(0).checkpointStore);
+            this.phases = phases;
+        }
+
+        @Override
+        public Operation<RestoreOperationRequest> get() {
+            return getAsync().join();
+        }
+
+        @Override
+        public CompletableFuture<Operation<RestoreOperationRequest>> getAsync() {
+            return inSequence(phases);
+        }
+
+        @Override
+        public void cancel() {
+            phases.forEach(OperationCallable::cancel);
         }
     }
-}
\ No newline at end of file
+}
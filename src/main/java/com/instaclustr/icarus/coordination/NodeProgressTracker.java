@@ -0,0 +1,400 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.CacheBuilder;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
+import com.instaclustr.operations.GlobalOperationProgressTracker;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import com.instaclustr.operations.OperationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Progress tracker of a global operation which, on top of the summed progress, tracks progress of every node
+ * the operation runs against. A rate of a node is compared with the median rate of all nodes in the same phase
+ * and a node far below it is flagged as a straggler, so a slow node is visible while the operation is still running.
+ * <p>
+ * Once nodes report bytes they upload or download, the global progress is weighted by these bytes instead of
+ * counting every node in every phase as one unit, and throughput and ETA of the whole transfer are computed.
+ * <p>
+ * Progress of nodes is reported in "nodes" and the transfer in "transfer" of the global operation, see {@link OperationNodesMixin}.
+ */
+public class NodeProgressTracker extends GlobalOperationProgressTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeProgressTracker.class);
+
+    // a node is a straggler when its rate is below this fraction of the median rate
+    public static final double STRAGGLER_RATIO = Double.parseDouble(System.getProperty("icarus.coordination.straggler.ratio", "0.5"));
+    // a node is not judged until it runs for this many seconds, progress right after a submission says nothing
+    public static final long STRAGGLER_GRACE_SECONDS = Long.parseLong(System.getProperty("icarus.coordination.straggler.grace", "60"));
+    // weight of a node in a phase which does not transfer anything, relative to an average node transferring files
+    public static final double NON_TRANSFER_WEIGHT = Double.parseDouble(System.getProperty("icarus.coordination.progress.non.transfer.weight", "0.01"));
+    // median of less nodes than this is not representative
+    private static final int MIN_NODES_FOR_MEDIAN = 3;
+    // throughput of a transfer is measured over this window
+    private static final long THROUGHPUT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    // keys are weak so tracked nodes are gone together with an expired operation,
+    // values must not reference their operation for the same reason
+    private static final ConcurrentMap<Operation<?>, Nodes> TRACKED = CacheBuilder.newBuilder().weakKeys().<Operation<?>, Nodes>build().asMap();
+
+    private final Operation<? extends OperationRequest> operation;
+    private final Nodes nodes;
+
+    public NodeProgressTracker(final Operation<? extends OperationRequest> operation, final int operations) {
+        super(operation, operations);
+        this.operation = operation;
+        this.nodes = new Nodes(operations);
+        TRACKED.put(operation, nodes);
+    }
+
+    /**
+     * @return progress of nodes of a global operation, null if nodes of that operation are not tracked
+     */
+    public static List<NodeProgress> getNodes(final Operation<?> operation) {
+        final Nodes nodes = TRACKED.get(operation);
+        return nodes == null ? null : nodes.get();
+    }
+
+    /**
+     * @return transfer of a global operation, null if it is not tracked or none of its nodes has reported any bytes
+     */
+    public static Transfer getTransfer(final Operation<?> operation) {
+        final Nodes nodes = TRACKED.get(operation);
+        return nodes == null ? null : nodes.getTransfer();
+    }
+
+    /**
+     * Updates the global progress by a delta which is not attributed to any node, e.g. of a node which is skipped
+     * as it has done its work already.
+     */
+    @Override
+    public synchronized void update(final float delta) {
+        final float previous = operation.progress;
+
+        super.update(delta);
+        nodes.unattributed(delta);
+
+        applyWeightedProgress(previous);
+    }
+
+    /**
+     * Updates the global progress by a delta of a node and records the current status of that node.
+     */
+    public void update(final float delta, final IcarusClient client, final String phase, final OperationStatus status) {
+        final NodeProgress straggler;
+
+        synchronized (this) {
+            final float previous = operation.progress;
+
+            super.update(delta);
+            straggler = nodes.update(client, phase, status);
+
+            applyWeightedProgress(previous);
+        }
+
+        if (straggler != null) {
+            logger.warn(format("Node %s is a straggler in phase %s, it is on %.1f%% progressing %.2f times slower than the median of other nodes",
+                               straggler.host,
+                               phase,
+                               straggler.progress * 100,
+                               straggler.slowness == null ? Double.POSITIVE_INFINITY : straggler.slowness));
+        }
+    }
+
+    public List<NodeProgress> getNodes() {
+        return nodes.get();
+    }
+
+    private void applyWeightedProgress(final float previous) {
+        final Float weighted = nodes.getWeightedProgress();
+
+        if (weighted != null) {
+            // weights change as nodes report their bytes, progress should not go back because of that
+            operation.progress = Math.max(previous, weighted);
+        }
+    }
+
+    private static final class Nodes {
+
+        // units of progress of all phases together, as the tracker was created with
+        private final int operations;
+        // keyed by phase and host of a node
+        private final Map<String, NodeProgress> nodes = new HashMap<>();
+        // transferred bytes of all nodes over time, as pairs of nanos and bytes
+        private final Deque<long[]> samples = new ArrayDeque<>();
+        private float unattributed;
+
+        private Nodes(final int operations) {
+            this.operations = operations;
+        }
+
+        synchronized void unattributed(final float delta) {
+            unattributed += delta;
+        }
+
+        /**
+         * @return copy of the updated node if it has just become a straggler, null otherwise
+         */
+        synchronized NodeProgress update(final IcarusClient client, final String phase, final OperationStatus status) {
+            final long now = System.nanoTime();
+            final NodeProgress node = nodes.computeIfAbsent(phase + "/" + client.getHost(), key -> new NodeProgress(client, phase, now));
+
+            node.state = status.state;
+            node.progress = status.progress;
+
+            if (status.totalBytes != null && status.transferredBytes != null) {
+                node.totalBytes = status.totalBytes;
+                node.transferredBytes = status.transferredBytes;
+            } else if (status.state == State.COMPLETED && node.totalBytes != null) {
+                // a node does not know about a transfer of a finished operation anymore
+                node.transferredBytes = node.totalBytes;
+            }
+
+            if (status.state != null && status.state.isTerminalState() && node.finishedNanos == 0) {
+                node.finishedNanos = now;
+            }
+
+            sampleTransferredBytes(now);
+
+            final boolean wasStraggler = node.straggler;
+
+            evaluate(now);
+
+            return node.straggler && !wasStraggler ? node.copy() : null;
+        }
+
+        synchronized List<NodeProgress> get() {
+            evaluate(System.nanoTime());
+
+            return nodes.values().stream()
+                    .sorted(Comparator.comparing((NodeProgress n) -> n.phase).thenComparing(n -> n.host))
+                    .map(NodeProgress::copy)
+                    .collect(toList());
+        }
+
+        /**
+         * A node transferring files weights as many bytes as it transfers, a node which does not transfer anything
+         * weights as an average node transferring files times {@link #NON_TRANSFER_WEIGHT}. What is not known yet,
+         * a unit of progress not attributed to any node or a node which has not been submitted to, weights as an average node seen so far.
+         *
+         * @return progress weighted by bytes, null if no node has reported any bytes
+         */
+        synchronized Float getWeightedProgress() {
+            final double averageBytes = nodes.values().stream().filter(NodeProgress::isTransferring).mapToLong(n -> n.totalBytes).average().orElse(0);
+
+            if (averageBytes == 0) {
+                return null;
+            }
+
+            double total = 0;
+            double done = 0;
+
+            for (final NodeProgress node : nodes.values()) {
+                final double weight = node.isTransferring() ? node.totalBytes : averageBytes * NON_TRANSFER_WEIGHT;
+                final double progress;
+
+                if (node.state == State.FAILED) {
+                    // a failed node will not progress anymore, as with units, it is done
+                    progress = 1.0;
+                } else if (node.isTransferring()) {
+                    progress = (double) node.transferredBytes / node.totalBytes;
+                } else {
+                    progress = node.progress;
+                }
+
+                total += weight;
+                done += weight * progress;
+            }
+
+            final double averageWeight = total / nodes.size();
+            final double notSubmitted = Math.max(0, operations - nodes.size() - unattributed);
+
+            total += (unattributed + notSubmitted) * averageWeight;
+            done += unattributed * averageWeight;
+
+            return (float) Math.min(1.0, done / total);
+        }
+
+        synchronized Transfer getTransfer() {
+            final List<NodeProgress> transferring = nodes.values().stream().filter(NodeProgress::isTransferring).collect(toList());
+
+            if (transferring.isEmpty()) {
+                return null;
+            }
+
+            final Transfer transfer = new Transfer();
+
+            transfer.totalBytes = transferring.stream().mapToLong(n -> n.totalBytes).sum();
+            transfer.transferredBytes = transferring.stream().mapToLong(n -> n.transferredBytes).sum();
+
+            if (samples.size() > 1) {
+                final double seconds = (samples.getLast()[0] - samples.getFirst()[0]) / 1e9;
+
+                if (seconds >= 1) {
+                    transfer.throughput = (samples.getLast()[1] - samples.getFirst()[1]) / seconds;
+                }
+            }
+
+            final long remaining = transferring.stream().filter(NodeProgress::isRunning).mapToLong(n -> n.totalBytes - n.transferredBytes).sum();
+
+            if (remaining > 0 && transfer.throughput != null && transfer.throughput > 0) {
+                transfer.eta = Instant.now().plusMillis((long) (remaining / transfer.throughput * 1000));
+            }
+
+            return transfer;
+        }
+
+        private void sampleTransferredBytes(final long now) {
+            samples.addLast(new long[]{now, nodes.values().stream().filter(NodeProgress::isTransferring).mapToLong(n -> n.transferredBytes).sum()});
+
+            while (samples.size() > 2 && now - samples.getFirst()[0] > THROUGHPUT_WINDOW_NANOS) {
+                samples.removeFirst();
+            }
+        }
+
+        private void evaluate(final long now) {
+            final Map<String, List<NodeProgress>> phases = nodes.values().stream().collect(groupingBy(n -> n.phase));
+
+            for (final List<NodeProgress> phase : phases.values()) {
+                for (final NodeProgress node : phase) {
+                    node.evaluateRate(now);
+                }
+
+                // failed nodes and nodes which have just started do not say anything about how fast a node should be
+                final List<Double> rates = phase.stream()
+                        .filter(n -> n.state != State.FAILED && n.elapsedSeconds(now) >= STRAGGLER_GRACE_SECONDS)
+                        .map(n -> n.rate)
+                        .sorted()
+                        .collect(toList());
+
+                final Double median = rates.size() < MIN_NODES_FOR_MEDIAN ? null : median(rates);
+
+                for (final NodeProgress node : phase) {
+                    node.evaluateSlowness(median, now);
+                }
+            }
+        }
+    }
+
+    private static double median(final List<Double> sorted) {
+        final int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    public static class Transfer {
+
+        public long totalBytes;
+        public long transferredBytes;
+        // bytes per second over the last minute
+        public Double throughput;
+        // estimated completion time of transfers which are running
+        public Instant eta;
+    }
+
+    public static class NodeProgress {
+
+        public String host;
+        public String hostId;
+        public String dc;
+        public String phase;
+        public State state;
+        public float progress;
+        public Instant startTime;
+        // progress per second since a submission to a node
+        public double rate;
+        // estimated completion time of a running node
+        public Instant eta;
+        // median rate of nodes in the same phase divided by the rate of this node, null if unknown
+        public Double slowness;
+        public boolean straggler;
+        // set only for a node which uploads or downloads files
+        public Long totalBytes;
+        public Long transferredBytes;
+        // transferred bytes per second since a submission to a node
+        public Double throughput;
+
+        private final long startNanos;
+        private long finishedNanos;
+
+        private NodeProgress(final IcarusClient client, final String phase, final long startNanos) {
+            this.host = client.getHost();
+            this.hostId = client.getHostId().map(Object::toString).orElse(null);
+            this.dc = client.getDc();
+            this.phase = phase;
+            this.startTime = Instant.now();
+            this.startNanos = startNanos;
+        }
+
+        private NodeProgress(final NodeProgress other) {
+            this.host = other.host;
+            this.hostId = other.hostId;
+            this.dc = other.dc;
+            this.phase = other.phase;
+            this.state = other.state;
+            this.progress = other.progress;
+            this.startTime = other.startTime;
+            this.rate = other.rate;
+            this.eta = other.eta;
+            this.slowness = other.slowness;
+            this.straggler = other.straggler;
+            this.totalBytes = other.totalBytes;
+            this.transferredBytes = other.transferredBytes;
+            this.throughput = other.throughput;
+            this.startNanos = other.startNanos;
+            this.finishedNanos = other.finishedNanos;
+        }
+
+        private NodeProgress copy() {
+            return new NodeProgress(this);
+        }
+
+        private boolean isTransferring() {
+            return totalBytes != null && totalBytes > 0;
+        }
+
+        private long elapsedSeconds(final long now) {
+            return TimeUnit.NANOSECONDS.toSeconds((finishedNanos == 0 ? now : finishedNanos) - startNanos);
+        }
+
+        private boolean isRunning() {
+            return state == null || !state.isTerminalState();
+        }
+
+        private void evaluateRate(final long now) {
+            final double elapsed = Math.max(1, (finishedNanos == 0 ? now : finishedNanos) - startNanos) / 1e9;
+
+            rate = progress / elapsed;
+
+            eta = isRunning() && rate > 0 ? Instant.now().plusMillis((long) ((1.0 - progress) / rate * 1000)) : null;
+
+            throughput = transferredBytes == null ? null : transferredBytes / elapsed;
+        }
+
+        private void evaluateSlowness(final Double median, final long now) {
+            if (median == null || median <= 0) {
+                slowness = null;
+                straggler = false;
+                return;
+            }
+
+            slowness = rate > 0 ? median / rate : null;
+            straggler = isRunning() && elapsedSeconds(now) >= STRAGGLER_GRACE_SECONDS && rate < median * STRAGGLER_RATIO;
+        }
+    }
+}
@@ -3,22 +3,28 @@ package com.instaclustr.icarus.coordination;
 import static com.instaclustr.operations.Operation.State.FAILED;
 import static java.lang.String.format;
 import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
-import static org.awaitility.Awaitility.await;
 
 import java.io.Closeable;
 import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 import com.instaclustr.icarus.rest.IcarusClient;
 import com.instaclustr.icarus.rest.IcarusClient.OperationResult;
+import com.instaclustr.icarus.rest.IcarusClient.ResponseStatusException;
+import com.instaclustr.icarus.rest.RetryPolicy;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
 import com.instaclustr.operations.GlobalOperationProgressTracker;
 import com.instaclustr.operations.Operation;
 import com.instaclustr.operations.Operation.State;
 import com.instaclustr.operations.OperationCoordinator.OperationCoordinatorException;
 import com.instaclustr.operations.OperationRequest;
-import org.awaitility.core.ConditionTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,18 +32,29 @@ public abstract class OperationCallable<O extends Operation<T>, T extends Operat
 
     private static final Logger logger = LoggerFactory.getLogger(OperationCallable.class);
 
+    private static final int LONG_POLL_TIMEOUT_SECONDS = 30;
+    private static final int POLL_INTERVAL_SECONDS = 5;
+    // applies to submissions and to fetches of submitted operations
+    protected static final RetryPolicy RETRY_POLICY = RetryPolicy.fromSystemProperties();
+
     protected Operation<T> operation;
     protected final int timeout;
     protected final IcarusClient icarusClient;
     private final GlobalOperationProgressTracker progressTracker;
     private final String phase;
     private final AtomicReference<Float> progress;
+    // remote operation is submitted under this key so a resubmission after a lost response does not start it twice
+    protected final String operationKey;
+    private boolean longPolling = true;
+    // id of a submitted remote operation and whether it is to be cancelled, either might come first
+    private volatile UUID remoteOperationId;
+    private volatile boolean cancelled;
 
     /**
      * @param operation       operation to execute
      * @param timeout         time to pass until an operation is in terminal state to not consider it to be failed
      * @param icarusClient    client to execute this operation wit
-     * @param progressTracker progress tracker
+     * @param progressTracker progress tracker, a {@link NodeProgressTracker} is updated with progress of the node too
      * @param phase           phase to execute this operation against
      *                        <p>
      *                        In case a a progress tracker is shared among multiple phases, it is required that the number of operations for that tracker
@@ -48,16 +65,59 @@ public abstract class OperationCallable<O extends Operation<T>, T extends Operat
                              final IcarusClient icarusClient,
                              final GlobalOperationProgressTracker progressTracker,
                              final String phase) {
+        this(operation, timeout, icarusClient, progressTracker, phase, operation.id.toString());
+    }
+
+    /**
+     * @param operationKey key to submit a remote operation under, operations submitted under the same key
+     *                     are deduplicated by a sidecar
+     */
+    public OperationCallable(final Operation<T> operation,
+                             final int timeout,
+                             final IcarusClient icarusClient,
+                             final GlobalOperationProgressTracker progressTracker,
+                             final String phase,
+                             final String operationKey) {
         this.operation = operation;
         this.icarusClient = icarusClient;
         this.progressTracker = progressTracker;
         this.phase = phase;
         this.timeout = timeout;
         this.progress = new AtomicReference<>(0.0f);
+        this.operationKey = operationKey;
+    }
 
+    /**
+     * Runs callables one after another, each of them is started only once the previous one has COMPLETED,
+     * so phases against a node are chained without waiting for other nodes.
+     *
+     * @return future of the operation of the last started callable, that is of the first one which has not completed, if any
+     */
+    public static <T extends OperationRequest> CompletableFuture<Operation<T>> inSequence(final List<? extends OperationCallable<?, T>> callables) {
+        CompletableFuture<Operation<T>> result = callables.get(0).getAsync();
+
+        for (final OperationCallable<?, T> callable : callables.subList(1, callables.size())) {
+            result = result.thenCompose(previous -> previous.state == State.COMPLETED ? callable.getAsync() : CompletableFuture.completedFuture(previous));
+        }
+
+        return result;
     }
 
-    public abstract OperationResult<O> sendOperation();
+    public OperationResult<O> sendOperation() {
+        return icarusClient.performOperationSubmission(operationKey, operation.request);
+    }
+
+    /**
+     * Called once a remote operation is submitted.
+     */
+    protected void onSubmitted(final O submitted) {
+    }
+
+    /**
+     * Called once this callable is finished, with the operation it returns.
+     */
+    protected void onFinished(final Operation<T> finished) {
+    }
 
     private float getProgressDelta(final Operation<T> operation) {
         float delta = operation.progress - progress.get();
@@ -65,68 +125,216 @@ public abstract class OperationCallable<O extends Operation<T>, T extends Operat
         return delta;
     }
 
+    private void updateProgress(final Operation<T> fetched) {
+        updateProgress(fetched, null);
+    }
+
+    /**
+     * @param status status the fetched operation was updated by, it carries bytes transferred by a node, null if there is none
+     */
+    private void updateProgress(final Operation<T> fetched, final OperationStatus status) {
+        updateProgress(getProgressDelta(fetched), status != null ? status : new OperationStatus(fetched));
+    }
+
+    private void updateProgress(final float delta, final OperationStatus status) {
+        if (progressTracker instanceof NodeProgressTracker) {
+            ((NodeProgressTracker) progressTracker).update(delta, icarusClient, phase, status);
+        } else {
+            progressTracker.update(delta);
+        }
+    }
+
     @Override
     public Operation<T> get() {
         logger.info(format("Submitting operation %s with request %s ",
                            operation.getClass().getCanonicalName(),
                            operation.request.toString()));
 
-        final OperationResult<O> operationResult = sendOperation();
-
-        logger.info(format("Sent %s operation in phase %s to node %s", operation.type, phase, icarusClient.getHost()));
-
-
         try {
-            await().timeout(timeout, HOURS).pollInterval(5, SECONDS).until(() -> {
+            final OperationResult<O> operationResult = RETRY_POLICY.execute(this::sendOperation);
 
-                try {
-                    if (operationResult.operation != null) {
-                        operation = icarusClient.getOperation(operationResult.operation.id, operation.request);
+            if (operationResult.operation == null) {
+                throw submissionFailure(operationResult);
+            }
 
-                        // even an operation returns here ok but its status if FAILED,
-                        // we do still have a progress of such operation updated to 100%
-                        // so we need to update the global progress tracked by remaining progress
+            logger.info(format("Sent %s operation in phase %s to node %s", operation.type, phase, icarusClient.getHost()));
 
-                        progressTracker.update(getProgressDelta(operation));
+            updateProgress(operationResult.operation);
 
-                        return State.TERMINAL_STATES.contains(operation.state);
-                    }
+            submitted(operationResult.operation.id);
+            onSubmitted(operationResult.operation);
+
+            final long deadline = System.nanoTime() + HOURS.toNanos(timeout);
+            int failedAttempts = 0;
 
-                    throw new OperationCoordinatorException(format("Error while fetching state of operation %s of type %s in phase %s against host %s, returned code: %s",
+            while (true) {
+                if (System.nanoTime() >= deadline) {
+                    throw new OperationCoordinatorException(format("Operation %s against node %s in phase %s has timeout-ed after %s hours",
                                                                    operation.id,
-                                                                   operation.request.type,
-                                                                   phase,
                                                                    icarusClient.getHost(),
-                                                                   operationResult.response.getStatus()));
+                                                                   phase,
+                                                                   timeout));
+                }
+
+                try {
+                    operation = fetchOperation(operationResult.operation.id);
+                    failedAttempts = 0;
+                } catch (final InterruptedException ex) {
+                    throw ex;
                 } catch (final Exception ex) {
-                    if (ex instanceof ConditionTimeoutException) {
-                        logger.warn(String.format("Operation %s against node %s in phase %s has timeout-ed after %s hours",
-                                                  operation.id,
-                                                  icarusClient.getHost(),
-                                                  phase,
-                                                  timeout));
+                    if (!RETRY_POLICY.shouldRetry(++failedAttempts, ex)) {
+                        throw ex;
                     }
 
-                    // this is reached only in case the response itself can not be fetched
-                    // if that response itself is returned but that remote operation failed,
-                    // it would be treated in try block and returned from there
-                    operation.state = FAILED;
-                    operation.completionTime = Instant.now();
+                    final long delay = RETRY_POLICY.delayMillis(failedAttempts);
+
+                    logger.warn(format("Unable to get operation %s from node %s (attempt %s of %s), retrying in %sms: %s",
+                                       operationResult.operation.id,
+                                       icarusClient.getHost(),
+                                       failedAttempts,
+                                       RETRY_POLICY.maxAttempts,
+                                       delay,
+                                       ex.getMessage()));
 
-                    operation.addError(Operation.Error.from(icarusClient.getHost(), ex));
+                    MILLISECONDS.sleep(delay);
+                    continue;
+                }
 
-                    // consider this operation to be finished when it failed
-                    // if an operation is finished on 80% and it fails, reference was
-                    // never updated so we add the remaining progress subtracting it from 100% (1.0)
-                    progressTracker.update(1.0f - progress.get());
+                // even an operation returns here ok but its status if FAILED,
+                // we do still have a progress of such operation updated to 100%
+                // so we need to update the global progress tracked by remaining progress
 
-                    return true;
+                updateProgress(operation);
+
+                if (State.TERMINAL_STATES.contains(operation.state)) {
+                    break;
                 }
-            });
-        } catch(final Exception ex) {
-            progressTracker.update(1.0f - progress.get());
+            }
+        } catch (final Exception ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            markFailed(ex);
         }
 
+        logFinished();
+
+        onFinished(operation);
+
+        return operation;
+    }
+
+    public CompletableFuture<OperationResult<O>> sendOperationAsync() {
+        return icarusClient.submitAsync(operationKey, operation.request, RETRY_POLICY);
+    }
+
+    /**
+     * Non-blocking variant of {@link #get()}. Returned future is never completed exceptionally,
+     * a failure of any kind is reflected in the state and errors of the returned operation.
+     */
+    public CompletableFuture<Operation<T>> getAsync() {
+        logger.info(format("Submitting operation %s with request %s ",
+                           operation.getClass().getCanonicalName(),
+                           operation.request.toString()));
+
+        return sendOperationAsync().thenCompose(operationResult -> {
+            if (operationResult.operation == null) {
+                throw new CompletionException(submissionFailure(operationResult));
+            }
+
+            logger.info(format("Sent %s operation in phase %s to node %s", operation.type, phase, icarusClient.getHost()));
+
+            updateProgress(operationResult.operation);
+
+            submitted(operationResult.operation.id);
+            onSubmitted(operationResult.operation);
+
+            return icarusClient.awaitTerminalAsync(operationResult.operation.id,
+                                                   operation.request,
+                                                   POLL_INTERVAL_SECONDS,
+                                                   HOURS.toSeconds(timeout),
+                                                   SECONDS,
+                                                   RETRY_POLICY,
+                                                   (fetched, status) -> updateProgress(fetched, status));
+        }).handle((finished, throwable) -> {
+            if (throwable != null) {
+                markFailed(throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable);
+            } else {
+                operation = finished;
+            }
+
+            logFinished();
+
+            onFinished(operation);
+
+            return operation;
+        });
+    }
+
+    /**
+     * Cancels a remote operation of this callable, right away when it is submitted already or once it is.
+     * This callable finishes as usual once the remote operation does.
+     */
+    public void cancel() {
+        cancelled = true;
+
+        final UUID operationId = remoteOperationId;
+
+        if (operationId != null) {
+            cancelRemote(operationId);
+        }
+    }
+
+    private void submitted(final UUID operationId) {
+        remoteOperationId = operationId;
+
+        if (cancelled) {
+            cancelRemote(operationId);
+        }
+    }
+
+    // a remote operation might be cancelled twice when it is submitted while being cancelled, which is harmless
+    private void cancelRemote(final UUID operationId) {
+        logger.info(format("Cancelling operation %s against node %s in phase %s", operationId, icarusClient.getHost(), phase));
+
+        icarusClient.cancelOperationAsync(operationId).whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                logger.warn(format("Unable to cancel operation %s against node %s: %s", operationId, icarusClient.getHost(), throwable.getMessage()));
+            }
+        });
+    }
+
+    private OperationCoordinatorException submissionFailure(final OperationResult<O> operationResult) {
+        return new OperationCoordinatorException(format("Error while submitting operation %s of type %s in phase %s against host %s, returned code: %s",
+                                                        operation.id,
+                                                        operation.request.type,
+                                                        phase,
+                                                        icarusClient.getHost(),
+                                                        operationResult.response.getStatus()));
+    }
+
+    private void markFailed(final Throwable throwable) {
+        logger.warn(throwable.getMessage());
+
+        // this is reached only in case the response itself can not be fetched or we timeout-ed
+        // if that response itself is returned but that remote operation failed,
+        // it would be treated in try block and returned from there
+        operation.state = FAILED;
+        operation.completionTime = Instant.now();
+
+        operation.addError(Operation.Error.from(icarusClient.getHost(), throwable));
+
+        // consider this operation to be finished when it failed
+        // if an operation is finished on 80% and it fails, reference was
+        // never updated so we add the remaining progress subtracting it from 100% (1.0)
+        final OperationStatus status = new OperationStatus(operation);
+        status.progress = progress.get();
+
+        updateProgress(1.0f - progress.get(), status);
+    }
+
+    private void logFinished() {
         final String logMessage = format("operation %s against node %s with hostId %s has finished with state %s.",
                                          operation.id,
                                          icarusClient.getHost(),
@@ -138,8 +346,38 @@ public abstract class OperationCallable<O extends Operation<T>, T extends Operat
         } else {
             logger.info(logMessage);
         }
+    }
 
-        return operation;
+    /**
+     * Waits for a remote operation to change by long-polling it. If the remote side does not support it,
+     * we fall back to fetching it periodically for the rest of the life of this callable.
+     * Other failures are propagated to be retried by a caller, long-polling is kept.
+     */
+    private Operation<T> fetchOperation(final UUID operationId) throws Exception {
+        if (longPolling) {
+            try {
+                return icarusClient.waitForOperationChange(operationId, operation.request, operation.state, progress.get(), LONG_POLL_TIMEOUT_SECONDS);
+            } catch (final ResponseStatusException ex) {
+                if (!IcarusClient.isUnsupported(ex.status)) {
+                    throw ex;
+                }
+
+                // 404 is returned for an unknown operation too, it is not gone if it can be fetched
+                final Operation<T> fetched = icarusClient.getOperation(operationId, operation.request);
+
+                logger.warn(format("Node %s does not support long-polling of operations, falling back to polling operation %s every %s seconds",
+                                   icarusClient.getHost(),
+                                   operationId,
+                                   POLL_INTERVAL_SECONDS));
+                longPolling = false;
+
+                return fetched;
+            }
+        }
+
+        SECONDS.sleep(POLL_INTERVAL_SECONDS);
+
+        return icarusClient.getOperation(operationId, operation.request);
     }
 
     @Override
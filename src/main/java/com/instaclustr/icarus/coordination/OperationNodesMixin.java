@@ -0,0 +1,89 @@
+package com.instaclustr.icarus.coordination;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonAppend;
+import com.fasterxml.jackson.databind.cfg.MapperConfig;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.VirtualBeanPropertyWriter;
+import com.fasterxml.jackson.databind.util.Annotations;
+import com.google.inject.Inject;
+import com.instaclustr.operations.Operation;
+
+/**
+ * Adds "nodes" with progress of every node and "transfer" with bytes transferred by all nodes to a global operation
+ * tracked by {@link NodeProgressTracker}. Other operations are serialized as they were. Both are ignored when an operation is read,
+ * e.g. when a sub-coordinator returns its global operation.
+ */
+@JsonAppend(props = {
+    @JsonAppend.Prop(value = OperationNodesMixin.NodesWriter.class, name = "nodes"),
+    @JsonAppend.Prop(value = OperationNodesMixin.TransferWriter.class, name = "transfer")
+})
+@JsonIgnoreProperties(value = {"nodes", "transfer"}, allowGetters = true)
+public abstract class OperationNodesMixin {
+
+    /**
+     * Registers this mixin on the object mapper, it is done upon the creation of an injector, before anything is serialized.
+     */
+    public static class Registration {
+
+        @Inject
+        public Registration(final ObjectMapper objectMapper) {
+            objectMapper.addMixIn(Operation.class, OperationNodesMixin.class);
+        }
+    }
+
+    public static class NodesWriter extends VirtualBeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public NodesWriter() {
+        }
+
+        private NodesWriter(final BeanPropertyDefinition propertyDefinition, final Annotations annotations, final JavaType type) {
+            super(propertyDefinition, annotations, type);
+        }
+
+        @Override
+        protected Object value(final Object bean, final JsonGenerator generator, final SerializerProvider provider) {
+            return NodeProgressTracker.getNodes((Operation<?>) bean);
+        }
+
+        @Override
+        public VirtualBeanPropertyWriter withConfig(final MapperConfig<?> config,
+                                                    final AnnotatedClass declaringClass,
+                                                    final BeanPropertyDefinition propertyDefinition,
+                                                    final JavaType type) {
+            return new NodesWriter(propertyDefinition, declaringClass.getAnnotations(), type);
+        }
+    }
+
+    public static class TransferWriter extends VirtualBeanPropertyWriter {
+
+        private static final long serialVersionUID = 1L;
+
+        public TransferWriter() {
+        }
+
+        private TransferWriter(final BeanPropertyDefinition propertyDefinition, final Annotations annotations, final JavaType type) {
+            super(propertyDefinition, annotations, type);
+        }
+
+        @Override
+        protected Object value(final Object bean, final JsonGenerator generator, final SerializerProvider provider) {
+            return NodeProgressTracker.getTransfer((Operation<?>) bean);
+        }
+
+        @Override
+        public VirtualBeanPropertyWriter withConfig(final MapperConfig<?> config,
+                                                    final AnnotatedClass declaringClass,
+                                                    final BeanPropertyDefinition propertyDefinition,
+                                                    final JavaType type) {
+            return new TransferWriter(propertyDefinition, declaringClass.getAnnotations(), type);
+        }
+    }
+}
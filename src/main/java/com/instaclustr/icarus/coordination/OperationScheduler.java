@@ -0,0 +1,288 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import com.instaclustr.icarus.coordination.SchedulingPolicy.Mode;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import com.instaclustr.operations.OperationRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs callables of a global request asynchronously, starting each of them as soon as the given
+ * {@link SchedulingPolicy} allows it. Placement of a callable is taken from DC and rack of its client.
+ * <p>
+ * Callables which may start once some other one finishes are started by the given executor, not by the thread
+ * completing the finished one, so callables completing synchronously do not start each other recursively.
+ */
+public class OperationScheduler<T extends OperationRequest> {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationScheduler.class);
+
+    private final SchedulingPolicy policy;
+    private final BiConsumer<Operation<T>, Throwable> onFinish;
+    private final Executor executor;
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private final List<OperationCallable<?, T>> pending;
+    private final List<OperationCallable<?, T>> started = new ArrayList<>();
+    private final Map<String, Integer> runningPerDc = new HashMap<>();
+    private final Map<String, Integer> runningPerRack = new HashMap<>();
+    // callables which are either pending or running, per rack
+    private final Map<String, Integer> unfinishedPerRack = new HashMap<>();
+    // rack of a DC the current wave runs in
+    private final Map<String, String> currentRacks = new HashMap<>();
+    // callables which were not started as some other has failed
+    private final List<OperationCallable<?, T>> skipped = new ArrayList<>();
+    private boolean abortOnFailure;
+    private boolean cancelled;
+    private int running;
+    private int unfinished;
+
+    /**
+     * @param callables callables to run
+     * @param policy    limits to respect
+     * @param onFinish  called for every finished callable with its resulting operation
+     */
+    public OperationScheduler(final List<? extends OperationCallable<?, T>> callables,
+                              final SchedulingPolicy policy,
+                              final BiConsumer<Operation<T>, Throwable> onFinish) {
+        this(callables, policy, onFinish, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor starts callables once some running one finishes
+     */
+    public OperationScheduler(final List<? extends OperationCallable<?, T>> callables,
+                              final SchedulingPolicy policy,
+                              final BiConsumer<Operation<T>, Throwable> onFinish,
+                              final Executor executor) {
+        this.policy = policy;
+        this.onFinish = onFinish;
+        this.executor = executor;
+        this.pending = new LinkedList<>(callables);
+
+        if (policy.mode == Mode.WAVES) {
+            // so a wave of a DC consists of the first rack still having some pending callables
+            this.pending.sort(Comparator.comparing((OperationCallable<?, T> c) -> dc(c)).thenComparing(OperationScheduler::rack));
+        }
+
+        for (final OperationCallable<?, T> callable : this.pending) {
+            unfinishedPerRack.merge(rackKey(callable), 1, Integer::sum);
+        }
+
+        this.unfinished = this.pending.size();
+    }
+
+    /**
+     * @param abortOnFailure when true, no other callable is started once some callable fails, running ones are let to finish
+     */
+    public OperationScheduler<T> abortOnFailure(final boolean abortOnFailure) {
+        this.abortOnFailure = abortOnFailure;
+        return this;
+    }
+
+    /**
+     * @return callables which were not started because some other has failed
+     */
+    public synchronized List<OperationCallable<?, T>> getSkipped() {
+        return new ArrayList<>(skipped);
+    }
+
+    /**
+     * Starts no other callable and cancels operations of the running ones. Returned future of {@link #execute()}
+     * completes once their operations finish. Callables which are not started are not skipped due to a failure,
+     * so they are not among {@link #getSkipped()}.
+     */
+    public void cancel() {
+        final List<OperationCallable<?, T>> running;
+
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+
+            cancelled = true;
+
+            logger.info(format("Cancelling %s running operations, %s operations are not started", started.size(), pending.size()));
+
+            dropPending();
+            running = new ArrayList<>(started);
+        }
+
+        running.forEach(OperationCallable::cancel);
+
+        // nothing might be running anymore to complete the result
+        synchronized (this) {
+            if (unfinished == 0) {
+                result.complete(null);
+            }
+        }
+    }
+
+    /**
+     * @return future completed when all callables are finished
+     */
+    public CompletableFuture<Void> execute() {
+        logger.info(format("Scheduling %s operations with %s", unfinished, policy));
+
+        if (unfinished == 0) {
+            result.complete(null);
+        } else {
+            startRunnable();
+        }
+
+        return result;
+    }
+
+    private void startRunnable() {
+        for (final OperationCallable<?, T> callable : pickRunnable()) {
+            start(callable).whenComplete((operation, throwable) -> {
+                try {
+                    onFinish.accept(operation, throwable);
+                } catch (final Exception ex) {
+                    logger.error(format("Unable to process result of operation against %s", callable.icarusClient.getHost()), ex);
+                }
+
+                if (abortOnFailure && (throwable != null || operation == null || operation.state == State.FAILED)) {
+                    abort(callable);
+                }
+
+                if (finished(callable)) {
+                    result.complete(null);
+                    return;
+                }
+
+                try {
+                    executor.execute(this::startRunnable);
+                } catch (final Exception ex) {
+                    logger.error("Unable to start next operations", ex);
+                    result.completeExceptionally(ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return future of a started callable, failed one if it has thrown before returning any,
+     * so it is finished as any other failed callable
+     */
+    private CompletableFuture<Operation<T>> start(final OperationCallable<?, T> callable) {
+        try {
+            return callable.getAsync();
+        } catch (final Exception ex) {
+            final CompletableFuture<Operation<T>> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+    }
+
+    private synchronized List<OperationCallable<?, T>> pickRunnable() {
+        final List<OperationCallable<?, T>> runnable = new ArrayList<>();
+        final Iterator<OperationCallable<?, T>> iterator = pending.iterator();
+
+        while (iterator.hasNext() && (policy.maxConcurrent <= 0 || running < policy.maxConcurrent)) {
+            final OperationCallable<?, T> callable = iterator.next();
+            final String dc = dc(callable);
+            final String rack = rackKey(callable);
+
+            if (policy.mode == Mode.WAVES) {
+                final String currentRack = currentRacks.get(dc);
+
+                if (currentRack == null) {
+                    logger.info(format("Starting wave of rack %s in dc %s", rack(callable), dc));
+                    currentRacks.put(dc, rack);
+                } else if (!currentRack.equals(rack)) {
+                    continue;
+                }
+            }
+
+            if (policy.maxPerDc > 0 && runningPerDc.getOrDefault(dc, 0) >= policy.maxPerDc) {
+                continue;
+            }
+
+            if (policy.maxPerRack > 0 && runningPerRack.getOrDefault(rack, 0) >= policy.maxPerRack) {
+                continue;
+            }
+
+            iterator.remove();
+            started.add(callable);
+
+            running++;
+            runningPerDc.merge(dc, 1, Integer::sum);
+            runningPerRack.merge(rack, 1, Integer::sum);
+
+            runnable.add(callable);
+        }
+
+        return runnable;
+    }
+
+    private synchronized void abort(final OperationCallable<?, T> failed) {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        logger.warn(format("Operation against %s has failed, skipping operations against %s nodes which have not been started yet",
+                           failed.icarusClient.getHost(),
+                           pending.size()));
+
+        skipped.addAll(pending);
+        dropPending();
+    }
+
+    private synchronized void dropPending() {
+        for (final OperationCallable<?, T> callable : pending) {
+            unfinishedPerRack.merge(rackKey(callable), -1, Integer::sum);
+        }
+
+        unfinished -= pending.size();
+        pending.clear();
+    }
+
+    /**
+     * @return true if all callables are finished
+     */
+    private synchronized boolean finished(final OperationCallable<?, T> callable) {
+        final String dc = dc(callable);
+        final String rack = rackKey(callable);
+
+        started.remove(callable);
+
+        running--;
+        runningPerDc.merge(dc, -1, Integer::sum);
+        runningPerRack.merge(rack, -1, Integer::sum);
+
+        if (unfinishedPerRack.merge(rack, -1, Integer::sum) == 0 && rack.equals(currentRacks.get(dc))) {
+            logger.info(format("Wave of rack %s in dc %s has finished", rack(callable), dc));
+            currentRacks.remove(dc);
+        }
+
+        return --unfinished == 0;
+    }
+
+    private static String dc(final OperationCallable<?, ?> callable) {
+        return callable.icarusClient.getDc() == null ? "" : callable.icarusClient.getDc();
+    }
+
+    private static String rack(final OperationCallable<?, ?> callable) {
+        return callable.icarusClient.getRack() == null ? "" : callable.icarusClient.getRack();
+    }
+
+    private static String rackKey(final OperationCallable<?, ?> callable) {
+        return dc(callable) + ":" + rack(callable);
+    }
+}
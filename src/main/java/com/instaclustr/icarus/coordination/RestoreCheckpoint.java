@@ -0,0 +1,109 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.instaclustr.esop.impl.restore.RestorationPhase.RestorationPhaseType;
+import com.instaclustr.esop.impl.restore.RestoreOperationRequest;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+
+/**
+ * Progress of a global restore as its coordinator knows it, persisted by {@link RestoreCheckpointStore}
+ * so the restore can be resumed when the coordinator is restarted.
+ * <p>
+ * Remote operations are submitted under keys derived from this checkpoint, so a resumed restore
+ * reattaches to operations which are still running on nodes instead of starting them again.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RestoreCheckpoint {
+
+    // id of a global operation this checkpoint was created for
+    public UUID id;
+    // id of a global operation currently coordinating the restore, differs from id once the restore was resumed
+    public UUID operationId;
+    public RestoreOperationRequest request;
+    public boolean pipelined;
+    // number of steps (a phase or pipelined phases) which are finished on all nodes
+    public int completedSteps;
+    public long timestamp;
+    // keyed by phase and host id of a node
+    public Map<String, NodeCheckpoint> nodes = new ConcurrentHashMap<>();
+
+    @JsonIgnore
+    volatile boolean deleted;
+
+    public RestoreCheckpoint() {
+    }
+
+    public RestoreCheckpoint(final Operation<RestoreOperationRequest> operation, final boolean pipelined) {
+        this.id = operation.id;
+        this.operationId = operation.id;
+        this.request = operation.request;
+        this.pipelined = pipelined;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    synchronized NodeCheckpoint node(final RestorationPhaseType phase, final IcarusClient client) {
+        final String hostId = client.getHostId().map(UUID::toString).orElse(client.getHost());
+
+        return nodes.computeIfAbsent(phase + "/" + hostId, key -> new NodeCheckpoint(phase, hostId, client.getHost()));
+    }
+
+    synchronized void submitted(final NodeCheckpoint node, final Operation<?> remoteOperation) {
+        node.remoteOperationId = remoteOperation.id;
+        node.state = remoteOperation.state;
+        node.progress = remoteOperation.progress;
+        timestamp = System.currentTimeMillis();
+    }
+
+    synchronized void finished(final NodeCheckpoint node, final Operation<?> operation) {
+        node.state = operation.state;
+        node.progress = operation.progress;
+        timestamp = System.currentTimeMillis();
+    }
+
+    synchronized void retry(final NodeCheckpoint node) {
+        node.attempt++;
+        node.remoteOperationId = null;
+        node.state = null;
+        node.progress = 0;
+    }
+
+    synchronized void stepCompleted(final int step) {
+        completedSteps = Math.max(completedSteps, step + 1);
+        timestamp = System.currentTimeMillis();
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class NodeCheckpoint {
+
+        public RestorationPhaseType phase;
+        public String hostId;
+        public String host;
+        public UUID remoteOperationId;
+        public State state;
+        public float progress;
+        // increased when a failed phase is run again, so it is not reattached to the failed remote operation
+        public int attempt;
+
+        public NodeCheckpoint() {
+        }
+
+        NodeCheckpoint(final RestorationPhaseType phase, final String hostId, final String host) {
+            this.phase = phase;
+            this.hostId = hostId;
+            this.host = host;
+        }
+
+        String operationKey(final UUID checkpointId) {
+            return format("%s-%s-%s-%s", checkpointId, phase.toString().toLowerCase(), hostId, attempt).replaceAll("[^A-Za-z0-9._-]", "_");
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.esop.impl.restore.RestoreOperationRequest;
+import com.instaclustr.operations.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists checkpoints of global restores coordinated by this node, one JSON file per restore.
+ * <p>
+ * A checkpoint is saved right away when a step of a restore is finished. Changes of single nodes are frequent,
+ * so they are only marked and flushed periodically. A checkpoint is deleted when its restore completes successfully,
+ * a failed restore keeps it so it can be resumed.
+ */
+@Singleton
+public class RestoreCheckpointStore extends AbstractScheduledService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestoreCheckpointStore.class);
+
+    // checkpoints have to survive a restart of a node, so they are not kept in a temporary directory by default
+    public static final Path CHECKPOINT_DIR = Paths.get(System.getProperty("icarus.restore.checkpoint.dir", "/var/lib/icarus/checkpoints"));
+    public static final int FLUSH_INTERVAL_MILLIS = Integer.parseInt(System.getProperty("icarus.restore.checkpoint.flush.interval", "1000"));
+
+    private final ObjectMapper objectMapper;
+    private final Path checkpointDir;
+    private final Set<RestoreCheckpoint> dirty = ConcurrentHashMap.newKeySet();
+    // checkpoints to resume from, by a request of an operation resuming it
+    private final Map<RestoreOperationRequest, RestoreCheckpoint> resumes = Collections.synchronizedMap(new IdentityHashMap<>());
+    // held while a checkpoint is claimed by an operation resuming it
+    private final Object resumeLock = new Object();
+
+    @Inject
+    public RestoreCheckpointStore(final ObjectMapper objectMapper) {
+        this(objectMapper, CHECKPOINT_DIR);
+    }
+
+    public RestoreCheckpointStore(final ObjectMapper objectMapper, final Path checkpointDir) {
+        this.objectMapper = objectMapper;
+        this.checkpointDir = checkpointDir;
+    }
+
+    /**
+     * Saves a checkpoint now. A failure to save it is only logged as it should not fail a restore itself.
+     */
+    public void save(final RestoreCheckpoint checkpoint) {
+        dirty.remove(checkpoint);
+
+        // held while writing too so concurrent saves of the same checkpoint do not interleave
+        synchronized (checkpoint) {
+            if (checkpoint.deleted) {
+                return;
+            }
+
+            try {
+                Files.createDirectories(checkpointDir);
+
+                final Path checkpointFile = getCheckpointFile(checkpoint.id);
+                final Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+
+                Files.write(tempFile, objectMapper.writeValueAsBytes(checkpoint));
+                Files.move(tempFile, checkpointFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            } catch (final Exception ex) {
+                logger.warn(format("Unable to save checkpoint of restore %s: %s", checkpoint.id, ex.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Marks a checkpoint to be saved by the next periodic flush.
+     */
+    public void saveLater(final RestoreCheckpoint checkpoint) {
+        dirty.add(checkpoint);
+    }
+
+    public void delete(final RestoreCheckpoint checkpoint) {
+        synchronized (checkpoint) {
+            checkpoint.deleted = true;
+        }
+
+        dirty.remove(checkpoint);
+
+        try {
+            Files.deleteIfExists(getCheckpointFile(checkpoint.id));
+        } catch (final IOException ex) {
+            logger.warn(format("Unable to delete checkpoint of restore %s: %s", checkpoint.id, ex.getMessage()));
+        }
+    }
+
+    public Optional<RestoreCheckpoint> load(final UUID id) {
+        final Path checkpointFile = getCheckpointFile(id);
+
+        if (!Files.exists(checkpointFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(checkpointFile.toFile(), RestoreCheckpoint.class));
+        } catch (final IOException ex) {
+            throw new IllegalStateException(format("Unable to read checkpoint %s", checkpointFile), ex);
+        }
+    }
+
+    public List<RestoreCheckpoint> list() {
+        final List<RestoreCheckpoint> checkpoints = new ArrayList<>();
+
+        if (!Files.isDirectory(checkpointDir)) {
+            return checkpoints;
+        }
+
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(checkpointDir, "*.json")) {
+            for (final Path checkpointFile : stream) {
+                try {
+                    checkpoints.add(objectMapper.readValue(checkpointFile.toFile(), RestoreCheckpoint.class));
+                } catch (final IOException ex) {
+                    logger.warn(format("Unable to read checkpoint %s: %s", checkpointFile, ex.getMessage()));
+                }
+            }
+        } catch (final IOException ex) {
+            throw new IllegalStateException(format("Unable to list checkpoints in %s", checkpointDir), ex);
+        }
+
+        return checkpoints;
+    }
+
+    /**
+     * Makes a global restore operation with the given request resume from the given checkpoint.
+     * The request has to be the very instance the operation is submitted with.
+     */
+    public void registerResume(final RestoreOperationRequest request, final RestoreCheckpoint checkpoint) {
+        resumes.put(request, checkpoint);
+    }
+
+    /**
+     * Submits an operation resuming a restore from the checkpoint of the given id, unless some operation
+     * still coordinates that restore. A checkpoint is claimed by the submitted operation atomically,
+     * so concurrent resumes of the same restore do not start it twice.
+     *
+     * @param id         id of a checkpoint
+     * @param operations resolves an operation by its id
+     * @param submit     submits an operation with the given request
+     * @return operation coordinating the restore, empty when there is no checkpoint of the given id
+     */
+    public Optional<Resumption> resume(final UUID id,
+                                       final Function<UUID, Optional<Operation<?>>> operations,
+                                       final Function<RestoreOperationRequest, Operation<?>> submit) {
+        synchronized (resumeLock) {
+            final Optional<RestoreCheckpoint> checkpoint = load(id);
+
+            if (!checkpoint.isPresent()) {
+                return Optional.empty();
+            }
+
+            final Optional<Operation<?>> coordinating = operations.apply(checkpoint.get().operationId);
+
+            if (coordinating.isPresent() && !coordinating.get().state.isTerminalState()) {
+                return Optional.of(new Resumption(coordinating.get(), false));
+            }
+
+            registerResume(checkpoint.get().request, checkpoint.get());
+
+            final Operation<?> operation;
+
+            try {
+                operation = submit.apply(checkpoint.get().request);
+            } catch (final RuntimeException ex) {
+                resumes.remove(checkpoint.get().request);
+                throw ex;
+            }
+
+            // saved before the lock is released so a concurrent resume sees the restore is coordinated already
+            checkpoint.get().operationId = operation.id;
+            save(checkpoint.get());
+
+            return Optional.of(new Resumption(operation, true));
+        }
+    }
+
+    public Optional<RestoreCheckpoint> takeResume(final RestoreOperationRequest request) {
+        return Optional.ofNullable(resumes.remove(request));
+    }
+
+    @Override
+    protected void runOneIteration() {
+        for (final RestoreCheckpoint checkpoint : dirty) {
+            save(checkpoint);
+        }
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, MILLISECONDS);
+    }
+
+    @Override
+    protected void shutDown() {
+        runOneIteration();
+    }
+
+    private Path getCheckpointFile(final UUID id) {
+        return checkpointDir.resolve(id + ".json");
+    }
+
+    public static class Resumption {
+
+        public final Operation<?> operation;
+        // false when an operation which already coordinates the restore was returned
+        public final boolean resumed;
+
+        public Resumption(final Operation<?> operation, final boolean resumed) {
+            this.operation = operation;
+            this.resumed = resumed;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.instaclustr.icarus.coordination;
+
+import static com.google.inject.util.Types.newParameterizedType;
+import static com.instaclustr.icarus.coordination.CoordinationUtils.constructSidecars;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.inject.Inject;
+import com.google.inject.TypeLiteral;
+import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.instaclustr.icarus.service.ClusterTopologyService;
+import com.instaclustr.operations.GlobalOperationProgressTracker;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationCoordinator;
+import com.instaclustr.operations.OperationFactory;
+import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.sidecar.picocli.SidecarSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rolls an operation of a global {@link RollingOperationRequest} through all nodes of a cluster, or of one DC.
+ * <p>
+ * Nodes of each DC are processed rack by rack as in "waves" of {@link SchedulingPolicy}, at most
+ * {@link RollingOperationRequest#concurrency} nodes of a rack at the same time. Unless a request says otherwise,
+ * no other node is started once the operation fails on some node, so a failing operation does not roll through the whole cluster.
+ */
+public class RollingOperationCoordinator<T extends RollingOperationRequest> extends OperationCoordinator<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingOperationCoordinator.class);
+
+    private static final int MAX_NUMBER_OF_CONCURRENT_OPERATIONS = Integer.parseInt(System.getProperty("instaclustr.sidecar.operations.executor.size", "100"));
+    // time in hours after which an operation against a node is considered to be failed
+    private static final int TIMEOUT_HOURS = Integer.parseInt(System.getProperty("icarus.coordination.rolling.timeout", "24"));
+    // how often it is checked whether an operation was closed while its operations against nodes run
+    private static final long CANCEL_CHECK_INTERVAL_MILLIS = 1000;
+
+    private final SidecarSpec icarusSpec;
+    private final ObjectMapper objectMapper;
+    private final IcarusClientTransport icarusClientTransport;
+    private final ClusterTopologyService clusterTopologyService;
+    private final Map<Class<? extends OperationRequest>, OperationFactory<?>> operationFactories = new HashMap<>();
+
+    @Inject
+    public RollingOperationCoordinator(final SidecarSpec icarusSpec,
+                                       final ObjectMapper objectMapper,
+                                       final IcarusClientTransport icarusClientTransport,
+                                       final ClusterTopologyService clusterTopologyService,
+                                       // factories are bound raw, so they have to be injected as such
+                                       @SuppressWarnings("rawtypes") final Map<Class<? extends OperationRequest>, OperationFactory> operationFactories) {
+        this.icarusSpec = icarusSpec;
+        this.objectMapper = objectMapper;
+        this.icarusClientTransport = icarusClientTransport;
+        this.clusterTopologyService = clusterTopologyService;
+        operationFactories.forEach(this.operationFactories::put);
+    }
+
+    /**
+     * @return type of a coordinator of operations with given request, to declare and bind optional coordinators with
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends OperationRequest> TypeLiteral<OperationCoordinator<T>> coordinatorType(final Class<T> requestClass) {
+        return (TypeLiteral<OperationCoordinator<T>>) TypeLiteral.get(newParameterizedType(OperationCoordinator.class, requestClass));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T extends RollingOperationRequest> TypeLiteral<RollingOperationCoordinator<T>> rollingCoordinatorType(final Class<T> requestClass) {
+        return (TypeLiteral<RollingOperationCoordinator<T>>) TypeLiteral.get(newParameterizedType(RollingOperationCoordinator.class, requestClass));
+    }
+
+    @Override
+    public void coordinate(final Operation<T> operation) throws OperationCoordinatorException {
+        final ClusterTopology topology;
+
+        try {
+            topology = clusterTopologyService.getClusterTopology(operation.request.dc);
+        } catch (final Exception ex) {
+            operation.addError(Operation.Error.from(ex, "Unable to get cluster topology, have you specified your credentials and connection details to jmx properly?"));
+            return;
+        }
+
+        final Map<InetAddress, IcarusClient> icarusClientMap = constructSidecars(topology, icarusSpec, objectMapper, icarusClientTransport);
+
+        if (icarusClientMap.isEmpty()) {
+            throw new OperationCoordinatorException(format("There is not any node to run %s operation against", operation.request.type));
+        }
+
+        logger.info(format("Rolling %s operation through %s nodes, %s node(s) of a rack at a time",
+                           operation.request.type,
+                           icarusClientMap.size(),
+                           operation.request.concurrency));
+
+        final GlobalOperationProgressTracker progressTracker = new NodeProgressTracker(operation, icarusClientMap.size());
+
+        final List<RollingOperationCallable<T>> callables = new ArrayList<>();
+
+        for (final IcarusClient client : icarusClientMap.values()) {
+            callables.add(new RollingOperationCallable<>(prepare(operation.request), client, progressTracker));
+        }
+
+        final OperationScheduler<T> scheduler = new OperationScheduler<T>(callables,
+                                                                          SchedulingPolicy.waves(MAX_NUMBER_OF_CONCURRENT_OPERATIONS, operation.request.concurrency),
+                                                                          (result, throwable) -> {
+                                                                              if (result != null) {
+                                                                                  operation.addErrors(result.errors);
+                                                                              }
+                                                                          }).abortOnFailure(!operation.request.continueOnFailure);
+
+        try {
+            await(operation, scheduler);
+        } catch (ExecutionException | InterruptedException ex) {
+            if (ex instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
+            operation.addError(Operation.Error.from(new OperationCoordinatorException(format("Unable to coordinate %s operation!", operation.request.type), ex)));
+        }
+
+        final List<String> skipped = scheduler.getSkipped().stream().map(callable -> callable.icarusClient.getHost()).collect(toList());
+
+        if (!skipped.isEmpty()) {
+            operation.addError(Operation.Error.from(new OperationCoordinatorException(format("Operation %s was not run against nodes %s as it has failed on some other node",
+                                                                                             operation.request.type,
+                                                                                             skipped))));
+        }
+
+        progressTracker.complete();
+    }
+
+    /**
+     * Waits until all operations against nodes are finished. Once the given operation is closed, as DELETE /operations/{id} does,
+     * operations against nodes are cancelled and waited for, so the global operation does not finish before them.
+     */
+    private void await(final Operation<T> operation, final OperationScheduler<T> scheduler) throws ExecutionException, InterruptedException {
+        final CompletableFuture<Void> execution = scheduler.execute();
+
+        while (true) {
+            try {
+                execution.get(CANCEL_CHECK_INTERVAL_MILLIS, MILLISECONDS);
+                return;
+            } catch (final TimeoutException ex) {
+                if (operation.getShouldCancel().get()) {
+                    scheduler.cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * A node receives the global request as a local one.
+     */
+    @SuppressWarnings("unchecked")
+    private Operation<T> prepare(final T globalRequest) {
+        try {
+            final T clonedRequest = (T) globalRequest.clone();
+            clonedRequest.globalRequest = false;
+            clonedRequest.dc = null;
+
+            return ((OperationFactory<T>) operationFactories.get(globalRequest.getClass())).createOperation(clonedRequest);
+        } catch (final CloneNotSupportedException ex) {
+            throw new IllegalStateException(format("Unable to prepare %s operation", globalRequest.type), ex);
+        }
+    }
+
+    private static class RollingOperationCallable<T extends RollingOperationRequest> extends OperationCallable<Operation<T>, T> {
+
+        public RollingOperationCallable(final Operation<T> operation,
+                                        final IcarusClient icarusClient,
+                                        final GlobalOperationProgressTracker progressTracker) {
+            super(operation, TIMEOUT_HOURS, icarusClient, progressTracker, operation.request.type);
+        }
+    }
+}
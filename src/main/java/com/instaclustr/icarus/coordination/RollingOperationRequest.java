@@ -0,0 +1,28 @@
+package com.instaclustr.icarus.coordination;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.instaclustr.operations.OperationRequest;
+
+/**
+ * Request of an operation which may be rolled through a cluster by {@link RollingOperationCoordinator}.
+ * <p>
+ * Nodes of each DC are processed rack by rack, at most {@link #concurrency} nodes of a rack at the same time,
+ * so at most one replica of any token range in a DC is busy with the operation.
+ */
+public abstract class RollingOperationRequest extends OperationRequest {
+
+    // when true, the operation is run against all nodes of a cluster, or of a DC if dc is set
+    @JsonProperty
+    public boolean globalRequest;
+
+    @JsonProperty
+    public String dc;
+
+    // number of nodes of a rack to run the operation against at the same time
+    @JsonProperty
+    public int concurrency = 1;
+
+    // when false, no other node is started once the operation fails on some node
+    @JsonProperty
+    public boolean continueOnFailure;
+}
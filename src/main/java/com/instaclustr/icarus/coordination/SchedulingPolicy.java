@@ -0,0 +1,72 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+
+/**
+ * Limits how many operations of a global request may run against nodes at the same time.
+ * <p>
+ * In "waves" mode, nodes of each DC are processed rack by rack, a next rack is started only after all nodes
+ * of the previous one are finished. As NetworkTopologyStrategy places replicas of a token range to distinct racks
+ * of a DC (as long as there is at least as many racks as replicas), at most one replica of any token range in a DC
+ * is busy at a time, so the other replicas keep serving reads at full speed.
+ */
+public class SchedulingPolicy {
+
+    public enum Mode {
+        // all nodes at once, bounded only by maxConcurrent
+        PARALLEL,
+        // rack by rack in each DC
+        WAVES
+    }
+
+    // 0 means unlimited for all limits below
+    public final int maxConcurrent;
+    public final int maxPerDc;
+    public final int maxPerRack;
+    public final Mode mode;
+
+    public SchedulingPolicy(final Mode mode, final int maxConcurrent, final int maxPerDc, final int maxPerRack) {
+        this.mode = mode;
+        this.maxConcurrent = maxConcurrent;
+        this.maxPerDc = maxPerDc;
+        this.maxPerRack = maxPerRack;
+    }
+
+    public static SchedulingPolicy parallel(final int maxConcurrent) {
+        return new SchedulingPolicy(Mode.PARALLEL, maxConcurrent, 0, 0);
+    }
+
+    public static SchedulingPolicy waves(final int maxConcurrent, final int maxPerRack) {
+        return new SchedulingPolicy(Mode.WAVES, maxConcurrent, 0, maxPerRack);
+    }
+
+    /**
+     * Resolves a policy from system properties, e.g. for prefix "icarus.backup":
+     * icarus.backup.scheduling (parallel or waves), icarus.backup.scheduling.max.per.dc and icarus.backup.scheduling.max.per.rack.
+     *
+     * @param prefix        prefix of system properties
+     * @param maxConcurrent maximum number of concurrently running operations in total
+     */
+    public static SchedulingPolicy fromSystemProperties(final String prefix, final int maxConcurrent) {
+        final String mode = System.getProperty(prefix + ".scheduling", Mode.PARALLEL.name());
+
+        try {
+            return new SchedulingPolicy(Mode.valueOf(mode.toUpperCase()),
+                                        maxConcurrent,
+                                        Integer.parseInt(System.getProperty(prefix + ".scheduling.max.per.dc", "0")),
+                                        Integer.parseInt(System.getProperty(prefix + ".scheduling.max.per.rack", "0")));
+        } catch (final IllegalArgumentException ex) {
+            throw new IllegalArgumentException(format("Invalid scheduling configuration for %s: %s", prefix, ex.getMessage()), ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulingPolicy{" +
+                "mode=" + mode +
+                ", maxConcurrent=" + maxConcurrent +
+                ", maxPerDc=" + maxPerDc +
+                ", maxPerRack=" + maxPerRack +
+                '}';
+    }
+}
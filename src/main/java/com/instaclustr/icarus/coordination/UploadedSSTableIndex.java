@@ -0,0 +1,214 @@
+package com.instaclustr.icarus.coordination;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.esop.impl.ManifestEntry;
+import com.instaclustr.esop.impl.StorageLocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers SSTable components this node has uploaded, one JSON file per storage location, so an incremental backup
+ * uploads only components which are not there yet. An object key of a component contains a hash of its SSTable,
+ * so a component of the same key, size and hash is the very same file.
+ * <p>
+ * A component is trusted to be in a bucket only while some manifest of a backup which references it is there too.
+ * A removal of backups deletes only components no remaining manifest references, so checking manifests, which are few,
+ * instead of all components is enough to notice a removal, wherever it has run. Even then a component is trusted only
+ * for a while after it was uploaded or verified, then it goes through the usual check of a remote object again,
+ * which freshens it in a bucket.
+ */
+@Singleton
+public class UploadedSSTableIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadedSSTableIndex.class);
+
+    // an index has to survive a restart of a node, otherwise the first backup after it uploads everything
+    public static final Path INDEX_DIR = Paths.get(System.getProperty("icarus.backup.index.dir", "/var/lib/icarus/upload-index"));
+    // time in hours after which an uploaded component is verified in a bucket again
+    public static final long MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(Long.parseLong(System.getProperty("icarus.backup.index.max.age", "168")));
+
+    private final ObjectMapper objectMapper;
+    private final Path indexDir;
+
+    @Inject
+    public UploadedSSTableIndex(final ObjectMapper objectMapper) {
+        this(objectMapper, INDEX_DIR);
+    }
+
+    public UploadedSSTableIndex(final ObjectMapper objectMapper, final Path indexDir) {
+        this.objectMapper = objectMapper;
+        this.indexDir = indexDir;
+    }
+
+    /**
+     * @param manifestExists tells whether a manifest of given object key is in a bucket, it is asked once for every manifest
+     * @return entries which are not known to be uploaded to a location, entries other than SSTable components are always returned
+     */
+    public synchronized List<ManifestEntry> notUploaded(final StorageLocation location,
+                                                        final List<ManifestEntry> entries,
+                                                        final Predicate<String> manifestExists) {
+        final Map<String, UploadedObject> uploaded = load(location);
+        final Map<String, Boolean> manifests = new HashMap<>();
+        final long now = System.currentTimeMillis();
+
+        return entries.stream().filter(entry -> {
+            if (entry.type != ManifestEntry.Type.FILE) {
+                return true;
+            }
+
+            final UploadedObject object = uploaded.get(entry.objectKey.toString());
+
+            if (object == null || !object.matches(entry) || now - object.verifiedAt > MAX_AGE_MILLIS) {
+                return true;
+            }
+
+            return object.manifests.stream().noneMatch(manifest -> manifests.computeIfAbsent(manifest, manifestExists::test));
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * Records components of a successful backup to a location.
+     *
+     * @param manifest object key of a manifest of a backup
+     * @param entries  all entries of a backup, they are referenced by its manifest
+     * @param uploaded entries which were uploaded or verified by a backup, the skipped ones keep the time they were verified at before
+     */
+    public synchronized void update(final StorageLocation location,
+                                    final String manifest,
+                                    final Collection<ManifestEntry> entries,
+                                    final Collection<ManifestEntry> uploaded) {
+        final Map<String, UploadedObject> previous = load(location);
+        final Map<String, UploadedObject> current = new HashMap<>();
+        final long now = System.currentTimeMillis();
+
+        // components referenced by other backups to the same location are kept until they are too old to be trusted anyway
+        previous.forEach((objectKey, object) -> {
+            if (now - object.verifiedAt <= MAX_AGE_MILLIS) {
+                current.put(objectKey, object);
+            }
+        });
+
+        final Set<String> uploadedKeys = uploaded.stream().map(entry -> entry.objectKey.toString()).collect(Collectors.toSet());
+
+        for (final ManifestEntry entry : entries) {
+            if (entry.type != ManifestEntry.Type.FILE) {
+                continue;
+            }
+
+            final String objectKey = entry.objectKey.toString();
+            final UploadedObject skipped = uploadedKeys.contains(objectKey) ? null : current.get(objectKey);
+
+            if (skipped == null) {
+                current.put(objectKey, new UploadedObject(entry.size, entry.hash, now, Collections.singleton(manifest)));
+            } else {
+                final Set<String> manifests = new HashSet<>(skipped.manifests);
+                manifests.add(manifest);
+                current.put(objectKey, new UploadedObject(skipped.size, skipped.hash, skipped.verifiedAt, manifests));
+            }
+        }
+
+        try {
+            Files.createDirectories(indexDir);
+
+            final Path indexFile = getIndexFile(location);
+            final Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+            Files.write(tempFile, objectMapper.writeValueAsBytes(new Index(location.rawLocation, current)));
+            Files.move(tempFile, indexFile, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (final Exception ex) {
+            // the next backup just uploads more than it would have to
+            logger.warn(format("Unable to save index of uploaded SSTables of %s: %s", location.rawLocation, ex.getMessage()));
+        }
+    }
+
+    private Map<String, UploadedObject> load(final StorageLocation location) {
+        final Path indexFile = getIndexFile(location);
+
+        if (!Files.exists(indexFile)) {
+            return new HashMap<>();
+        }
+
+        try {
+            return objectMapper.readValue(indexFile.toFile(), Index.class).objects;
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to read index of uploaded SSTables %s, all SSTables will be uploaded: %s", indexFile, ex.getMessage()));
+            return new HashMap<>();
+        }
+    }
+
+    private Path getIndexFile(final StorageLocation location) {
+        return indexDir.resolve(Hashing.sha256().hashString(location.rawLocation, UTF_8) + ".json");
+    }
+
+    public static class Index {
+
+        @JsonProperty
+        public final String location;
+
+        @JsonProperty
+        public final Map<String, UploadedObject> objects;
+
+        @JsonCreator
+        public Index(@JsonProperty("location") final String location,
+                     @JsonProperty("objects") final Map<String, UploadedObject> objects) {
+            this.location = location;
+            this.objects = objects == null ? new HashMap<>() : objects;
+        }
+    }
+
+    public static class UploadedObject {
+
+        @JsonProperty
+        public final long size;
+
+        @JsonProperty
+        public final String hash;
+
+        // time in millis since epoch a component was uploaded or found in a bucket at
+        @JsonProperty
+        public final long verifiedAt;
+
+        // object keys of manifests of backups which reference a component
+        @JsonProperty
+        public final Set<String> manifests;
+
+        @JsonCreator
+        public UploadedObject(@JsonProperty("size") final long size,
+                              @JsonProperty("hash") final String hash,
+                              @JsonProperty("verifiedAt") final long verifiedAt,
+                              @JsonProperty("manifests") final Set<String> manifests) {
+            this.size = size;
+            this.hash = hash;
+            this.verifiedAt = verifiedAt;
+            this.manifests = manifests == null ? Collections.emptySet() : manifests;
+        }
+
+        boolean matches(final ManifestEntry entry) {
+            return size == entry.size && hash != null && hash.equals(entry.hash);
+        }
+    }
+}
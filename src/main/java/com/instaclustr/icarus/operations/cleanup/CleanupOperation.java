@@ -1,29 +1,37 @@
 package com.instaclustr.icarus.operations.cleanup;
 
+import static java.lang.String.format;
+
 import javax.inject.Inject;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.inject.assistedinject.Assisted;
+import com.instaclustr.icarus.operations.compaction.CompactionOperation;
+import com.instaclustr.icarus.operations.compaction.CompactionType;
 import com.instaclustr.operations.FunctionWithEx;
-import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationCoordinator;
 import com.instaclustr.operations.OperationFailureException;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
 
-public class CleanupOperation extends Operation<CleanupOperationRequest> {
+public class CleanupOperation extends CompactionOperation<CleanupOperationRequest> {
     private final CassandraJMXService cassandraJMXService;
+    private final OperationCoordinator<CleanupOperationRequest> coordinator;
 
     @Inject
     public CleanupOperation(final CassandraJMXService cassandraJMXService,
+                            final Optional<OperationCoordinator<CleanupOperationRequest>> coordinator,
                             @Assisted final CleanupOperationRequest request) {
         super(request);
 
         this.cassandraJMXService = cassandraJMXService;
+        this.coordinator = coordinator.orElse(null);
     }
 
     // this constructor is not meant to be instantiated manually
@@ -38,26 +46,47 @@ public class CleanupOperation extends Operation<CleanupOperationRequest> {
                              @JsonProperty("startTime") final Instant startTime,
                              @JsonProperty("keyspace") final String keyspace,
                              @JsonProperty("tables") final Set<String> tables,
-                             @JsonProperty("jobs") final int jobs) {
+                             @JsonProperty("jobs") final int jobs,
+                             @JsonProperty("globalRequest") final boolean globalRequest,
+                             @JsonProperty("dc") final String dc,
+                             @JsonProperty("concurrency") final int concurrency,
+                             @JsonProperty("continueOnFailure") final boolean continueOnFailure) {
         super(type, id, creationTime, state, errors, progress, startTime, new CleanupOperationRequest(type,
                                                                                                       keyspace,
                                                                                                       tables,
                                                                                                       jobs));
         cassandraJMXService = null;
+        coordinator = null;
+
+        this.request.globalRequest = globalRequest;
+        this.request.dc = dc;
+        this.request.concurrency = concurrency;
+        this.request.continueOnFailure = continueOnFailure;
     }
 
     @Override
     protected void run0() throws Exception {
+        if (request.globalRequest) {
+            if (coordinator == null) {
+                throw new OperationFailureException("There is no operation coordinator.");
+            }
+
+            coordinator.coordinate(this);
+            // remote operations of a closed operation are cancelled by its coordinator
+            checkCancelled(format("%s of all nodes", request.type));
+            return;
+        }
+
         assert cassandraJMXService != null;
 
-        int result = cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Integer>() {
+        final Integer result = compact(cassandraJMXService, CompactionType.CLEANUP, request.keyspace, request.tables, () -> cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Integer>() {
             @Override
             public Integer apply(final StorageServiceMBean object) throws Exception {
                 return object.forceKeyspaceCleanup(request.jobs,
                                                    request.keyspace,
                                                    request.tables == null ? new String[]{} : request.tables.toArray(new String[]{}));
             }
-        });
+        }));
 
         switch (result) {
             case 1:
@@ -5,7 +5,7 @@ import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
-import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.icarus.coordination.RollingOperationRequest;
 
 /**
  * <pre>
@@ -51,7 +51,7 @@ import com.instaclustr.operations.OperationRequest;
  *             The keyspace followed by one or many tables
  * }</pre>
  */
-public class CleanupOperationRequest extends OperationRequest {
+public class CleanupOperationRequest extends RollingOperationRequest {
 
     public final String keyspace;
 
@@ -80,6 +80,10 @@ public class CleanupOperationRequest extends OperationRequest {
                           .add("tables", tables)
                           .add("keyspace", keyspace)
                           .add("jobs", jobs)
+                          .add("globalRequest", globalRequest)
+                          .add("dc", dc)
+                          .add("concurrency", concurrency)
+                          .add("continueOnFailure", continueOnFailure)
                           .toString();
     }
 }
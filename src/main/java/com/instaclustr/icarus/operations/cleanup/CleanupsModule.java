@@ -3,6 +3,8 @@ package com.instaclustr.icarus.operations.cleanup;
 
 import com.google.inject.AbstractModule;
 
+import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
+import static com.instaclustr.icarus.coordination.RollingOperationCoordinator.coordinatorType;
 import static com.instaclustr.operations.OperationBindings.installOperationBindings;
 
 public class CleanupsModule extends AbstractModule {
@@ -13,5 +15,8 @@ public class CleanupsModule extends AbstractModule {
                                  "cleanup",
                                  CleanupOperationRequest.class,
                                  CleanupOperation.class);
+
+        // bound to a coordinator only when running as a sidecar, see ServicesModule
+        newOptionalBinder(binder(), coordinatorType(CleanupOperationRequest.class));
     }
 }
@@ -0,0 +1,31 @@
+package com.instaclustr.icarus.operations.compaction;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Part of Cassandra's CompactionManagerMBean which is the same in Cassandra 2, 3 and 4,
+ * registered under {@link jmx.org.apache.cassandra.CassandraObjectNames.V3#COMPACTION_MANAGER}.
+ */
+public interface CompactionManagerMBean {
+
+    /**
+     * @return active compactions, each one as a map of "keyspace", "columnfamily", "completed", "total",
+     * "unit", "taskType" and "compactionId"
+     */
+    List<Map<String, String>> getCompactions();
+
+    /**
+     * Stops all active compactions of a type.
+     *
+     * @param type name of Cassandra's OperationType, like CLEANUP
+     */
+    void stopCompaction(String type);
+
+    /**
+     * Stops an active compaction, it is not there in Cassandra 2.
+     *
+     * @param compactionId "compactionId" of a compaction as returned by {@link #getCompactions()}
+     */
+    void stopCompactionById(String compactionId);
+}
@@ -0,0 +1,158 @@
+package com.instaclustr.icarus.operations.compaction;
+
+import static java.lang.String.format;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+
+import com.google.common.collect.ForwardingList;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationRequest;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+
+/**
+ * Operation which makes Cassandra compact SSTables of a keyspace in a single blocking JMX call, like cleanup, scrub
+ * or upgradesstables. Progress of the call is reported while it is in flight and closing the operation,
+ * as DELETE /operations/{id} does, stops its compactions so the call returns and the operation is CANCELLED.
+ * Closing does not wait for the call to return, an operation closed before its call was made is CANCELLED without making it.
+ */
+public abstract class CompactionOperation<RequestT extends OperationRequest> extends Operation<RequestT> {
+
+    // bytes per second Cassandra compacts for this operation while it runs
+    public volatile long throughput;
+
+    // exception a run of this operation ends by once it was closed, it is the reason of cancellation, not an error
+    private volatile CancellationException cancellation;
+
+    // thread making the call and progress of the call while it is in flight
+    private Thread runner;
+    private CompactionProgressTracker tracker;
+
+    protected CompactionOperation(final RequestT request) {
+        super(request);
+        errors = new Errors(errors);
+    }
+
+    protected CompactionOperation(final String type,
+                                  final UUID id,
+                                  final Instant creationTime,
+                                  final State state,
+                                  final List<Error> errors,
+                                  final float progress,
+                                  final Instant startTime,
+                                  final RequestT request) {
+        super(type, id, creationTime, state, errors, progress, startTime, request);
+        this.errors = new Errors(this.errors == null ? new ArrayList<>() : this.errors);
+    }
+
+    /**
+     * Makes a blocking call which compacts SSTables of a keyspace, reporting its progress until it returns.
+     *
+     * @param tables tables of a keyspace a call compacts, all tables of a keyspace when null or empty
+     * @return result of a call
+     * @throws CancellationException if this operation was closed before the call was made or while it was in flight
+     */
+    protected <T> T compact(final CassandraJMXService cassandraJMXService,
+                            final CompactionType type,
+                            final String keyspace,
+                            final Set<String> tables,
+                            final Callable<T> call) throws Exception {
+        final String what = format("%s of keyspace %s", type.getTaskType(), keyspace);
+        final T result;
+
+        try {
+            synchronized (this) {
+                checkCancelled(what);
+
+                runner = Thread.currentThread();
+                tracker = CompactionProgressTracker.start(cassandraJMXService, this, type, keyspace, tables, throughput -> this.throughput = throughput);
+            }
+
+            result = call.call();
+        } catch (final Exception ex) {
+            checkCancelled(what);
+            throw ex;
+        } finally {
+            synchronized (this) {
+                if (tracker != null) {
+                    tracker.close();
+                }
+
+                tracker = null;
+                runner = null;
+
+                // close() might have interrupted this thread while the call was in flight
+                if (getShouldCancel().get()) {
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        // a call whose compactions were stopped returns as aborted
+        checkCancelled(what);
+
+        return result;
+    }
+
+    /**
+     * Ends a run of this operation once it was closed. Operation.run() marks an operation CANCELLED when its run throws
+     * after it was closed, and the thrown cancellation is not recorded among errors, so the operation is not FAILED
+     * unless something else has failed.
+     *
+     * @param what work which is cancelled, to tell in the reason of cancellation
+     * @throws CancellationException if this operation was closed
+     */
+    protected void checkCancelled(final String what) {
+        if (!getShouldCancel().get()) {
+            return;
+        }
+
+        if (cancellation == null) {
+            cancellation = new CancellationException(format("%s was cancelled", what));
+        }
+
+        throw cancellation;
+    }
+
+    /**
+     * Stops compactions of the call in flight and returns, the call returns on its own once they are stopped.
+     */
+    @Override
+    public void close() {
+        super.close();
+
+        synchronized (this) {
+            if (tracker != null) {
+                tracker.cancel();
+                runner.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Errors of this operation, without the cancellation Operation.run() adds to them.
+     */
+    private final class Errors extends ForwardingList<Error> {
+
+        private final List<Error> delegate;
+
+        private Errors(final List<Error> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        protected List<Error> delegate() {
+            return delegate;
+        }
+
+        @Override
+        public boolean add(final Error error) {
+            return (cancellation == null || error.throwable != cancellation) && super.add(error);
+        }
+    }
+}
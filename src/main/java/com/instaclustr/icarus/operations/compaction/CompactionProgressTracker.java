@@ -0,0 +1,309 @@
+package com.instaclustr.icarus.operations.compaction;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import javax.management.ObjectName;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.LongConsumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.instaclustr.operations.FunctionWithEx;
+import com.instaclustr.operations.Operation;
+import jmx.org.apache.cassandra.CassandraObjectNames;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports progress of an operation which makes Cassandra compact SSTables of a keyspace in a single blocking JMX call,
+ * like cleanup, scrub or upgradesstables. While the call is in flight, active compactions of the given type on the keyspace
+ * and tables are polled from CompactionManager and the bytes they have compacted are set as progress of the operation,
+ * relative to the size of the tables on disk when the operation started.
+ * <p>
+ * Compacted bytes are not exactly bytes on disk and SSTables which do not need any work are skipped without a compaction,
+ * so progress is an estimate, it never goes back and it is never reported complete before the call returns.
+ * <p>
+ * All trackers poll on one shared scheduler, a tracker cancels only its own tasks once it is closed.
+ */
+public class CompactionProgressTracker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompactionProgressTracker.class);
+
+    // time in seconds between two polls of active compactions
+    public static final int POLL_INTERVAL_SECONDS = Integer.parseInt(System.getProperty("icarus.compaction.progress.interval", "5"));
+
+    // time in seconds between two attempts to stop compactions of a cancelled operation
+    private static final int STOP_INTERVAL_SECONDS = 1;
+
+    // progress reported at most while a call is in flight, an operation is complete once the call returns
+    private static final float MAX_PROGRESS = 0.99f;
+
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+        Integer.parseInt(System.getProperty("icarus.compaction.progress.threads", "2")),
+        new ThreadFactoryBuilder().setNameFormat("compaction-progress-%d").setDaemon(true).build());
+
+    private final CassandraJMXService cassandraJMXService;
+    private final Operation<?> operation;
+    private final CompactionType type;
+    private final String keyspace;
+    private final Set<String> tables;
+    private final LongConsumer throughput;
+
+    // tasks of this tracker on the shared scheduler
+    private final List<ScheduledFuture<?>> tasks = new CopyOnWriteArrayList<>();
+    private boolean cancelled;
+    private boolean closed;
+
+    // last seen compacted bytes and total bytes of compactions in progress, by compaction id
+    private final Map<String, long[]> active = new HashMap<>();
+    private long finishedBytes;
+    private volatile long totalBytes;
+    private long lastCompactedBytes;
+    private long lastPoll;
+
+    private CompactionProgressTracker(final CassandraJMXService cassandraJMXService,
+                                      final Operation<?> operation,
+                                      final CompactionType type,
+                                      final String keyspace,
+                                      final Set<String> tables,
+                                      final LongConsumer throughput) {
+        this.cassandraJMXService = cassandraJMXService;
+        this.operation = operation;
+        this.type = type;
+        this.keyspace = keyspace;
+        this.tables = tables == null || tables.isEmpty() ? null : tables;
+        this.throughput = throughput;
+    }
+
+    /**
+     * Starts polling compactions of an operation, it has to be closed once the blocking call of the operation returns.
+     *
+     * @param type       type of compactions of an operation
+     * @param keyspace   keyspace an operation runs on, all keyspaces when null
+     * @param tables     tables of a keyspace an operation runs on, all tables of a keyspace when null or empty
+     * @param throughput receives bytes per second compacted for an operation since the previous poll
+     */
+    public static CompactionProgressTracker start(final CassandraJMXService cassandraJMXService,
+                                                  final Operation<?> operation,
+                                                  final CompactionType type,
+                                                  final String keyspace,
+                                                  final Set<String> tables,
+                                                  final LongConsumer throughput) {
+        final CompactionProgressTracker tracker = new CompactionProgressTracker(cassandraJMXService, operation, type, keyspace, tables, throughput);
+
+        tracker.lastPoll = System.currentTimeMillis();
+        tracker.tasks.add(scheduler.schedule(tracker::measureTables, 0, SECONDS));
+        tracker.tasks.add(scheduler.scheduleWithFixedDelay(tracker::poll, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, SECONDS));
+
+        return tracker;
+    }
+
+    /**
+     * Stops compactions of an operation, so its blocking call returns. Cassandra may start compactions of other SSTables
+     * of the call after the ones which were active are stopped, so they are stopped too until the tracker is closed.
+     */
+    public synchronized void cancel() {
+        if (!cancelled && !closed) {
+            cancelled = true;
+            tasks.add(scheduler.scheduleWithFixedDelay(this::stopCompactions, 0, STOP_INTERVAL_SECONDS, SECONDS));
+        }
+    }
+
+    @Override
+    public void close() {
+        tasks.forEach(task -> task.cancel(false));
+
+        // a poll in progress must not set progress after an operation is done
+        synchronized (this) {
+            closed = true;
+            throughput.accept(0);
+        }
+    }
+
+    private void measureTables() {
+        try {
+            if (keyspace == null) {
+                // progress is then relative to compactions seen so far only
+                totalBytes = 0;
+            } else if (tables == null) {
+                totalBytes = toLong(cassandraJMXService.doWithMBean(new FunctionWithEx<GaugeMBean, Object>() {
+                                                                        @Override
+                                                                        public Object apply(final GaugeMBean object) {
+                                                                            return object.getValue();
+                                                                        }
+                                                                    },
+                                                                    GaugeMBean.class,
+                                                                    new ObjectName(format("org.apache.cassandra.metrics:type=Keyspace,keyspace=%s,name=LiveDiskSpaceUsed", keyspace))));
+            } else {
+                for (final String table : tables) {
+                    totalBytes += cassandraJMXService.doWithMBean(new FunctionWithEx<CounterMBean, Long>() {
+                                                                      @Override
+                                                                      public Long apply(final CounterMBean object) {
+                                                                          return object.getCount();
+                                                                      }
+                                                                  },
+                                                                  CounterMBean.class,
+                                                                  new ObjectName(format("org.apache.cassandra.metrics:type=ColumnFamily,keyspace=%s,scope=%s,name=LiveDiskSpaceUsed", keyspace, table)));
+                }
+            }
+        } catch (final Exception ex) {
+            totalBytes = 0;
+            logger.warn(format("Unable to get size of keyspace %s, progress of %s will be less accurate: %s", keyspace, operation.id, ex.getMessage()));
+        }
+    }
+
+    private void poll() {
+        // an exception would silently cancel further polls
+        try {
+            poll0();
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to update progress of %s: %s", operation.id, ex.getMessage()));
+        }
+    }
+
+    private void poll0() {
+        final List<Map<String, String>> compactions;
+
+        try {
+            compactions = cassandraJMXService.doWithMBean(new FunctionWithEx<CompactionManagerMBean, List<Map<String, String>>>() {
+                                                              @Override
+                                                              public List<Map<String, String>> apply(final CompactionManagerMBean object) {
+                                                                  return object.getCompactions();
+                                                              }
+                                                          },
+                                                          CompactionManagerMBean.class,
+                                                          CassandraObjectNames.V3.COMPACTION_MANAGER);
+        } catch (final Exception ex) {
+            logger.debug(format("Unable to get active compactions for progress of %s: %s", operation.id, ex.getMessage()));
+            return;
+        }
+
+        if (compactions == null) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                update(compactions);
+            }
+        }
+    }
+
+    private void update(final List<Map<String, String>> compactions) {
+        final Map<String, long[]> current = new HashMap<>();
+
+        for (final Map<String, String> compaction : compactions) {
+            if (matches(compaction)) {
+                try {
+                    current.put(compaction.get("compactionId"), new long[]{
+                        Long.parseLong(compaction.get("completed")),
+                        Long.parseLong(compaction.get("total"))
+                    });
+                } catch (final NumberFormatException ex) {
+                    logger.debug(format("Unable to parse compaction %s", compaction));
+                }
+            }
+        }
+
+        // a compaction not active anymore has compacted all its bytes
+        for (final Map.Entry<String, long[]> entry : active.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                finishedBytes += entry.getValue()[1];
+            }
+        }
+
+        active.clear();
+        active.putAll(current);
+
+        long compactedBytes = finishedBytes;
+        long knownBytes = finishedBytes;
+
+        for (final long[] compaction : active.values()) {
+            compactedBytes += compaction[0];
+            knownBytes += compaction[1];
+        }
+
+        final long now = System.currentTimeMillis();
+
+        if (now > lastPoll) {
+            throughput.accept(Math.max(0, (compactedBytes - lastCompactedBytes) * SECONDS.toMillis(1) / (now - lastPoll)));
+        }
+
+        lastCompactedBytes = compactedBytes;
+        lastPoll = now;
+
+        final long total = Math.max(totalBytes, knownBytes);
+
+        if (total > 0) {
+            operation.progress = Math.max(operation.progress, Math.min(MAX_PROGRESS, (float) compactedBytes / total));
+        }
+    }
+
+    private void stopCompactions() {
+        try {
+            cassandraJMXService.doWithMBean(new FunctionWithEx<CompactionManagerMBean, Void>() {
+                @Override
+                public Void apply(final CompactionManagerMBean object) {
+                    final List<Map<String, String>> compactions = object.getCompactions();
+
+                    if (compactions == null) {
+                        return null;
+                    }
+
+                    for (final Map<String, String> compaction : compactions) {
+                        if (matches(compaction)) {
+                            try {
+                                object.stopCompactionById(compaction.get("compactionId"));
+                            } catch (final UndeclaredThrowableException ex) {
+                                // Cassandra 2 can stop compactions only by their type, other compactions of the same type are stopped too
+                                object.stopCompaction(type.name());
+                                return null;
+                            }
+                        }
+                    }
+
+                    return null;
+                }
+            }, CompactionManagerMBean.class, CassandraObjectNames.V3.COMPACTION_MANAGER);
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to stop compactions of cancelled operation %s: %s", operation.id, ex.getMessage()));
+        }
+    }
+
+    private boolean matches(final Map<String, String> compaction) {
+        return type.getTaskType().equalsIgnoreCase(compaction.get("taskType"))
+            && "bytes".equalsIgnoreCase(compaction.get("unit"))
+            && (keyspace == null || keyspace.equals(compaction.get("keyspace")))
+            && (tables == null || tables.contains(compaction.get("columnfamily")))
+            && compaction.get("compactionId") != null;
+    }
+
+    private static long toLong(final Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Counter metric of Cassandra, like LiveDiskSpaceUsed of a table.
+     */
+    public interface CounterMBean {
+
+        long getCount();
+    }
+
+    /**
+     * Gauge metric of Cassandra, like LiveDiskSpaceUsed of a keyspace.
+     */
+    public interface GaugeMBean {
+
+        Object getValue();
+    }
+}
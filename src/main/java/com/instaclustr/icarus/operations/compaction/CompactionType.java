@@ -0,0 +1,22 @@
+package com.instaclustr.icarus.operations.compaction;
+
+/**
+ * Types of compactions Icarus operations make Cassandra run, named as Cassandra's OperationType,
+ * which is what CompactionManager stops compactions of a type by.
+ */
+public enum CompactionType {
+    CLEANUP("Cleanup"),
+    SCRUB("Scrub"),
+    UPGRADE_SSTABLES("Upgrade sstables");
+
+    // type of a compaction as CompactionManager reports it among active compactions
+    private final String taskType;
+
+    CompactionType(final String taskType) {
+        this.taskType = taskType;
+    }
+
+    public String getTaskType() {
+        return taskType;
+    }
+}
@@ -4,12 +4,15 @@ import javax.inject.Inject;
 import javax.inject.Provider;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.inject.assistedinject.Assisted;
 import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.icarus.operations.streaming.StreamingPeer;
+import com.instaclustr.icarus.operations.streaming.StreamingProgressTracker;
 import com.instaclustr.operations.FunctionWithEx;
 import com.instaclustr.operations.Operation;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
@@ -20,6 +23,9 @@ public class DecommissionOperation extends Operation<DecommissionOperationReques
     private final CassandraJMXService cassandraJMXService;
     private final Provider<CassandraVersion> cassandraVersionProvider;
 
+    // bytes streamed to and from every peer, by address of a peer
+    public volatile Map<String, StreamingPeer> peers;
+
     @Inject
     public DecommissionOperation(final CassandraJMXService cassandraJMXService,
                                  final Provider<CassandraVersion> cassandraVersionProvider,
@@ -51,6 +57,17 @@ public class DecommissionOperation extends Operation<DecommissionOperationReques
         assert cassandraJMXService != null;
         assert cassandraVersionProvider != null;
 
+        final StreamingProgressTracker tracker = StreamingProgressTracker.start(cassandraJMXService, this, StreamingProgressTracker.DECOMMISSION, peers -> this.peers = peers);
+
+        try {
+            decommission();
+            tracker.succeeded();
+        } finally {
+            tracker.close();
+        }
+    }
+
+    private void decommission() throws Exception {
         if (cassandraVersionProvider.get().getMajor() >= 4) {
             cassandraJMXService.doWithCassandra4StorageServiceMBean(new FunctionWithEx<Cassandra4StorageServiceMBean, Void>() {
                 @Override
@@ -4,15 +4,23 @@ import static com.instaclustr.icarus.service.CassandraStatusService.Status.NodeS
 import static com.instaclustr.icarus.service.CassandraStatusService.Status.NodeState.DRAINING;
 import static com.instaclustr.icarus.service.CassandraStatusService.Status.NodeState.NORMAL;
 import static java.lang.String.format;
-import static java.util.concurrent.TimeUnit.MINUTES;
-import static org.awaitility.Awaitility.await;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.instaclustr.icarus.service.CassandraStatusService;
@@ -29,6 +37,11 @@ public class DrainOperation extends Operation<DrainOperationRequest> {
 
     private static final Logger logger = LoggerFactory.getLogger(DrainOperation.class);
 
+    // number of keyspaces flushed at once before a node is drained
+    public static final int FLUSH_PARALLELISM = Integer.parseInt(System.getProperty("icarus.drain.flush.parallelism", "4"));
+
+    private static final long MODE_CHECK_INTERVAL_MILLIS = 100;
+
     private final CassandraStatusService cassandraStatusService;
     private final CassandraJMXService cassandraJMXService;
 
@@ -50,8 +63,9 @@ public class DrainOperation extends Operation<DrainOperationRequest> {
                            @JsonProperty("state") final State state,
                            @JsonProperty("errors") final List<Error> errors,
                            @JsonProperty("progress") final float progress,
-                           @JsonProperty("startTime") final Instant startTime) {
-        super(type, id, creationTime, state, errors, progress, startTime, new DrainOperationRequest(type));
+                           @JsonProperty("startTime") final Instant startTime,
+                           @JsonProperty("timeout") final Integer timeout) {
+        super(type, id, creationTime, state, errors, progress, startTime, new DrainOperationRequest(type, timeout));
         this.cassandraStatusService = null;
         this.cassandraJMXService = null;
     }
@@ -71,20 +85,122 @@ public class DrainOperation extends Operation<DrainOperationRequest> {
             throw new OperationFailureException(format("Cassandra node is not in state NORMAL to drain it. It is in the state \"%s\"", status.getNodeState()));
         }
 
-        cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Void>() {
+        final long deadline = System.nanoTime() + SECONDS.toNanos(request.timeout);
+
+        final List<String> keyspaces = cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, List<String>>() {
             @Override
-            public Void apply(final StorageServiceMBean ssMBean) throws Exception {
+            public List<String> apply(final StorageServiceMBean ssMBean) {
+                return ssMBean.getKeyspaces();
+            }
+        });
+
+        // drain is the last step, it is quick once memtables are flushed
+        final int steps = keyspaces.size() + 1;
 
-                ssMBean.drain();
+        flush(keyspaces, steps, deadline);
+        drain(deadline);
+    }
 
-                logger.info("Draining of Cassandra node started.");
+    /**
+     * Flushes memtables of keyspaces in parallel while a node still serves requests, so drain,
+     * during which a node does not serve any, has just a little left to flush.
+     */
+    private void flush(final List<String> keyspaces, final int steps, final long deadline) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(FLUSH_PARALLELISM, keyspaces.size())),
+                                                                      new ThreadFactoryBuilder().setNameFormat("drain-flush-%d").setDaemon(true).build());
+
+        try {
+            final List<Future<?>> flushes = new ArrayList<>();
+
+            for (final String keyspace : keyspaces) {
+                flushes.add(executor.submit(() -> {
+                    try {
+                        cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Void>() {
+                            @Override
+                            public Void apply(final StorageServiceMBean ssMBean) throws Exception {
+                                ssMBean.forceKeyspaceFlush(keyspace);
+                                return null;
+                            }
+                        });
+                    } catch (final Exception ex) {
+                        // drain flushes it anyway
+                        logger.warn(format("Unable to flush keyspace %s before draining: %s", keyspace, ex.getMessage()));
+                    }
+                }));
+            }
+
+            // progress is set by this thread only, so it never goes back
+            for (int i = 0; i < flushes.size(); i++) {
+                await(flushes.get(i), deadline, "flush keyspaces");
+                progress = (float) (i + 1) / steps;
+            }
+
+            logger.info(format("Flushed %s keyspaces before draining", keyspaces.size()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-                await().atMost(10, MINUTES).until(() -> "DRAINED".equals(ssMBean.getOperationMode()));
+    private void drain(final long deadline) throws Exception {
+        // drain blocks until it is done, it is waited for in another thread so the operation does not outlive its timeout
+        final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("drain-%d").setDaemon(true).build());
+
+        try {
+            logger.info("Draining of Cassandra node started.");
+
+            await(executor.submit(() -> {
+                try {
+                    cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Void>() {
+                        @Override
+                        public Void apply(final StorageServiceMBean ssMBean) throws Exception {
+                            ssMBean.drain();
+                            return null;
+                        }
+                    });
+                } catch (final Exception ex) {
+                    // it is logged here as well, the operation might have timed out already
+                    logger.error(format("Draining of Cassandra node has failed: %s", ex.getMessage()));
+                    throw ex;
+                }
 
                 logger.info("Draining of Cassandra node finished.");
 
                 return null;
+            }), deadline, "drain");
+        } finally {
+            // a drain in progress is not interrupted, Cassandra would finish it anyway
+            executor.shutdown();
+        }
+
+        // a node is drained once drain returns, the mode is checked just to be sure
+        String mode = getOperationMode();
+
+        while (!"DRAINED".equals(mode)) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new OperationFailureException(format("Cassandra node is in mode %s after it was drained", mode));
+            }
+
+            MILLISECONDS.sleep(MODE_CHECK_INTERVAL_MILLIS);
+            mode = getOperationMode();
+        }
+    }
+
+    private String getOperationMode() throws Exception {
+        return cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, String>() {
+            @Override
+            public String apply(final StorageServiceMBean ssMBean) {
+                return ssMBean.getOperationMode();
             }
         });
     }
+
+    private void await(final Future<?> future, final long deadline, final String step) throws Exception {
+        try {
+            future.get(Math.max(0, deadline - System.nanoTime()), NANOSECONDS);
+        } catch (final TimeoutException ex) {
+            throw new OperationFailureException(format("Unable to %s in %s seconds", step, request.timeout));
+        } catch (final ExecutionException ex) {
+            throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+        }
+    }
 }
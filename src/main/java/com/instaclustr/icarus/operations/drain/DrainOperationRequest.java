@@ -2,16 +2,35 @@ package com.instaclustr.icarus.operations.drain;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
 import com.instaclustr.operations.OperationRequest;
 
 public class DrainOperationRequest extends OperationRequest {
 
+    public static final int DEFAULT_TIMEOUT_SECONDS = 600;
+
+    // time in seconds to flush and drain a node in, the operation fails once it elapses, Cassandra keeps draining
+    public final int timeout;
+
     public DrainOperationRequest() {
-        this("drain");
+        this("drain", null);
+    }
+
+    public DrainOperationRequest(final Integer timeout) {
+        this("drain", timeout);
     }
 
     @JsonCreator
-    public DrainOperationRequest(@JsonProperty("type") final String type) {
+    public DrainOperationRequest(@JsonProperty("type") final String type,
+                                 @JsonProperty("timeout") final Integer timeout) {
         this.type = type;
+        this.timeout = timeout == null || timeout <= 0 ? DEFAULT_TIMEOUT_SECONDS : timeout;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("timeout", timeout)
+                          .toString();
     }
 }
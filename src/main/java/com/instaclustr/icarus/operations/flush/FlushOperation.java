@@ -55,6 +55,17 @@ public class FlushOperation extends Operation<FlushOperationRequest> {
             @Override
             public Object apply(final StorageServiceMBean object) throws Exception {
 
+                // as nodetool flush without arguments, except system keyspaces
+                if (request.keyspace == null) {
+                    for (final String keyspace : object.getNonSystemKeyspaces()) {
+                        object.forceKeyspaceFlush(keyspace);
+                    }
+
+                    logger.info("Flushed all non-system keyspaces");
+
+                    return null;
+                }
+
                 String[] tables = request.tables == null ? new String[]{} : request.tables.toArray(new String[]{});
 
                 object.forceKeyspaceFlush(request.keyspace,
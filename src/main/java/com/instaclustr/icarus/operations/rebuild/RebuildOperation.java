@@ -5,6 +5,7 @@ import static java.util.stream.Collectors.joining;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -12,6 +13,8 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
+import com.instaclustr.icarus.operations.streaming.StreamingPeer;
+import com.instaclustr.icarus.operations.streaming.StreamingProgressTracker;
 import com.instaclustr.operations.FunctionWithEx;
 import com.instaclustr.operations.Operation;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
@@ -21,6 +24,9 @@ public class RebuildOperation extends Operation<RebuildOperationRequest> {
 
     private final CassandraJMXService cassandraJMXService;
 
+    // bytes streamed from every source, by address of a source
+    public volatile Map<String, StreamingPeer> peers;
+
     @Inject
     public RebuildOperation(final CassandraJMXService cassandraJMXService,
                             @Assisted final RebuildOperationRequest request) {
@@ -57,18 +63,26 @@ public class RebuildOperation extends Operation<RebuildOperationRequest> {
         final String specificTokens = prepareSpecificTokens(request.specificTokens);
         final String specificSources = prepareSpecificSources(request.specificSources);
 
-        cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Void>() {
-            @Override
-            public Void apply(final StorageServiceMBean object) {
+        final StreamingProgressTracker tracker = StreamingProgressTracker.start(cassandraJMXService, this, StreamingProgressTracker.REBUILD, peers -> this.peers = peers);
+
+        try {
+            cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Void>() {
+                @Override
+                public Void apply(final StorageServiceMBean object) {
 
-                object.rebuild(request.sourceDC,
-                               request.keyspace,
-                               specificTokens,
-                               specificSources);
+                    object.rebuild(request.sourceDC,
+                                   request.keyspace,
+                                   specificTokens,
+                                   specificSources);
 
-                return null;
-            }
-        });
+                    return null;
+                }
+            });
+
+            tracker.succeeded();
+        } finally {
+            tracker.close();
+        }
     }
 
     private String prepareSpecificTokens(Set<RebuildOperationRequest.TokenRange> specificTokens) {
@@ -1,5 +1,8 @@
 package com.instaclustr.icarus.operations.scrub;
 
+import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
+import static com.instaclustr.icarus.coordination.RollingOperationCoordinator.coordinatorType;
+
 import com.google.inject.AbstractModule;
 import com.instaclustr.operations.OperationBindings;
 
@@ -10,5 +13,8 @@ public class ScrubModule extends AbstractModule {
                                                    "scrub",
                                                    ScrubOperationRequest.class,
                                                    ScrubOperation.class);
+
+        // bound to a coordinator only when running as a sidecar, see ServicesModule
+        newOptionalBinder(binder(), coordinatorType(ScrubOperationRequest.class));
     }
 }
@@ -1,8 +1,11 @@
 package com.instaclustr.icarus.operations.scrub;
 
+import static java.lang.String.format;
+
 import javax.inject.Provider;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,8 +14,10 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.icarus.operations.compaction.CompactionOperation;
+import com.instaclustr.icarus.operations.compaction.CompactionType;
 import com.instaclustr.operations.FunctionWithEx;
-import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationCoordinator;
 import com.instaclustr.operations.OperationFailureException;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 import jmx.org.apache.cassandra.service.cassandra2.Cassandra2StorageServiceMBean;
@@ -20,20 +25,23 @@ import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ScrubOperation extends Operation<ScrubOperationRequest> {
+public class ScrubOperation extends CompactionOperation<ScrubOperationRequest> {
 
     private static final Logger logger = LoggerFactory.getLogger(ScrubOperation.class);
 
     private final CassandraJMXService cassandraJMXService;
+    private final OperationCoordinator<ScrubOperationRequest> coordinator;
     private final Provider<CassandraVersion> cassandraVersionProvider;
 
     @Inject
     public ScrubOperation(final CassandraJMXService cassandraJMXService,
                           final Provider<CassandraVersion> cassandraVersionProvider,
+                          final Optional<OperationCoordinator<ScrubOperationRequest>> coordinator,
                           @Assisted final ScrubOperationRequest request) {
         super(request);
 
         this.cassandraJMXService = cassandraJMXService;
+        this.coordinator = coordinator.orElse(null);
         this.cassandraVersionProvider = cassandraVersionProvider;
     }
 
@@ -53,7 +61,11 @@ public class ScrubOperation extends Operation<ScrubOperationRequest> {
                            @JsonProperty("reinsertOverflowedTTL") final boolean reinsertOverflowedTTL,
                            @JsonProperty("jobs") final int jobs,
                            @JsonProperty("keyspace") final String keyspace,
-                           @JsonProperty("tables") final Set<String> tables) {
+                           @JsonProperty("tables") final Set<String> tables,
+                           @JsonProperty("globalRequest") final boolean globalRequest,
+                           @JsonProperty("dc") final String dc,
+                           @JsonProperty("concurrency") final int concurrency,
+                           @JsonProperty("continueOnFailure") final boolean continueOnFailure) {
         super(type, id, creationTime, state, errors, progress, startTime, new ScrubOperationRequest(type,
                                                                                                     disableSnapshot,
                                                                                                     skipCorrupted,
@@ -64,6 +76,12 @@ public class ScrubOperation extends Operation<ScrubOperationRequest> {
                                                                                                     tables));
         cassandraJMXService = null;
         cassandraVersionProvider = null;
+        coordinator = null;
+
+        this.request.globalRequest = globalRequest;
+        this.request.dc = dc;
+        this.request.concurrency = concurrency;
+        this.request.continueOnFailure = continueOnFailure;
     }
 
     // scrubbing for Cassandra version 2
@@ -123,13 +141,28 @@ public class ScrubOperation extends Operation<ScrubOperationRequest> {
 
     @Override
     protected void run0() throws Exception {
+        if (request.globalRequest) {
+            if (coordinator == null) {
+                throw new OperationFailureException("There is no operation coordinator.");
+            }
+
+            coordinator.coordinate(this);
+            // remote operations of a closed operation are cancelled by its coordinator
+            checkCancelled(format("%s of all nodes", request.type));
+            return;
+        }
+
 
         assert cassandraJMXService != null;
 
-        if (cassandraVersionProvider.get().getMajor() == 2) {
-            scrubCassandra2();
-        } else {
-            scrubCassandra();
-        }
+        compact(cassandraJMXService, CompactionType.SCRUB, request.keyspace, request.tables, () -> {
+            if (cassandraVersionProvider.get().getMajor() == 2) {
+                scrubCassandra2();
+            } else {
+                scrubCassandra();
+            }
+
+            return null;
+        });
     }
 }
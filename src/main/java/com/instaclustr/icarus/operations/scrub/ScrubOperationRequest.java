@@ -6,7 +6,7 @@ import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
-import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.icarus.coordination.RollingOperationRequest;
 
 /**
  * <pre>
@@ -72,7 +72,7 @@ import com.instaclustr.operations.OperationRequest;
  *             The keyspace followed by one or many tables
  * }</pre>
  */
-public class ScrubOperationRequest extends OperationRequest {
+public class ScrubOperationRequest extends RollingOperationRequest {
 
     public final boolean disableSnapshot;
     public final boolean skipCorrupted;
@@ -114,6 +114,10 @@ public class ScrubOperationRequest extends OperationRequest {
                           .add("skipCorrupted", skipCorrupted)
                           .add("noValidate", noValidate)
                           .add("reinsertOverflowedTTL", reinsertOverflowedTTL)
+                          .add("globalRequest", globalRequest)
+                          .add("dc", dc)
+                          .add("concurrency", concurrency)
+                          .add("continueOnFailure", continueOnFailure)
                           .toString();
     }
 }
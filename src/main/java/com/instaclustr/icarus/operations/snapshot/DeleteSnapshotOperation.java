@@ -0,0 +1,65 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.instaclustr.esop.impl.backup.coordination.ClearSnapshotOperation;
+import com.instaclustr.esop.impl.backup.coordination.ClearSnapshotOperation.ClearSnapshotOperationRequest;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationFailureException;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+
+public class DeleteSnapshotOperation extends Operation<DeleteSnapshotOperationRequest> {
+
+    private final CassandraJMXService cassandraJMXService;
+    private final GlobalBackupSnapshots globalBackupSnapshots;
+
+    @Inject
+    public DeleteSnapshotOperation(final CassandraJMXService cassandraJMXService,
+                                   final GlobalBackupSnapshots globalBackupSnapshots,
+                                   @Assisted final DeleteSnapshotOperationRequest request) {
+        super(request);
+
+        this.cassandraJMXService = cassandraJMXService;
+        this.globalBackupSnapshots = globalBackupSnapshots;
+    }
+
+    // this constructor is not meant to be instantiated manually
+    // and it fulfills the purpose of deserialisation from JSON string to an Operation object, currently just for testing purposes
+    @JsonCreator
+    private DeleteSnapshotOperation(@JsonProperty("type") final String type,
+                                    @JsonProperty("id") final UUID id,
+                                    @JsonProperty("creationTime") final Instant creationTime,
+                                    @JsonProperty("state") final State state,
+                                    @JsonProperty("errors") final List<Error> errors,
+                                    @JsonProperty("progress") final float progress,
+                                    @JsonProperty("startTime") final Instant startTime,
+                                    @JsonProperty("tag") final String tag) {
+        super(type, id, creationTime, state, errors, progress, startTime, new DeleteSnapshotOperationRequest(type, tag));
+        cassandraJMXService = null;
+        globalBackupSnapshots = null;
+    }
+
+    @Override
+    protected void run0() throws Exception {
+        assert cassandraJMXService != null;
+        assert globalBackupSnapshots != null;
+
+        if (request.tag == null) {
+            throw new OperationFailureException("Tag of a snapshot has to be specified.");
+        }
+
+        final ClearSnapshotOperation clearSnapshotOperation = new ClearSnapshotOperation(cassandraJMXService, new ClearSnapshotOperationRequest(request.tag));
+
+        clearSnapshotOperation.run();
+
+        globalBackupSnapshots.remove(request.tag);
+
+        addErrors(clearSnapshotOperation.errors);
+    }
+}
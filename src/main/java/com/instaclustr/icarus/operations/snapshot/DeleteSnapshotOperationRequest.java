@@ -0,0 +1,33 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+import com.instaclustr.operations.OperationRequest;
+
+/**
+ * Clears a snapshot of given tag from all keyspaces. A coordinator of a global backup deletes snapshots
+ * it has taken on nodes which have not backed them up.
+ */
+public class DeleteSnapshotOperationRequest extends OperationRequest {
+
+    public final String tag;
+
+    public DeleteSnapshotOperationRequest(final String tag) {
+        this("delete-snapshot", tag);
+    }
+
+    @JsonCreator
+    public DeleteSnapshotOperationRequest(@JsonProperty("type") final String type,
+                                          @JsonProperty("tag") final String tag) {
+        this.type = type;
+        this.tag = tag;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("tag", tag)
+                          .toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Singleton;
+
+/**
+ * Tags of snapshots a coordinator of a global backup has asked this node to take, see {@link SnapshotOperationRequest#globalBackup}.
+ * A backup of this node uploads such snapshot instead of taking its own, and a sub-coordinator a DC was delegated to
+ * keeps such tag as the coordinator has resolved it. A backup of this node is incremental only when the global backup
+ * it was dispatched by is, a backup submitted to this node on its own is never incremental.
+ * <p>
+ * A tag is forgotten once its snapshot is cleared, or after a while in case it is never cleared.
+ */
+@Singleton
+public class GlobalBackupSnapshots {
+
+    public static final long EXPIRATION_HOURS = Long.parseLong(System.getProperty("icarus.backup.snapshot.expiration", "24"));
+
+    // whether a global backup of a tag is incremental, by its tag
+    private final Cache<String, Boolean> tags = CacheBuilder.newBuilder().expireAfterWrite(EXPIRATION_HOURS, HOURS).build();
+
+    public void add(final String tag, final boolean incremental) {
+        tags.put(tag, incremental);
+    }
+
+    public boolean contains(final String tag) {
+        return tag != null && tags.getIfPresent(tag) != null;
+    }
+
+    public boolean isIncremental(final String tag) {
+        return tag != null && Boolean.TRUE.equals(tags.getIfPresent(tag));
+    }
+
+    public void remove(final String tag) {
+        tags.invalidate(tag);
+    }
+}
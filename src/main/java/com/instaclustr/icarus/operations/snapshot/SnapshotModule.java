@@ -0,0 +1,21 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import com.google.inject.AbstractModule;
+
+import static com.instaclustr.operations.OperationBindings.installOperationBindings;
+
+public class SnapshotModule extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        installOperationBindings(binder(),
+                                 "snapshot",
+                                 SnapshotOperationRequest.class,
+                                 SnapshotOperation.class);
+
+        installOperationBindings(binder(),
+                                 "delete-snapshot",
+                                 DeleteSnapshotOperationRequest.class,
+                                 DeleteSnapshotOperation.class);
+    }
+}
@@ -0,0 +1,111 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import static java.lang.String.format;
+
+import javax.inject.Provider;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.esop.impl.DatabaseEntities;
+import com.instaclustr.esop.impl.backup.coordination.TakeSnapshotOperation;
+import com.instaclustr.esop.impl.backup.coordination.TakeSnapshotOperation.TakeSnapshotOperationRequest;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationFailureException;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SnapshotOperation extends Operation<SnapshotOperationRequest> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotOperation.class);
+
+    // a request to start later than this is considered to be a mistake rather than a barrier
+    private static final Duration MAX_DELAY = Duration.ofMinutes(10);
+
+    private final CassandraJMXService cassandraJMXService;
+    private final Provider<CassandraVersion> cassandraVersionProvider;
+    private final GlobalBackupSnapshots globalBackupSnapshots;
+
+    @Inject
+    public SnapshotOperation(final CassandraJMXService cassandraJMXService,
+                             final Provider<CassandraVersion> cassandraVersionProvider,
+                             final GlobalBackupSnapshots globalBackupSnapshots,
+                             @Assisted final SnapshotOperationRequest request) {
+        super(request);
+
+        this.cassandraJMXService = cassandraJMXService;
+        this.cassandraVersionProvider = cassandraVersionProvider;
+        this.globalBackupSnapshots = globalBackupSnapshots;
+    }
+
+    // this constructor is not meant to be instantiated manually
+    // and it fulfills the purpose of deserialisation from JSON string to an Operation object, currently just for testing purposes
+    @JsonCreator
+    private SnapshotOperation(@JsonProperty("type") final String type,
+                              @JsonProperty("id") final UUID id,
+                              @JsonProperty("creationTime") final Instant creationTime,
+                              @JsonProperty("state") final State state,
+                              @JsonProperty("errors") final List<Error> errors,
+                              @JsonProperty("progress") final float progress,
+                              @JsonProperty("startTime") final Instant startTime,
+                              @JsonProperty("tag") final String tag,
+                              @JsonProperty("entities")
+                              @JsonDeserialize(using = DatabaseEntities.DatabaseEntitiesDeserializer.class) final DatabaseEntities entities,
+                              @JsonProperty("startAt") final Instant startAt,
+                              @JsonProperty("globalBackup") final boolean globalBackup,
+                              @JsonProperty("incremental") final boolean incremental) {
+        super(type, id, creationTime, state, errors, progress, startTime, new SnapshotOperationRequest(type, tag, entities, startAt, globalBackup, incremental));
+        cassandraJMXService = null;
+        cassandraVersionProvider = null;
+        globalBackupSnapshots = null;
+    }
+
+    @Override
+    protected void run0() throws Exception {
+        assert cassandraJMXService != null;
+        assert cassandraVersionProvider != null;
+        assert globalBackupSnapshots != null;
+
+        if (request.tag == null) {
+            throw new OperationFailureException("Tag of a snapshot has to be specified.");
+        }
+
+        if (request.globalBackup) {
+            // recorded even when taking the snapshot fails, a delegated sub-coordinator has to know the tag was resolved
+            globalBackupSnapshots.add(request.tag, request.incremental);
+        }
+
+        if (request.startAt != null) {
+            final Duration delay = Duration.between(Instant.now(), request.startAt);
+
+            if (delay.compareTo(MAX_DELAY) > 0) {
+                throw new OperationFailureException(format("Snapshot %s is requested to be taken at %s which is more than %s ahead",
+                                                           request.tag,
+                                                           request.startAt,
+                                                           MAX_DELAY));
+            }
+
+            if (!delay.isNegative()) {
+                Thread.sleep(delay.toMillis());
+            } else {
+                logger.warn(format("Snapshot %s was requested to be taken at %s, taking it %sms late", request.tag, request.startAt, delay.negated().toMillis()));
+            }
+        }
+
+        final TakeSnapshotOperation takeSnapshotOperation = new TakeSnapshotOperation(cassandraJMXService,
+                                                                                      new TakeSnapshotOperationRequest(request.entities, request.tag),
+                                                                                      cassandraVersionProvider);
+
+        takeSnapshotOperation.run();
+
+        addErrors(takeSnapshotOperation.errors);
+    }
+}
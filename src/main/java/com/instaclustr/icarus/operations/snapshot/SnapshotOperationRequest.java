@@ -0,0 +1,75 @@
+package com.instaclustr.icarus.operations.snapshot;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.MoreObjects;
+import com.instaclustr.esop.impl.DatabaseEntities;
+import com.instaclustr.operations.OperationRequest;
+
+/**
+ * Takes a snapshot of given entities, all keyspaces if there are not any. A snapshot is taken at "startAt",
+ * so nodes which received the request at different times take their snapshots at the same moment.
+ * <p>
+ * A snapshot taken for a global backup is recorded in {@link GlobalBackupSnapshots}, so a backup of the node uploads it
+ * instead of taking its own, incrementally when the global backup is incremental.
+ */
+public class SnapshotOperationRequest extends OperationRequest {
+
+    public final String tag;
+
+    @JsonSerialize(using = DatabaseEntities.DatabaseEntitiesSerializer.class)
+    @JsonDeserialize(using = DatabaseEntities.DatabaseEntitiesDeserializer.class)
+    public final DatabaseEntities entities;
+
+    // snapshot is taken right away when not set or already in the past
+    public final Instant startAt;
+
+    // true when a coordinator of a global backup takes this snapshot for the backup, with its snapshot tag
+    public final boolean globalBackup;
+
+    // true when the global backup this snapshot is taken for uploads only files not uploaded by previous backups
+    public final boolean incremental;
+
+    public SnapshotOperationRequest(final String tag, final DatabaseEntities entities, final Instant startAt) {
+        this(tag, entities, startAt, false, false);
+    }
+
+    public SnapshotOperationRequest(final String tag, final DatabaseEntities entities, final Instant startAt, final boolean globalBackup) {
+        this(tag, entities, startAt, globalBackup, false);
+    }
+
+    public SnapshotOperationRequest(final String tag, final DatabaseEntities entities, final Instant startAt, final boolean globalBackup, final boolean incremental) {
+        this("snapshot", tag, entities, startAt, globalBackup, incremental);
+    }
+
+    @JsonCreator
+    public SnapshotOperationRequest(@JsonProperty("type") final String type,
+                                    @JsonProperty("tag") final String tag,
+                                    @JsonProperty("entities")
+                                    @JsonDeserialize(using = DatabaseEntities.DatabaseEntitiesDeserializer.class) final DatabaseEntities entities,
+                                    @JsonProperty("startAt") final Instant startAt,
+                                    @JsonProperty("globalBackup") final boolean globalBackup,
+                                    @JsonProperty("incremental") final boolean incremental) {
+        this.type = type;
+        this.tag = tag;
+        this.entities = entities == null ? DatabaseEntities.empty() : entities;
+        this.startAt = startAt;
+        this.globalBackup = globalBackup;
+        this.incremental = globalBackup && incremental;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("tag", tag)
+                          .add("entities", entities)
+                          .add("startAt", startAt)
+                          .add("globalBackup", globalBackup)
+                          .add("incremental", incremental)
+                          .toString();
+    }
+}
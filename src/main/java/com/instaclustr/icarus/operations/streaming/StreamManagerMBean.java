@@ -0,0 +1,17 @@
+package com.instaclustr.icarus.operations.streaming;
+
+import javax.management.openmbean.CompositeData;
+import java.util.Set;
+
+/**
+ * Part of Cassandra's StreamManagerMBean which is the same in Cassandra 2, 3 and 4,
+ * registered under {@link jmx.org.apache.cassandra.CassandraObjectNames.V3#STREAM_MANAGER}.
+ */
+public interface StreamManagerMBean {
+
+    /**
+     * @return stream plans in progress, each one with "planId", "description" and "sessions",
+     * a session has "peer", "receivingSummaries", "sendingSummaries", "receivingFiles" and "sendingFiles"
+     */
+    Set<CompositeData> getCurrentStreams();
+}
@@ -0,0 +1,56 @@
+package com.instaclustr.icarus.operations.streaming;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * Bytes streamed between this node and a peer by an operation, rates are in bytes per second since the previous sample.
+ */
+public class StreamingPeer {
+
+    @JsonProperty
+    public final long receivedBytes;
+
+    @JsonProperty
+    public final long totalReceivedBytes;
+
+    @JsonProperty
+    public final long receiveRate;
+
+    @JsonProperty
+    public final long sentBytes;
+
+    @JsonProperty
+    public final long totalSentBytes;
+
+    @JsonProperty
+    public final long sendRate;
+
+    @JsonCreator
+    public StreamingPeer(@JsonProperty("receivedBytes") final long receivedBytes,
+                         @JsonProperty("totalReceivedBytes") final long totalReceivedBytes,
+                         @JsonProperty("receiveRate") final long receiveRate,
+                         @JsonProperty("sentBytes") final long sentBytes,
+                         @JsonProperty("totalSentBytes") final long totalSentBytes,
+                         @JsonProperty("sendRate") final long sendRate) {
+        this.receivedBytes = receivedBytes;
+        this.totalReceivedBytes = totalReceivedBytes;
+        this.receiveRate = receiveRate;
+        this.sentBytes = sentBytes;
+        this.totalSentBytes = totalSentBytes;
+        this.sendRate = sendRate;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                          .add("receivedBytes", receivedBytes)
+                          .add("totalReceivedBytes", totalReceivedBytes)
+                          .add("receiveRate", receiveRate)
+                          .add("sentBytes", sentBytes)
+                          .add("totalSentBytes", totalSentBytes)
+                          .add("sendRate", sendRate)
+                          .toString();
+    }
+}
@@ -0,0 +1,279 @@
+package com.instaclustr.icarus.operations.streaming;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import javax.management.openmbean.CompositeData;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.instaclustr.operations.FunctionWithEx;
+import com.instaclustr.operations.Operation;
+import jmx.org.apache.cassandra.CassandraObjectNames;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports progress of an operation which makes Cassandra stream data in a single blocking JMX call, like decommission
+ * or rebuild. While the call is in flight, stream plans of the operation are polled from StreamManager,
+ * bytes streamed to and from all peers relative to bytes to stream are set as progress of the operation
+ * and bytes and rates per peer are handed over so the operation can show them.
+ * <p>
+ * A plan which is not in progress anymore is counted as done, so an operation made of more plans one after another
+ * still reports the bytes of the previous ones. Progress never goes back and it is never reported complete before the call returns.
+ * Plans still in progress once the call returns are counted as done only when the call has succeeded.
+ * <p>
+ * All trackers poll on one shared scheduler, a tracker cancels only its own task once it is closed.
+ */
+public class StreamingProgressTracker implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingProgressTracker.class);
+
+    // descriptions of stream plans as Cassandra names them
+    public static final String DECOMMISSION = "Unbootstrap";
+    public static final String REBUILD = "Rebuild";
+
+    // time in seconds between two polls of stream plans
+    public static final int POLL_INTERVAL_SECONDS = Integer.parseInt(System.getProperty("icarus.streaming.progress.interval", "5"));
+
+    // progress reported at most while a call is in flight, an operation is complete once the call returns
+    private static final float MAX_PROGRESS = 0.99f;
+
+    // indexes of bytes of a peer
+    private static final int RECEIVED = 0;
+    private static final int TOTAL_RECEIVED = 1;
+    private static final int SENT = 2;
+    private static final int TOTAL_SENT = 3;
+
+    private static final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+        Integer.parseInt(System.getProperty("icarus.streaming.progress.threads", "1")),
+        new ThreadFactoryBuilder().setNameFormat("streaming-progress-%d").setDaemon(true).build());
+
+    private final CassandraJMXService cassandraJMXService;
+    private final Operation<?> operation;
+    private final String description;
+    private final Consumer<Map<String, StreamingPeer>> peers;
+
+    // task of this tracker on the shared scheduler
+    private ScheduledFuture<?> task;
+    private boolean succeeded;
+    private boolean closed;
+
+    // bytes by peer of plans in progress, by plan id
+    private final Map<String, Map<String, long[]>> active = new HashMap<>();
+    // bytes by peer of plans which are done
+    private final Map<String, long[]> finished = new HashMap<>();
+    // bytes by peer as of the previous poll
+    private Map<String, long[]> last = new HashMap<>();
+    private long lastPoll;
+
+    private StreamingProgressTracker(final CassandraJMXService cassandraJMXService,
+                                     final Operation<?> operation,
+                                     final String description,
+                                     final Consumer<Map<String, StreamingPeer>> peers) {
+        this.cassandraJMXService = cassandraJMXService;
+        this.operation = operation;
+        this.description = description;
+        this.peers = peers;
+    }
+
+    /**
+     * Starts polling stream plans of an operation, it has to be closed once the blocking call of the operation returns
+     * and told the call has {@link #succeeded()} before that if it has.
+     *
+     * @param description description of stream plans of an operation, {@link #DECOMMISSION} or {@link #REBUILD}
+     * @param peers       receives bytes streamed with every peer so far, by address of a peer
+     */
+    public static StreamingProgressTracker start(final CassandraJMXService cassandraJMXService,
+                                                 final Operation<?> operation,
+                                                 final String description,
+                                                 final Consumer<Map<String, StreamingPeer>> peers) {
+        final StreamingProgressTracker tracker = new StreamingProgressTracker(cassandraJMXService, operation, description, peers);
+
+        tracker.lastPoll = System.currentTimeMillis();
+        tracker.task = scheduler.scheduleWithFixedDelay(tracker::poll, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, SECONDS);
+
+        return tracker;
+    }
+
+    /**
+     * Called once the blocking call of an operation has returned successfully, so plans still in progress are done.
+     */
+    public synchronized void succeeded() {
+        succeeded = true;
+    }
+
+    @Override
+    public void close() {
+        task.cancel(false);
+
+        // a poll in progress must not set progress after an operation is done
+        synchronized (this) {
+            closed = true;
+
+            // plans of a failed call have streamed only what was seen so far, rates are not relevant anymore
+            active.values().forEach(plan -> add(finished, plan, succeeded));
+            active.clear();
+            peers.accept(render(finished, finished, 0));
+        }
+    }
+
+    private void poll() {
+        final Set<CompositeData> streams;
+
+        try {
+            streams = cassandraJMXService.doWithMBean(new FunctionWithEx<StreamManagerMBean, Set<CompositeData>>() {
+                @Override
+                public Set<CompositeData> apply(final StreamManagerMBean object) {
+                    return object.getCurrentStreams();
+                }
+            }, StreamManagerMBean.class, CassandraObjectNames.V3.STREAM_MANAGER);
+        } catch (final Exception ex) {
+            logger.debug(format("Unable to get stream plans for progress of %s: %s", operation.id, ex.getMessage()));
+            return;
+        }
+
+        if (streams == null) {
+            return;
+        }
+
+        final Map<String, Map<String, long[]>> current = new HashMap<>();
+
+        for (final CompositeData stream : streams) {
+            if (description.equals(get(stream, "description")) && get(stream, "planId") != null) {
+                current.put(get(stream, "planId").toString(), parsePlan(stream));
+            }
+        }
+
+        synchronized (this) {
+            if (!closed) {
+                update(current);
+            }
+        }
+    }
+
+    private void update(final Map<String, Map<String, long[]>> current) {
+        // a plan not in progress anymore has streamed all its bytes
+        for (final Map.Entry<String, Map<String, long[]>> plan : active.entrySet()) {
+            if (!current.containsKey(plan.getKey())) {
+                add(finished, plan.getValue(), true);
+            }
+        }
+
+        active.clear();
+        active.putAll(current);
+
+        final Map<String, long[]> bytes = new HashMap<>();
+
+        add(bytes, finished, false);
+        active.values().forEach(plan -> add(bytes, plan, false));
+
+        final long now = System.currentTimeMillis();
+
+        peers.accept(render(bytes, last, now - lastPoll));
+
+        last = bytes;
+        lastPoll = now;
+
+        long streamed = 0;
+        long total = 0;
+
+        for (final long[] peer : bytes.values()) {
+            streamed += peer[RECEIVED] + peer[SENT];
+            total += peer[TOTAL_RECEIVED] + peer[TOTAL_SENT];
+        }
+
+        if (total > 0) {
+            operation.progress = Math.max(operation.progress, Math.min(MAX_PROGRESS, (float) streamed / total));
+        }
+    }
+
+    private static Map<String, long[]> parsePlan(final CompositeData stream) {
+        final Map<String, long[]> plan = new HashMap<>();
+        final Object sessions = get(stream, "sessions");
+
+        if (!(sessions instanceof CompositeData[])) {
+            return plan;
+        }
+
+        for (final CompositeData session : (CompositeData[]) sessions) {
+            final Object peer = get(session, "peer");
+
+            if (peer == null) {
+                continue;
+            }
+
+            final long[] bytes = plan.computeIfAbsent(peer.toString(), key -> new long[4]);
+
+            bytes[RECEIVED] += sum(get(session, "receivingFiles"), "currentBytes");
+            bytes[TOTAL_RECEIVED] += sum(get(session, "receivingSummaries"), "totalSize");
+            bytes[SENT] += sum(get(session, "sendingFiles"), "currentBytes");
+            bytes[TOTAL_SENT] += sum(get(session, "sendingSummaries"), "totalSize");
+        }
+
+        return plan;
+    }
+
+    private static void add(final Map<String, long[]> to, final Map<String, long[]> from, final boolean complete) {
+        for (final Map.Entry<String, long[]> peer : from.entrySet()) {
+            final long[] bytes = to.computeIfAbsent(peer.getKey(), key -> new long[4]);
+
+            bytes[RECEIVED] += complete ? peer.getValue()[TOTAL_RECEIVED] : peer.getValue()[RECEIVED];
+            bytes[TOTAL_RECEIVED] += peer.getValue()[TOTAL_RECEIVED];
+            bytes[SENT] += complete ? peer.getValue()[TOTAL_SENT] : peer.getValue()[SENT];
+            bytes[TOTAL_SENT] += peer.getValue()[TOTAL_SENT];
+        }
+    }
+
+    private static Map<String, StreamingPeer> render(final Map<String, long[]> bytes, final Map<String, long[]> previous, final long elapsedMillis) {
+        final Map<String, StreamingPeer> rendered = new TreeMap<>();
+
+        for (final Map.Entry<String, long[]> peer : bytes.entrySet()) {
+            final long[] now = peer.getValue();
+            final long[] before = previous.getOrDefault(peer.getKey(), new long[4]);
+
+            rendered.put(peer.getKey(), new StreamingPeer(now[RECEIVED],
+                                                          now[TOTAL_RECEIVED],
+                                                          rate(now[RECEIVED] - before[RECEIVED], elapsedMillis),
+                                                          now[SENT],
+                                                          now[TOTAL_SENT],
+                                                          rate(now[SENT] - before[SENT], elapsedMillis)));
+        }
+
+        return rendered;
+    }
+
+    private static long rate(final long bytes, final long elapsedMillis) {
+        return elapsedMillis <= 0 ? 0 : Math.max(0, bytes * SECONDS.toMillis(1) / elapsedMillis);
+    }
+
+    private static long sum(final Object items, final String key) {
+        if (!(items instanceof CompositeData[])) {
+            return 0;
+        }
+
+        long sum = 0;
+
+        for (final CompositeData item : (CompositeData[]) items) {
+            final Object value = get(item, key);
+
+            if (value instanceof Number) {
+                sum += ((Number) value).longValue();
+            }
+        }
+
+        return sum;
+    }
+
+    private static Object get(final CompositeData data, final String key) {
+        return data != null && data.containsKey(key) ? data.get(key) : null;
+    }
+}
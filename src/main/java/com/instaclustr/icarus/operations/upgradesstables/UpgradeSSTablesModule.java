@@ -2,6 +2,8 @@ package com.instaclustr.icarus.operations.upgradesstables;
 
 import com.google.inject.AbstractModule;
 
+import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
+import static com.instaclustr.icarus.coordination.RollingOperationCoordinator.coordinatorType;
 import static com.instaclustr.operations.OperationBindings.installOperationBindings;
 
 public class UpgradeSSTablesModule extends AbstractModule {
@@ -11,5 +13,8 @@ public class UpgradeSSTablesModule extends AbstractModule {
                                  "upgradesstables",
                                  UpgradeSSTablesOperationRequest.class,
                                  UpgradeSSTablesOperation.class);
+
+        // bound to a coordinator only when running as a sidecar, see ServicesModule
+        newOptionalBinder(binder(), coordinatorType(UpgradeSSTablesOperationRequest.class));
     }
 }
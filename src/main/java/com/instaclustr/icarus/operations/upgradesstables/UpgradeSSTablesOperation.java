@@ -1,8 +1,11 @@
 package com.instaclustr.icarus.operations.upgradesstables;
 
+import static java.lang.String.format;
+
 import javax.inject.Provider;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
@@ -11,28 +14,33 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.icarus.operations.compaction.CompactionOperation;
+import com.instaclustr.icarus.operations.compaction.CompactionType;
 import com.instaclustr.operations.FunctionWithEx;
-import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationCoordinator;
 import com.instaclustr.operations.OperationFailureException;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class UpgradeSSTablesOperation extends Operation<UpgradeSSTablesOperationRequest> {
+public class UpgradeSSTablesOperation extends CompactionOperation<UpgradeSSTablesOperationRequest> {
 
     private static final Logger logger = LoggerFactory.getLogger(UpgradeSSTablesOperation.class);
 
     private final CassandraJMXService cassandraJMXService;
+    private final OperationCoordinator<UpgradeSSTablesOperationRequest> coordinator;
     private final Provider<CassandraVersion> cassandraVersionProvider;
 
     @Inject
     public UpgradeSSTablesOperation(final CassandraJMXService cassandraJMXService,
                                     final Provider<CassandraVersion> cassandraVersionProvider,
+                                    final Optional<OperationCoordinator<UpgradeSSTablesOperationRequest>> coordinator,
                                     @Assisted final UpgradeSSTablesOperationRequest request) {
         super(request);
 
         this.cassandraJMXService = cassandraJMXService;
+        this.coordinator = coordinator.orElse(null);
         this.cassandraVersionProvider = cassandraVersionProvider;
     }
 
@@ -49,7 +57,11 @@ public class UpgradeSSTablesOperation extends Operation<UpgradeSSTablesOperation
                                      @JsonProperty("keyspace") final String keyspace,
                                      @JsonProperty("tables") final Set<String> tables,
                                      @JsonProperty("includeAllSStables") final boolean includeAllSStables,
-                                     @JsonProperty("jobs") final int jobs) {
+                                     @JsonProperty("jobs") final int jobs,
+                                     @JsonProperty("globalRequest") final boolean globalRequest,
+                                     @JsonProperty("dc") final String dc,
+                                     @JsonProperty("concurrency") final int concurrency,
+                                     @JsonProperty("continueOnFailure") final boolean continueOnFailure) {
         super(type, id, creationTime, state, errors, progress, startTime, new UpgradeSSTablesOperationRequest(type,
                                                                                                               keyspace,
                                                                                                               tables,
@@ -57,10 +69,27 @@ public class UpgradeSSTablesOperation extends Operation<UpgradeSSTablesOperation
                                                                                                               jobs));
         cassandraJMXService = null;
         cassandraVersionProvider = null;
+        coordinator = null;
+
+        this.request.globalRequest = globalRequest;
+        this.request.dc = dc;
+        this.request.concurrency = concurrency;
+        this.request.continueOnFailure = continueOnFailure;
     }
 
     @Override
     protected void run0() throws Exception {
+        if (request.globalRequest) {
+            if (coordinator == null) {
+                throw new OperationFailureException("There is no operation coordinator.");
+            }
+
+            coordinator.coordinate(this);
+            // remote operations of a closed operation are cancelled by its coordinator
+            checkCancelled(format("%s of all nodes", request.type));
+            return;
+        }
+
         assert cassandraJMXService != null;
         assert cassandraVersionProvider != null;
 
@@ -80,7 +109,7 @@ public class UpgradeSSTablesOperation extends Operation<UpgradeSSTablesOperation
             }
         }
 
-        final Integer result = cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Integer>() {
+        final Integer result = compact(cassandraJMXService, CompactionType.UPGRADE_SSTABLES, request.keyspace, request.tables, () -> cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Integer>() {
             @Override
             public Integer apply(final StorageServiceMBean object) throws Exception {
                 return object.upgradeSSTables(request.keyspace,
@@ -88,7 +117,7 @@ public class UpgradeSSTablesOperation extends Operation<UpgradeSSTablesOperation
                                               request.jobs,
                                               request.tables == null ? new String[]{} : request.tables.toArray(new String[0]));
             }
-        });
+        }));
 
         switch (result) {
             case 1:
@@ -5,7 +5,7 @@ import java.util.Set;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.MoreObjects;
-import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.icarus.coordination.RollingOperationRequest;
 
 /**
  * <pre>
@@ -57,7 +57,7 @@ import com.instaclustr.operations.OperationRequest;
  *             The keyspace followed by one or many tables
  * }</pre>
  */
-public class UpgradeSSTablesOperationRequest extends OperationRequest {
+public class UpgradeSSTablesOperationRequest extends RollingOperationRequest {
 
     public final boolean includeAllSStables;
 
@@ -87,6 +87,10 @@ public class UpgradeSSTablesOperationRequest extends OperationRequest {
                           .add("tables", tables)
                           .add("jobs", jobs)
                           .add("includeAllSStables", includeAllSStables)
+                          .add("globalRequest", globalRequest)
+                          .add("dc", dc)
+                          .add("concurrency", concurrency)
+                          .add("continueOnFailure", continueOnFailure)
                           .toString();
     }
 }
\ No newline at end of file
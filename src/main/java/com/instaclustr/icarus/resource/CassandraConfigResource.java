@@ -1,29 +1,33 @@
 package com.instaclustr.icarus.resource;
 
+import com.google.inject.Inject;
+import com.instaclustr.icarus.service.CassandraConfigService;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.Response;
 
-import java.nio.file.Files;
-import java.nio.file.Paths;
 import java.util.Optional;
 
 @Path("/config")
 @Produces("application/yaml")
 public class CassandraConfigResource {
 
+    private final CassandraConfigService cassandraConfigService;
+
+    @Inject
+    @jakarta.inject.Inject
+    public CassandraConfigResource(final CassandraConfigService cassandraConfigService) {
+        this.cassandraConfigService = cassandraConfigService;
+    }
+
     @GET
     public Response getCassandraConfiguration() {
         try {
-            final Optional<java.nio.file.Path> cassandraYaml = Files.walk(Paths.get("/var/lib/cassandra")).filter(p -> {
-                String name = p.toFile().getName();
-
-                return name.startsWith("cassandra") && name.endsWith(".yaml");
-            }).findFirst();
+            final Optional<String> cassandraYaml = cassandraConfigService.getConfiguration();
 
             if (cassandraYaml.isPresent()) {
-                return Response.ok(new String(Files.readAllBytes(cassandraYaml.get())), "application/yaml").build();
+                return Response.ok(cassandraYaml.get(), "application/yaml").build();
             } else {
                 return Response.status(Response.Status.NOT_FOUND).build();
             }
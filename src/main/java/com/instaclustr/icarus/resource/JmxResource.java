@@ -0,0 +1,36 @@
+package com.instaclustr.icarus.resource;
+
+import com.google.inject.Inject;
+import com.instaclustr.icarus.service.ManagedCassandraJMXService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+
+/**
+ * State of the JMX connection to Cassandra and latencies of calls of MBean methods.
+ */
+@Path("/jmx")
+@Produces(MediaType.APPLICATION_JSON)
+public class JmxResource {
+
+    private final CassandraJMXService cassandraJMXService;
+
+    @Inject
+    @jakarta.inject.Inject
+    public JmxResource(final CassandraJMXService cassandraJMXService) {
+        this.cassandraJMXService = cassandraJMXService;
+    }
+
+    @GET
+    public Response getJmxStatus() {
+        if (!(cassandraJMXService instanceof ManagedCassandraJMXService)) {
+            // every call has its own connection, there is nothing to report
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        return Response.ok(((ManagedCassandraJMXService) cassandraJMXService).getStatus()).build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.instaclustr.icarus.resource;
+
+import java.util.Optional;
+
+import com.google.inject.Inject;
+import com.instaclustr.icarus.service.MetricsExporter;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Metrics of Cassandra in Prometheus text format, as they were read by the last refresh of {@link MetricsExporter}.
+ */
+@Path("/metrics")
+@Produces(MetricsResource.TEXT_FORMAT)
+public class MetricsResource {
+
+    public static final String TEXT_FORMAT = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsExporter metricsExporter;
+
+    @Inject
+    @jakarta.inject.Inject
+    public MetricsResource(final MetricsExporter metricsExporter) {
+        this.metricsExporter = metricsExporter;
+    }
+
+    @GET
+    public Response getMetrics() {
+        if (!MetricsExporter.ENABLED) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        final Optional<byte[]> exposition = metricsExporter.getExposition();
+
+        if (!exposition.isPresent()) {
+            // Cassandra has not been reachable since Icarus started
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+
+        return Response.ok(exposition.get()).build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.instaclustr.icarus.resource;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.inject.Inject;
+import com.instaclustr.icarus.service.OperationEventsService;
+import com.instaclustr.icarus.service.OperationEventsService.EventLog;
+import com.instaclustr.icarus.service.OperationEventsService.OperationEvent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Streams events of an operation as they happen, either as server-sent events or as newline delimited JSON.
+ * A stream ends when an operation is finished. A watcher which got disconnected resumes by passing the offset
+ * of the last event it has seen, as "offset" query parameter or, for server-sent events, as Last-Event-ID header.
+ */
+@Path("/operations")
+public class OperationEventsResource {
+
+    public static final String SERVER_SENT_EVENTS = "text/event-stream";
+    public static final String NDJSON = "application/x-ndjson";
+
+    // a watcher which is gone is found out only upon a write
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 15000;
+
+    private final OperationEventsService operationEventsService;
+    private final ObjectWriter objectWriter;
+
+    @Inject
+    @jakarta.inject.Inject
+    public OperationEventsResource(final OperationEventsService operationEventsService, final ObjectMapper objectMapper) {
+        this.operationEventsService = operationEventsService;
+        // an event has to be on a single line
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @GET
+    @Path("{id}/events")
+    @Produces(SERVER_SENT_EVENTS)
+    public Response getServerSentEvents(@NotNull @PathParam("id") final UUID id,
+                                        @QueryParam("offset") @DefaultValue("0") final long offset,
+                                        @HeaderParam("Last-Event-ID") final Long lastEventId) {
+        return stream(id, lastEventId != null ? lastEventId : offset, SERVER_SENT_EVENTS, new EventWriter() {
+            @Override
+            public void write(final OperationEvent event, final OutputStream output) throws IOException {
+                output.write(("id: " + event.offset + "\nevent: " + event.type.name().toLowerCase() + "\ndata: ").getBytes(UTF_8));
+                output.write(objectWriter.writeValueAsBytes(event));
+                output.write("\n\n".getBytes(UTF_8));
+            }
+
+            @Override
+            public void heartbeat(final OutputStream output) throws IOException {
+                output.write(":\n\n".getBytes(UTF_8));
+            }
+        });
+    }
+
+    @GET
+    @Path("{id}/events")
+    @Produces(NDJSON)
+    public Response getEvents(@NotNull @PathParam("id") final UUID id,
+                              @QueryParam("offset") @DefaultValue("0") final long offset) {
+        return stream(id, offset, NDJSON, new EventWriter() {
+            @Override
+            public void write(final OperationEvent event, final OutputStream output) throws IOException {
+                output.write(objectWriter.writeValueAsBytes(event));
+                output.write('\n');
+            }
+
+            @Override
+            public void heartbeat(final OutputStream output) throws IOException {
+                output.write('\n');
+            }
+        });
+    }
+
+    private Response stream(final UUID id, final long offset, final String mediaType, final EventWriter eventWriter) {
+        final Optional<EventLog> eventLog = operationEventsService.getEventLog(id);
+
+        if (!eventLog.isPresent()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        final StreamingOutput stream = output -> {
+            long lastOffset = offset;
+
+            try {
+                while (true) {
+                    final List<OperationEvent> events = eventLog.get().await(lastOffset, HEARTBEAT_INTERVAL_MILLIS);
+
+                    if (events.isEmpty()) {
+                        if (eventLog.get().isClosed()) {
+                            return;
+                        }
+
+                        eventWriter.heartbeat(output);
+                    }
+
+                    for (final OperationEvent event : events) {
+                        eventWriter.write(event, output);
+                        lastOffset = event.offset;
+                    }
+
+                    output.flush();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        return Response.ok(stream, mediaType).header("Cache-Control", "no-cache").build();
+    }
+
+    private interface EventWriter {
+
+        void write(final OperationEvent event, final OutputStream output) throws IOException;
+
+        void heartbeat(final OutputStream output) throws IOException;
+    }
+}
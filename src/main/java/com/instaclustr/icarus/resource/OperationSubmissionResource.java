@@ -0,0 +1,97 @@
+package com.instaclustr.icarus.resource;
+
+import java.net.URI;
+
+import com.google.inject.Inject;
+import com.instaclustr.esop.impl.backup.BackupOperationRequest;
+import com.instaclustr.icarus.service.OperationSubmissionService;
+import com.instaclustr.icarus.service.OperationSubmissionService.Submission;
+import com.instaclustr.icarus.service.UploadBandwidthService;
+import com.instaclustr.measure.DataRate;
+import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.picocli.typeconverter.DataRateMeasureTypeConverter;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Idempotent counterpart of POST /operations. A caller chooses a key of a submission and a repeated submission
+ * with the same key returns the operation submitted by the first one (200) instead of creating a new one (201).
+ * <p>
+ * A global backup may be submitted with "clusterBandwidth", e.g. ?clusterBandwidth=100MBPS, a budget its coordinator shares among
+ * nodes which are backing up at the moment, while bandwidth of its request stays a limit of every node.
+ */
+@Path("/operations")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class OperationSubmissionResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationSubmissionResource.class);
+
+    private final OperationSubmissionService operationSubmissionService;
+    private final UploadBandwidthService uploadBandwidthService;
+
+    @Inject
+    @jakarta.inject.Inject
+    public OperationSubmissionResource(final OperationSubmissionService operationSubmissionService,
+                                       final UploadBandwidthService uploadBandwidthService) {
+        this.operationSubmissionService = operationSubmissionService;
+        this.uploadBandwidthService = uploadBandwidthService;
+    }
+
+    @PUT
+    @Path("keyed/{key}")
+    public Response submitOperation(@NotNull @Pattern(regexp = "[A-Za-z0-9._-]{1,128}") @PathParam("key") final String key,
+                                    @QueryParam("clusterBandwidth") final String clusterBandwidth,
+                                    @Valid final OperationRequest request) {
+        if (clusterBandwidth != null) {
+            if (!(request instanceof BackupOperationRequest) || !((BackupOperationRequest) request).globalRequest) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("Cluster bandwidth applies only to global backups").build();
+            }
+
+            final DataRate budget;
+
+            try {
+                budget = new DataRateMeasureTypeConverter().convert(clusterBandwidth);
+            } catch (final Exception ex) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("Cluster bandwidth is not valid: " + ex.getMessage()).build();
+            }
+
+            if (budget.value <= 0) {
+                return Response.status(Response.Status.BAD_REQUEST).entity("Cluster bandwidth has to be positive").build();
+            }
+
+            uploadBandwidthService.setClusterBandwidth((BackupOperationRequest) request, budget);
+        }
+
+        final Submission submission;
+
+        try {
+            submission = operationSubmissionService.submit(key, request);
+        } catch (final IllegalStateException ex) {
+            return Response.status(Response.Status.CONFLICT).entity(ex.getMessage()).build();
+        }
+
+        if (!submission.created) {
+            logger.info("Operation {} was already submitted with key {}", submission.operation.id, key);
+            return Response.ok(submission.operation).build();
+        }
+
+        logger.info("Received operation {} with key {}", request, key);
+
+        final URI operationLocation = UriBuilder.fromPath("/operations/{id}").build(submission.operation.id);
+
+        return Response.created(operationLocation).entity(submission.operation).build();
+    }
+}
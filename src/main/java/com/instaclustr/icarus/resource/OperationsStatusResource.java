@@ -0,0 +1,132 @@
+package com.instaclustr.icarus.resource;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.inject.Inject;
+import com.instaclustr.icarus.service.OperationWatchService;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
+import com.instaclustr.icarus.service.OperationWatchService.WaitFor;
+import com.instaclustr.icarus.service.UploadBandwidthService;
+import com.instaclustr.measure.DataRate;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Complements operations endpoints from sidecar-common with endpoints meant for watching operations,
+ * mainly used by a coordinator of a global request, so it does not need to re-fetch an operation every few seconds.
+ */
+@Path("/operations")
+@Produces(MediaType.APPLICATION_JSON)
+public class OperationsStatusResource {
+
+    public static final int MAX_WAIT_TIMEOUT_SECONDS = 60;
+    public static final int MAX_STATUSES = 1000;
+
+    private final OperationWatchService operationWatchService;
+    private final UploadBandwidthService uploadBandwidthService;
+
+    @Inject
+    @jakarta.inject.Inject
+    public OperationsStatusResource(final OperationWatchService operationWatchService,
+                                    final UploadBandwidthService uploadBandwidthService) {
+        this.operationWatchService = operationWatchService;
+        this.uploadBandwidthService = uploadBandwidthService;
+    }
+
+    /**
+     * Long-poll for an operation. Returns as soon as the operation differs from what a caller already knows
+     * (waitFor=change) or when it is finished (waitFor=terminal). When timeout elapses first, the operation is returned as it is.
+     * With view=status, just the status of the operation is returned, as by bulk status endpoint.
+     */
+    @GET
+    @Path("{id}/wait")
+    public Response waitForOperation(@NotNull @PathParam("id") final UUID id,
+                                     @QueryParam("waitFor") @DefaultValue("change") final String waitFor,
+                                     @QueryParam("state") final State knownState,
+                                     @QueryParam("progress") @DefaultValue("0") final float knownProgress,
+                                     @QueryParam("timeout") @DefaultValue("30") final int timeout,
+                                     @QueryParam("view") @DefaultValue("operation") final String view) {
+        final WaitFor resolvedWaitFor;
+
+        try {
+            resolvedWaitFor = WaitFor.valueOf(waitFor.toUpperCase());
+        } catch (final IllegalArgumentException ex) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        try {
+            final Optional<Operation<?>> operation = operationWatchService.awaitChange(id,
+                                                                                        resolvedWaitFor,
+                                                                                        knownState,
+                                                                                        knownProgress,
+                                                                                        Math.max(0, Math.min(timeout, MAX_WAIT_TIMEOUT_SECONDS)),
+                                                                                        SECONDS);
+
+            if (!operation.isPresent()) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+
+            if ("status".equalsIgnoreCase(view)) {
+                return Response.ok(operationWatchService.getStatus(operation.get())).build();
+            }
+
+            return Response.ok(operation.get()).build();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Statuses of many operations at once, so a coordinator polling operations on this node sends one small request
+     * instead of fetching every operation. Operations which do not exist are not in the result.
+     */
+    @POST
+    @Path("status")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response getStatuses(@NotNull final List<UUID> ids) {
+        if (ids.size() > MAX_STATUSES) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(format("At most %s operations can be queried at once", MAX_STATUSES)).build();
+        }
+
+        final List<OperationStatus> statuses = operationWatchService.getStatuses(ids);
+
+        return Response.ok(statuses).build();
+    }
+
+    /**
+     * Changes the bandwidth of a running backup, a coordinator of a global backup shares a bandwidth budget
+     * of a cluster among nodes by it. Files which are being uploaded keep the bandwidth they have started with.
+     */
+    @PUT
+    @Path("{id}/bandwidth")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public Response setBandwidth(@NotNull @PathParam("id") final UUID id, @NotNull final DataRate bandwidth) {
+        if (bandwidth.value == null || bandwidth.unit == null || bandwidth.value <= 0) {
+            return Response.status(Response.Status.BAD_REQUEST).entity("Bandwidth has to be positive").build();
+        }
+
+        if (!uploadBandwidthService.setBandwidth(id, bandwidth)) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        return Response.noContent().build();
+    }
+}
@@ -0,0 +1,85 @@
+package com.instaclustr.icarus.resource;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.inject.Inject;
+import com.instaclustr.icarus.coordination.RestoreCheckpoint;
+import com.instaclustr.icarus.coordination.RestoreCheckpointStore;
+import com.instaclustr.icarus.coordination.RestoreCheckpointStore.Resumption;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationsService;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lists checkpoints of global restores this node has coordinated and have not completed,
+ * and resumes such restore, e.g. after this node was restarted in the middle of it.
+ */
+@Path("/operations")
+@Produces(MediaType.APPLICATION_JSON)
+public class RestoreCheckpointResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestoreCheckpointResource.class);
+
+    private final RestoreCheckpointStore restoreCheckpointStore;
+    private final OperationsService operationsService;
+
+    @Inject
+    @jakarta.inject.Inject
+    public RestoreCheckpointResource(final RestoreCheckpointStore restoreCheckpointStore,
+                                     final OperationsService operationsService) {
+        this.restoreCheckpointStore = restoreCheckpointStore;
+        this.operationsService = operationsService;
+    }
+
+    @GET
+    @Path("checkpoints")
+    public List<RestoreCheckpoint> getCheckpoints() {
+        return restoreCheckpointStore.list();
+    }
+
+    @GET
+    @Path("checkpoints/{id}")
+    public Response getCheckpoint(@NotNull @PathParam("id") final UUID id) {
+        return restoreCheckpointStore.load(id).map(checkpoint -> Response.ok(checkpoint).build()).orElse(Response.status(Response.Status.NOT_FOUND).build());
+    }
+
+    /**
+     * Submits a new global restore operation continuing from the given checkpoint. Phases which are completed
+     * on a node are skipped, phases which are still running on a node are reattached to.
+     */
+    @POST
+    @Path("checkpoints/{id}/resume")
+    public Response resume(@NotNull @PathParam("id") final UUID id) {
+        final Optional<Resumption> resumption = restoreCheckpointStore.resume(id, operationsService::operation, request -> {
+            logger.info("Resuming restore from checkpoint {}", id);
+            return operationsService.submitOperationRequest(request);
+        });
+
+        if (!resumption.isPresent()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        final Operation<?> operation = resumption.get().operation;
+
+        if (!resumption.get().resumed) {
+            return Response.status(Response.Status.CONFLICT).entity(operation).build();
+        }
+
+        final URI operationLocation = UriBuilder.fromPath("/operations/{id}").build(operation.id);
+
+        return Response.created(operationLocation).entity(operation).build();
+    }
+}
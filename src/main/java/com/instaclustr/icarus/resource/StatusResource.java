@@ -1,7 +1,9 @@
 package com.instaclustr.icarus.resource;
 
+import java.util.concurrent.TimeoutException;
+
 import com.google.inject.Inject;
-import com.instaclustr.icarus.service.CassandraStatusService;
+import com.instaclustr.icarus.service.CassandraStateCache;
 import com.instaclustr.icarus.service.CassandraStatusService.Status;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
@@ -13,18 +15,23 @@ import jakarta.ws.rs.core.Response;
 @Produces(MediaType.APPLICATION_JSON)
 public class StatusResource {
 
-    private final CassandraStatusService statusService;
+    private final CassandraStateCache cassandraStateCache;
 
     @Inject
     @jakarta.inject.Inject
-    public StatusResource(final CassandraStatusService statusService) {
-        this.statusService = statusService;
+    public StatusResource(final CassandraStateCache cassandraStateCache) {
+        this.cassandraStateCache = cassandraStateCache;
     }
 
     @GET
     public Response getStatus() {
 
-        final Status status = statusService.getStatus();
+        final Status status = cassandraStateCache.getStatus();
+
+        // Cassandra is too slow to tell its status right now
+        if (status.getException() instanceof TimeoutException) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(status).build();
+        }
 
         if (status.getException() != null) {
             return Response.serverError().entity(status).build();
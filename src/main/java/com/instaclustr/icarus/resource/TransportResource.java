@@ -0,0 +1,30 @@
+package com.instaclustr.icarus.resource;
+
+import com.google.inject.Inject;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Exposes statistics of the connection pool this sidecar uses when it coordinates other sidecars.
+ */
+@Path("/transport")
+@Produces(MediaType.APPLICATION_JSON)
+public class TransportResource {
+
+    private final IcarusClientTransport icarusClientTransport;
+
+    @Inject
+    @jakarta.inject.Inject
+    public TransportResource(final IcarusClientTransport icarusClientTransport) {
+        this.icarusClientTransport = icarusClientTransport;
+    }
+
+    @GET
+    public Response getTransportStatistics() {
+        return Response.ok(icarusClientTransport.getStatistics()).build();
+    }
+}
@@ -1,10 +1,9 @@
 package com.instaclustr.icarus.resource;
 
 import javax.inject.Inject;
-import javax.inject.Provider;
+import java.util.concurrent.TimeoutException;
 
-import com.instaclustr.cassandra.CassandraVersion;
-import com.instaclustr.icarus.service.CassandraService;
+import com.instaclustr.icarus.service.CassandraStateCache;
 import com.instaclustr.icarus.service.CassandraService.CassandraSchemaVersion;
 import com.instaclustr.version.Version;
 import jakarta.ws.rs.GET;
@@ -18,17 +17,14 @@ import jakarta.ws.rs.core.Response;
 public class VersionResource {
 
     private final Version version;
-    private final Provider<CassandraVersion> cassandraVersion;
-    private final CassandraService cassandraService;
+    private final CassandraStateCache cassandraStateCache;
 
     @Inject
     @jakarta.inject.Inject
     public VersionResource(final Version version,
-                           final Provider<CassandraVersion> cassandraVersion,
-                           final CassandraService cassandraService) {
+                           final CassandraStateCache cassandraStateCache) {
         this.version = version;
-        this.cassandraVersion = cassandraVersion;
-        this.cassandraService = cassandraService;
+        this.cassandraStateCache = cassandraStateCache;
     }
 
     @GET
@@ -45,13 +41,23 @@ public class VersionResource {
     @GET
     @Path("cassandra")
     public Response getCassandraVersion() {
-        return Response.ok(cassandraVersion.get()).build();
+        try {
+            return Response.ok(cassandraStateCache.getCassandraVersion()).build();
+        } catch (final TimeoutException ex) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(ex).build();
+        } catch (final Exception ex) {
+            return Response.serverError().entity(ex).build();
+        }
     }
 
     @GET
     @Path("schema")
     public Response getCassandraSchemaVersion() {
-        final CassandraSchemaVersion schemaVersion = cassandraService.getCassandraSchemaVersion();
+        final CassandraSchemaVersion schemaVersion = cassandraStateCache.getSchemaVersion();
+
+        if (schemaVersion.getException() instanceof TimeoutException) {
+            return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(schemaVersion.getException()).build();
+        }
 
         if (schemaVersion.getException() != null) {
             return Response.serverError().entity(schemaVersion.getException()).build();
@@ -6,6 +6,8 @@ import static com.instaclustr.operations.Operation.State.PENDING;
 import static com.instaclustr.operations.Operation.State.RUNNING;
 import static jakarta.ws.rs.core.MediaType.APPLICATION_JSON;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
 
 import java.io.Closeable;
@@ -13,17 +15,30 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.io.CharStreams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.instaclustr.cassandra.CassandraVersion;
 import com.instaclustr.esop.impl._import.ImportOperation;
 import com.instaclustr.esop.impl._import.ImportOperationRequest;
@@ -57,17 +72,24 @@ import com.instaclustr.icarus.operations.icarus.StopIcarusOperation;
 import com.instaclustr.icarus.operations.icarus.StopIcarusOperationRequest;
 import com.instaclustr.icarus.operations.scrub.ScrubOperation;
 import com.instaclustr.icarus.operations.scrub.ScrubOperationRequest;
+import com.instaclustr.icarus.operations.snapshot.DeleteSnapshotOperation;
+import com.instaclustr.icarus.operations.snapshot.DeleteSnapshotOperationRequest;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperation;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperationRequest;
 import com.instaclustr.icarus.operations.upgradesstables.UpgradeSSTablesOperation;
 import com.instaclustr.icarus.operations.upgradesstables.UpgradeSSTablesOperationRequest;
 import com.instaclustr.icarus.service.CassandraService.CassandraSchemaVersion;
 import com.instaclustr.icarus.service.CassandraStatusService.Status;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
 import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.measure.DataRate;
 import com.instaclustr.operations.Operation;
 import com.instaclustr.operations.Operation.State;
 import com.instaclustr.operations.OperationRequest;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientBuilder;
 import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.client.InvocationCallback;
 import jakarta.ws.rs.client.WebTarget;
 import jakarta.ws.rs.core.Response;
 import org.awaitility.Duration;
@@ -80,8 +102,16 @@ public class IcarusClient implements Closeable {
 
     private static final Logger logger = LoggerFactory.getLogger(IcarusClient.class);
 
+    // lookups of statuses made within this window are sent in one request
+    private static final long STATUS_BATCH_WINDOW_MILLIS = Long.parseLong(System.getProperty("icarus.client.status.batch.window", "50"));
+    private static final int MAX_STATUSES_PER_REQUEST = 1000;
+
     private final String rootUrl;
     private final Client client;
+    // a client of a shared transport is closed by the transport itself
+    private final boolean sharedClient;
+    // schedules polls of async API, either of a transport a client is built from or the one shared by all other clients
+    private final ScheduledExecutorService scheduler;
 
     private final WebTarget statusWebTarget;
     private final WebTarget operationsWebTarget;
@@ -94,10 +124,27 @@ public class IcarusClient implements Closeable {
     private final String hostAddress;
     private final String clusterName;
     private final String dc; // datacenter as Cassandra sees it
+    private final String rack; // rack as Cassandra sees it
     private final UUID hostId; // hostId as Cassandra sees it
     private final ObjectMapper objectMapper;
 
+    // lookups of statuses waiting to be sent, by operation id
+    private final Map<UUID, List<CompletableFuture<OperationStatus>>> pendingStatuses = new HashMap<>();
+    private boolean statusFlushScheduled;
+    // remote side does not support bulk status (older Icarus), statuses are read from whole operations
+    private volatile boolean bulkStatusUnsupported;
+
     private IcarusClient(final Builder builder, final Client client) {
+        this(builder, client, false, DefaultScheduler.INSTANCE);
+    }
+
+    private IcarusClient(final Builder builder, final IcarusClientTransport transport) {
+        this(builder, transport.getClient(), true, transport.getScheduler());
+    }
+
+    private IcarusClient(final Builder builder, final Client client, final boolean sharedClient, final ScheduledExecutorService scheduler) {
+        this.sharedClient = sharedClient;
+        this.scheduler = scheduler;
         this.hostAddress = builder.hostAddress;
         this.port = builder.port;
 
@@ -119,6 +166,7 @@ public class IcarusClient implements Closeable {
 
         this.clusterName = builder.clusterName;
         this.dc = builder.dc;
+        this.rack = builder.rack;
         this.hostId = builder.hostId;
 
         this.objectMapper = builder.objectMapper;
@@ -135,6 +183,7 @@ public class IcarusClient implements Closeable {
                 ", hostAddress='" + hostAddress + '\'' +
                 ", cluster=" + clusterName +
                 ", dc='" + dc + '\'' +
+                ", rack='" + rack + '\'' +
                 ", hostId=" + hostId +
                 '}';
     }
@@ -199,6 +248,10 @@ public class IcarusClient implements Closeable {
         return dc;
     }
 
+    public String getRack() {
+        return rack;
+    }
+
     public int getPort() {
         return port;
     }
@@ -259,6 +312,14 @@ public class IcarusClient implements Closeable {
         return performOperationSubmission(operationRequest);
     }
 
+    public OperationResult<SnapshotOperation> snapshot(final SnapshotOperationRequest operationRequest) {
+        return performOperationSubmission(operationRequest);
+    }
+
+    public OperationResult<DeleteSnapshotOperation> deleteSnapshot(final DeleteSnapshotOperationRequest operationRequest) {
+        return performOperationSubmission(operationRequest);
+    }
+
     public OperationResult<TruncateOperation> truncate(final TruncateOperationRequest operationRequest) {
         return performOperationSubmission(operationRequest);
     }
@@ -320,7 +381,7 @@ public class IcarusClient implements Closeable {
         return CharStreams.toString(new InputStreamReader((InputStream) response.getEntity()));
     }
 
-    public synchronized <T extends OperationRequest, O extends Operation<?>> OperationResult<O> performOperationSubmission(final T operationRequest) {
+    public <T extends OperationRequest, O extends Operation<?>> OperationResult<O> performOperationSubmission(final T operationRequest) {
 
         final Response post = operationsWebTarget.request(APPLICATION_JSON).post(Entity.json(operationRequest));
 
@@ -342,12 +403,97 @@ public class IcarusClient implements Closeable {
         return new OperationResult<>((O) parseString(stringBody, javaType), post);
     }
 
+    /**
+     * Submits an operation under a key. Submitting again with the same key returns the operation which was submitted
+     * first, so a submission whose response was lost can be safely repeated. If the remote side does not support keyed
+     * submissions (older Icarus), an operation is submitted as by {@link #performOperationSubmission(OperationRequest)}.
+     *
+     * @throws ResponseStatusException on a server error so a caller may retry
+     */
+    public <T extends OperationRequest, O extends Operation<?>> OperationResult<O> performOperationSubmission(final String key, final T operationRequest) {
+        return performOperationSubmission(key, operationRequest, null);
+    }
+
+    /**
+     * Submits a global backup under a key with a bandwidth budget its coordinator on the remote side shares among nodes.
+     * If the remote side does not support keyed submissions, a backup is submitted without its budget.
+     *
+     * @param clusterBandwidth budget of a backup, none when null
+     */
+    public <T extends OperationRequest, O extends Operation<?>> OperationResult<O> performOperationSubmission(final String key,
+                                                                                                             final T operationRequest,
+                                                                                                             final DataRate clusterBandwidth) {
+        final Response put = keyedWebTarget(key, clusterBandwidth).request(APPLICATION_JSON).put(Entity.json(operationRequest));
+
+        if (isUnsupported(put, "keyed submissions, submitting operation without a key")) {
+            return performOperationSubmission(operationRequest);
+        }
+
+        return readSubmission(put, operationRequest);
+    }
+
+    private WebTarget keyedWebTarget(final String key, final DataRate clusterBandwidth) {
+        final WebTarget keyed = operationsWebTarget.path("keyed").path(key);
+
+        return clusterBandwidth == null ? keyed : keyed.queryParam("clusterBandwidth", clusterBandwidth.asBytesPerSecond().value + DataRate.DataRateUnit.BPS.name());
+    }
+
+    /**
+     * @return true if a sidecar responded so because it does not have such endpoint (older Icarus)
+     */
+    public static boolean isUnsupported(final int status) {
+        return status == Response.Status.NOT_FOUND.getStatusCode() || status == Response.Status.METHOD_NOT_ALLOWED.getStatusCode();
+    }
+
+    private boolean isUnsupported(final Response response, final String what) {
+        if (isUnsupported(response.getStatus())) {
+            response.close();
+            logger.warn(format("Sidecar %s does not support %s", getHost(), what));
+            return true;
+        }
+
+        return false;
+    }
+
+    private <O extends Operation<?>> OperationResult<O> readSubmission(final Response response, final OperationRequest operationRequest) {
+        final String stringBody;
+
+        try {
+            stringBody = response.readEntity(String.class);
+        } catch (final Exception ex) {
+            throw new IllegalStateException("Unable to read operation back!", ex);
+        }
+
+        if (response.getStatusInfo().getFamily() == Response.Status.Family.SERVER_ERROR) {
+            throw new ResponseStatusException(format("Unable to submit operation to %s, returned code: %s", getHost(), response.getStatus()),
+                                              response.getStatus());
+        }
+
+        if (response.getStatusInfo().toEnum() != Response.Status.CREATED && response.getStatusInfo().toEnum() != Response.Status.OK) {
+            return new OperationResult<>(null, response);
+        }
+
+        final JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Operation.class, operationRequest.getClass());
+
+        return new OperationResult<>(parseOperation(stringBody, javaType), response);
+    }
+
     public Operation<?> getOperation(final UUID operationId) {
         return operationsWebTarget.path(operationId.toString()).request(APPLICATION_JSON).get(Operation.class);
     }
 
     public <T extends OperationRequest> Operation<T> getOperation(final UUID operationId, final Class<T> operationRequest) {
-        final String stringBody = operationsWebTarget.path(operationId.toString()).request(APPLICATION_JSON).get().readEntity(String.class);
+        final Response response = operationsWebTarget.path(operationId.toString()).request(APPLICATION_JSON).get();
+        final String stringBody = response.readEntity(String.class);
+
+        if (response.getStatusInfo().toEnum() != Response.Status.OK) {
+            throw new ResponseStatusException(format("Unable to get operation %s from %s, returned code: %s",
+                                                     operationId,
+                                                     getHost(),
+                                                     response.getStatus()),
+                                              response.getStatus());
+        }
+
         final JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Operation.class, operationRequest);
 
         return (Operation<T>) parseString(stringBody, javaType);
@@ -357,6 +503,618 @@ public class IcarusClient implements Closeable {
         return getOperation(operationId, (Class<T>) operationRequest.getClass());
     }
 
+    /**
+     * Long-polls for an operation until it differs from the given known state and progress or until it is finished.
+     * The remote side holds the request for at most timeoutSeconds and returns the operation as it is afterwards.
+     *
+     * @throws IllegalStateException when the remote side does not know such operation or it does not support waiting (older Icarus)
+     */
+    public <T extends OperationRequest> Operation<T> waitForOperationChange(final UUID operationId,
+                                                                             final Class<T> operationRequest,
+                                                                             final State knownState,
+                                                                             final float knownProgress,
+                                                                             final int timeoutSeconds) {
+        WebTarget webTarget = operationsWebTarget.path(operationId.toString()).path("wait")
+                .queryParam("progress", knownProgress)
+                .queryParam("timeout", timeoutSeconds);
+
+        if (knownState != null) {
+            webTarget = webTarget.queryParam("state", knownState.name());
+        }
+
+        final Response response = webTarget.request(APPLICATION_JSON).get();
+        final String stringBody = response.readEntity(String.class);
+
+        if (response.getStatusInfo().toEnum() != Response.Status.OK) {
+            throw new ResponseStatusException(format("Unable to wait for operation %s on %s, returned code: %s",
+                                                     operationId,
+                                                     getHost(),
+                                                     response.getStatus()),
+                                              response.getStatus());
+        }
+
+        final JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Operation.class, operationRequest);
+
+        return parseOperation(stringBody, javaType);
+    }
+
+    public <T extends OperationRequest> Operation<T> waitForOperationChange(final UUID operationId,
+                                                                             final T operationRequest,
+                                                                             final State knownState,
+                                                                             final float knownProgress,
+                                                                             final int timeoutSeconds) {
+        return waitForOperationChange(operationId, requestClass(operationRequest), knownState, knownProgress, timeoutSeconds);
+    }
+
+    // async API
+    //
+    // Requests are executed by the async executor of the underlying client. Waiting for an operation is done
+    // by scheduling short polls of its status, so neither a thread of a caller nor a thread of the executor
+    // is occupied by a node in between them. Long-polls are left to the blocking API as every request in flight
+    // holds a thread of the blocking connector.
+
+    public <T extends OperationRequest, O extends Operation<?>> CompletableFuture<OperationResult<O>> submitAsync(final T operationRequest) {
+        final CompletableFuture<OperationResult<O>> result = new CompletableFuture<>();
+
+        operationsWebTarget.request(APPLICATION_JSON).async().post(Entity.json(operationRequest), new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    final String stringBody = response.readEntity(String.class);
+
+                    if (response.getStatusInfo().toEnum() != Response.Status.CREATED) {
+                        result.complete(new OperationResult<>(null, response));
+                        return;
+                    }
+
+                    final JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Operation.class, operationRequest.getClass());
+
+                    result.complete(new OperationResult<>(parseOperation(stringBody, javaType), response));
+                } catch (final Exception ex) {
+                    result.completeExceptionally(new IllegalStateException("Unable to read operation back!", ex));
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Non-blocking variant of {@link #performOperationSubmission(String, OperationRequest)}.
+     */
+    public <T extends OperationRequest, O extends Operation<?>> CompletableFuture<OperationResult<O>> submitAsync(final String key, final T operationRequest) {
+        return submitAsync(key, operationRequest, (DataRate) null);
+    }
+
+    /**
+     * Non-blocking variant of {@link #performOperationSubmission(String, OperationRequest, DataRate)}.
+     */
+    public <T extends OperationRequest, O extends Operation<?>> CompletableFuture<OperationResult<O>> submitAsync(final String key,
+                                                                                                              final T operationRequest,
+                                                                                                              final DataRate clusterBandwidth) {
+        final CompletableFuture<OperationResult<O>> result = new CompletableFuture<>();
+
+        keyedWebTarget(key, clusterBandwidth).request(APPLICATION_JSON).async().put(Entity.json(operationRequest), new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                if (isUnsupported(response, "keyed submissions, submitting operation without a key")) {
+                    IcarusClient.this.<T, O>submitAsync(operationRequest).whenComplete((submitted, throwable) -> {
+                        if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            result.complete(submitted);
+                        }
+                    });
+                    return;
+                }
+
+                try {
+                    result.complete(readSubmission(response, operationRequest));
+                } catch (final Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Submits an operation under a key and repeats the submission while it fails transiently.
+     */
+    public <T extends OperationRequest, O extends Operation<?>> CompletableFuture<OperationResult<O>> submitAsync(final String key,
+                                                                                                              final T operationRequest,
+                                                                                                              final RetryPolicy retryPolicy) {
+        return submitAsync(key, operationRequest, null, retryPolicy);
+    }
+
+    /**
+     * Submits a global backup under a key with a bandwidth budget and repeats the submission while it fails transiently.
+     */
+    public <T extends OperationRequest, O extends Operation<?>> CompletableFuture<OperationResult<O>> submitAsync(final String key,
+                                                                                                              final T operationRequest,
+                                                                                                              final DataRate clusterBandwidth,
+                                                                                                              final RetryPolicy retryPolicy) {
+        return retryPolicy.executeAsync(() -> this.<T, O>submitAsync(key, operationRequest, clusterBandwidth), getScheduler());
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> getOperationAsync(final UUID operationId, final Class<T> operationRequest) {
+        final CompletableFuture<Operation<T>> result = new CompletableFuture<>();
+
+        operationsWebTarget.path(operationId.toString()).request(APPLICATION_JSON).async().get(new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    final String stringBody = response.readEntity(String.class);
+
+                    if (response.getStatusInfo().toEnum() != Response.Status.OK) {
+                        result.completeExceptionally(new ResponseStatusException(format("Unable to get operation %s from %s, returned code: %s",
+                                                                                        operationId,
+                                                                                        getHost(),
+                                                                                        response.getStatus()),
+                                                                                 response.getStatus()));
+                        return;
+                    }
+
+                    final JavaType javaType = objectMapper.getTypeFactory().constructParametricType(Operation.class, operationRequest);
+
+                    result.complete(parseOperation(stringBody, javaType));
+                } catch (final Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> getOperationAsync(final UUID operationId, final T operationRequest) {
+        return getOperationAsync(operationId, requestClass(operationRequest));
+    }
+
+    /**
+     * Gets statuses of operations in one request. Operations the remote side does not know are not in the result.
+     * If the remote side does not support it (older Icarus), returned future completes exceptionally
+     * by {@link ResponseStatusException} with status 404 or 405.
+     */
+    public CompletableFuture<List<OperationStatus>> getStatusesAsync(final Collection<UUID> operationIds) {
+        final CompletableFuture<List<OperationStatus>> result = new CompletableFuture<>();
+
+        operationsWebTarget.path("status").request(APPLICATION_JSON).async().post(Entity.json(operationIds), new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    final String stringBody = response.readEntity(String.class);
+
+                    if (response.getStatusInfo().toEnum() != Response.Status.OK) {
+                        result.completeExceptionally(new ResponseStatusException(format("Unable to get statuses of operations from %s, returned code: %s",
+                                                                                        getHost(),
+                                                                                        response.getStatus()),
+                                                                                 response.getStatus()));
+                        return;
+                    }
+
+                    result.complete(objectMapper.readValue(stringBody, objectMapper.getTypeFactory().constructCollectionType(List.class, OperationStatus.class)));
+                } catch (final Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Non-blocking variant of {@link #waitForOperationChange(UUID, Class, State, float, int)} which returns
+     * just the status of an operation. If the remote side does not support long-polling (older Icarus),
+     * returned future completes exceptionally by {@link ResponseStatusException} with status 404 or 405.
+     */
+    public CompletableFuture<OperationStatus> waitForStatusChangeAsync(final UUID operationId,
+                                                                      final State knownState,
+                                                                      final float knownProgress,
+                                                                      final int timeoutSeconds) {
+        final CompletableFuture<OperationStatus> result = new CompletableFuture<>();
+
+        WebTarget webTarget = operationsWebTarget.path(operationId.toString()).path("wait")
+                .queryParam("waitFor", "change")
+                .queryParam("view", "status")
+                .queryParam("progress", knownProgress)
+                .queryParam("timeout", timeoutSeconds);
+
+        if (knownState != null) {
+            webTarget = webTarget.queryParam("state", knownState.name());
+        }
+
+        webTarget.request(APPLICATION_JSON).async().get(new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    final String stringBody = response.readEntity(String.class);
+
+                    if (response.getStatusInfo().toEnum() != Response.Status.OK) {
+                        result.completeExceptionally(new ResponseStatusException(format("Unable to wait for operation %s on %s, returned code: %s",
+                                                                                        operationId,
+                                                                                        getHost(),
+                                                                                        response.getStatus()),
+                                                                                 response.getStatus()));
+                        return;
+                    }
+
+                    result.complete(objectMapper.readValue(stringBody, OperationStatus.class));
+                } catch (final Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Changes the bandwidth of a backup running on the remote side. If the remote side does not know such backup
+     * or it does not support it (older Icarus), returned future completes exceptionally by {@link ResponseStatusException}.
+     */
+    public CompletableFuture<Void> setBandwidthAsync(final UUID operationId, final DataRate bandwidth) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        operationsWebTarget.path(operationId.toString()).path("bandwidth").request(APPLICATION_JSON).async().put(Entity.json(bandwidth), new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                        result.completeExceptionally(new ResponseStatusException(format("Unable to change bandwidth of operation %s on %s, returned code: %s",
+                                                                                        operationId,
+                                                                                        getHost(),
+                                                                                        response.getStatus()),
+                                                                                 response.getStatus()));
+                        return;
+                    }
+
+                    result.complete(null);
+                } finally {
+                    response.close();
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Cancels an operation running on the remote side, as DELETE /operations/{id} does. The operation is cancelled
+     * once its work stops, returned future completes as soon as the remote side has been told to cancel it.
+     * If the remote side does not know such operation, returned future completes exceptionally by {@link ResponseStatusException}.
+     */
+    public CompletableFuture<Void> cancelOperationAsync(final UUID operationId) {
+        final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        operationsWebTarget.path(operationId.toString()).request(APPLICATION_JSON).async().delete(new InvocationCallback<Response>() {
+            @Override
+            public void completed(final Response response) {
+                try {
+                    if (response.getStatusInfo().getFamily() != Response.Status.Family.SUCCESSFUL) {
+                        result.completeExceptionally(new ResponseStatusException(format("Unable to cancel operation %s on %s, returned code: %s",
+                                                                                        operationId,
+                                                                                        getHost(),
+                                                                                        response.getStatus()),
+                                                                                 response.getStatus()));
+                        return;
+                    }
+
+                    result.complete(null);
+                } finally {
+                    response.close();
+                }
+            }
+
+            @Override
+            public void failed(final Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Gets a status of an operation. Lookups made by this client shortly one after another are sent together
+     * in one request of {@link #getStatusesAsync(Collection)}.
+     *
+     * @return future completed by a status, completed exceptionally by {@link ResponseStatusException} with status 404
+     * if the remote side does not know such operation
+     */
+    public CompletableFuture<OperationStatus> getStatusAsync(final UUID operationId) {
+        if (bulkStatusUnsupported) {
+            return getOperationAsync(operationId, OperationRequest.class).thenApply(OperationStatus::new);
+        }
+
+        final CompletableFuture<OperationStatus> result = new CompletableFuture<>();
+
+        synchronized (pendingStatuses) {
+            pendingStatuses.computeIfAbsent(operationId, id -> new ArrayList<>()).add(result);
+
+            if (statusFlushScheduled) {
+                return result;
+            }
+
+            statusFlushScheduled = true;
+        }
+
+        try {
+            getScheduler().schedule(this::flushStatuses, STATUS_BATCH_WINDOW_MILLIS, MILLISECONDS);
+        } catch (final Exception ex) {
+            flushStatuses();
+        }
+
+        return result;
+    }
+
+    private void flushStatuses() {
+        final Map<UUID, List<CompletableFuture<OperationStatus>>> batch;
+
+        synchronized (pendingStatuses) {
+            batch = new HashMap<>(pendingStatuses);
+            pendingStatuses.clear();
+            statusFlushScheduled = false;
+        }
+
+        for (final List<UUID> operationIds : Lists.partition(new ArrayList<>(batch.keySet()), MAX_STATUSES_PER_REQUEST)) {
+            getStatusesAsync(operationIds).whenComplete((statuses, throwable) -> {
+                if (throwable instanceof ResponseStatusException && isUnsupported(((ResponseStatusException) throwable).status)) {
+                    logger.warn(format("Sidecar %s does not support bulk status of operations, fetching operations one by one", getHost()));
+                    bulkStatusUnsupported = true;
+                }
+
+                for (final UUID operationId : operationIds) {
+                    for (final CompletableFuture<OperationStatus> result : batch.get(operationId)) {
+                        if (bulkStatusUnsupported) {
+                            getStatusAsync(operationId).whenComplete((status, t) -> {
+                                if (t != null) {
+                                    result.completeExceptionally(t);
+                                } else {
+                                    result.complete(status);
+                                }
+                            });
+                        } else if (throwable != null) {
+                            result.completeExceptionally(throwable);
+                        } else {
+                            final Optional<OperationStatus> status = statuses.stream().filter(s -> operationId.equals(s.id)).findFirst();
+
+                            if (status.isPresent()) {
+                                result.complete(status.get());
+                            } else {
+                                result.completeExceptionally(new ResponseStatusException(format("Unable to get status of operation %s from %s, returned code: %s",
+                                                                                                operationId,
+                                                                                                getHost(),
+                                                                                                Response.Status.NOT_FOUND.getStatusCode()),
+                                                                                         Response.Status.NOT_FOUND.getStatusCode()));
+                            }
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for an operation until it is in a terminal state. The operation is fetched whole only at first and once it is finished,
+     * in between just its status is polled periodically, see {@link #getStatusAsync(UUID)}, so statuses of operations polled
+     * at about the same time are fetched in one request.
+     *
+     * @param operationId      id of an operation to wait for
+     * @param operationRequest type of request of such operation
+     * @param pollInterval     time between two polls
+     * @param timeout          time after which returned future completes exceptionally with {@link TimeoutException}
+     * @param unit             unit of pollInterval and timeout
+     * @param retryPolicy      tells how many consecutive polls may fail transiently before giving up
+     * @param onUpdate         called with every fetched state of an operation, terminal one included, together with a status
+     *                         the operation was updated by, the status is null when the operation was fetched whole
+     * @return future completed by an operation in its terminal state, completed exceptionally if an operation can not be fetched or on timeout.
+     * Cancelling returned future stops polling.
+     */
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final Class<T> operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final RetryPolicy retryPolicy,
+                                                                                        final BiConsumer<Operation<T>, OperationStatus> onUpdate) {
+        final CompletableFuture<Operation<T>> result = new CompletableFuture<>();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        poll(operationId, operationRequest, null, pollInterval, unit, deadline, retryPolicy, 0, onUpdate, result);
+
+        return result;
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final Class<T> operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final RetryPolicy retryPolicy,
+                                                                                        final Consumer<Operation<T>> onUpdate) {
+        return awaitTerminalAsync(operationId, operationRequest, pollInterval, timeout, unit, retryPolicy, (operation, status) -> onUpdate.accept(operation));
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final Class<T> operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final Consumer<Operation<T>> onUpdate) {
+        return awaitTerminalAsync(operationId, operationRequest, pollInterval, timeout, unit, RetryPolicy.NONE, onUpdate);
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final T operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final RetryPolicy retryPolicy,
+                                                                                        final BiConsumer<Operation<T>, OperationStatus> onUpdate) {
+        return awaitTerminalAsync(operationId, requestClass(operationRequest), pollInterval, timeout, unit, retryPolicy, onUpdate);
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final T operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final RetryPolicy retryPolicy,
+                                                                                        final Consumer<Operation<T>> onUpdate) {
+        return awaitTerminalAsync(operationId, requestClass(operationRequest), pollInterval, timeout, unit, retryPolicy, onUpdate);
+    }
+
+    public <T extends OperationRequest> CompletableFuture<Operation<T>> awaitTerminalAsync(final UUID operationId,
+                                                                                        final T operationRequest,
+                                                                                        final long pollInterval,
+                                                                                        final long timeout,
+                                                                                        final TimeUnit unit,
+                                                                                        final Consumer<Operation<T>> onUpdate) {
+        return awaitTerminalAsync(operationId, requestClass(operationRequest), pollInterval, timeout, unit, onUpdate);
+    }
+
+    private <T extends OperationRequest> void poll(final UUID operationId,
+                                                   final Class<T> operationRequest,
+                                                   final Operation<T> known,
+                                                   final long pollInterval,
+                                                   final TimeUnit unit,
+                                                   final long deadline,
+                                                   final RetryPolicy retryPolicy,
+                                                   final int failedAttempts,
+                                                   final BiConsumer<Operation<T>, OperationStatus> onUpdate,
+                                                   final CompletableFuture<Operation<T>> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        final AtomicReference<OperationStatus> status = new AtomicReference<>();
+
+        refreshOperationAsync(operationId, operationRequest, known, status::set).whenComplete((operation, throwable) -> {
+            if (result.isDone()) {
+                return;
+            }
+
+            if (throwable != null) {
+                if (!retryPolicy.shouldRetry(failedAttempts + 1, throwable) || System.nanoTime() >= deadline) {
+                    result.completeExceptionally(throwable);
+                    return;
+                }
+
+                final long delay = retryPolicy.delayMillis(failedAttempts + 1);
+
+                logger.warn(format("Unable to get operation %s from %s (attempt %s of %s), retrying in %sms: %s",
+                                   operationId,
+                                   getHost(),
+                                   failedAttempts + 1,
+                                   retryPolicy.maxAttempts,
+                                   delay,
+                                   throwable.getMessage()));
+
+                try {
+                    getScheduler().schedule(() -> poll(operationId, operationRequest, known, pollInterval, unit, deadline, retryPolicy, failedAttempts + 1, onUpdate, result),
+                                            delay,
+                                            MILLISECONDS);
+                } catch (final Exception ex) {
+                    result.completeExceptionally(throwable);
+                }
+
+                return;
+            }
+
+            try {
+                onUpdate.accept(operation, status.get());
+            } catch (final Exception ex) {
+                logger.warn(format("Unable to process update of operation %s from %s", operationId, getHost()), ex);
+            }
+
+            if (operation.state.isTerminalState()) {
+                result.complete(operation);
+            } else if (System.nanoTime() >= deadline) {
+                result.completeExceptionally(new TimeoutException(format("Operation %s on %s is not finished in time", operationId, getHost())));
+            } else {
+                try {
+                    getScheduler().schedule(() -> poll(operationId, operationRequest, operation, pollInterval, unit, deadline, retryPolicy, 0, onUpdate, result),
+                                            pollInterval,
+                                            unit);
+                } catch (final Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+            }
+        });
+    }
+
+    /**
+     * Fetches an operation whole for the first time and once it is finished. In between, only its status is fetched
+     * and applied to the operation fetched before.
+     */
+    private <T extends OperationRequest> CompletableFuture<Operation<T>> refreshOperationAsync(final UUID operationId,
+                                                                                            final Class<T> operationRequest,
+                                                                                            final Operation<T> known,
+                                                                                            final Consumer<OperationStatus> onStatus) {
+        if (known == null) {
+            return getOperationAsync(operationId, operationRequest);
+        }
+
+        return getStatusAsync(operationId).thenCompose(status -> {
+            onStatus.accept(status);
+
+            if (status.state != null && status.state.isTerminalState()) {
+                return getOperationAsync(operationId, operationRequest);
+            }
+
+            status.applyTo(known);
+
+            return CompletableFuture.completedFuture(known);
+        });
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    // the cast is safe as Jackson creates an object of the given java type
+    @SuppressWarnings("unchecked")
+    private <O> O parseOperation(final String body, final JavaType javaType) {
+        return (O) parseString(body, javaType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends OperationRequest> Class<T> requestClass(final T operationRequest) {
+        return (Class<T>) operationRequest.getClass();
+    }
+
     private Object parseString(final String body, final JavaType javaType) {
         Object o = null;
 
@@ -371,10 +1129,34 @@ public class IcarusClient implements Closeable {
 
     @Override
     public void close() {
+        if (sharedClient) {
+            return;
+        }
+
         logger.debug("Closing Sidecar client {}", this.getHost());
         client.close();
     }
 
+    /**
+     * Schedules polls of async API of all clients which are not built from a transport. Its threads are daemon threads
+     * which are started on demand and time out when idle, so it is never shut down.
+     */
+    private static final class DefaultScheduler {
+
+        private static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(IcarusClientTransport.SCHEDULER_THREADS,
+                                                                                         new ThreadFactoryBuilder().setNameFormat("icarus-client-scheduler-default-%d")
+                                                                                                                   .setDaemon(true)
+                                                                                                                   .build());
+            executor.setKeepAliveTime(IcarusClientTransport.IDLE_TIMEOUT_SECONDS, SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+
     public static final class Builder {
 
         private String hostAddress = "localhost";
@@ -383,6 +1165,7 @@ public class IcarusClient implements Closeable {
 
         private String clusterName;
         public String dc;
+        private String rack;
         private UUID hostId;
 
         private ObjectMapper objectMapper;
@@ -406,6 +1189,11 @@ public class IcarusClient implements Closeable {
             return this;
         }
 
+        public Builder withRack(final String rack) {
+            this.rack = rack;
+            return this;
+        }
+
         public Builder withClusterName(final String clusterName) {
             this.clusterName = clusterName;
             return this;
@@ -425,6 +1213,13 @@ public class IcarusClient implements Closeable {
             return new IcarusClient(this, client);
         }
 
+        /**
+         * Builds a client which uses connections of a shared transport, closing such client does not close the transport.
+         */
+        public IcarusClient build(final IcarusClientTransport transport) {
+            return new IcarusClient(this, transport);
+        }
+
         public IcarusClient build(final ResourceConfig resourceConfig) {
             return new IcarusClient(this, resourceConfig);
         }
@@ -445,6 +1240,21 @@ public class IcarusClient implements Closeable {
         }
     }
 
+    /**
+     * Thrown when a sidecar responds with an unexpected status.
+     */
+    public static class ResponseStatusException extends IllegalStateException {
+
+        private static final long serialVersionUID = 1L;
+
+        public final int status;
+
+        public ResponseStatusException(final String message, final int status) {
+            super(message);
+            this.status = status;
+        }
+    }
+
     public static class OperationResult<O extends Operation<?>> {
 
         public final O operation;
@@ -0,0 +1,171 @@
+package com.instaclustr.icarus.rest;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Process-wide HTTP transport shared by all {@link IcarusClient} instances a coordinator creates.
+ * <p>
+ * Connections are pooled per sidecar endpoint and kept alive between operations and their phases,
+ * so a global request does not pay connection setup for every node and every phase again.
+ * Connections idle for too long are evicted periodically.
+ * <p>
+ * The Apache connector is blocking, so a request of async API occupies a thread of the async executor until it returns.
+ * Async API therefore never long-polls, it waits for operations by short polls scheduled on {@link #getScheduler()}
+ * and a few async threads serve all nodes of a coordinator. {@link TransportStatistics#queuedRequests} shows
+ * when requests queue behind each other and icarus.client.async.threads should be raised.
+ */
+public class IcarusClientTransport extends AbstractScheduledService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IcarusClientTransport.class);
+
+    public static final int MAX_TOTAL_CONNECTIONS = Integer.parseInt(System.getProperty("icarus.client.pool.max.total", "500"));
+    public static final int MAX_CONNECTIONS_PER_ENDPOINT = Integer.parseInt(System.getProperty("icarus.client.pool.max.per.endpoint", "10"));
+    public static final int IDLE_TIMEOUT_SECONDS = Integer.parseInt(System.getProperty("icarus.client.pool.idle.timeout", "60"));
+    public static final int CONNECT_TIMEOUT_MILLIS = Integer.parseInt(System.getProperty("icarus.client.connect.timeout", "10000"));
+    // has to be longer than the longest time an operation can be long-polled for by blocking API
+    public static final int READ_TIMEOUT_MILLIS = Integer.parseInt(System.getProperty("icarus.client.read.timeout", "300000"));
+    // threads executing requests of async API, they are started only when needed
+    public static final int ASYNC_THREADS = Integer.parseInt(System.getProperty("icarus.client.async.threads", "8"));
+    // threads scheduling polls of operations
+    public static final int SCHEDULER_THREADS = Integer.parseInt(System.getProperty("icarus.client.scheduler.threads", "2"));
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final Client client;
+    private final ThreadPoolExecutor asyncExecutor;
+    private final ScheduledExecutorService scheduler;
+
+    public IcarusClientTransport() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(MAX_TOTAL_CONNECTIONS);
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ENDPOINT);
+        connectionManager.setValidateAfterInactivity(2000);
+
+        final ClientConfig clientConfig = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+                // lifecycle of the manager is driven by this service, not by the client
+                .property(ApacheClientProperties.CONNECTION_MANAGER_SHARED, true)
+                .property(ClientProperties.CONNECT_TIMEOUT, CONNECT_TIMEOUT_MILLIS)
+                .property(ClientProperties.READ_TIMEOUT, READ_TIMEOUT_MILLIS)
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+
+        asyncExecutor = new ThreadPoolExecutor(ASYNC_THREADS,
+                                               ASYNC_THREADS,
+                                               IDLE_TIMEOUT_SECONDS,
+                                               SECONDS,
+                                               new LinkedBlockingQueue<>(),
+                                               new ThreadFactoryBuilder().setNameFormat("icarus-client-async-%d").setDaemon(true).build());
+        // threads are not kept while there is nothing to wait for
+        asyncExecutor.allowCoreThreadTimeOut(true);
+
+        client = ClientBuilder.newBuilder().withConfig(clientConfig).executorService(asyncExecutor).build();
+        scheduler = Executors.newScheduledThreadPool(SCHEDULER_THREADS, new ThreadFactoryBuilder().setNameFormat("icarus-client-scheduler-%d").setDaemon(true).build());
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    public TransportStatistics getStatistics() {
+        final Map<String, PoolStatistics> endpoints = new TreeMap<>();
+
+        for (final HttpRoute route : connectionManager.getRoutes()) {
+            endpoints.put(route.getTargetHost().toHostString(), new PoolStatistics(connectionManager.getStats(route)));
+        }
+
+        return new TransportStatistics(new PoolStatistics(connectionManager.getTotalStats()),
+                                       endpoints,
+                                       asyncExecutor.getActiveCount(),
+                                       asyncExecutor.getQueue().size());
+    }
+
+    @Override
+    protected void runOneIteration() {
+        try {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(IDLE_TIMEOUT_SECONDS, SECONDS);
+        } catch (final Exception ex) {
+            logger.warn("Unable to evict idle connections of sidecar clients", ex);
+        }
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(IDLE_TIMEOUT_SECONDS, IDLE_TIMEOUT_SECONDS, SECONDS);
+    }
+
+    @Override
+    protected void shutDown() {
+        try {
+            scheduler.shutdownNow();
+            client.close();
+            asyncExecutor.shutdownNow();
+        } finally {
+            connectionManager.shutdown();
+        }
+    }
+
+    public static class TransportStatistics {
+
+        public final PoolStatistics total;
+        public final Map<String, PoolStatistics> endpoints;
+        // requests of async API in flight, each of them occupies a thread
+        public final int activeRequests;
+        // requests of async API waiting for a thread as all of them are busy
+        public final int queuedRequests;
+
+        public TransportStatistics(final PoolStatistics total,
+                                   final Map<String, PoolStatistics> endpoints,
+                                   final int activeRequests,
+                                   final int queuedRequests) {
+            this.total = total;
+            this.endpoints = endpoints;
+            this.activeRequests = activeRequests;
+            this.queuedRequests = queuedRequests;
+        }
+    }
+
+    public static class PoolStatistics {
+
+        // connections currently used by a request
+        public final int leased;
+        // connections kept alive and ready to be reused
+        public final int idle;
+        // requests waiting for a connection to be available
+        public final int waiting;
+        public final int max;
+
+        public PoolStatistics(final PoolStats poolStats) {
+            this.leased = poolStats.getLeased();
+            this.idle = poolStats.getAvailable();
+            this.waiting = poolStats.getPending();
+            this.max = poolStats.getMax();
+        }
+    }
+}
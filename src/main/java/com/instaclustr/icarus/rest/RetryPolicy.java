@@ -0,0 +1,165 @@
+package com.instaclustr.icarus.rest;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import com.instaclustr.icarus.rest.IcarusClient.ResponseStatusException;
+import jakarta.ws.rs.ProcessingException;
+
+/**
+ * Tells how many times and how often a request against a sidecar is retried when it fails transiently,
+ * e.g. on a network hiccup or when a sidecar responds with a server error. Delays between attempts grow exponentially,
+ * with a random jitter so retries of many nodes failing at once are spread out.
+ */
+public class RetryPolicy {
+
+    public static final RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    public final int maxAttempts;
+    public final long initialDelayMillis;
+    public final long maxDelayMillis;
+
+    public RetryPolicy(final int maxAttempts, final long initialDelayMillis, final long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialDelayMillis = initialDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Resolves a policy from icarus.client.retry.attempts, icarus.client.retry.initial.delay
+     * and icarus.client.retry.max.delay system properties, delays are in milliseconds.
+     */
+    public static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(Integer.parseInt(System.getProperty("icarus.client.retry.attempts", "6")),
+                               Long.parseLong(System.getProperty("icarus.client.retry.initial.delay", "1000")),
+                               Long.parseLong(System.getProperty("icarus.client.retry.max.delay", "30000")));
+    }
+
+    /**
+     * @param failedAttempts number of attempts which have failed so far
+     * @param throwable      failure of the last attempt
+     * @return true if another attempt should be made
+     */
+    public boolean shouldRetry(final int failedAttempts, final Throwable throwable) {
+        return failedAttempts < maxAttempts && isTransient(throwable);
+    }
+
+    /**
+     * @param failedAttempts number of attempts which have failed so far, at least 1
+     * @return time to wait before the next attempt
+     */
+    public long delayMillis(final int failedAttempts) {
+        final long delay = Math.min(maxDelayMillis, initialDelayMillis << Math.min(failedAttempts - 1, 20));
+
+        if (delay <= 1) {
+            return delay;
+        }
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2);
+    }
+
+    /**
+     * Runs an action until it succeeds, fails permanently or runs out of attempts, sleeping in between.
+     */
+    public <V> V execute(final Attempt<V> attempt) throws Exception {
+        int failedAttempts = 0;
+
+        while (true) {
+            try {
+                return attempt.run();
+            } catch (final InterruptedException ex) {
+                throw ex;
+            } catch (final Exception ex) {
+                if (!shouldRetry(++failedAttempts, ex)) {
+                    throw ex;
+                }
+
+                MILLISECONDS.sleep(delayMillis(failedAttempts));
+            }
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(Attempt)}, next attempts are scheduled on the given scheduler.
+     */
+    public <V> CompletableFuture<V> executeAsync(final Supplier<CompletableFuture<V>> attempt, final ScheduledExecutorService scheduler) {
+        final CompletableFuture<V> result = new CompletableFuture<>();
+        executeAsync(attempt, scheduler, 0, result);
+        return result;
+    }
+
+    private <V> void executeAsync(final Supplier<CompletableFuture<V>> attempt,
+                                  final ScheduledExecutorService scheduler,
+                                  final int failedAttempts,
+                                  final CompletableFuture<V> result) {
+        if (result.isDone()) {
+            return;
+        }
+
+        attempt.get().whenComplete((value, throwable) -> {
+            if (throwable == null) {
+                result.complete(value);
+                return;
+            }
+
+            final Throwable cause = unwrap(throwable);
+
+            if (!shouldRetry(failedAttempts + 1, cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            try {
+                scheduler.schedule(() -> executeAsync(attempt, scheduler, failedAttempts + 1, result), delayMillis(failedAttempts + 1), MILLISECONDS);
+            } catch (final Exception ex) {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * A failure is transient when a request has not reached a sidecar or its response was lost,
+     * or when a sidecar has responded with a server error. A sidecar saying that an operation does not exist
+     * or that a request is invalid is not, as asking again would yield the same.
+     */
+    public static boolean isTransient(final Throwable throwable) {
+        final Throwable cause = unwrap(throwable);
+
+        if (cause instanceof ResponseStatusException) {
+            final int status = ((ResponseStatusException) cause).status;
+            return status >= 500 || status == 408 || status == 429;
+        }
+
+        return cause instanceof ProcessingException || cause instanceof IOException;
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        if ((throwable instanceof CompletionException || throwable instanceof ExecutionException) && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+
+        return throwable;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxAttempts=" + maxAttempts +
+                ", initialDelayMillis=" + initialDelayMillis +
+                ", maxDelayMillis=" + maxDelayMillis +
+                '}';
+    }
+
+    @FunctionalInterface
+    public interface Attempt<V> {
+
+        V run() throws Exception;
+    }
+}
@@ -0,0 +1,194 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content of cassandra.yaml of the node. The file is looked up once, its content is kept in memory
+ * and read again only when its directory changes, so a request does not touch a disk.
+ * <p>
+ * Unless a path is configured, the file is searched for in a data directory of Cassandra, which is expensive
+ * as it contains all SSTables, so a search which has not found anything is repeated once a minute at most.
+ */
+@Singleton
+public class CassandraConfigService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CassandraConfigService.class);
+
+    // path to cassandra.yaml, it is searched for in icarus.cassandra.config.search.dir when not set
+    public static final String CONFIG_FILE = System.getProperty("icarus.cassandra.config");
+    public static final Path SEARCH_DIR = Paths.get(System.getProperty("icarus.cassandra.config.search.dir", "/var/lib/cassandra"));
+
+    private static final long SEARCH_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Path configuredFile;
+    private final Path searchDir;
+
+    private Path configFile;
+    private long lastSearch;
+    private boolean watching;
+
+    // null when it has to be read from a disk
+    private volatile Optional<String> content;
+
+    @Inject
+    public CassandraConfigService() {
+        this(CONFIG_FILE == null ? null : Paths.get(CONFIG_FILE), SEARCH_DIR);
+    }
+
+    /**
+     * @param configuredFile path to cassandra.yaml, it is searched for in a search directory when null
+     */
+    protected CassandraConfigService(final Path configuredFile, final Path searchDir) {
+        this.configuredFile = configuredFile;
+        this.searchDir = searchDir;
+    }
+
+    /**
+     * @return content of cassandra.yaml, empty if there is not any
+     */
+    public Optional<String> getConfiguration() throws IOException {
+        final Optional<String> cached = content;
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return load();
+    }
+
+    private synchronized Optional<String> load() throws IOException {
+        if (content != null) {
+            return content;
+        }
+
+        final Path file = resolve();
+
+        if (file == null) {
+            return Optional.empty();
+        }
+
+        // watched before it is read, so a change made while reading it is not missed
+        final boolean watched = watch(file);
+        final Optional<String> loaded = Files.isRegularFile(file) ? Optional.of(new String(Files.readAllBytes(file), UTF_8)) : Optional.empty();
+
+        // without a watch, the file is read on every request rather than being stale
+        if (watched) {
+            content = loaded;
+        }
+
+        return loaded;
+    }
+
+    private Path resolve() throws IOException {
+        if (configFile != null) {
+            return configFile;
+        }
+
+        if (configuredFile != null) {
+            configFile = configuredFile.toAbsolutePath();
+            return configFile;
+        }
+
+        final long now = System.currentTimeMillis();
+
+        if (lastSearch != 0 && now - lastSearch < SEARCH_INTERVAL_MILLIS) {
+            return null;
+        }
+
+        lastSearch = now;
+
+        if (!Files.isDirectory(searchDir)) {
+            return null;
+        }
+
+        try (final Stream<Path> paths = Files.walk(searchDir)) {
+            configFile = paths.filter(path -> {
+                final String name = path.getFileName().toString();
+
+                return name.startsWith("cassandra") && name.endsWith(".yaml");
+            }).findFirst().map(Path::toAbsolutePath).orElse(null);
+        }
+
+        if (configFile != null) {
+            logger.info(format("Found configuration of Cassandra at %s", configFile));
+        }
+
+        return configFile;
+    }
+
+    private boolean watch(final Path file) {
+        if (watching) {
+            return true;
+        }
+
+        final WatchService watchService;
+
+        try {
+            watchService = file.getFileSystem().newWatchService();
+            // a directory is watched as a file might be replaced by another one, e.g. a config map in Kubernetes
+            file.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        } catch (final Exception ex) {
+            logger.warn(format("Unable to watch %s for changes, it will be read on every request: %s", file, ex.getMessage()));
+            return false;
+        }
+
+        final Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    final WatchKey key = watchService.take();
+
+                    key.pollEvents();
+                    invalidate();
+
+                    if (!key.reset()) {
+                        logger.info(format("Directory of %s is not watched anymore, it is watched again on the next request", file));
+                        break;
+                    }
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (this) {
+                    watching = false;
+                    content = null;
+                }
+
+                try {
+                    watchService.close();
+                } catch (final IOException ex) {
+                    logger.debug(format("Unable to close watch service: %s", ex.getMessage()));
+                }
+            }
+        }, "cassandra-config-watcher");
+
+        watcher.setDaemon(true);
+        watcher.start();
+
+        watching = true;
+
+        return true;
+    }
+
+    private synchronized void invalidate() {
+        content = null;
+    }
+}
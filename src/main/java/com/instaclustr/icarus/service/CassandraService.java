@@ -1,7 +1,6 @@
 package com.instaclustr.icarus.service;
 
 import com.google.inject.Inject;
-import com.instaclustr.esop.topology.CassandraClusterTopology;
 import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
 import com.instaclustr.operations.FunctionWithEx;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
@@ -10,10 +9,13 @@ import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
 public class CassandraService {
 
     private final CassandraJMXService cassandraJMXService;
+    private final ClusterTopologyService clusterTopologyService;
 
     @Inject
-    public CassandraService(final CassandraJMXService cassandraJMXService) {
+    public CassandraService(final CassandraJMXService cassandraJMXService,
+                            final ClusterTopologyService clusterTopologyService) {
         this.cassandraJMXService = cassandraJMXService;
+        this.clusterTopologyService = clusterTopologyService;
     }
 
     public CassandraSchemaVersion getCassandraSchemaVersion() {
@@ -36,7 +38,7 @@ public class CassandraService {
     }
 
     public ClusterTopology getClusterTopology(final String dc) throws Exception {
-        return new CassandraClusterTopology(cassandraJMXService, dc).act();
+        return clusterTopologyService.getClusterTopology(dc);
     }
 
     public static class CassandraSchemaVersion {
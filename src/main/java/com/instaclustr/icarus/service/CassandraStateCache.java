@@ -0,0 +1,222 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import javax.inject.Provider;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.icarus.service.CassandraService.CassandraSchemaVersion;
+import com.instaclustr.icarus.service.CassandraStatusService.Status;
+
+/**
+ * Status, schema version and version of Cassandra as endpoints polled by health checks and readiness probes return them.
+ * <p>
+ * Values which were read once are fetched again in the background every time to live, so callers get a fresh value
+ * without waiting. A value older than its time to live is fetched on a read too, while callers still get the old one,
+ * unless it is too old to be trusted. Then they wait for the fetch. Status is trusted for a much shorter time than
+ * versions, which change rarely.
+ * <p>
+ * There is at most one fetch of a value at a time, all callers which wait for a value wait for the same fetch,
+ * so a slow JMX call, e.g. during a long GC pause of Cassandra, does not pile up more of them. Callers wait for it
+ * only for a while, then they get the stale value, or {@link TimeoutException} if there is none yet, so health checks
+ * and readiness probes are not blocked by the slow call either.
+ */
+@Singleton
+public class CassandraStateCache extends AbstractScheduledService {
+
+    public static final long TTL_MILLIS = Long.parseLong(System.getProperty("icarus.status.cache.ttl", "2000"));
+    // age of status after which callers wait for a fresh one
+    public static final long STATUS_MAX_STALE_MILLIS = Long.parseLong(System.getProperty("icarus.status.cache.status.max.stale", "5000"));
+    // age of a version after which callers wait for a fresh one
+    public static final long MAX_STALE_MILLIS = Long.parseLong(System.getProperty("icarus.status.cache.max.stale", "30000"));
+    // time a caller waits for a fetch for at most
+    public static final long WAIT_MILLIS = Long.parseLong(System.getProperty("icarus.status.cache.wait", "1000"));
+
+    private final long ttlMillis;
+    private final long waitMillis;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setNameFormat("cassandra-state-%d").setDaemon(true).build());
+
+    private final CachedValue<Status> status;
+    private final CachedValue<CassandraSchemaVersion> schemaVersion;
+    private final CachedValue<CassandraVersion> cassandraVersion;
+
+    @Inject
+    public CassandraStateCache(final CassandraStatusService cassandraStatusService,
+                               final CassandraService cassandraService,
+                               final Provider<CassandraVersion> cassandraVersion) {
+        this(cassandraStatusService, cassandraService, cassandraVersion, TTL_MILLIS, STATUS_MAX_STALE_MILLIS, MAX_STALE_MILLIS, WAIT_MILLIS);
+    }
+
+    protected CassandraStateCache(final CassandraStatusService cassandraStatusService,
+                                  final CassandraService cassandraService,
+                                  final Provider<CassandraVersion> cassandraVersion,
+                                  final long ttlMillis,
+                                  final long statusMaxStaleMillis,
+                                  final long maxStaleMillis,
+                                  final long waitMillis) {
+        this.ttlMillis = ttlMillis;
+        this.waitMillis = waitMillis;
+        this.status = new CachedValue<>(cassandraStatusService::getStatus, statusMaxStaleMillis);
+        this.schemaVersion = new CachedValue<>(cassandraService::getCassandraSchemaVersion, maxStaleMillis);
+        this.cassandraVersion = new CachedValue<>(cassandraVersion::get, maxStaleMillis);
+    }
+
+    public Status getStatus() {
+        try {
+            return status.get();
+        } catch (final Exception ex) {
+            final Status failed = new Status();
+            failed.setException(ex);
+            return failed;
+        }
+    }
+
+    public CassandraSchemaVersion getSchemaVersion() {
+        try {
+            return schemaVersion.get();
+        } catch (final Exception ex) {
+            final CassandraSchemaVersion failed = new CassandraSchemaVersion();
+            failed.setException(ex);
+            return failed;
+        }
+    }
+
+    /**
+     * @throws TimeoutException if a version was never fetched and its fetch takes too long
+     */
+    public CassandraVersion getCassandraVersion() throws Exception {
+        return cassandraVersion.get();
+    }
+
+    @Override
+    protected void runOneIteration() {
+        status.refresh();
+        schemaVersion.refresh();
+        cassandraVersion.refresh();
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(ttlMillis, ttlMillis, MILLISECONDS);
+    }
+
+    @Override
+    protected void shutDown() {
+        executor.shutdownNow();
+    }
+
+    private final class CachedValue<T> {
+
+        private final Callable<T> fetch;
+        private final long maxStaleMillis;
+
+        private volatile Fetched<T> last;
+        // failure of the last fetch, if it has failed, told to callers which give up waiting
+        private volatile Throwable lastFailure;
+        // fetch in progress, guarded by this
+        private CompletableFuture<T> fetching;
+
+        private CachedValue(final Callable<T> fetch, final long maxStaleMillis) {
+            this.fetch = fetch;
+            this.maxStaleMillis = maxStaleMillis;
+        }
+
+        private T get() throws Exception {
+            final Fetched<T> current = last;
+            final long age = current == null ? Long.MAX_VALUE : System.currentTimeMillis() - current.fetchedAt;
+
+            if (age < ttlMillis) {
+                return current.value;
+            }
+
+            final CompletableFuture<T> fetched = fetch();
+
+            if (age < maxStaleMillis) {
+                return current.value;
+            }
+
+            try {
+                return fetched.get(waitMillis, MILLISECONDS);
+            } catch (final ExecutionException ex) {
+                throw ex.getCause() instanceof Exception ? (Exception) ex.getCause() : ex;
+            } catch (final TimeoutException ex) {
+                if (current != null) {
+                    return current.value;
+                }
+
+                final TimeoutException timeout = new TimeoutException(format("Unable to get state of Cassandra in %sms", waitMillis));
+                timeout.initCause(lastFailure);
+                throw timeout;
+            }
+        }
+
+        /**
+         * Fetches a value again if it was fetched before, a value nobody has read is not fetched.
+         */
+        private void refresh() {
+            if (last != null) {
+                fetch();
+            }
+        }
+
+        private synchronized CompletableFuture<T> fetch() {
+            if (fetching != null) {
+                return fetching;
+            }
+
+            final CompletableFuture<T> started = new CompletableFuture<>();
+
+            fetching = started;
+
+            executor.execute(() -> {
+                T fetched = null;
+                Throwable failure = null;
+
+                try {
+                    fetched = fetch.call();
+                    last = new Fetched<>(fetched, System.currentTimeMillis());
+                    lastFailure = null;
+                } catch (final Throwable t) {
+                    // a failure is not cached as a value, the next caller tries again
+                    failure = t;
+                    lastFailure = t;
+                }
+
+                synchronized (this) {
+                    fetching = null;
+                }
+
+                if (failure == null) {
+                    started.complete(fetched);
+                } else {
+                    started.completeExceptionally(failure);
+                }
+            });
+
+            return started;
+        }
+    }
+
+    private static final class Fetched<T> {
+
+        private final T value;
+        private final long fetchedAt;
+
+        private Fetched(final T value, final long fetchedAt) {
+            this.value = value;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+import com.instaclustr.esop.topology.CassandraClusterTopology;
+import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.operations.FunctionWithEx;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps topology of a cluster in memory so REST resources and coordinators do not need to talk to JMX on every request.
+ * <p>
+ * Resolution of a topology takes a number of JMX calls per endpoint, so it is done only when it is necessary.
+ * In the background, this service periodically fetches endpoint to host id mapping and schema version which are cheap
+ * to get, and resolves whole topology again only when they changed (a node joined, left or was replaced, or schema
+ * was altered) or when cached topology is older than max age (to pick up e.g. renamed racks eventually).
+ * Hence cached topology is at most one refresh interval behind gossip.
+ */
+public class ClusterTopologyService extends AbstractScheduledService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterTopologyService.class);
+
+    public static final int REFRESH_INTERVAL_SECONDS = Integer.parseInt(System.getProperty("icarus.topology.refresh.interval", "10"));
+    public static final int MAX_AGE_SECONDS = Integer.parseInt(System.getProperty("icarus.topology.max.age", "300"));
+
+    private final CassandraJMXService cassandraJMXService;
+
+    private volatile CachedTopology cachedTopology;
+
+    @Inject
+    public ClusterTopologyService(final CassandraJMXService cassandraJMXService) {
+        this.cassandraJMXService = cassandraJMXService;
+    }
+
+    /**
+     * Returns cached topology, resolving it first if nothing is cached yet.
+     *
+     * @param dc datacenters to filter topology on, may be null to get topology of whole cluster
+     * @return copy of cached topology, it is safe to modify it
+     * @throws IllegalStateException if some datacenter to filter on does not exist
+     */
+    public ClusterTopology getClusterTopology(final String dc) throws Exception {
+        CachedTopology current = cachedTopology;
+
+        if (current == null) {
+            current = refresh();
+        }
+
+        final ClusterTopology topology = copy(current.topology);
+
+        final Set<String> invalidDcs = ClusterTopology.sanitizeDcs(dc).stream().filter(d -> !topology.getDcs().contains(d)).collect(Collectors.toSet());
+
+        if (!invalidDcs.isEmpty()) {
+            throw new IllegalStateException(format("Some DCs to filter on do not exist: %s, existing: %s", invalidDcs, String.join(",", topology.getDcs())));
+        }
+
+        return ClusterTopology.filter(topology, dc);
+    }
+
+    /**
+     * Drops cached topology so the next read resolves it from Cassandra again.
+     */
+    public void invalidate() {
+        cachedTopology = null;
+    }
+
+    @Override
+    protected void runOneIteration() {
+        try {
+            refresh();
+        } catch (final Exception ex) {
+            // Cassandra might not be up yet, topology will be resolved on the first read then
+            logger.debug("Unable to refresh cluster topology: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(0, REFRESH_INTERVAL_SECONDS, SECONDS);
+    }
+
+    private synchronized CachedTopology refresh() throws Exception {
+        // fingerprint is taken before topology so a change happening in the meanwhile is detected by the next refresh
+        final Fingerprint fingerprint = getFingerprint();
+        final CachedTopology current = cachedTopology;
+
+        if (current != null && current.fingerprint.equals(fingerprint) && !current.isExpired()) {
+            return current;
+        }
+
+        if (current != null) {
+            logger.info("Cluster topology has changed or is expired, resolving it again");
+        }
+
+        final CachedTopology refreshed = new CachedTopology(new CassandraClusterTopology(cassandraJMXService, null).act(), fingerprint);
+
+        cachedTopology = refreshed;
+
+        return refreshed;
+    }
+
+    private Fingerprint getFingerprint() throws Exception {
+        return cassandraJMXService.doWithStorageServiceMBean(new FunctionWithEx<StorageServiceMBean, Fingerprint>() {
+            @Override
+            public Fingerprint apply(final StorageServiceMBean ssMBean) {
+                return new Fingerprint(ssMBean.getEndpointToHostId(), ssMBean.getSchemaVersion());
+            }
+        });
+    }
+
+    private static ClusterTopology copy(final ClusterTopology topology) {
+        final ClusterTopology copy = new ClusterTopology();
+        // timestamp is used e.g. in snapshot names so it reflects the time of a read, not of a resolution
+        copy.timestamp = System.currentTimeMillis();
+        copy.clusterName = topology.clusterName;
+        copy.schemaVersion = topology.schemaVersion;
+        copy.endpoints = new HashMap<InetAddress, UUID>(topology.endpoints);
+        copy.endpointDcs = new HashMap<>(topology.endpointDcs);
+        copy.hostnames = new HashMap<>(topology.hostnames);
+        copy.endpointRacks = new HashMap<>(topology.endpointRacks);
+        copy.topology = new ArrayList<>(topology.topology);
+        return copy;
+    }
+
+    private static final class CachedTopology {
+
+        private final ClusterTopology topology;
+        private final Fingerprint fingerprint;
+        private final long resolvedAt = System.nanoTime();
+
+        private CachedTopology(final ClusterTopology topology, final Fingerprint fingerprint) {
+            this.topology = topology;
+            this.fingerprint = fingerprint;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - resolvedAt > SECONDS.toNanos(MAX_AGE_SECONDS);
+        }
+    }
+
+    private static final class Fingerprint {
+
+        private final Map<String, String> hostIds;
+        private final String schemaVersion;
+
+        private Fingerprint(final Map<String, String> hostIds, final String schemaVersion) {
+            this.hostIds = hostIds;
+            this.schemaVersion = schemaVersion;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Fingerprint that = (Fingerprint) o;
+            return Objects.equals(hostIds, that.hostIds) && Objects.equals(schemaVersion, that.schemaVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hostIds, schemaVersion);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Probes the JMX connection of {@link ManagedCassandraJMXService} periodically, so a broken connection is found out
+ * and replaced in between calls rather than by a call which needs it.
+ */
+public class JmxConnectionMonitor extends AbstractScheduledService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JmxConnectionMonitor.class);
+
+    public static final int CHECK_INTERVAL_SECONDS = Integer.parseInt(System.getProperty("icarus.jmx.health.check.interval", "30"));
+
+    private final ManagedCassandraJMXService jmxService;
+
+    private boolean reachable = true;
+
+    @Inject
+    public JmxConnectionMonitor(final ManagedCassandraJMXService jmxService) {
+        this.jmxService = jmxService;
+    }
+
+    @Override
+    protected void runOneIteration() {
+        try {
+            jmxService.checkConnection();
+
+            if (!reachable) {
+                logger.info("Cassandra is reachable via JMX again");
+            }
+
+            reachable = true;
+        } catch (final Exception ex) {
+            // logged just once, Cassandra might be down for a long time, e.g. while being upgraded
+            if (reachable) {
+                logger.warn(format("Cassandra is not reachable via JMX: %s", ex.getMessage()));
+            }
+
+            reachable = false;
+        }
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(0, CHECK_INTERVAL_SECONDS, SECONDS);
+    }
+
+    @Override
+    protected void shutDown() {
+        jmxService.close();
+    }
+}
@@ -0,0 +1,430 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMX;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectionNotification;
+import javax.management.remote.JMXConnector;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.rmi.ConnectException;
+import java.rmi.ConnectIOException;
+import java.rmi.NoSuchObjectException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.operations.FunctionWithEx;
+import jmx.org.apache.cassandra.CassandraJMXConnectionInfo;
+import jmx.org.apache.cassandra.JMXUtils;
+import jmx.org.apache.cassandra.service.CassandraJMXServiceImpl;
+import jmx.org.apache.cassandra.service.cassandra3.ColumnFamilyStoreMBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JMX service which keeps one connection to Cassandra open and shares it by all calls, instead of connecting
+ * and creating an MBean proxy on every call. An RMI connection multiplexes concurrent calls so there is no need for more of them.
+ * <p>
+ * Proxies are cached per connection. A connection which is found broken, by a call or by {@link JmxConnectionMonitor},
+ * is dropped and the next call connects again. A call is repeated only if it is certain it has not reached Cassandra,
+ * so an operation is never executed twice.
+ * <p>
+ * Latency of every method invoked on an MBean is recorded, see {@link #getStatus()}.
+ */
+@Singleton
+public class ManagedCassandraJMXService extends CassandraJMXServiceImpl {
+
+    private static final Logger logger = LoggerFactory.getLogger(ManagedCassandraJMXService.class);
+
+    private final Object connectionLock = new Object();
+    private volatile Connection connection;
+
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong disconnects = new AtomicLong();
+    private volatile Instant connectedSince;
+    private final ConcurrentMap<String, CallMetrics> metrics = new ConcurrentHashMap<>();
+    // MBean methods which have returned to a thread, a call is not repeated once some of them has
+    private final ThreadLocal<long[]> invocations = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Inject
+    public ManagedCassandraJMXService(final CassandraJMXConnectionInfo jmxConnectionInfo) {
+        super(jmxConnectionInfo);
+    }
+
+    @Override
+    public <T, U> T doWithMBean(final FunctionWithEx<U, T> func,
+                                final Class<U> mbeanClass,
+                                final ObjectName objectName,
+                                final CassandraJMXConnectionInfo jmxConnectionInfo) throws Exception {
+        if (jmxConnectionInfo != getCassandraJmxConnectionInfo()) {
+            return super.doWithMBean(func, mbeanClass, objectName, jmxConnectionInfo);
+        }
+
+        return call(func, mbeanClass, objectName, null);
+    }
+
+    @Override
+    public <T, U> T doWithMBean(final FunctionWithEx<U, T> func,
+                                final Class<U> mbeanClass,
+                                final String query,
+                                final CassandraJMXConnectionInfo jmxConnectionInfo) throws Exception {
+        if (jmxConnectionInfo != getCassandraJmxConnectionInfo()) {
+            return super.doWithMBean(func, mbeanClass, query, jmxConnectionInfo);
+        }
+
+        return call(func, mbeanClass, null, query);
+    }
+
+    @Override
+    public Multimap<String, ColumnFamilyStoreMBean> getCFSMBeans() throws Exception {
+        final Connection connection = getConnection();
+        final Multimap<String, ColumnFamilyStoreMBean> cfsMBeans = HashMultimap.create();
+
+        try {
+            for (final ObjectName name : connection.mBeanServerConnection.queryNames(new ObjectName("org.apache.cassandra.db:type=ColumnFamilies,*"), null)) {
+                cfsMBeans.put(name.getKeyProperty("keyspace"), connection.getProxy(ColumnFamilyStoreMBean.class, name));
+            }
+        } catch (final IOException ex) {
+            invalidate(connection);
+            throw ex;
+        }
+
+        return cfsMBeans;
+    }
+
+    /**
+     * Checks that a connection is alive, connecting if there is not any.
+     *
+     * @throws Exception if Cassandra is not reachable
+     */
+    public void checkConnection() throws Exception {
+        final Connection connection = getConnection();
+
+        try {
+            connection.mBeanServerConnection.getMBeanCount();
+        } catch (final IOException ex) {
+            invalidate(connection);
+            throw ex;
+        }
+    }
+
+    /**
+     * Runs a function against the shared connection, for reads which a proxy of a single MBean is not good for,
+     * like reading all attributes of an MBean by one call. A function is not repeated when it fails.
+     */
+    public <T> T doWithConnection(final FunctionWithEx<MBeanServerConnection, T> func) throws Exception {
+        final Connection connection = getConnection();
+
+        try {
+            return func.apply(connection.mBeanServerConnection);
+        } catch (final IOException ex) {
+            invalidate(connection);
+            throw ex;
+        }
+    }
+
+    public JmxStatus getStatus() {
+        final Map<String, CallMetrics> calls = new TreeMap<>(metrics);
+
+        return new JmxStatus(connection != null, connectedSince, connects.get(), disconnects.get(), calls);
+    }
+
+    /**
+     * Disconnects, if connected.
+     */
+    public void close() {
+        final Connection current = connection;
+
+        if (current != null) {
+            invalidate(current);
+        }
+    }
+
+    private <T, U> T call(final FunctionWithEx<U, T> func,
+                          final Class<U> mbeanClass,
+                          final ObjectName objectName,
+                          final String query) throws Exception {
+        int attempt = 0;
+
+        while (true) {
+            attempt++;
+
+            final Connection connection = getConnection();
+            final long invoked = invocations.get()[0];
+
+            try {
+                final U proxy = connection.getProxy(mbeanClass, objectName != null ? objectName : connection.resolve(query));
+
+                return func.apply(proxy);
+            } catch (final Exception ex) {
+                // a function might invoke more methods, those before the failed one must not be invoked again
+                if (!recover(connection, ex, objectName, query) || invocations.get()[0] != invoked || attempt > 1) {
+                    throw ex;
+                }
+
+                logger.info(format("Repeating JMX call to %s: %s", objectName != null ? objectName : query, ex.getMessage()));
+            }
+        }
+    }
+
+    /**
+     * @return true if a failed call has not reached Cassandra, so it can be repeated
+     */
+    private boolean recover(final Connection connection, final Exception ex, final ObjectName objectName, final String query) {
+        if (hasCause(ex, InstanceNotFoundException.class)) {
+            // an MBean has been unregistered and registered again, e.g. a table was recreated
+            connection.evict(objectName, query);
+            return true;
+        }
+
+        if (hasCause(ex, ConnectException.class) || hasCause(ex, ConnectIOException.class) || hasCause(ex, NoSuchObjectException.class)) {
+            // a call was not delivered, e.g. Cassandra was restarted since we have connected
+            invalidate(connection);
+            return true;
+        }
+
+        if (hasCause(ex, IOException.class)) {
+            // a call might have been delivered, it is up to a caller to decide what to do
+            invalidate(connection);
+        }
+
+        return false;
+    }
+
+    private Connection getConnection() throws Exception {
+        final Connection current = connection;
+
+        if (current != null) {
+            return current;
+        }
+
+        synchronized (connectionLock) {
+            if (connection == null) {
+                final JMXConnector jmxConnector = JMXUtils.getJmxConnector(getCassandraJmxConnectionInfo());
+                jmxConnector.connect();
+
+                final Connection newConnection = new Connection(jmxConnector, jmxConnector.getMBeanServerConnection());
+
+                jmxConnector.addConnectionNotificationListener((notification, handback) -> {
+                    if (JMXConnectionNotification.FAILED.equals(notification.getType()) || JMXConnectionNotification.CLOSED.equals(notification.getType())) {
+                        invalidate(newConnection);
+                    }
+                }, null, null);
+
+                connection = newConnection;
+                connectedSince = Instant.now();
+                connects.incrementAndGet();
+
+                logger.info(format("Connected to Cassandra via JMX at %s", getCassandraJmxConnectionInfo().jmxServiceURL));
+            }
+
+            return connection;
+        }
+    }
+
+    private void invalidate(final Connection invalid) {
+        synchronized (connectionLock) {
+            if (connection != invalid) {
+                return;
+            }
+
+            connection = null;
+            connectedSince = null;
+            disconnects.incrementAndGet();
+        }
+
+        logger.info("JMX connection to Cassandra was closed, the next call connects again");
+
+        try {
+            invalid.jmxConnector.close();
+        } catch (final Exception ex) {
+            logger.debug(format("Unable to close JMX connection: %s", ex.getMessage()));
+        }
+    }
+
+    private static boolean hasCause(final Throwable throwable, final Class<? extends Throwable> causeClass) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (causeClass.isInstance(cause)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private final class Connection {
+
+        private final JMXConnector jmxConnector;
+        private final MBeanServerConnection mBeanServerConnection;
+        private final ConcurrentMap<String, Object> proxies = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, ObjectName> resolvedQueries = new ConcurrentHashMap<>();
+
+        private Connection(final JMXConnector jmxConnector, final MBeanServerConnection mBeanServerConnection) {
+            this.jmxConnector = jmxConnector;
+            this.mBeanServerConnection = mBeanServerConnection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <U> U getProxy(final Class<U> mbeanClass, final ObjectName objectName) {
+            final String key = mbeanClass.getName() + "/" + objectName.getCanonicalName();
+            final Object cached = proxies.get(key);
+
+            if (cached != null) {
+                return (U) cached;
+            }
+
+            waitUntilRegistered(mBeanServerConnection, objectName);
+
+            final U proxy = timed(mbeanClass, JMX.newMBeanProxy(mBeanServerConnection, objectName, mbeanClass));
+            final Object previous = proxies.putIfAbsent(key, proxy);
+
+            return previous != null ? (U) previous : proxy;
+        }
+
+        private ObjectName resolve(final String query) throws Exception {
+            final ObjectName cached = resolvedQueries.get(query);
+
+            if (cached != null) {
+                return cached;
+            }
+
+            final Set<ObjectName> objectNames = mBeanServerConnection.queryNames(new ObjectName(query), null);
+
+            if (objectNames.isEmpty()) {
+                throw new IllegalStateException(format("Could not find ObjectName with query %s", query));
+            }
+
+            if (objectNames.size() != 1) {
+                throw new IllegalStateException(format("There is more than one ObjectName returned by query %s. They are: %s", query, objectNames));
+            }
+
+            final ObjectName objectName = objectNames.iterator().next();
+
+            resolvedQueries.put(query, objectName);
+
+            return objectName;
+        }
+
+        private void evict(final ObjectName objectName, final String query) {
+            final ObjectName evicted = query != null ? resolvedQueries.remove(query) : objectName;
+
+            if (evicted != null) {
+                proxies.keySet().removeIf(key -> key.endsWith("/" + evicted.getCanonicalName()));
+            }
+        }
+    }
+
+    /**
+     * Wraps a proxy so every method invoked on it is timed.
+     */
+    @SuppressWarnings("unchecked")
+    private <U> U timed(final Class<U> mbeanClass, final U proxy) {
+        return (U) Proxy.newProxyInstance(mbeanClass.getClassLoader(), new Class<?>[]{mbeanClass}, (target, method, args) -> {
+            final CallMetrics callMetrics = metrics.computeIfAbsent(mbeanClass.getSimpleName() + "." + method.getName(), name -> new CallMetrics());
+            final long start = System.nanoTime();
+            boolean failed = false;
+
+            try {
+                final Object result = method.invoke(proxy, args);
+                invocations.get()[0]++;
+                return result;
+            } catch (final InvocationTargetException ex) {
+                failed = true;
+                throw ex.getCause();
+            } finally {
+                callMetrics.record(System.nanoTime() - start, failed);
+            }
+        });
+    }
+
+    public static class CallMetrics {
+
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private void record(final long nanos, final boolean failed) {
+            calls.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+
+            if (failed) {
+                errors.increment();
+            }
+        }
+
+        @JsonProperty
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        @JsonProperty
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        @JsonProperty
+        public double getTotalMillis() {
+            return totalNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        @JsonProperty
+        public double getMeanMillis() {
+            final long count = calls.sum();
+            return count == 0 ? 0 : getTotalMillis() / count;
+        }
+
+        @JsonProperty
+        public double getMaxMillis() {
+            return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    public static class JmxStatus {
+
+        @JsonProperty
+        public final boolean connected;
+
+        @JsonProperty
+        public final Instant connectedSince;
+
+        @JsonProperty
+        public final long connects;
+
+        @JsonProperty
+        public final long disconnects;
+
+        // by MBean interface and method
+        @JsonProperty
+        public final Map<String, CallMetrics> calls;
+
+        public JmxStatus(final boolean connected,
+                         final Instant connectedSince,
+                         final long connects,
+                         final long disconnects,
+                         final Map<String, CallMetrics> calls) {
+            this.connected = connected;
+            this.connectedSince = connectedSince;
+            this.connects = connects;
+            this.disconnects = disconnects;
+            this.calls = calls;
+        }
+    }
+}
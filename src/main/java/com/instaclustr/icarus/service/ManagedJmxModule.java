@@ -0,0 +1,21 @@
+package com.instaclustr.icarus.service;
+
+import static com.instaclustr.guice.ServiceBindings.bindService;
+
+import com.google.inject.AbstractModule;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+
+/**
+ * Replaces the JMX service of CassandraModule, which connects on every call, by {@link ManagedCassandraJMXService}.
+ */
+public class ManagedJmxModule extends AbstractModule {
+
+    // escape hatch, when false every call connects to Cassandra on its own as before
+    public static final boolean MANAGED_JMX = Boolean.parseBoolean(System.getProperty("icarus.jmx.managed", "true"));
+
+    @Override
+    protected void configure() {
+        bind(CassandraJMXService.class).to(ManagedCassandraJMXService.class);
+        bindService(binder(), JmxConnectionMonitor.class);
+    }
+}
@@ -0,0 +1,258 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import javax.management.Attribute;
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.operations.FunctionWithEx;
+import jmx.org.apache.cassandra.JMXUtils;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads metrics of Cassandra via JMX on a schedule and renders them in Prometheus text format, so a scrape of /metrics
+ * is served from memory and does not touch Cassandra, however often it comes.
+ * <p>
+ * All numeric attributes of an MBean are read by one getAttributes call, names of attributes of an MBean are looked up
+ * just once. A metric is named after type and name properties of its MBean and the attribute, like
+ * cassandra_clientrequest_latency_99thpercentile, other properties of an MBean, like scope or keyspace, are labels.
+ */
+@Singleton
+public class MetricsExporter extends AbstractScheduledService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsExporter.class);
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("icarus.metrics.enabled", "true"));
+
+    public static final int REFRESH_INTERVAL_SECONDS = Integer.parseInt(System.getProperty("icarus.metrics.refresh.interval", "30"));
+
+    // patterns of MBeans to export, separated by semicolons as object names contain commas, table metrics are not exported by default as there might be many tables
+    public static final List<String> MBEANS = Arrays.stream(System.getProperty("icarus.metrics.mbeans",
+                                                                               "org.apache.cassandra.metrics:type=ClientRequest,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=Compaction,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=CommitLog,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=Storage,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=ThreadPools,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=DroppedMessage,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=Cache,*;"
+                                                                                   + "org.apache.cassandra.metrics:type=Client,*").split(";"))
+        .map(String::trim)
+        .filter(pattern -> !pattern.isEmpty())
+        .collect(Collectors.toList());
+
+    private static final Pattern INVALID_NAME_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_]");
+
+    private final CassandraJMXService cassandraJMXService;
+
+    // numeric attributes by MBean, attributes of a metric do not change while it is registered
+    private final ConcurrentMap<ObjectName, String[]> attributes = new ConcurrentHashMap<>();
+
+    private volatile byte[] exposition;
+
+    @Inject
+    public MetricsExporter(final CassandraJMXService cassandraJMXService) {
+        this.cassandraJMXService = cassandraJMXService;
+    }
+
+    /**
+     * @return metrics rendered by the last successful refresh, empty if there has not been any yet
+     */
+    public Optional<byte[]> getExposition() {
+        return Optional.ofNullable(exposition);
+    }
+
+    @Override
+    protected void runOneIteration() {
+        final long start = System.nanoTime();
+
+        try {
+            final Map<String, List<String>> samples = read();
+            final StringBuilder builder = new StringBuilder();
+
+            for (final Map.Entry<String, List<String>> metric : samples.entrySet()) {
+                builder.append("# TYPE ").append(metric.getKey()).append(" untyped\n");
+                metric.getValue().forEach(builder::append);
+            }
+
+            builder.append("# TYPE icarus_metrics_refresh_seconds gauge\n");
+            builder.append("icarus_metrics_refresh_seconds ").append((System.nanoTime() - start) / 1e9).append('\n');
+
+            exposition = builder.toString().getBytes(UTF_8);
+        } catch (final Exception ex) {
+            // the last exposition is served until Cassandra is reachable again
+            logger.debug(format("Unable to read metrics of Cassandra: %s", ex.getMessage()));
+        }
+    }
+
+    @Override
+    protected Scheduler scheduler() {
+        return Scheduler.newFixedDelaySchedule(0, REFRESH_INTERVAL_SECONDS, SECONDS);
+    }
+
+    private Map<String, List<String>> read() throws Exception {
+        final FunctionWithEx<MBeanServerConnection, Map<String, List<String>>> read = new FunctionWithEx<MBeanServerConnection, Map<String, List<String>>>() {
+            @Override
+            public Map<String, List<String>> apply(final MBeanServerConnection connection) throws Exception {
+                return read(connection);
+            }
+        };
+
+        if (cassandraJMXService instanceof ManagedCassandraJMXService) {
+            return ((ManagedCassandraJMXService) cassandraJMXService).doWithConnection(read);
+        }
+
+        try (final JMXConnector jmxConnector = JMXUtils.getJmxConnector(cassandraJMXService.getCassandraJmxConnectionInfo())) {
+            jmxConnector.connect();
+            return read.apply(jmxConnector.getMBeanServerConnection());
+        }
+    }
+
+    private Map<String, List<String>> read(final MBeanServerConnection connection) throws Exception {
+        // samples by metric name, samples of a metric have to be rendered together
+        final Map<String, List<String>> samples = new TreeMap<>();
+        final Set<ObjectName> seen = new HashSet<>();
+
+        for (final String pattern : MBEANS) {
+            for (final ObjectName objectName : connection.queryNames(new ObjectName(pattern), null)) {
+                final String[] names;
+                final List<Attribute> values;
+
+                try {
+                    names = getAttributes(connection, objectName);
+                    values = names.length == 0 ? new ArrayList<>() : connection.getAttributes(objectName, names).asList();
+                } catch (final InstanceNotFoundException ex) {
+                    // unregistered since it was queried
+                    continue;
+                }
+
+                seen.add(objectName);
+
+                for (final Attribute attribute : values) {
+                    final Object value = attribute.getValue();
+
+                    if (value instanceof Number) {
+                        sample(samples, objectName, attribute.getName(), ((Number) value).doubleValue());
+                    } else if (value instanceof Boolean) {
+                        sample(samples, objectName, attribute.getName(), (Boolean) value ? 1 : 0);
+                    }
+                }
+            }
+        }
+
+        // metrics of dropped tables and such
+        attributes.keySet().retainAll(seen);
+
+        return samples;
+    }
+
+    private String[] getAttributes(final MBeanServerConnection connection, final ObjectName objectName) throws Exception {
+        final String[] cached = attributes.get(objectName);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final List<String> names = new ArrayList<>();
+
+        for (final MBeanAttributeInfo info : connection.getMBeanInfo(objectName).getAttributes()) {
+            // a value of a gauge is declared as an object, it is rendered only if it turns out to be a number
+            if (info.isReadable() && isNumeric(info.getType())) {
+                names.add(info.getName());
+            }
+        }
+
+        final String[] resolved = names.toArray(new String[0]);
+
+        attributes.put(objectName, resolved);
+
+        return resolved;
+    }
+
+    private static boolean isNumeric(final String type) {
+        switch (type) {
+            case "int":
+            case "long":
+            case "double":
+            case "float":
+            case "boolean":
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Double":
+            case "java.lang.Float":
+            case "java.lang.Boolean":
+            case "java.lang.Number":
+            case "java.lang.Object":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void sample(final Map<String, List<String>> samples, final ObjectName objectName, final String attribute, final double value) {
+        final String metric = sanitize(format("cassandra_%s_%s_%s",
+                                              objectName.getKeyProperty("type"),
+                                              objectName.getKeyProperty("name"),
+                                              attribute));
+
+        final StringBuilder sample = new StringBuilder(metric);
+        final Map<String, String> labels = new TreeMap<>(objectName.getKeyPropertyList());
+
+        labels.remove("type");
+        labels.remove("name");
+
+        if (!labels.isEmpty()) {
+            sample.append(labels.entrySet().stream()
+                              .map(label -> sanitize(label.getKey()) + "=\"" + escape(unquote(label.getValue())) + "\"")
+                              .collect(Collectors.joining(",", "{", "}")));
+        }
+
+        samples.computeIfAbsent(metric, name -> new ArrayList<>()).add(sample.append(' ').append(render(value)).append('\n').toString());
+    }
+
+    private static String sanitize(final String name) {
+        return INVALID_NAME_CHARACTERS.matcher(name).replaceAll("_").toLowerCase();
+    }
+
+    private static String unquote(final String value) {
+        return value.startsWith("\"") ? ObjectName.unquote(value) : value;
+    }
+
+    private static String escape(final String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String render(final double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+    }
+}
@@ -0,0 +1,238 @@
+package com.instaclustr.icarus.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import com.instaclustr.operations.OperationsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Turns changes of operations into a log of events a watcher can follow and resume from an offset.
+ * <p>
+ * Operations do not notify anybody about their changes, so operations which are watched are sampled by one thread
+ * and differences between two samples are appended to their logs as events. Watchers are blocked until
+ * there is some new event, so an operation which does not change costs only its sampling.
+ * An operation is sampled from the moment it is watched for the first time until it is finished,
+ * its log is kept until the operation expires so a watcher may resume from any offset it has seen.
+ */
+@Singleton
+public class OperationEventsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationEventsService.class);
+
+    public static final long SAMPLING_INTERVAL_MILLIS = Long.parseLong(System.getProperty("icarus.operations.events.interval", "200"));
+    // events over this number are dropped from the beginning of a log
+    private static final int MAX_EVENTS = 1000;
+
+    private final OperationsService operationsService;
+    private final Map<UUID, EventLog> logs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sampler;
+
+    @Inject
+    public OperationEventsService(final OperationsService operationsService) {
+        this.operationsService = operationsService;
+    }
+
+    /**
+     * @return log of events of an operation, empty if there is not such operation
+     */
+    public Optional<EventLog> getEventLog(final UUID id) {
+        final Optional<Operation<?>> operation = operationsService.operation(id);
+
+        if (!operation.isPresent()) {
+            return Optional.ofNullable(logs.get(id));
+        }
+
+        final EventLog log = logs.computeIfAbsent(id, key -> {
+            final EventLog created = new EventLog(id);
+            created.sample(operation.get());
+            return created;
+        });
+
+        startSampling();
+
+        return Optional.of(log);
+    }
+
+    private synchronized void startSampling() {
+        if (sampler != null) {
+            return;
+        }
+
+        sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("operation-events-%d").setDaemon(true).build());
+        sampler.scheduleWithFixedDelay(this::sample, SAMPLING_INTERVAL_MILLIS, SAMPLING_INTERVAL_MILLIS, MILLISECONDS);
+    }
+
+    private void sample() {
+        try {
+            for (final EventLog log : logs.values()) {
+                final Optional<Operation<?>> operation = operationsService.operation(log.operationId);
+
+                if (!operation.isPresent()) {
+                    // expired, watchers of a not finished operation are released
+                    log.close();
+                    logs.remove(log.operationId);
+                } else if (!log.isClosed()) {
+                    log.sample(operation.get());
+                }
+            }
+        } catch (final Exception ex) {
+            logger.warn("Unable to sample operations for their events", ex);
+        }
+    }
+
+    public enum EventType {
+        // state of an operation, the first event of every log is of this type and it carries the whole status
+        STATE,
+        PROGRESS,
+        ERROR
+    }
+
+    public static class OperationEvent {
+
+        public long offset;
+        public EventType type;
+        public UUID operationId;
+        public Instant timestamp;
+        public State state;
+        public Float progress;
+        public Operation.Error error;
+        public Instant completionTime;
+
+        public OperationEvent() {
+        }
+
+        private OperationEvent(final EventType type, final UUID operationId) {
+            this.type = type;
+            this.operationId = operationId;
+            this.timestamp = Instant.now();
+        }
+    }
+
+    public static class EventLog {
+
+        private final UUID operationId;
+        private final List<OperationEvent> events = new ArrayList<>();
+        private long lastOffset;
+        private boolean closed;
+
+        private State lastState;
+        private float lastProgress;
+        private int lastErrors;
+
+        private EventLog(final UUID operationId) {
+            this.operationId = operationId;
+        }
+
+        private synchronized void sample(final Operation<?> operation) {
+            final long previousOffset = lastOffset;
+
+            if (operation.state != lastState) {
+                final OperationEvent event = new OperationEvent(EventType.STATE, operationId);
+                event.state = operation.state;
+                event.progress = operation.progress;
+                event.completionTime = operation.completionTime;
+
+                lastState = operation.state;
+                lastProgress = operation.progress;
+
+                append(event);
+            } else if (Math.abs(operation.progress - lastProgress) >= OperationWatchService.PROGRESS_GRANULARITY) {
+                final OperationEvent event = new OperationEvent(EventType.PROGRESS, operationId);
+                event.progress = operation.progress;
+
+                lastProgress = operation.progress;
+
+                append(event);
+            }
+
+            final List<Operation.Error> errors = new ArrayList<>(operation.errors);
+
+            for (final Operation.Error error : errors.subList(Math.min(lastErrors, errors.size()), errors.size())) {
+                final OperationEvent event = new OperationEvent(EventType.ERROR, operationId);
+                event.error = error;
+
+                append(event);
+            }
+
+            lastErrors = errors.size();
+
+            // no more events after errors of a finished operation
+            if (operation.state.isTerminalState()) {
+                closed = true;
+            }
+
+            if (lastOffset != previousOffset || closed) {
+                notifyAll();
+            }
+        }
+
+        private void append(final OperationEvent event) {
+            event.offset = ++lastOffset;
+            events.add(event);
+
+            if (events.size() > MAX_EVENTS) {
+                events.remove(0);
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            notifyAll();
+        }
+
+        /**
+         * @return true if there will not be any new event
+         */
+        public synchronized boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Waits until there are events after the given offset or until this log is closed.
+         *
+         * @param offset  offset of the last event a watcher has seen, 0 to get all events
+         * @param timeout maximum time to wait in milliseconds
+         * @return events after the given offset, empty if there are not any in time or this log is closed
+         */
+        public synchronized List<OperationEvent> await(final long offset, final long timeout) throws InterruptedException {
+            final long deadline = System.nanoTime() + MILLISECONDS.toNanos(timeout);
+
+            while (lastOffset <= offset && !closed) {
+                final long remaining = NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+                if (remaining <= 0) {
+                    break;
+                }
+
+                wait(remaining);
+            }
+
+            final List<OperationEvent> after = new ArrayList<>();
+
+            for (final OperationEvent event : events) {
+                if (event.offset > offset) {
+                    after.add(event);
+                }
+            }
+
+            return after;
+        }
+    }
+}
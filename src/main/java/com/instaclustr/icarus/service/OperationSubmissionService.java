@@ -0,0 +1,83 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationRequest;
+import com.instaclustr.operations.OperationsService;
+
+/**
+ * Submits operations under a key chosen by a caller. Submitting a request with a key an operation was already
+ * submitted with returns that operation instead of starting the work again, so a caller which has not received
+ * a response to its submission can safely resubmit it.
+ * <p>
+ * A key is remembered for as long as its operation is, operations expire as configured in {@link OperationsService}.
+ */
+@Singleton
+public class OperationSubmissionService {
+
+    private final OperationsService operationsService;
+    private final Map<String, UUID> operationsByKey = new ConcurrentHashMap<>();
+
+    @Inject
+    public OperationSubmissionService(final OperationsService operationsService) {
+        this.operationsService = operationsService;
+    }
+
+    /**
+     * @param key     key of a submission
+     * @param request request to submit when there is not any operation with such key yet
+     * @return submitted operation or an operation submitted with the same key before
+     * @throws IllegalStateException if an operation submitted with the same key is of a different type
+     */
+    public Submission submit(final String key, final OperationRequest request) {
+        final AtomicReference<Submission> submission = new AtomicReference<>();
+
+        operationsByKey.compute(key, (k, existingId) -> {
+            final Optional<Operation<?>> existing = existingId == null ? Optional.empty() : operationsService.operation(existingId);
+
+            if (existing.isPresent()) {
+                submission.set(new Submission(existing.get(), false));
+                return existingId;
+            }
+
+            final Operation<?> operation = operationsService.submitOperationRequest(request);
+            submission.set(new Submission(operation, true));
+            return operation.id;
+        });
+
+        final Submission result = submission.get();
+
+        if (result.created) {
+            // forget keys of operations which have expired
+            operationsByKey.values().removeIf(id -> !operationsService.operation(id).isPresent());
+        } else if (result.operation.request != null && result.operation.request.getClass() != request.getClass()) {
+            throw new IllegalStateException(format("Operation %s submitted with key %s is of type %s",
+                                                   result.operation.id,
+                                                   key,
+                                                   result.operation.type));
+        }
+
+        return result;
+    }
+
+    public static class Submission {
+
+        public final Operation<?> operation;
+        // false when an operation submitted with the same key before was returned
+        public final boolean created;
+
+        public Submission(final Operation<?> operation, final boolean created) {
+            this.operation = operation;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.instaclustr.icarus.service;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.esop.impl.AbstractTracker;
+import com.instaclustr.esop.impl.AbstractTracker.Session;
+import com.instaclustr.esop.impl.AbstractTracker.Unit;
+import com.instaclustr.esop.impl.backup.UploadTracker;
+import com.instaclustr.esop.impl.restore.DownloadTracker;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.Operation.State;
+import com.instaclustr.operations.OperationsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Lets callers block until an operation running on this node changes, instead of them
+ * re-fetching it over HTTP in a loop. Operations are held in memory so checking them is cheap,
+ * the expensive part we are saving is the round trip and the serialisation of the whole operation
+ * on every remote poll.
+ * <p>
+ * Operations do not notify anybody about their changes, so a watch of an operation is registered when somebody
+ * starts to wait for it and one thread samples all watched operations. Waiters are blocked on the watch of their operation
+ * and they are woken up only when the sample differs from the previous one, so waiting costs nothing but sampling,
+ * which is shared by all waiters of an operation. A watch is dropped once nobody waits for its operation.
+ */
+@Singleton
+public class OperationWatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperationWatchService.class);
+
+    public static final long SAMPLING_INTERVAL_MILLIS = Long.parseLong(System.getProperty("icarus.operations.watch.interval", "100"));
+
+    /**
+     * Progress has to move at least by this much to be considered as a change,
+     * otherwise a watcher would be woken up on every single uploaded or downloaded file.
+     */
+    public static final float PROGRESS_GRANULARITY = 0.01f;
+
+    public enum WaitFor {
+        // state or progress has changed, or an operation is in a terminal state
+        CHANGE,
+        // an operation is in a terminal state
+        TERMINAL
+    }
+
+    private final OperationsService operationsService;
+    private final Map<UUID, Watch> watches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sampler;
+
+    // not bound when backups and restores are not installed
+    @Inject(optional = true)
+    private UploadTracker uploadTracker;
+    @Inject(optional = true)
+    private DownloadTracker downloadTracker;
+
+    @Inject
+    public OperationWatchService(final OperationsService operationsService) {
+        this.operationsService = operationsService;
+    }
+
+    /**
+     * @param id            id of an operation to wait for
+     * @param waitFor       what to wait for
+     * @param knownState    state of an operation as a caller knows it, might be null
+     * @param knownProgress progress of an operation as a caller knows it
+     * @param timeout       maximum time to wait
+     * @param unit          unit of timeout
+     * @return empty optional if there is not such operation, otherwise the operation, either changed or as it is when timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Optional<Operation<?>> awaitChange(final UUID id,
+                                              final WaitFor waitFor,
+                                              final State knownState,
+                                              final float knownProgress,
+                                              final long timeout,
+                                              final TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        Optional<Operation<?>> operation = operationsService.operation(id);
+
+        if (!operation.isPresent() || hasChanged(operation.get(), waitFor, knownState, knownProgress)) {
+            return operation;
+        }
+
+        final Watch watch = register(operation.get());
+
+        try {
+            while (true) {
+                // taken before checking an operation, so a change sampled in between is not missed
+                final long version = watch.getVersion();
+
+                operation = operationsService.operation(id);
+
+                if (!operation.isPresent() || hasChanged(operation.get(), waitFor, knownState, knownProgress)) {
+                    return operation;
+                }
+
+                final long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    return operation;
+                }
+
+                // rounded up, a wait truncated to whole milliseconds would end before the deadline
+                watch.await(version, NANOSECONDS.toMillis(remaining) + 1);
+            }
+        } finally {
+            unregister(watch);
+        }
+    }
+
+    /**
+     * @return status of an operation together with bytes it transfers
+     */
+    public OperationStatus getStatus(final Operation<?> operation) {
+        final OperationStatus status = new OperationStatus(operation);
+
+        addTransfer(status, uploadTracker);
+        addTransfer(status, downloadTracker);
+
+        return status;
+    }
+
+    /**
+     * @param ids ids of operations to get statuses of
+     * @return statuses of operations in the order of given ids, operations which do not exist (anymore) are skipped
+     */
+    public List<OperationStatus> getStatuses(final Collection<UUID> ids) {
+        final List<OperationStatus> statuses = new ArrayList<>();
+
+        for (final UUID id : ids) {
+            operationsService.operation(id).map(this::getStatus).ifPresent(statuses::add);
+        }
+
+        return statuses;
+    }
+
+    /**
+     * Sets bytes an operation transfers from files its tracker session uploads or downloads.
+     * A session exists only while an operation is transferring files.
+     */
+    private void addTransfer(final OperationStatus status, final AbstractTracker<?, ?, ?, ?> tracker) {
+        if (tracker == null) {
+            return;
+        }
+
+        final Optional<? extends Session<? extends Unit>> session = tracker.getSession(status.id);
+
+        if (!session.isPresent()) {
+            return;
+        }
+
+        final List<? extends Unit> units;
+
+        synchronized (session.get().getUnits()) {
+            units = new ArrayList<>(session.get().getUnits());
+        }
+
+        long totalBytes = 0;
+        long transferredBytes = 0;
+
+        for (final Unit unit : units) {
+            totalBytes += unit.getManifestEntry().size;
+
+            if (unit.getState() == Unit.State.FINISHED || unit.getState() == Unit.State.IGNORED) {
+                transferredBytes += unit.getManifestEntry().size;
+            }
+        }
+
+        status.totalBytes = totalBytes;
+        status.transferredBytes = transferredBytes;
+    }
+
+    private Watch register(final Operation<?> operation) {
+        final Watch watch = watches.compute(operation.id, (id, existing) -> {
+            final Watch registered = existing == null ? new Watch(operation) : existing;
+            registered.waiters++;
+            return registered;
+        });
+
+        startSampling();
+
+        return watch;
+    }
+
+    private void unregister(final Watch watch) {
+        watches.computeIfPresent(watch.operationId, (id, existing) -> --existing.waiters == 0 ? null : existing);
+    }
+
+    private synchronized void startSampling() {
+        if (sampler != null) {
+            return;
+        }
+
+        sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("operation-watch-%d").setDaemon(true).build());
+        sampler.scheduleWithFixedDelay(this::sample, SAMPLING_INTERVAL_MILLIS, SAMPLING_INTERVAL_MILLIS, MILLISECONDS);
+    }
+
+    private void sample() {
+        for (final Watch watch : watches.values()) {
+            try {
+                // an expired operation wakes its waiters up so they find it is gone
+                watch.sample(operationsService.operation(watch.operationId).orElse(null));
+            } catch (final Exception ex) {
+                logger.warn("Unable to sample operation " + watch.operationId, ex);
+            }
+        }
+    }
+
+    private boolean hasChanged(final Operation<?> operation,
+                               final WaitFor waitFor,
+                               final State knownState,
+                               final float knownProgress) {
+        if (operation.state.isTerminalState()) {
+            return true;
+        }
+
+        if (waitFor == WaitFor.TERMINAL) {
+            return false;
+        }
+
+        return operation.state != knownState || Math.abs(operation.progress - knownProgress) >= PROGRESS_GRANULARITY;
+    }
+
+    /**
+     * Last sample of a watched operation, its waiters are notified whenever a new sample differs from it.
+     */
+    private static class Watch {
+
+        private final UUID operationId;
+        // guarded by OperationWatchService.watches
+        private int waiters;
+
+        // incremented whenever a sample differs from the previous one
+        private long version;
+
+        private State lastState;
+        private float lastProgress;
+        private int lastErrors;
+
+        private Watch(final Operation<?> operation) {
+            this.operationId = operation.id;
+            this.lastState = operation.state;
+            this.lastProgress = operation.progress;
+            this.lastErrors = errors(operation);
+        }
+
+        private synchronized void sample(final Operation<?> operation) {
+            if (operation != null && operation.state == lastState && operation.progress == lastProgress && errors(operation) == lastErrors) {
+                return;
+            }
+
+            if (operation != null) {
+                lastState = operation.state;
+                lastProgress = operation.progress;
+                lastErrors = errors(operation);
+            }
+
+            version++;
+            notifyAll();
+        }
+
+        private synchronized long getVersion() {
+            return version;
+        }
+
+        /**
+         * Waits until an operation is sampled differently than it was when a waiter got the given version.
+         */
+        private synchronized void await(final long version, final long timeout) throws InterruptedException {
+            final long deadline = System.nanoTime() + MILLISECONDS.toNanos(timeout);
+
+            while (this.version == version) {
+                final long remaining = NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+                if (remaining <= 0) {
+                    return;
+                }
+
+                wait(remaining);
+            }
+        }
+
+        private static int errors(final Operation<?> operation) {
+            return operation.errors == null ? 0 : operation.errors.size();
+        }
+    }
+
+    /**
+     * Projection of an operation without its request and other details, it is all a watcher needs to know
+     * while an operation is running.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class OperationStatus {
+
+        public UUID id;
+        public String type;
+        public State state;
+        public float progress;
+        public List<Operation.Error> errors = new ArrayList<>();
+        public Instant startTime;
+        public Instant completionTime;
+        // set only for an operation which is uploading or downloading files
+        public Long totalBytes;
+        public Long transferredBytes;
+
+        public OperationStatus() {
+        }
+
+        public OperationStatus(final Operation<?> operation) {
+            this.id = operation.id;
+            this.type = operation.type;
+            this.state = operation.state;
+            this.progress = operation.progress;
+            this.errors = new ArrayList<>(operation.errors);
+            this.startTime = operation.startTime;
+            this.completionTime = operation.completionTime;
+        }
+
+        /**
+         * Updates an operation, as fetched before, by this status.
+         */
+        public void applyTo(final Operation<?> operation) {
+            operation.state = state;
+            operation.progress = progress;
+            operation.errors = new ArrayList<>(errors);
+            operation.startTime = startTime;
+            operation.completionTime = completionTime;
+        }
+    }
+}
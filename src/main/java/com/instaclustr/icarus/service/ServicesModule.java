@@ -2,6 +2,9 @@ package com.instaclustr.icarus.service;
 
 import static com.google.inject.multibindings.OptionalBinder.newOptionalBinder;
 import static com.google.inject.util.Types.newParameterizedType;
+import static com.instaclustr.guice.ServiceBindings.bindService;
+import static com.instaclustr.icarus.coordination.RollingOperationCoordinator.coordinatorType;
+import static com.instaclustr.icarus.coordination.RollingOperationCoordinator.rollingCoordinatorType;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.Provides;
@@ -11,6 +14,13 @@ import com.instaclustr.esop.impl.backup.BackupOperationRequest;
 import com.instaclustr.esop.impl.restore.RestoreOperationRequest;
 import com.instaclustr.icarus.coordination.IcarusBackupOperationCoordinator;
 import com.instaclustr.icarus.coordination.IcarusRestoreOperationCoordinator;
+import com.instaclustr.icarus.coordination.OperationNodesMixin;
+import com.instaclustr.icarus.coordination.RestoreCheckpointStore;
+import com.instaclustr.icarus.coordination.RollingOperationRequest;
+import com.instaclustr.icarus.operations.cleanup.CleanupOperationRequest;
+import com.instaclustr.icarus.operations.scrub.ScrubOperationRequest;
+import com.instaclustr.icarus.operations.upgradesstables.UpgradeSSTablesOperationRequest;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
 import com.instaclustr.operations.OperationCoordinator;
 import jmx.org.apache.cassandra.service.CassandraJMXService;
 
@@ -33,5 +43,24 @@ public class ServicesModule extends AbstractModule {
 
         newOptionalBinder(binder(), operationCoordinator).setBinding().to(IcarusRestoreOperationCoordinator.class);
         newOptionalBinder(binder(), backupOperationCoordinator).setBinding().to(IcarusBackupOperationCoordinator.class);
+
+        bindRollingCoordinator(CleanupOperationRequest.class);
+        bindRollingCoordinator(ScrubOperationRequest.class);
+        bindRollingCoordinator(UpgradeSSTablesOperationRequest.class);
+
+        bindService(binder(), IcarusClientTransport.class);
+        bindService(binder(), ClusterTopologyService.class);
+        bindService(binder(), CassandraStateCache.class);
+        bindService(binder(), RestoreCheckpointStore.class);
+
+        if (MetricsExporter.ENABLED) {
+            bindService(binder(), MetricsExporter.class);
+        }
+
+        bind(OperationNodesMixin.Registration.class).asEagerSingleton();
+    }
+
+    private <T extends RollingOperationRequest> void bindRollingCoordinator(final Class<T> requestClass) {
+        newOptionalBinder(binder(), coordinatorType(requestClass)).setBinding().to(rollingCoordinatorType(requestClass));
     }
 }
@@ -0,0 +1,95 @@
+package com.instaclustr.icarus.service;
+
+import static java.lang.String.format;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.instaclustr.esop.impl.backup.BaseBackupOperationRequest;
+import com.instaclustr.esop.impl.backup.UploadTracker;
+import com.instaclustr.measure.DataRate;
+import com.instaclustr.measure.DataRate.DataRateUnit;
+import com.instaclustr.operations.Operation;
+import com.instaclustr.operations.OperationsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Changes the bandwidth of a backup running on this node, so a coordinator of a global backup can share
+ * a bandwidth budget of a cluster among nodes which are uploading at the moment.
+ * <p>
+ * A file is rate limited by the bandwidth its upload started with, so a change applies to files uploaded afterwards.
+ * Once files of a backup are submitted, the bandwidth of its request is the bandwidth of a single connection,
+ * whoever submits them holds the lock of a request while doing so, so a change is not divided among connections twice.
+ * <p>
+ * A budget of a cluster is known only to a coordinator of a global backup it was submitted with, bandwidth of a request
+ * is a limit of every node as usual, nodes are told their shares of a budget by changes of their bandwidth.
+ */
+@Singleton
+public class UploadBandwidthService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadBandwidthService.class);
+
+    private final OperationsService operationsService;
+    // bandwidth budgets of global backups submitted with one, by their requests, which are compared by identity
+    private final Cache<BaseBackupOperationRequest, DataRate> clusterBandwidths = CacheBuilder.newBuilder().weakKeys().build();
+
+    // not bound when backups are not installed
+    @Inject(optional = true)
+    private UploadTracker uploadTracker;
+
+    @Inject
+    public UploadBandwidthService(final OperationsService operationsService) {
+        this.operationsService = operationsService;
+    }
+
+    /**
+     * @param id        id of a backup operation
+     * @param bandwidth bandwidth of all uploads of a backup together
+     * @return false if there is not such backup running on this node
+     */
+    public boolean setBandwidth(final UUID id, final DataRate bandwidth) {
+        final Optional<Operation<?>> operation = operationsService.operation(id);
+
+        if (!operation.isPresent() || operation.get().state.isTerminalState() || !(operation.get().request instanceof BaseBackupOperationRequest)) {
+            return false;
+        }
+
+        final BaseBackupOperationRequest request = (BaseBackupOperationRequest) operation.get().request;
+
+        synchronized (request) {
+            if (uploadTracker != null && uploadTracker.getSession(id).isPresent()) {
+                final int connections = request.concurrentConnections == null ? 1 : Math.max(1, request.concurrentConnections);
+
+                request.bandwidth = new DataRate(Math.max(1, bandwidth.asBytesPerSecond().value / connections), DataRateUnit.BPS);
+            } else {
+                request.bandwidth = bandwidth;
+            }
+        }
+
+        logger.info(format("Bandwidth of backup %s was changed to %s", id, bandwidth));
+
+        return true;
+    }
+
+    /**
+     * Records a bandwidth budget of a whole cluster a global backup is submitted with, it has to be called before its submission.
+     *
+     * @param request          request of a global backup which is about to be submitted
+     * @param clusterBandwidth bandwidth of all nodes of a cluster, or of a DC a backup is limited to, together
+     */
+    public void setClusterBandwidth(final BaseBackupOperationRequest request, final DataRate clusterBandwidth) {
+        clusterBandwidths.put(request, clusterBandwidth);
+    }
+
+    /**
+     * @return bandwidth budget a global backup of given request was submitted with, null when it has not any
+     */
+    public DataRate getClusterBandwidth(final BaseBackupOperationRequest request) {
+        return clusterBandwidths.getIfPresent(request);
+    }
+}
@@ -0,0 +1,124 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.instaclustr.icarus.coordination.BandwidthBudget;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class BandwidthBudgetTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // changes of bandwidth as "operation id: bytes per second", in the order they were received
+    private final List<String> changes = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private IcarusClientTransport transport;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        changes.clear();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/operations", exchange -> {
+            // path is /operations/{id}/bandwidth
+            final String id = exchange.getRequestURI().getPath().split("/")[2];
+
+            try (final InputStream body = exchange.getRequestBody()) {
+                changes.add(id + ": " + objectMapper.readTree(body).get("value").asLong());
+            }
+
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        transport = new IcarusClientTransport();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        transport.stopAsync().awaitTerminated();
+        server.stop(0);
+    }
+
+    @Test
+    public void budgetIsSharedAmongRunningNodesTest() throws Exception {
+        final BandwidthBudget budget = new BandwidthBudget(1000);
+        final IcarusClient first = client();
+        final IcarusClient second = client();
+        final UUID firstId = UUID.randomUUID();
+        final UUID secondId = UUID.randomUUID();
+
+        assertEquals(budget.acquire(first).value.longValue(), 1000);
+        budget.submitted(first, firstId);
+
+        // a node which is not submitted yet gets its share with its request, the running one is told remotely
+        assertEquals(budget.acquire(second).value.longValue(), 500);
+        awaitChanges(1);
+        assertEquals(changes.get(0), firstId + ": 500");
+
+        budget.submitted(second, secondId);
+
+        // the finished node gives its share back
+        budget.release(first);
+        awaitChanges(2);
+        assertEquals(changes.get(1), secondId + ": 1000");
+
+        budget.release(second);
+        assertEquals(changes.size(), 2);
+    }
+
+    @Test
+    public void retriedSubmissionDoesNotTakeAnotherShareTest() throws Exception {
+        final BandwidthBudget budget = new BandwidthBudget(1000);
+        final IcarusClient first = client();
+        final IcarusClient second = client();
+        final UUID firstId = UUID.randomUUID();
+
+        assertEquals(budget.acquire(first).value.longValue(), 1000);
+        budget.submitted(first, firstId);
+        assertEquals(budget.acquire(second).value.longValue(), 500);
+        awaitChanges(1);
+
+        // a submission of the second node is sent again, as after a lost response
+        assertEquals(budget.acquire(second).value.longValue(), 500);
+
+        budget.submitted(second, UUID.randomUUID());
+        budget.release(second);
+        awaitChanges(2);
+
+        assertEquals(changes.get(1), firstId + ": 1000");
+    }
+
+    private void awaitChanges(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+
+        while (changes.size() < count && System.currentTimeMillis() < deadline) {
+            MILLISECONDS.sleep(10);
+        }
+
+        assertEquals(changes.size(), count, changes.toString());
+    }
+
+    private IcarusClient client() {
+        return new IcarusClient.Builder()
+                .withHostAddress("localhost")
+                .withPort(server.getAddress().getPort())
+                .withObjectMapper(objectMapper)
+                .build(transport);
+    }
+}
@@ -0,0 +1,109 @@
+package com.instaclustr.operations;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.instaclustr.icarus.service.CassandraConfigService;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CassandraConfigServiceTest {
+
+    private Path configDir;
+    private Path configFile;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        configDir = Files.createTempDirectory("cassandra-config");
+        configFile = configDir.resolve("cassandra.yaml");
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        FileUtils.deleteDirectory(configDir.toFile());
+    }
+
+    @Test
+    public void modifiedFileIsReadAgainTest() throws Exception {
+        write(configFile, "cluster_name: first");
+
+        final CassandraConfigService service = new CassandraConfigService(configFile, null) {};
+
+        assertEquals(service.getConfiguration(), Optional.of("cluster_name: first"));
+
+        write(configFile, "cluster_name: second");
+
+        awaitConfiguration(service, Optional.of("cluster_name: second"));
+    }
+
+    @Test
+    public void replacedFileIsReadAgainTest() throws Exception {
+        write(configFile, "cluster_name: first");
+
+        final CassandraConfigService service = new CassandraConfigService(configFile, null) {};
+
+        assertEquals(service.getConfiguration(), Optional.of("cluster_name: first"));
+
+        // as a config map in Kubernetes is updated
+        final Path replacement = configDir.resolve("replacement");
+
+        write(replacement, "cluster_name: second");
+        Files.move(replacement, configFile, ATOMIC_MOVE, REPLACE_EXISTING);
+
+        awaitConfiguration(service, Optional.of("cluster_name: second"));
+
+        Files.delete(configFile);
+
+        awaitConfiguration(service, Optional.empty());
+    }
+
+    @Test
+    public void createdFileIsReadTest() throws Exception {
+        final CassandraConfigService service = new CassandraConfigService(configFile, null) {};
+
+        assertEquals(service.getConfiguration(), Optional.empty());
+
+        write(configFile, "cluster_name: first");
+
+        awaitConfiguration(service, Optional.of("cluster_name: first"));
+    }
+
+    @Test
+    public void fileIsSearchedForTest() throws Exception {
+        final Path nested = Files.createDirectories(configDir.resolve("conf"));
+
+        write(nested.resolve("cassandra-node1.yaml"), "cluster_name: first");
+
+        final CassandraConfigService service = new CassandraConfigService(null, configDir) {};
+
+        assertEquals(service.getConfiguration(), Optional.of("cluster_name: first"));
+
+        write(nested.resolve("cassandra-node1.yaml"), "cluster_name: second");
+
+        awaitConfiguration(service, Optional.of("cluster_name: second"));
+    }
+
+    private static void write(final Path file, final String content) throws Exception {
+        Files.write(file, content.getBytes(UTF_8));
+    }
+
+    private static void awaitConfiguration(final CassandraConfigService service, final Optional<String> configuration) throws Exception {
+        // a watch service polls a directory on some platforms
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(30);
+
+        while (!service.getConfiguration().equals(configuration) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(service.getConfiguration(), configuration);
+    }
+}
@@ -0,0 +1,204 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.icarus.service.CassandraStatusService.Status.NodeState.DRAINING;
+import static com.instaclustr.icarus.service.CassandraStatusService.Status.NodeState.NORMAL;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.icarus.service.CassandraService;
+import com.instaclustr.icarus.service.CassandraStateCache;
+import com.instaclustr.icarus.service.CassandraStatusService;
+import com.instaclustr.icarus.service.CassandraStatusService.Status;
+import com.instaclustr.icarus.service.ClusterTopologyService;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CassandraStateCacheTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(5);
+
+    private FakeCassandraJMXService cassandraJMXService;
+    private CountDownLatch released;
+
+    @BeforeMethod
+    public void setup() {
+        released = new CountDownLatch(0);
+
+        cassandraJMXService = new FakeCassandraJMXService()
+                .answer("getOperationMode", args -> {
+                    released.await(10, SECONDS);
+                    return "NORMAL";
+                })
+                .answer("getSchemaVersion", "schema1");
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void callersWaitForOneFetchTest() throws Exception {
+        final TestingCache cache = new TestingCache(60_000, 60_000);
+        final List<Future<Status>> statuses = new ArrayList<>();
+
+        released = new CountDownLatch(1);
+
+        for (int i = 0; i < 5; i++) {
+            statuses.add(executor.submit(cache::getStatus));
+        }
+
+        awaitCalls("getOperationMode", 1);
+        Thread.sleep(100);
+        released.countDown();
+
+        for (final Future<Status> status : statuses) {
+            assertEquals(status.get(10, SECONDS).getNodeState(), NORMAL);
+        }
+
+        assertEquals(cassandraJMXService.calls("getOperationMode"), 1);
+    }
+
+    @Test
+    public void staleStatusIsReturnedWhileItIsFetchedTest() throws Exception {
+        final TestingCache cache = new TestingCache(50, 60_000);
+
+        assertEquals(cache.getStatus().getNodeState(), NORMAL);
+
+        Thread.sleep(100);
+        released = new CountDownLatch(1);
+        answer("DRAINING");
+
+        // the fetch is blocked, the stale status is returned without waiting for it
+        assertEquals(cache.getStatus().getNodeState(), NORMAL);
+        assertEquals(cache.getStatus().getNodeState(), NORMAL);
+
+        released.countDown();
+        awaitNodeState(cache, DRAINING);
+
+        assertEquals(cassandraJMXService.calls("getOperationMode"), 2);
+    }
+
+    @Test
+    public void statusIsTrustedForShorterTimeThanVersionsTest() throws Exception {
+        final TestingCache cache = new TestingCache(50, 200);
+
+        cache.getStatus();
+        cache.getSchemaVersion();
+
+        Thread.sleep(300);
+        answer("DRAINING");
+        cassandraJMXService.answer("getSchemaVersion", "schema2");
+
+        // too stale status is waited for, a version is still returned as it was
+        assertEquals(cache.getStatus().getNodeState(), DRAINING);
+        assertEquals(cache.getSchemaVersion().getSchemaVersion(), "schema1");
+    }
+
+    @Test
+    public void slowFetchIsWaitedForOnlyForWhileTest() throws Exception {
+        final TestingCache cache = new TestingCache(50, 100, 200);
+
+        released = new CountDownLatch(1);
+
+        // there is not any status yet
+        final Status missing = cache.getStatus();
+
+        assertTrue(missing.getException() instanceof TimeoutException, String.valueOf(missing.getException()));
+
+        released.countDown();
+        awaitNodeState(cache, NORMAL);
+
+        Thread.sleep(150);
+        released = new CountDownLatch(1);
+        answer("DRAINING");
+
+        // a status too old to be trusted is still returned when its fetch takes too long
+        final long start = System.currentTimeMillis();
+
+        assertEquals(cache.getStatus().getNodeState(), NORMAL);
+        assertTrue(System.currentTimeMillis() - start < SECONDS.toMillis(5));
+
+        released.countDown();
+        awaitNodeState(cache, DRAINING);
+    }
+
+    @Test
+    public void readValuesAreRefreshedInBackgroundTest() throws Exception {
+        final TestingCache cache = new TestingCache(60_000, 60_000);
+
+        // nothing was read yet
+        cache.refresh();
+        Thread.sleep(100);
+
+        assertEquals(cassandraJMXService.calls("getOperationMode"), 0);
+
+        cache.getStatus();
+        answer("DRAINING");
+        cache.refresh();
+
+        // the next read gets the refreshed status without waiting for a fetch
+        awaitCalls("getOperationMode", 2);
+        awaitNodeState(cache, DRAINING);
+
+        assertEquals(cassandraJMXService.calls("getOperationMode"), 2);
+        assertEquals(cassandraJMXService.calls("getSchemaVersion"), 0);
+    }
+
+    private void answer(final String operationMode) {
+        cassandraJMXService.answer("getOperationMode", args -> {
+            released.await(10, SECONDS);
+            return operationMode;
+        });
+    }
+
+    private void awaitCalls(final String method, final int calls) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+
+        while (cassandraJMXService.calls(method) < calls && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void awaitNodeState(final CassandraStateCache cache, final Status.NodeState nodeState) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+
+        while (cache.getStatus().getNodeState() != nodeState && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(cache.getStatus().getNodeState(), nodeState);
+    }
+
+    private class TestingCache extends CassandraStateCache {
+
+        TestingCache(final long ttlMillis, final long statusMaxStaleMillis) {
+            this(ttlMillis, statusMaxStaleMillis, 60_000);
+        }
+
+        TestingCache(final long ttlMillis, final long statusMaxStaleMillis, final long waitMillis) {
+            super(new CassandraStatusService(cassandraJMXService),
+                  new CassandraService(cassandraJMXService, new ClusterTopologyService(cassandraJMXService)),
+                  () -> CassandraVersion.parse("4.0.0"),
+                  ttlMillis,
+                  statusMaxStaleMillis,
+                  60_000,
+                  waitMillis);
+        }
+
+        void refresh() {
+            runOneIteration();
+        }
+    }
+}
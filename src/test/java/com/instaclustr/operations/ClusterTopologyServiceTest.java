@@ -0,0 +1,114 @@
+package com.instaclustr.operations;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.instaclustr.esop.topology.CassandraClusterTopology.ClusterTopology;
+import com.instaclustr.icarus.service.ClusterTopologyService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ClusterTopologyServiceTest {
+
+    private final Map<String, String> hostIds = new HashMap<>();
+    private FakeCassandraJMXService cassandraJMXService;
+    private TestingTopologyService topologyService;
+
+    @BeforeMethod
+    public void setup() {
+        hostIds.clear();
+        hostIds.put("127.0.0.1", UUID.randomUUID().toString());
+        hostIds.put("127.0.0.2", UUID.randomUUID().toString());
+
+        cassandraJMXService = new FakeCassandraJMXService()
+                .answer("getEndpointToHostId", args -> new HashMap<>(hostIds))
+                .answer("getSchemaVersion", "schema1")
+                .answer("getClusterName", "cluster")
+                .answer("getDatacenter", "dc1")
+                .answer("getRack", "rack1");
+
+        topologyService = new TestingTopologyService();
+    }
+
+    @Test
+    public void topologyIsCachedTest() throws Exception {
+        final ClusterTopology first = topologyService.getClusterTopology(null);
+
+        assertEquals(first.endpoints.size(), 2);
+        assertEquals(first.clusterName, "cluster");
+
+        // a returned topology is a copy
+        first.endpoints.clear();
+
+        final ClusterTopology second = topologyService.getClusterTopology(null);
+
+        assertEquals(second.endpoints.size(), 2);
+        assertEquals(cassandraJMXService.calls("getClusterName"), 1);
+
+        // nothing has changed so a refresh checks the fingerprint only
+        topologyService.refresh();
+        topologyService.getClusterTopology(null);
+
+        assertEquals(cassandraJMXService.calls("getClusterName"), 1);
+    }
+
+    @Test
+    public void changedTopologyIsResolvedAgainTest() throws Exception {
+        topologyService.getClusterTopology(null);
+
+        hostIds.put("127.0.0.3", UUID.randomUUID().toString());
+
+        // cached until the next refresh
+        assertEquals(topologyService.getClusterTopology(null).endpoints.size(), 2);
+
+        topologyService.refresh();
+
+        assertEquals(topologyService.getClusterTopology(null).endpoints.size(), 3);
+        assertEquals(cassandraJMXService.calls("getClusterName"), 2);
+
+        cassandraJMXService.answer("getSchemaVersion", "schema2");
+        topologyService.refresh();
+
+        assertEquals(topologyService.getClusterTopology(null).schemaVersion, "schema2");
+        assertEquals(cassandraJMXService.calls("getClusterName"), 3);
+    }
+
+    @Test
+    public void invalidatedTopologyIsResolvedOnReadTest() throws Exception {
+        topologyService.getClusterTopology(null);
+        topologyService.invalidate();
+        topologyService.getClusterTopology(null);
+
+        assertEquals(cassandraJMXService.calls("getClusterName"), 2);
+    }
+
+    @Test
+    public void filterOnDcTest() throws Exception {
+        assertEquals(topologyService.getClusterTopology("dc1").endpoints.size(), 2);
+
+        boolean thrown = false;
+
+        try {
+            topologyService.getClusterTopology("dc2");
+        } catch (final IllegalStateException ex) {
+            thrown = true;
+        }
+
+        assertTrue(thrown);
+    }
+
+    private class TestingTopologyService extends ClusterTopologyService {
+
+        TestingTopologyService() {
+            super(cassandraJMXService);
+        }
+
+        void refresh() {
+            runOneIteration();
+        }
+    }
+}
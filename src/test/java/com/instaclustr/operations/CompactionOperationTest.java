@@ -0,0 +1,128 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.CANCELLED;
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.FAILED;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.instaclustr.icarus.operations.cleanup.CleanupOperation;
+import com.instaclustr.icarus.operations.cleanup.CleanupOperationRequest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CompactionOperationTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private FakeCassandraJMXService cassandraJMXService;
+    private CountDownLatch stopped;
+
+    @BeforeMethod
+    public void setup() {
+        stopped = new CountDownLatch(1);
+
+        final Map<String, String> compaction = new HashMap<>();
+
+        compaction.put("compactionId", "1");
+        compaction.put("keyspace", "ks1");
+        compaction.put("columnfamily", "table1");
+        compaction.put("taskType", "Cleanup");
+        compaction.put("unit", "bytes");
+        compaction.put("completed", "100");
+        compaction.put("total", "400");
+
+        cassandraJMXService = new FakeCassandraJMXService()
+                .answer("getCompactions", Collections.singletonList(compaction))
+                .answer("stopCompactionById", args -> {
+                    stopped.countDown();
+                    return null;
+                })
+                // cleanup returns as aborted once its compaction is stopped
+                .answer("forceKeyspaceCleanup", args -> stopped.await(1, SECONDS) ? 1 : 0);
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void cancelledOperationIsCancelledTest() throws Exception {
+        final CleanupOperation operation = cleanup();
+        final Future<?> run = executor.submit(operation);
+
+        awaitCall();
+
+        // closing does not wait for the call to return
+        operation.close();
+
+        assertTrue(operation.completionTime == null || operation.state == CANCELLED);
+
+        run.get(10, SECONDS);
+
+        assertEquals(operation.state, CANCELLED);
+        assertEquals(cassandraJMXService.calls("forceKeyspaceCleanup"), 1);
+        // a cancellation is not an error
+        assertTrue(operation.errors.isEmpty(), operation.errors.toString());
+    }
+
+    @Test
+    public void operationClosedBeforeCallIsNotCalledTest() throws Exception {
+        final CleanupOperation operation = cleanup();
+
+        operation.close();
+        operation.run();
+
+        assertEquals(operation.state, CANCELLED);
+        assertTrue(operation.errors.isEmpty(), operation.errors.toString());
+        assertEquals(cassandraJMXService.calls("forceKeyspaceCleanup"), 0);
+    }
+
+    @Test
+    public void failureOfCallFailsOperationTest() throws Exception {
+        cassandraJMXService.answer("forceKeyspaceCleanup", 2);
+
+        final CleanupOperation operation = cleanup();
+
+        operation.run();
+
+        assertEquals(operation.state, FAILED);
+        assertTrue(operation.errors.get(0).message.contains("Failed marking some sstables compacting"), operation.errors.toString());
+    }
+
+    @Test
+    public void operationNotClosedCompletesTest() throws Exception {
+        cassandraJMXService.answer("forceKeyspaceCleanup", 0);
+
+        final CleanupOperation operation = cleanup();
+
+        operation.run();
+
+        assertEquals(operation.state, COMPLETED);
+        assertEquals(cassandraJMXService.calls("stopCompactionById"), 0);
+    }
+
+    private CleanupOperation cleanup() {
+        return new CleanupOperation(cassandraJMXService, Optional.empty(), new CleanupOperationRequest("ks1", null, 1));
+    }
+
+    private void awaitCall() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+
+        while (cassandraJMXService.calls("forceKeyspaceCleanup") == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
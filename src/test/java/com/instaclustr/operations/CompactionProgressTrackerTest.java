@@ -0,0 +1,102 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.instaclustr.icarus.operations.compaction.CompactionProgressTracker;
+import com.instaclustr.icarus.operations.compaction.CompactionType;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class CompactionProgressTrackerTest {
+
+    private final List<String> stopped = Collections.synchronizedList(new ArrayList<>());
+    private FakeCassandraJMXService cassandraJMXService;
+    private FailingOperation operation;
+
+    @BeforeMethod
+    public void setup() {
+        stopped.clear();
+
+        cassandraJMXService = new FakeCassandraJMXService()
+                .answer("getCompactions", Arrays.asList(compaction("1", "ks1", "Cleanup", 100, 400),
+                                                        compaction("2", "ks2", "Cleanup", 200, 400),
+                                                        compaction("3", "ks1", "Compaction", 300, 400)))
+                .answer("getValue", 1000L)
+                .answer("stopCompactionById", args -> stopped.add((String) args[0]));
+
+        operation = new FailingOperation(new FailingOperationRequest());
+    }
+
+    @Test
+    public void compactionsOfKeyspaceAreTrackedTest() throws Exception {
+        try (final CompactionProgressTracker ignored = CompactionProgressTracker.start(cassandraJMXService, operation, CompactionType.CLEANUP, "ks1", null, throughput -> {})) {
+            awaitProgress();
+        }
+
+        // relative to the size of the keyspace, other keyspaces and types of compactions are not counted
+        assertEquals(operation.progress, 0.1f);
+        assertEquals(cassandraJMXService.calls("getValue"), 1);
+    }
+
+    @Test
+    public void compactionsOfAllKeyspacesAreTrackedTest() throws Exception {
+        try (final CompactionProgressTracker ignored = CompactionProgressTracker.start(cassandraJMXService, operation, CompactionType.CLEANUP, null, null, throughput -> {})) {
+            awaitProgress();
+        }
+
+        // there is no size to measure, progress is relative to the compactions seen
+        assertEquals(operation.progress, 300f / 800);
+        assertEquals(cassandraJMXService.calls("getValue"), 0);
+        assertEquals(cassandraJMXService.calls("getCount"), 0);
+    }
+
+    @Test
+    public void cancelledTrackerStopsItsCompactionsTest() throws Exception {
+        try (final CompactionProgressTracker tracker = CompactionProgressTracker.start(cassandraJMXService, operation, CompactionType.CLEANUP, null, null, throughput -> {})) {
+            tracker.cancel();
+
+            final long deadline = System.currentTimeMillis() + SECONDS.toMillis(10);
+
+            while (stopped.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(100);
+            }
+        }
+
+        assertTrue(stopped.containsAll(Arrays.asList("1", "2")), stopped.toString());
+        assertFalse(stopped.contains("3"), stopped.toString());
+    }
+
+    private void awaitProgress() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(CompactionProgressTracker.POLL_INTERVAL_SECONDS + 10);
+
+        while (operation.progress == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static Map<String, String> compaction(final String id, final String keyspace, final String taskType, final long completed, final long total) {
+        final Map<String, String> compaction = new HashMap<>();
+
+        compaction.put("compactionId", id);
+        compaction.put("keyspace", keyspace);
+        compaction.put("columnfamily", "table1");
+        compaction.put("taskType", taskType);
+        compaction.put("unit", "bytes");
+        compaction.put("completed", Long.toString(completed));
+        compaction.put("total", Long.toString(total));
+
+        return compaction;
+    }
+}
@@ -0,0 +1,130 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.FAILED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.instaclustr.icarus.operations.drain.DrainOperation;
+import com.instaclustr.icarus.operations.drain.DrainOperationRequest;
+import com.instaclustr.icarus.service.CassandraStatusService;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class DrainOperationTest {
+
+    private final List<String> keyspaces = new ArrayList<>();
+    private final List<Float> progress = Collections.synchronizedList(new ArrayList<>());
+
+    private FakeCassandraJMXService cassandraJMXService;
+    private volatile String operationMode;
+    private CountDownLatch drained;
+
+    @BeforeMethod
+    public void setup() {
+        keyspaces.clear();
+        progress.clear();
+
+        for (int i = 0; i < 10; i++) {
+            keyspaces.add("ks" + i);
+        }
+
+        operationMode = "NORMAL";
+        drained = new CountDownLatch(0);
+
+        cassandraJMXService = new FakeCassandraJMXService()
+                .answer("getKeyspaces", keyspaces)
+                .answer("getOperationMode", args -> operationMode)
+                .answer("drain", args -> {
+                    drained.await();
+                    operationMode = "DRAINED";
+                    return null;
+                });
+    }
+
+    @AfterMethod
+    public void teardown() {
+        drained.countDown();
+    }
+
+    @Test
+    public void timeoutOfRequestTest() {
+        assertEquals(new DrainOperationRequest("drain", 5).timeout, 5);
+        // a request without a positive timeout gets the default one
+        assertEquals(new DrainOperationRequest("drain", null).timeout, DrainOperationRequest.DEFAULT_TIMEOUT_SECONDS);
+        assertEquals(new DrainOperationRequest("drain", 0).timeout, DrainOperationRequest.DEFAULT_TIMEOUT_SECONDS);
+    }
+
+    @Test
+    public void keyspacesAreFlushedInParallelTest() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final DrainOperation operation = drain(60);
+
+        cassandraJMXService.answer("forceKeyspaceFlush", args -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            progress.add(operation.progress);
+            MILLISECONDS.sleep(100);
+            running.decrementAndGet();
+            return null;
+        });
+
+        operation.run();
+
+        assertEquals(operation.state, COMPLETED, String.valueOf(operation.errors));
+        assertEquals(cassandraJMXService.calls("forceKeyspaceFlush"), keyspaces.size());
+        assertEquals(maxRunning.get(), DrainOperation.FLUSH_PARALLELISM);
+        assertEquals(cassandraJMXService.calls("drain"), 1);
+
+        // progress of flushes never goes back and it is never complete before a node is drained
+        for (int i = 1; i < progress.size(); i++) {
+            assertTrue(progress.get(i) >= progress.get(i - 1), progress.toString());
+            assertTrue(progress.get(i) < 1, progress.toString());
+        }
+    }
+
+    @Test
+    public void drainWhichTimesOutFailsTest() throws Exception {
+        final DrainOperation operation = drain(1);
+
+        drained = new CountDownLatch(1);
+        operation.run();
+
+        assertEquals(operation.state, FAILED);
+        assertTrue(operation.errors.get(0).message.contains("Unable to drain in 1 seconds"), String.valueOf(operation.errors));
+
+        // mode of a node is not polled anymore once the operation fails
+        final int calls = cassandraJMXService.calls("getOperationMode");
+
+        drained.countDown();
+        SECONDS.sleep(1);
+
+        assertEquals(cassandraJMXService.calls("getOperationMode"), calls);
+    }
+
+    @Test
+    public void drainedNodeIsNotDrainedAgainTest() throws Exception {
+        operationMode = "DRAINED";
+
+        final DrainOperation operation = drain(60);
+
+        operation.run();
+
+        assertEquals(operation.state, COMPLETED);
+        assertEquals(cassandraJMXService.calls("drain"), 0);
+        assertEquals(cassandraJMXService.calls("forceKeyspaceFlush"), 0);
+    }
+
+    private DrainOperation drain(final int timeout) {
+        return new DrainOperation(new CassandraStatusService(cassandraJMXService), cassandraJMXService, new DrainOperationRequest(timeout));
+    }
+}
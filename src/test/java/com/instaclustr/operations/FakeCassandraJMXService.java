@@ -0,0 +1,167 @@
+package com.instaclustr.operations;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import jmx.org.apache.cassandra.CassandraJMXConnectionInfo;
+import jmx.org.apache.cassandra.service.CassandraJMXService;
+import jmx.org.apache.cassandra.service.cassandra2.Cassandra2StorageServiceMBean;
+import jmx.org.apache.cassandra.service.cassandra3.ColumnFamilyStoreMBean;
+import jmx.org.apache.cassandra.service.cassandra3.StorageServiceMBean;
+import jmx.org.apache.cassandra.service.cassandra30.Cassandra30ColumnFamilyStoreMBean;
+import jmx.org.apache.cassandra.service.cassandra30.Cassandra30StorageServiceMBean;
+import jmx.org.apache.cassandra.service.cassandra4.Cassandra4ColumnFamilyStoreMBean;
+import jmx.org.apache.cassandra.service.cassandra4.Cassandra4StorageServiceMBean;
+import javax.management.ObjectName;
+
+/**
+ * Simulates Cassandra behind JMX for tests which do not run a node. Every MBean is a proxy answering its methods
+ * by answers registered under their names, regardless of the MBean they are called on. A method without an answer
+ * returns a default value, that is zero, false, an empty collection or null.
+ */
+public class FakeCassandraJMXService implements CassandraJMXService {
+
+    public interface Answer {
+
+        Object answer(Object[] args) throws Exception;
+    }
+
+    private final Map<String, Answer> answers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+
+    public FakeCassandraJMXService answer(final String method, final Answer answer) {
+        answers.put(method, answer);
+        return this;
+    }
+
+    public FakeCassandraJMXService answer(final String method, final Object value) {
+        return answer(method, args -> value);
+    }
+
+    /**
+     * @return number of times a method of some MBean was called
+     */
+    public int calls(final String method) {
+        final AtomicInteger count = calls.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    public <T> T mbean(final Class<T> type) {
+        final InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+
+            calls.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+
+            final Answer answer = answers.get(method.getName());
+
+            if (answer != null) {
+                return answer.answer(args == null ? new Object[0] : args);
+            }
+
+            return defaultValue(method.getReturnType());
+        };
+
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @Override
+    public <T> T doWithCassandra4StorageServiceMBean(final FunctionWithEx<Cassandra4StorageServiceMBean, T> func) throws Exception {
+        return func.apply(mbean(Cassandra4StorageServiceMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra3StorageServiceMBean(final FunctionWithEx<StorageServiceMBean, T> func) throws Exception {
+        return func.apply(mbean(StorageServiceMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra30StorageServiceMBean(final FunctionWithEx<Cassandra30StorageServiceMBean, T> func) throws Exception {
+        return func.apply(mbean(Cassandra30StorageServiceMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra2StorageServiceMBean(final FunctionWithEx<Cassandra2StorageServiceMBean, T> func) throws Exception {
+        return func.apply(mbean(Cassandra2StorageServiceMBean.class));
+    }
+
+    @Override
+    public <T> T doWithStorageServiceMBean(final FunctionWithEx<StorageServiceMBean, T> func) throws Exception {
+        return func.apply(mbean(StorageServiceMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra3ColumnFamilyStoreMBean(final FunctionWithEx<ColumnFamilyStoreMBean, T> func,
+                                                        final String keyspace,
+                                                        final String columnFamily) throws Exception {
+        return func.apply(mbean(ColumnFamilyStoreMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra30ColumnFamilyStoreMBean(final FunctionWithEx<Cassandra30ColumnFamilyStoreMBean, T> func,
+                                                         final String keyspace,
+                                                         final String columnFamily) throws Exception {
+        return func.apply(mbean(Cassandra30ColumnFamilyStoreMBean.class));
+    }
+
+    @Override
+    public <T> T doWithCassandra4ColumnFamilyStoreMBean(final FunctionWithEx<Cassandra4ColumnFamilyStoreMBean, T> func,
+                                                        final String keyspace,
+                                                        final String columnFamily) throws Exception {
+        return func.apply(mbean(Cassandra4ColumnFamilyStoreMBean.class));
+    }
+
+    @Override
+    public Multimap<String, ColumnFamilyStoreMBean> getCFSMBeans() {
+        return ArrayListMultimap.create();
+    }
+
+    @Override
+    public <T, U> T doWithMBean(final FunctionWithEx<U, T> func, final Class<U> mbeanClass, final ObjectName mbeanObjectName) throws Exception {
+        return func.apply(mbean(mbeanClass));
+    }
+
+    @Override
+    public <T, U> T doWithMBean(final FunctionWithEx<U, T> func,
+                                final Class<U> mbeanClass,
+                                final ObjectName mbeanObjectName,
+                                final CassandraJMXConnectionInfo jmxConnectionInfo) throws Exception {
+        return func.apply(mbean(mbeanClass));
+    }
+
+    @Override
+    public CassandraJMXConnectionInfo getCassandraJmxConnectionInfo() {
+        return null;
+    }
+
+    private static Object defaultValue(final Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0.0d;
+        } else if (type == float.class) {
+            return 0.0f;
+        } else if (type == List.class) {
+            return Collections.emptyList();
+        } else if (type == Map.class) {
+            return Collections.emptyMap();
+        } else if (type == Set.class) {
+            return Collections.emptySet();
+        }
+
+        return null;
+    }
+}
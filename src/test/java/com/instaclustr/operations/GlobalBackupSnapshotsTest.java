@@ -0,0 +1,78 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import javax.management.openmbean.TabularData;
+import java.util.Collections;
+
+import com.instaclustr.cassandra.CassandraVersion;
+import com.instaclustr.esop.impl.DatabaseEntities;
+import com.instaclustr.icarus.operations.snapshot.DeleteSnapshotOperation;
+import com.instaclustr.icarus.operations.snapshot.DeleteSnapshotOperationRequest;
+import com.instaclustr.icarus.operations.snapshot.GlobalBackupSnapshots;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperation;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperationRequest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class GlobalBackupSnapshotsTest {
+
+    private FakeCassandraJMXService cassandraJMXService;
+    private GlobalBackupSnapshots globalBackupSnapshots;
+
+    @BeforeMethod
+    public void setup() {
+        cassandraJMXService = new FakeCassandraJMXService();
+        globalBackupSnapshots = new GlobalBackupSnapshots();
+    }
+
+    @Test
+    public void snapshotOfGlobalBackupIsRecordedTest() {
+        final SnapshotOperation own = snapshot(new SnapshotOperationRequest("own", DatabaseEntities.empty(), null));
+        final SnapshotOperation global = snapshot(new SnapshotOperationRequest("global", DatabaseEntities.empty(), null, true));
+
+        own.run();
+        global.run();
+
+        assertEquals(own.state, COMPLETED);
+        assertEquals(global.state, COMPLETED);
+        assertFalse(globalBackupSnapshots.contains("own"));
+        assertTrue(globalBackupSnapshots.contains("global"));
+        assertFalse(globalBackupSnapshots.contains(null));
+    }
+
+    @Test
+    public void incrementalBackupIsRecordedTest() {
+        snapshot(new SnapshotOperationRequest("full", DatabaseEntities.empty(), null, true)).run();
+        snapshot(new SnapshotOperationRequest("incremental", DatabaseEntities.empty(), null, true, true)).run();
+        // only a global backup is incremental
+        snapshot(new SnapshotOperationRequest("own", DatabaseEntities.empty(), null, false, true)).run();
+
+        assertFalse(globalBackupSnapshots.isIncremental("full"));
+        assertTrue(globalBackupSnapshots.isIncremental("incremental"));
+        assertFalse(globalBackupSnapshots.contains("own"));
+        assertFalse(globalBackupSnapshots.isIncremental("own"));
+    }
+
+    @Test
+    public void deletedSnapshotIsForgottenTest() {
+        snapshot(new SnapshotOperationRequest("global", DatabaseEntities.empty(), null, true)).run();
+
+        cassandraJMXService.answer("getSnapshotDetails", Collections.singletonMap("global", cassandraJMXService.mbean(TabularData.class)));
+
+        final DeleteSnapshotOperation delete = new DeleteSnapshotOperation(cassandraJMXService, globalBackupSnapshots, new DeleteSnapshotOperationRequest("global"));
+
+        delete.run();
+
+        assertEquals(delete.state, COMPLETED);
+        assertEquals(cassandraJMXService.calls("clearSnapshot"), 1);
+        assertFalse(globalBackupSnapshots.contains("global"));
+    }
+
+    private SnapshotOperation snapshot(final SnapshotOperationRequest request) {
+        return new SnapshotOperation(cassandraJMXService, () -> CassandraVersion.parse("4.0.0"), globalBackupSnapshots, request);
+    }
+}
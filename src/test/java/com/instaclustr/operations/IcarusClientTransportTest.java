@@ -0,0 +1,110 @@
+package com.instaclustr.operations;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClientTransport;
+import com.instaclustr.icarus.rest.IcarusClientTransport.PoolStatistics;
+import com.instaclustr.icarus.rest.IcarusClientTransport.TransportStatistics;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class IcarusClientTransportTest {
+
+    private HttpServer server;
+    private IcarusClientTransport transport;
+    // remote ports of connections requests came over
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        connections.clear();
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/version/sidecar", exchange -> {
+            connections.add(exchange.getRemoteAddress().getPort());
+
+            final byte[] body = "3.0.0".getBytes(UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, body.length);
+
+            try (final OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        });
+        server.start();
+
+        transport = new IcarusClientTransport();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        transport.stopAsync().awaitTerminated();
+        server.stop(0);
+    }
+
+    @Test
+    public void connectionsAreReusedAmongClientsTest() {
+        final List<IcarusClient> clients = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            clients.add(client());
+        }
+
+        for (int i = 0; i < 10; i++) {
+            for (final IcarusClient client : clients) {
+                assertEquals(client.getIcarusVersion(), "3.0.0");
+            }
+        }
+
+        // requests were sent one after another so one kept-alive connection served all clients
+        assertEquals(connections.size(), 1);
+
+        final TransportStatistics statistics = transport.getStatistics();
+
+        assertEquals(statistics.total.leased, 0);
+        assertEquals(statistics.total.idle, 1);
+        assertEquals(statistics.total.max, IcarusClientTransport.MAX_TOTAL_CONNECTIONS);
+        assertEquals(statistics.activeRequests, 0);
+        assertEquals(statistics.queuedRequests, 0);
+
+        final PoolStatistics endpoint = statistics.endpoints.get("localhost:" + server.getAddress().getPort());
+
+        assertEquals(endpoint.idle, 1);
+        assertEquals(endpoint.max, IcarusClientTransport.MAX_CONNECTIONS_PER_ENDPOINT);
+
+        clients.forEach(IcarusClient::close);
+    }
+
+    @Test
+    public void closingClientKeepsTransportTest() {
+        final IcarusClient closed = client();
+
+        assertEquals(closed.getIcarusVersion(), "3.0.0");
+
+        closed.close();
+
+        assertEquals(client().getIcarusVersion(), "3.0.0");
+        assertTrue(transport.getStatistics().total.idle > 0);
+    }
+
+    private IcarusClient client() {
+        return new IcarusClient.Builder()
+                .withHostAddress("localhost")
+                .withPort(server.getAddress().getPort())
+                .withObjectMapper(new ObjectMapper())
+                .build(transport);
+    }
+}
@@ -0,0 +1,185 @@
+package com.instaclustr.operations;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import javax.management.remote.JMXConnectorServer;
+import javax.management.remote.JMXConnectorServerFactory;
+import javax.management.remote.JMXServiceURL;
+import java.net.ServerSocket;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.instaclustr.icarus.service.ManagedCassandraJMXService;
+import jmx.org.apache.cassandra.CassandraJMXConnectionInfo;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ManagedCassandraJMXServiceTest {
+
+    private final ObjectName objectName;
+
+    private Registry registry;
+    private JMXServiceURL url;
+    private MBeanServer mBeanServer;
+    private JMXConnectorServer connectorServer;
+    private ManagedCassandraJMXService jmxService;
+
+    public ManagedCassandraJMXServiceTest() throws Exception {
+        objectName = new ObjectName("org.apache.cassandra.test:type=Counter");
+    }
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        final int port;
+
+        try (final ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        registry = LocateRegistry.createRegistry(port);
+        url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:" + port + "/jmxrmi");
+        mBeanServer = MBeanServerFactory.newMBeanServer();
+
+        startServer();
+
+        jmxService = new ManagedCassandraJMXService(new CassandraJMXConnectionInfo(null, null, null, url, null, null, null, null, false));
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        jmxService.close();
+        connectorServer.stop();
+        UnicastRemoteObject.unexportObject(registry, true);
+    }
+
+    @Test
+    public void reregisteredMBeanIsCalledAgainTest() throws Exception {
+        final Counter first = register();
+
+        assertEquals(call(CounterMBean::increment), Integer.valueOf(1));
+
+        // as a table which was dropped and created again
+        mBeanServer.unregisterMBean(objectName);
+        final Counter second = register();
+
+        assertEquals(call(CounterMBean::increment), Integer.valueOf(1));
+        assertEquals(first.count.get(), 1);
+        assertEquals(second.count.get(), 1);
+        assertEquals(jmxService.getStatus().connects, 1);
+    }
+
+    @Test
+    public void restartedServerIsCalledOnceTest() throws Exception {
+        final Counter counter = register();
+
+        call(CounterMBean::increment);
+
+        // as Cassandra which was restarted, a call over the old connection is never delivered
+        connectorServer.stop();
+        startServer();
+
+        // the call reaches the MBean exactly once, whether the connection was restored by JMX itself or connected again
+        assertEquals(call(CounterMBean::increment), Integer.valueOf(2));
+        assertEquals(counter.count.get(), 2);
+        assertTrue(jmxService.getStatus().connected);
+    }
+
+    @Test
+    public void callWhichHasReachedMBeanIsNotRepeatedTest() throws Exception {
+        final Counter first = register();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            call(mbean -> {
+                attempts.incrementAndGet();
+                mbean.increment();
+
+                mBeanServer.unregisterMBean(objectName);
+
+                return mbean.increment();
+            });
+
+            fail("an unregistered MBean was called");
+        } catch (final Exception ex) {
+            assertTrue(ex instanceof InstanceNotFoundException || ex.getCause() instanceof InstanceNotFoundException, ex.toString());
+        }
+
+        // repeating the function would increment the counter of a registered MBean again
+        assertEquals(attempts.get(), 1);
+        assertEquals(first.count.get(), 1);
+    }
+
+    @Test
+    public void failureOfMBeanIsNotRepeatedTest() throws Exception {
+        final Counter counter = register();
+
+        try {
+            call(CounterMBean::fail);
+            fail("a failure of an MBean was not propagated");
+        } catch (final IllegalStateException ex) {
+            assertEquals(ex.getMessage(), "failed");
+        }
+
+        assertEquals(counter.failures.get(), 1);
+        assertEquals(jmxService.getStatus().calls.get("CounterMBean.fail").getErrors(), 1);
+    }
+
+    private <T> T call(final Call<T> call) throws Exception {
+        return jmxService.doWithMBean(new FunctionWithEx<CounterMBean, T>() {
+            @Override
+            public T apply(final CounterMBean mbean) throws Exception {
+                return call.apply(mbean);
+            }
+        }, CounterMBean.class, objectName, jmxService.getCassandraJmxConnectionInfo());
+    }
+
+    private Counter register() throws Exception {
+        final Counter counter = new Counter();
+        mBeanServer.registerMBean(new StandardMBean(counter, CounterMBean.class), objectName);
+        return counter;
+    }
+
+    private void startServer() throws Exception {
+        connectorServer = JMXConnectorServerFactory.newJMXConnectorServer(url, null, mBeanServer);
+        connectorServer.start();
+    }
+
+    private interface Call<T> {
+
+        T apply(CounterMBean mbean) throws Exception;
+    }
+
+    public interface CounterMBean {
+
+        int increment();
+
+        int fail();
+    }
+
+    public static class Counter implements CounterMBean {
+
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public int increment() {
+            return count.incrementAndGet();
+        }
+
+        @Override
+        public int fail() {
+            failures.incrementAndGet();
+            throw new IllegalStateException("failed");
+        }
+    }
+}
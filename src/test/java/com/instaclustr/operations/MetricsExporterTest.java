@@ -0,0 +1,160 @@
+package com.instaclustr.operations;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerConnection;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import com.instaclustr.icarus.service.ManagedCassandraJMXService;
+import com.instaclustr.icarus.service.MetricsExporter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class MetricsExporterTest {
+
+    private MBeanServer mBeanServer;
+    private TestingExporter exporter;
+
+    @BeforeMethod
+    public void setup() {
+        mBeanServer = MBeanServerFactory.newMBeanServer();
+        exporter = new TestingExporter();
+    }
+
+    @Test
+    public void metricIsNamedAfterTypeNameAndAttributeTest() throws Exception {
+        register(new ObjectName("org.apache.cassandra.metrics:type=ClientRequest,scope=Read,name=Latency"), new Latency(), LatencyMBean.class);
+        register(new ObjectName("org.apache.cassandra.metrics:type=Cache,scope=KeyCache,name=Hit-Rate"), new Gauge(0.25), GaugeMBean.class);
+
+        final String exposition = exporter.export();
+
+        assertTrue(exposition.contains("# TYPE cassandra_clientrequest_latency_count untyped\n"), exposition);
+        assertTrue(exposition.contains("cassandra_clientrequest_latency_count{scope=\"Read\"} 5\n"), exposition);
+        assertTrue(exposition.contains("cassandra_clientrequest_latency_99thpercentile{scope=\"Read\"} 1.5\n"), exposition);
+        assertTrue(exposition.contains("cassandra_clientrequest_latency_enabled{scope=\"Read\"} 1\n"), exposition);
+        // characters not allowed in a metric name are replaced
+        assertTrue(exposition.contains("cassandra_cache_hit_rate_value{scope=\"KeyCache\"} 0.25\n"), exposition);
+        // attributes which are not numbers are not rendered
+        assertFalse(exposition.contains("_unit"), exposition);
+    }
+
+    @Test
+    public void labelIsEscapedTest() throws Exception {
+        final ObjectName objectName = new ObjectName("org.apache.cassandra.metrics:type=Cache,name=Size,keyspace=ks1,scope=" + ObjectName.quote("a\"b\\c\nd"));
+
+        register(objectName, new Gauge(Double.NaN), GaugeMBean.class);
+
+        final String exposition = exporter.export();
+
+        // a quoted value of a property is unquoted first, labels are sorted by their names
+        assertTrue(exposition.contains("cassandra_cache_size_value{keyspace=\"ks1\",scope=\"a\\\"b\\\\c\\nd\"} NaN\n"), exposition);
+    }
+
+    @Test
+    public void valuesAreRenderedTest() throws Exception {
+        register(new ObjectName("org.apache.cassandra.metrics:type=Storage,name=Load"), new Gauge(Double.POSITIVE_INFINITY), GaugeMBean.class);
+        register(new ObjectName("org.apache.cassandra.metrics:type=Storage,name=Exceptions"), new Gauge(1e16), GaugeMBean.class);
+        register(new ObjectName("org.apache.cassandra.metrics:type=Storage,name=Hints"), new Gauge(-3), GaugeMBean.class);
+        register(new ObjectName("org.apache.cassandra.metrics:type=Storage,name=Text"), new Gauge("text"), GaugeMBean.class);
+
+        final String exposition = exporter.export();
+
+        assertTrue(exposition.contains("cassandra_storage_load_value +Inf\n"), exposition);
+        assertTrue(exposition.contains("cassandra_storage_exceptions_value 1.0E16\n"), exposition);
+        assertTrue(exposition.contains("cassandra_storage_hints_value -3\n"), exposition);
+        // a gauge is declared as an object, it is rendered only when its value is a number
+        assertFalse(exposition.contains("cassandra_storage_text_value"), exposition);
+    }
+
+    @Test
+    public void unregisteredMetricIsNotRenderedTest() throws Exception {
+        final ObjectName objectName = new ObjectName("org.apache.cassandra.metrics:type=Storage,name=Load");
+
+        register(objectName, new Gauge(1), GaugeMBean.class);
+
+        assertTrue(exporter.export().contains("cassandra_storage_load_value 1\n"));
+
+        mBeanServer.unregisterMBean(objectName);
+
+        assertFalse(exporter.export().contains("cassandra_storage_load_value"));
+    }
+
+    private <T> void register(final ObjectName objectName, final T mbean, final Class<T> type) throws Exception {
+        mBeanServer.registerMBean(new StandardMBean(mbean, type), objectName);
+    }
+
+    public interface LatencyMBean {
+
+        long getCount();
+
+        double get99thPercentile();
+
+        boolean isEnabled();
+
+        String getUnit();
+    }
+
+    public static class Latency implements LatencyMBean {
+
+        @Override
+        public long getCount() {
+            return 5;
+        }
+
+        @Override
+        public double get99thPercentile() {
+            return 1.5;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public String getUnit() {
+            return "microseconds";
+        }
+    }
+
+    public interface GaugeMBean {
+
+        Object getValue();
+    }
+
+    public static class Gauge implements GaugeMBean {
+
+        private final Object value;
+
+        public Gauge(final Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+    }
+
+    private class TestingExporter extends MetricsExporter {
+
+        TestingExporter() {
+            super(new ManagedCassandraJMXService(null) {
+                @Override
+                public <T> T doWithConnection(final FunctionWithEx<MBeanServerConnection, T> func) throws Exception {
+                    return func.apply(mBeanServer);
+                }
+            });
+        }
+
+        String export() {
+            runOneIteration();
+            return new String(getExposition().orElseThrow(IllegalStateException::new), UTF_8);
+        }
+    }
+}
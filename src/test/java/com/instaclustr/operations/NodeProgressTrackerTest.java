@@ -0,0 +1,163 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.RUNNING;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.instaclustr.icarus.coordination.NodeProgressTracker;
+import com.instaclustr.icarus.coordination.NodeProgressTracker.NodeProgress;
+import com.instaclustr.icarus.coordination.NodeProgressTracker.Transfer;
+import com.instaclustr.icarus.coordination.OperationNodesMixin;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class NodeProgressTrackerTest {
+
+    private final IcarusClient node1 = client("127.0.0.1", "dc1");
+    private final IcarusClient node2 = client("127.0.0.2", "dc2");
+
+    private FailingOperation operation;
+    private NodeProgressTracker tracker;
+
+    @BeforeMethod
+    public void setup() {
+        operation = new FailingOperation(new FailingOperationRequest());
+        tracker = new NodeProgressTracker(operation, 4);
+    }
+
+    @Test
+    public void progressOfNodesTest() {
+        tracker.update(0.0f, node2, "DOWNLOAD", status(RUNNING, 0.5f));
+        tracker.update(0.0f, node1, "DOWNLOAD", status(RUNNING, 0.25f));
+        tracker.update(1.0f, node1, "DOWNLOAD", status(COMPLETED, 1.0f));
+        tracker.update(0.0f, node1, "IMPORT", status(RUNNING, 0.1f));
+
+        final List<NodeProgress> nodes = tracker.getNodes();
+
+        // sorted by phase and host, one entry per node in a phase
+        assertEquals(nodes.size(), 3);
+
+        assertEquals(nodes.get(0).host, "127.0.0.1");
+        assertEquals(nodes.get(0).dc, "dc1");
+        assertEquals(nodes.get(0).phase, "DOWNLOAD");
+        assertEquals(nodes.get(0).state, COMPLETED);
+        assertEquals(nodes.get(0).progress, 1.0f);
+        assertNull(nodes.get(0).eta);
+
+        assertEquals(nodes.get(1).host, "127.0.0.2");
+        assertEquals(nodes.get(1).progress, 0.5f);
+        assertTrue(nodes.get(1).rate > 0);
+
+        assertEquals(nodes.get(2).phase, "IMPORT");
+
+        // nodes transfer nothing so the progress is counted in units
+        assertEquals(operation.progress, 0.25f);
+        assertNull(NodeProgressTracker.getTransfer(operation));
+
+        // stragglers are not judged among less than three nodes
+        assertFalse(nodes.stream().anyMatch(n -> n.straggler));
+
+        // a copy is returned
+        nodes.get(1).progress = 0.9f;
+
+        assertEquals(tracker.getNodes().get(1).progress, 0.5f);
+        assertEquals(NodeProgressTracker.getNodes(operation).size(), 3);
+    }
+
+    @Test
+    public void progressWeightedByBytesTest() {
+        tracker.update(0.0f, node1, "DOWNLOAD", status(RUNNING, 0.5f, 300L, 150L));
+        tracker.update(0.0f, node2, "DOWNLOAD", status(RUNNING, 1.0f, 100L, 100L));
+
+        // 250 of 400 bytes are transferred, two units not submitted yet weight as an average node
+        assertEquals(operation.progress, 250.0f / 800, 0.0001f);
+
+        final Transfer transfer = NodeProgressTracker.getTransfer(operation);
+
+        assertEquals(transfer.totalBytes, 400);
+        assertEquals(transfer.transferredBytes, 250);
+
+        // a completed node does not report its bytes anymore
+        tracker.update(1.0f, node2, "DOWNLOAD", status(COMPLETED, 1.0f));
+
+        assertEquals(tracker.getNodes().get(1).transferredBytes.longValue(), 100);
+
+        // a node which does not transfer anything weights a fraction of an average node
+        tracker.update(0.0f, node1, "IMPORT", status(RUNNING, 0.5f));
+
+        final double nonTransfer = 200 * NodeProgressTracker.NON_TRANSFER_WEIGHT;
+        final double averageWeight = (400 + nonTransfer) / 3;
+
+        assertEquals(operation.progress, (float) ((250 + nonTransfer * 0.5) / (400 + nonTransfer + averageWeight)), 0.0001f);
+
+        // a node reporting more bytes than expected lowers the weighted progress, the global progress does not go back
+        final float previous = operation.progress;
+
+        tracker.update(0.0f, node1, "DOWNLOAD", status(RUNNING, 0.05f, 3000L, 150L));
+
+        assertEquals(operation.progress, previous);
+        assertEquals(NodeProgressTracker.getTransfer(operation).totalBytes, 3100);
+    }
+
+    @Test
+    public void nodesInJsonTest() throws Exception {
+        // type ids are resolved by Guice, they are left out as they do not matter here
+        final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .addMixIn(Operation.class, UntypedOperationNodesMixin.class)
+                .addMixIn(OperationRequest.class, UntypedRequestMixin.class);
+
+        tracker.update(0.0f, node1, "DOWNLOAD", status(RUNNING, 0.5f));
+
+        final JsonNode tracked = objectMapper.readTree(objectMapper.writeValueAsString(operation));
+
+        assertEquals(tracked.get("nodes").size(), 1);
+        assertEquals(tracked.get("nodes").get(0).get("host").asText(), "127.0.0.1");
+        assertEquals(tracked.get("nodes").get(0).get("phase").asText(), "DOWNLOAD");
+        assertEquals(tracked.get("nodes").get(0).get("state").asText(), "RUNNING");
+        // nothing is transferred, a null value is not written
+        assertFalse(tracked.has("transfer"));
+
+        final JsonNode untracked = objectMapper.readTree(objectMapper.writeValueAsString(new FailingOperation(new FailingOperationRequest())));
+
+        assertFalse(untracked.has("nodes"));
+        assertEquals(untracked.get("state").asText(), "PENDING");
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    private abstract static class UntypedOperationNodesMixin extends OperationNodesMixin {
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    private interface UntypedRequestMixin {
+    }
+
+    private static OperationStatus status(final Operation.State state, final float progress) {
+        return status(state, progress, null, null);
+    }
+
+    private static OperationStatus status(final Operation.State state, final float progress, final Long totalBytes, final Long transferredBytes) {
+        final OperationStatus status = new OperationStatus();
+        status.state = state;
+        status.progress = progress;
+        status.totalBytes = totalBytes;
+        status.transferredBytes = transferredBytes;
+        return status;
+    }
+
+    private static IcarusClient client(final String host, final String dc) {
+        return new IcarusClient.Builder().withHostAddress(host).withDc(dc).withRack("rack1").build();
+    }
+}
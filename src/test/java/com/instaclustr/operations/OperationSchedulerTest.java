@@ -0,0 +1,281 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.instaclustr.icarus.coordination.OperationCallable;
+import com.instaclustr.icarus.coordination.OperationScheduler;
+import com.instaclustr.icarus.coordination.SchedulingPolicy;
+import com.instaclustr.icarus.coordination.SchedulingPolicy.Mode;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OperationSchedulerTest {
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+
+    private final Map<String, Set<String>> runningRacks = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> runningPerRack = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+    private final List<String> violations = new ArrayList<>();
+    // callables created by a test, their clients are closed after it
+    private final List<TestingCallable> created = new ArrayList<>();
+
+    @BeforeMethod
+    public void setup() {
+        runningRacks.clear();
+        runningPerRack.clear();
+        running.set(0);
+        violations.clear();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        created.forEach(TestingCallable::close);
+        created.clear();
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void wavesTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        for (final String dc : new String[]{"dc1", "dc2"}) {
+            for (final String rack : new String[]{"rack1", "rack2", "rack3"}) {
+                for (int i = 0; i < 3; i++) {
+                    callables.add(new TestingCallable(dc, rack, true));
+                }
+            }
+        }
+
+        final AtomicInteger finished = new AtomicInteger();
+
+        new OperationScheduler<>(callables,
+                                 new SchedulingPolicy(Mode.WAVES, 0, 0, 2),
+                                 (operation, throwable) -> finished.incrementAndGet()).execute().get(1, MINUTES);
+
+        assertEquals(finished.get(), callables.size());
+        assertTrue(violations.isEmpty(), violations.toString());
+    }
+
+    @Test
+    public void parallelTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            callables.add(new TestingCallable("dc1", "rack" + i, false));
+        }
+
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        new OperationScheduler<>(callables,
+                                 SchedulingPolicy.parallel(3),
+                                 (operation, throwable) -> maxRunning.accumulateAndGet(running.get(), Math::max)).execute().get(1, MINUTES);
+
+        assertTrue(maxRunning.get() <= 3);
+        assertTrue(violations.isEmpty(), violations.toString());
+    }
+
+    @Test
+    public void abortOnFailureTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            callables.add(new TestingCallable("dc1", "rack1", true));
+        }
+
+        callables.get(1).failing = true;
+
+        final AtomicInteger finished = new AtomicInteger();
+
+        final OperationScheduler<FailingOperationRequest> scheduler = new OperationScheduler<>(callables,
+                                                                                               SchedulingPolicy.waves(0, 1),
+                                                                                               (operation, throwable) -> finished.incrementAndGet())
+                .abortOnFailure(true);
+
+        scheduler.execute().get(1, MINUTES);
+
+        assertEquals(finished.get(), 2);
+        assertEquals(scheduler.getSkipped().size(), 3);
+        assertTrue(violations.isEmpty(), violations.toString());
+    }
+
+    @Test
+    public void synchronousCompletionTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        // enough callables to overflow a stack if each of them started the next one recursively
+        for (int i = 0; i < 5000; i++) {
+            final TestingCallable callable = new TestingCallable("dc1", "rack1", false);
+            callable.synchronous = true;
+            callables.add(callable);
+        }
+
+        final AtomicInteger finished = new AtomicInteger();
+
+        new OperationScheduler<>(callables,
+                                 SchedulingPolicy.parallel(1),
+                                 (operation, throwable) -> finished.incrementAndGet()).execute().get(1, MINUTES);
+
+        assertEquals(finished.get(), callables.size());
+    }
+
+    @Test
+    public void throwingCallableTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            callables.add(new TestingCallable("dc1", "rack" + i, false));
+        }
+
+        callables.get(1).throwing = true;
+
+        final AtomicInteger finished = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+
+        new OperationScheduler<>(callables, SchedulingPolicy.parallel(2), (operation, throwable) -> {
+            finished.incrementAndGet();
+
+            if (throwable != null) {
+                failed.incrementAndGet();
+            }
+        }).execute().get(1, MINUTES);
+
+        assertEquals(finished.get(), callables.size());
+        assertEquals(failed.get(), 1);
+        assertEquals(running.get(), 0);
+    }
+
+    @Test
+    public void cancelTest() throws Exception {
+        final List<TestingCallable> callables = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            final TestingCallable callable = new TestingCallable("dc1", "rack" + i, false);
+            callable.untilCancelled = new CompletableFuture<>();
+            callables.add(callable);
+        }
+
+        final AtomicInteger finished = new AtomicInteger();
+
+        final OperationScheduler<FailingOperationRequest> scheduler = new OperationScheduler<>(callables,
+                                                                                               SchedulingPolicy.parallel(2),
+                                                                                               (operation, throwable) -> finished.incrementAndGet());
+
+        final CompletableFuture<Void> execution = scheduler.execute();
+
+        scheduler.cancel();
+        execution.get(1, MINUTES);
+
+        // running callables were cancelled and finished, the others were not started
+        assertEquals(finished.get(), 2);
+        assertEquals(callables.stream().filter(callable -> callable.untilCancelled.isDone()).count(), 2);
+        assertEquals(scheduler.getSkipped().size(), 0);
+    }
+
+    private class TestingCallable extends OperationCallable<FailingOperation, FailingOperationRequest> {
+
+        private final String dc;
+        private final String rack;
+        private final boolean waves;
+        private boolean failing;
+        // completes as soon as it is started
+        private boolean synchronous;
+        // throws instead of returning a future
+        private boolean throwing;
+        // completes only once it is cancelled
+        private CompletableFuture<Operation<FailingOperationRequest>> untilCancelled;
+
+        TestingCallable(final String dc, final String rack, final boolean waves) {
+            super(new FailingOperation(new FailingOperationRequest()),
+                  1,
+                  new IcarusClient.Builder().withDc(dc).withRack(rack).build(),
+                  new GlobalOperationProgressTracker(new FailingOperation(new FailingOperationRequest()), 1),
+                  "test");
+            this.dc = dc;
+            this.rack = rack;
+            this.waves = waves;
+
+            created.add(this);
+        }
+
+        @Override
+        public CompletableFuture<Operation<FailingOperationRequest>> getAsync() {
+            if (throwing) {
+                throw new IllegalStateException("unable to start");
+            }
+
+            if (synchronous) {
+                return CompletableFuture.completedFuture(operation);
+            }
+
+            if (untilCancelled != null) {
+                return untilCancelled;
+            }
+
+            final Set<String> racks = runningRacks.computeIfAbsent(dc, d -> ConcurrentHashMap.newKeySet());
+
+            synchronized (violations) {
+                racks.add(rack);
+
+                if (waves && racks.size() > 1) {
+                    violations.add("more than one rack running in " + dc + ": " + racks);
+                }
+
+                if (waves && runningPerRack.computeIfAbsent(dc + rack, r -> new AtomicInteger()).incrementAndGet() > 2) {
+                    violations.add("more than two nodes running in " + dc + " " + rack);
+                }
+            }
+
+            running.incrementAndGet();
+
+            final CompletableFuture<Operation<FailingOperationRequest>> result = new CompletableFuture<>();
+
+            executor.schedule(() -> {
+                synchronized (violations) {
+                    if (!waves || runningPerRack.get(dc + rack).decrementAndGet() == 0) {
+                        racks.remove(rack);
+                    }
+                }
+
+                // next callables may be started as soon as this one completes, so it has to stop counting as running first
+                running.decrementAndGet();
+
+                if (failing) {
+                    operation.state = Operation.State.FAILED;
+                }
+
+                result.complete(operation);
+            }, 20, MILLISECONDS);
+
+            return result;
+        }
+
+        @Override
+        public void cancel() {
+            operation.state = Operation.State.CANCELLED;
+            untilCancelled.complete(operation);
+        }
+    }
+}
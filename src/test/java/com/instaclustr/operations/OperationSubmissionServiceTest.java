@@ -0,0 +1,91 @@
+package com.instaclustr.operations;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.instaclustr.icarus.service.OperationSubmissionService;
+import com.instaclustr.icarus.service.OperationSubmissionService.Submission;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import com.instaclustr.threading.Executors.FixedTasksExecutorSupplier;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OperationSubmissionServiceTest {
+
+    private Map<UUID, Operation<?>> operations;
+    private OperationsService operationsService;
+    private OperationSubmissionService submissionService;
+
+    @BeforeMethod
+    public void setup() {
+        final Map<Class<? extends OperationRequest>, OperationFactory> factories = new HashMap<>();
+        factories.put(FailingOperationRequest.class, request -> new FailingOperation((FailingOperationRequest) request));
+        factories.put(OtherOperationRequest.class, request -> new FailingOperation(new FailingOperationRequest("other")));
+
+        operations = new ConcurrentHashMap<>();
+        operationsService = new OperationsService(factories, operations, new FixedTasksExecutorSupplier(), Collections.emptyMap());
+        operationsService.startAsync().awaitRunning();
+
+        submissionService = new OperationSubmissionService(operationsService);
+    }
+
+    @AfterMethod
+    public void teardown() {
+        operationsService.stopAsync().awaitTerminated();
+    }
+
+    @Test
+    public void resubmissionReturnsSubmittedOperationTest() {
+        final Submission first = submissionService.submit("first-key", new FailingOperationRequest());
+        final Submission again = submissionService.submit("first-key", new FailingOperationRequest());
+        final Submission second = submissionService.submit("second-key", new FailingOperationRequest());
+
+        assertTrue(first.created);
+        assertFalse(again.created);
+        assertTrue(second.created);
+
+        assertEquals(again.operation.id, first.operation.id);
+        assertNotEquals(second.operation.id, first.operation.id);
+        assertEquals(operations.size(), 2);
+    }
+
+    @Test
+    public void expiredOperationIsSubmittedAgainTest() {
+        final Submission first = submissionService.submit("key", new FailingOperationRequest());
+
+        operations.remove(first.operation.id);
+
+        final Submission again = submissionService.submit("key", new FailingOperationRequest());
+
+        assertTrue(again.created);
+        assertNotEquals(again.operation.id, first.operation.id);
+    }
+
+    @Test
+    public void resubmissionOfDifferentTypeTest() {
+        submissionService.submit("key", new FailingOperationRequest());
+
+        try {
+            submissionService.submit("key", new OtherOperationRequest());
+            fail("submission of a different type should fail");
+        } catch (final IllegalStateException ex) {
+            assertTrue(ex.getMessage().contains("key"), ex.getMessage());
+        }
+
+        assertEquals(operations.size(), 1);
+    }
+
+    private static final class OtherOperationRequest extends OperationRequest {
+    }
+}
@@ -0,0 +1,57 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.awaitility.Awaitility.await;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClient.OperationResult;
+import com.instaclustr.icarus.rest.RetryPolicy;
+import jakarta.ws.rs.core.Response;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.annotations.Test;
+
+public class OperationSubmissionTest extends AbstractIcarusTest {
+
+    @Test
+    public void keyedSubmissionTest() {
+        final Function<IcarusClient, List<OperationResult<?>>> requests = client -> {
+            final List<OperationResult<?>> results = new ArrayList<>();
+
+            try {
+                results.add(client.performOperationSubmission("first-key", new FailingOperationRequest()));
+                results.add(client.performOperationSubmission("first-key", new FailingOperationRequest()));
+                results.add(client.submitAsync("first-key", new FailingOperationRequest(), RetryPolicy.fromSystemProperties()).get());
+                results.add(client.performOperationSubmission("second-key", new FailingOperationRequest()));
+            } catch (final Exception ex) {
+                throw new RuntimeException(ex);
+            }
+
+            return results;
+        };
+
+        final Pair<AtomicReference<List<OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final List<OperationResult<?>> results = result.getLeft().get();
+
+        assertEquals(results.size(), 4);
+
+        assertEquals(results.get(0).response.getStatus(), Response.Status.CREATED.getStatusCode());
+        assertEquals(results.get(1).response.getStatus(), Response.Status.OK.getStatusCode());
+        assertEquals(results.get(2).response.getStatus(), Response.Status.OK.getStatusCode());
+        assertEquals(results.get(3).response.getStatus(), Response.Status.CREATED.getStatusCode());
+
+        assertEquals(results.get(1).operation.id, results.get(0).operation.id);
+        assertEquals(results.get(2).operation.id, results.get(0).operation.id);
+        assertNotEquals(results.get(3).operation.id, results.get(0).operation.id);
+    }
+}
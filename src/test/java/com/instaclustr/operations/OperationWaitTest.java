@@ -0,0 +1,225 @@
+package com.instaclustr.operations;
+
+import static com.google.common.collect.ImmutableList.of;
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.FAILED;
+import static com.instaclustr.operations.Operation.State.PENDING;
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.awaitility.Awaitility.await;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableList;
+import com.instaclustr.esop.impl.DatabaseEntities;
+import com.instaclustr.icarus.operations.snapshot.SnapshotOperationRequest;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.icarus.rest.IcarusClient.ResponseStatusException;
+import com.instaclustr.icarus.service.OperationEventsService.EventType;
+import com.instaclustr.icarus.service.OperationEventsService.OperationEvent;
+import com.instaclustr.icarus.service.OperationWatchService.OperationStatus;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.core.Response;
+import org.apache.commons.lang3.tuple.Pair;
+import org.testng.annotations.Test;
+
+public class OperationWaitTest extends AbstractIcarusTest {
+
+    @Test
+    public void waitForOperationChangeTest() {
+        final Function<IcarusClient, List<IcarusClient.OperationResult<?>>> requests = client -> of(client.performOperationSubmission(new FailingOperationRequest()));
+        final Pair<AtomicReference<List<IcarusClient.OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final UUID operationId = result.getKey().get().get(0).operation.id;
+
+        Operation<FailingOperationRequest> operation = icarusClient.waitForOperationChange(operationId, FailingOperationRequest.class, PENDING, 0.0f, 10);
+
+        while (!operation.state.isTerminalState()) {
+            operation = icarusClient.waitForOperationChange(operationId, FailingOperationRequest.class, operation.state, operation.progress, 10);
+        }
+
+        assertEquals(operation.state, FAILED);
+
+        boolean thrown = false;
+
+        try {
+            icarusClient.waitForOperationChange(UUID.randomUUID(), FailingOperationRequest.class, PENDING, 0.0f, 1);
+        } catch (final IllegalStateException ex) {
+            thrown = true;
+        }
+
+        assertTrue(thrown);
+    }
+
+    @Test
+    public void snapshotAtTest() {
+        final Instant startAt = Instant.now().plusSeconds(2);
+
+        final Function<IcarusClient, List<IcarusClient.OperationResult<?>>> requests = client -> of(client.snapshot(new SnapshotOperationRequest("barrier", DatabaseEntities.empty(), startAt)));
+        final Pair<AtomicReference<List<IcarusClient.OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final UUID operationId = result.getKey().get().get(0).operation.id;
+
+        Operation<SnapshotOperationRequest> operation = icarusClient.waitForOperationChange(operationId, SnapshotOperationRequest.class, PENDING, 0.0f, 10);
+
+        while (!operation.state.isTerminalState()) {
+            operation = icarusClient.waitForOperationChange(operationId, SnapshotOperationRequest.class, operation.state, operation.progress, 10);
+        }
+
+        assertEquals(operation.state, COMPLETED);
+        assertEquals(operation.request.startAt, startAt);
+        assertFalse(operation.completionTime.isBefore(startAt));
+    }
+
+    @Test
+    public void awaitTerminalAsyncTest() throws Exception {
+        final Function<IcarusClient, List<IcarusClient.OperationResult<?>>> requests = client -> {
+            try {
+                return of(client.<FailingOperationRequest, Operation<FailingOperationRequest>>submitAsync(new FailingOperationRequest()).get());
+            } catch (final Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        };
+
+        final Pair<AtomicReference<List<IcarusClient.OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final UUID operationId = result.getKey().get().get(0).operation.id;
+
+        final AtomicInteger updates = new AtomicInteger();
+
+        final Operation<FailingOperationRequest> operation = icarusClient.awaitTerminalAsync(operationId,
+                                                                                             FailingOperationRequest.class,
+                                                                                             100,
+                                                                                             60000,
+                                                                                             MILLISECONDS,
+                                                                                             op -> updates.incrementAndGet()).get(1, MINUTES);
+
+        assertEquals(operation.state, FAILED);
+        assertTrue(updates.get() > 0);
+    }
+
+    @Test
+    public void operationStatusesTest() throws Exception {
+        final Function<IcarusClient, List<IcarusClient.OperationResult<?>>> requests = client -> of(client.performOperationSubmission(new FailingOperationRequest()),
+                                                                                                     client.performOperationSubmission(new FailingOperationRequest()));
+        final Pair<AtomicReference<List<IcarusClient.OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final UUID first = result.getKey().get().get(0).operation.id;
+        final UUID second = result.getKey().get().get(1).operation.id;
+
+        await().until(() -> icarusClient.getStatusesAsync(ImmutableList.of(first, second)).get().stream().allMatch(status -> status.state == FAILED));
+
+        final List<OperationStatus> statuses = icarusClient.getStatusesAsync(ImmutableList.of(first, UUID.randomUUID(), second)).get(1, MINUTES);
+
+        assertEquals(statuses.size(), 2);
+        assertEquals(statuses.get(0).id, first);
+        assertEquals(statuses.get(1).id, second);
+        assertEquals(statuses.get(0).errors.size(), 1);
+
+        // looked up one by one but sent together
+        final CompletableFuture<OperationStatus> firstStatus = icarusClient.getStatusAsync(first);
+        final CompletableFuture<OperationStatus> secondStatus = icarusClient.getStatusAsync(second);
+        final CompletableFuture<OperationStatus> unknownStatus = icarusClient.getStatusAsync(UUID.randomUUID());
+
+        assertEquals(firstStatus.get(1, MINUTES).id, first);
+        assertEquals(secondStatus.get(1, MINUTES).id, second);
+
+        boolean thrown = false;
+
+        try {
+            unknownStatus.get(1, MINUTES);
+        } catch (final ExecutionException ex) {
+            thrown = ex.getCause() instanceof ResponseStatusException && ((ResponseStatusException) ex.getCause()).status == 404;
+        }
+
+        assertTrue(thrown);
+    }
+
+    @Test
+    public void operationEventsTest() throws Exception {
+        final Function<IcarusClient, List<IcarusClient.OperationResult<?>>> requests = client -> of(client.performOperationSubmission(new FailingOperationRequest()));
+        final Pair<AtomicReference<List<IcarusClient.OperationResult<?>>>, AtomicBoolean> result = performOnRunningServer(requests);
+
+        await().atMost(1, MINUTES).until(() -> result.getRight().get());
+
+        final UUID operationId = result.getKey().get().get(0).operation.id;
+
+        final List<OperationEvent> events = readEvents(operationId, 0);
+
+        assertTrue(events.size() >= 2);
+        assertEquals(events.get(0).type, EventType.STATE);
+        assertTrue(events.stream().anyMatch(event -> event.type == EventType.STATE && event.state == FAILED));
+        assertTrue(events.stream().anyMatch(event -> event.type == EventType.ERROR));
+
+        // resumed stream has only events after the given offset
+        final List<OperationEvent> resumed = readEvents(operationId, events.get(events.size() - 2).offset);
+
+        assertEquals(resumed.size(), 1);
+        assertEquals(resumed.get(0).offset, events.get(events.size() - 1).offset);
+
+        assertEquals(readEventsResponseStatus(UUID.randomUUID()), Response.Status.NOT_FOUND.getStatusCode());
+    }
+
+    private List<OperationEvent> readEvents(final UUID operationId, final long offset) throws Exception {
+        final Client client = ClientBuilder.newClient();
+
+        try (final InputStream stream = client.target(format("http://%s:%s/operations/%s/events", icarusClient.getHost(), icarusClient.getPort(), operationId))
+                .queryParam("offset", offset)
+                .request("application/x-ndjson")
+                .get(InputStream.class);
+             final BufferedReader reader = new BufferedReader(new InputStreamReader(stream))) {
+
+            final List<OperationEvent> events = new ArrayList<>();
+
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    events.add(objectMapper.readValue(line, OperationEvent.class));
+                }
+            }
+
+            return events;
+        } finally {
+            client.close();
+        }
+    }
+
+    private int readEventsResponseStatus(final UUID operationId) {
+        final Client client = ClientBuilder.newClient();
+
+        try {
+            return client.target(format("http://%s:%s/operations/%s/events", icarusClient.getHost(), icarusClient.getPort(), operationId))
+                    .request("application/x-ndjson")
+                    .get()
+                    .getStatus();
+        } finally {
+            client.close();
+        }
+    }
+}
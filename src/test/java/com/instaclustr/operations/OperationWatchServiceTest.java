@@ -0,0 +1,111 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.PENDING;
+import static com.instaclustr.operations.Operation.State.RUNNING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.instaclustr.icarus.service.OperationWatchService;
+import com.instaclustr.icarus.service.OperationWatchService.WaitFor;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import com.instaclustr.threading.Executors.FixedTasksExecutorSupplier;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OperationWatchServiceTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    private Map<UUID, Operation<?>> operations;
+    private OperationWatchService watchService;
+    private FailingOperation operation;
+
+    @BeforeMethod
+    public void setup() {
+        operations = new ConcurrentHashMap<>();
+        watchService = new OperationWatchService(new OperationsService(Collections.emptyMap(),
+                                                                       operations,
+                                                                       new FixedTasksExecutorSupplier(),
+                                                                       Collections.emptyMap()));
+
+        operation = new FailingOperation(new FailingOperationRequest());
+        operations.put(operation.id, operation);
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void wakeUpOnChangeTest() throws Exception {
+        final Future<Optional<Operation<?>>> waiting = executor.submit(() -> watchService.awaitChange(operation.id, WaitFor.CHANGE, PENDING, 0.0f, 30, SECONDS));
+
+        MILLISECONDS.sleep(500);
+        assertFalse(waiting.isDone());
+
+        final long changedAt = System.nanoTime();
+
+        operation.state = RUNNING;
+
+        final Optional<Operation<?>> changed = waiting.get(10, SECONDS);
+
+        assertTrue(changed.isPresent());
+        assertEquals(changed.get().state, RUNNING);
+        // woken up by the sampler, not by the timeout
+        assertTrue(System.nanoTime() - changedAt < SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void waitForTerminalTest() throws Exception {
+        final Future<Optional<Operation<?>>> waiting = executor.submit(() -> watchService.awaitChange(operation.id, WaitFor.TERMINAL, PENDING, 0.0f, 30, SECONDS));
+
+        operation.state = RUNNING;
+        operation.progress = 0.5f;
+
+        MILLISECONDS.sleep(500);
+        assertFalse(waiting.isDone());
+
+        operation.state = COMPLETED;
+
+        assertEquals(waiting.get(10, SECONDS).get().state, COMPLETED);
+    }
+
+    @Test
+    public void timeoutTest() throws Exception {
+        final long start = System.nanoTime();
+
+        final Optional<Operation<?>> unchanged = watchService.awaitChange(operation.id, WaitFor.CHANGE, PENDING, 0.0f, 500, MILLISECONDS);
+
+        assertTrue(unchanged.isPresent());
+        assertEquals(unchanged.get().state, PENDING);
+        assertTrue(System.nanoTime() - start >= MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void expiredOperationTest() throws Exception {
+        final Future<Optional<Operation<?>>> waiting = executor.submit(() -> watchService.awaitChange(operation.id, WaitFor.CHANGE, PENDING, 0.0f, 30, SECONDS));
+
+        MILLISECONDS.sleep(200);
+
+        operations.remove(operation.id);
+
+        assertFalse(waiting.get(10, SECONDS).isPresent());
+        assertFalse(watchService.awaitChange(UUID.randomUUID(), WaitFor.CHANGE, PENDING, 0.0f, 30, SECONDS).isPresent());
+    }
+}
@@ -0,0 +1,155 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.FAILED;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.instaclustr.icarus.coordination.OperationCallable;
+import com.instaclustr.icarus.coordination.OperationScheduler;
+import com.instaclustr.icarus.coordination.SchedulingPolicy;
+import com.instaclustr.icarus.rest.IcarusClient;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PipelinedPhasesTest {
+
+    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
+
+    // phase events, as "start node phase" or "end node phase", in the order they happened
+    private final List<String> events = new ArrayList<>();
+    private final List<OperationCallable<?, ?>> created = new ArrayList<>();
+
+    @BeforeMethod
+    public void setup() {
+        events.clear();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        created.forEach(OperationCallable::close);
+        created.clear();
+    }
+
+    @AfterClass
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void phasesOfNodeRunInOrderWithoutBarrierTest() throws Exception {
+        final List<OperationCallable<FailingOperation, FailingOperationRequest>> nodes = Arrays.asList(pipeline("fast", 50, true),
+                                                                                                       pipeline("slow", 500, true));
+        final Map<String, Operation<FailingOperationRequest>> results = new ConcurrentHashMap<>();
+
+        new OperationScheduler<>(nodes, SchedulingPolicy.parallel(0), (operation, throwable) -> results.put(operation.type, operation)).execute().get(1, MINUTES);
+
+        for (final String node : Arrays.asList("fast", "slow")) {
+            assertTrue(index("end " + node + " download") < index("start " + node + " import"), events.toString());
+            assertTrue(index("end " + node + " import") < index("start " + node + " cleanup"), events.toString());
+            assertEquals(results.get(node).state, COMPLETED);
+        }
+
+        // a fast node does not wait for a slow one to finish downloading
+        assertTrue(index("start fast import") < index("end slow download"), events.toString());
+        assertTrue(index("end fast cleanup") < index("end slow download"), events.toString());
+    }
+
+    @Test
+    public void pipelineStopsAtFailedPhaseTest() throws Exception {
+        final Operation<FailingOperationRequest> result = OperationCallable.inSequence(Arrays.asList(phase("node", "download", 10, true),
+                                                                                                      phase("node", "import", 10, false),
+                                                                                                      phase("node", "cleanup", 10, true))).get(1, MINUTES);
+
+        assertEquals(result.state, FAILED);
+        assertEquals(events, Arrays.asList("start node download", "end node download", "start node import", "end node import"));
+        assertFalse(events.contains("start node cleanup"));
+    }
+
+    private int index(final String event) {
+        synchronized (events) {
+            final int index = events.indexOf(event);
+            assertTrue(index >= 0, event + " has not happened");
+            return index;
+        }
+    }
+
+    private OperationCallable<FailingOperation, FailingOperationRequest> pipeline(final String node, final long phaseMillis, final boolean completing) {
+        final List<TestingPhase> phases = Arrays.asList(phase(node, "download", phaseMillis, completing),
+                                                        phase(node, "import", 10, completing),
+                                                        phase(node, "cleanup", 10, completing));
+
+        return new TestingPhase(node, "pipeline", 0, completing) {
+            @Override
+            public CompletableFuture<Operation<FailingOperationRequest>> getAsync() {
+                return inSequence(phases);
+            }
+        };
+    }
+
+    private TestingPhase phase(final String node, final String phase, final long millis, final boolean completing) {
+        return new TestingPhase(node, phase, millis, completing);
+    }
+
+    private class TestingPhase extends OperationCallable<FailingOperation, FailingOperationRequest> {
+
+        private final String node;
+        private final String phase;
+        private final long millis;
+        private final boolean completing;
+
+        TestingPhase(final String node, final String phase, final long millis, final boolean completing) {
+            super(new FailingOperation(new FailingOperationRequest()),
+                  1,
+                  new IcarusClient.Builder().withDc("dc1").withRack(node).build(),
+                  new GlobalOperationProgressTracker(new FailingOperation(new FailingOperationRequest()), 1),
+                  phase);
+            this.node = node;
+            this.phase = phase;
+            this.millis = millis;
+            this.completing = completing;
+
+            // operations are told apart by their node in results
+            operation.type = node;
+
+            created.add(this);
+        }
+
+        @Override
+        public CompletableFuture<Operation<FailingOperationRequest>> getAsync() {
+            final CompletableFuture<Operation<FailingOperationRequest>> result = new CompletableFuture<>();
+
+            record("start");
+
+            executor.schedule(() -> {
+                record("end");
+                operation.state = completing ? COMPLETED : FAILED;
+                result.complete(operation);
+            }, millis, MILLISECONDS);
+
+            return result;
+        }
+
+        private void record(final String event) {
+            synchronized (events) {
+                events.add(event + " " + node + " " + phase);
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.instaclustr.operations;
+
+import static com.instaclustr.esop.impl.restore.RestorationPhase.RestorationPhaseType.DOWNLOAD;
+import static com.instaclustr.operations.Operation.State.COMPLETED;
+import static com.instaclustr.operations.Operation.State.FAILED;
+import static com.instaclustr.operations.Operation.State.RUNNING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.instaclustr.esop.impl.restore.RestoreOperationRequest;
+import com.instaclustr.icarus.coordination.RestoreCheckpoint;
+import com.instaclustr.icarus.coordination.RestoreCheckpoint.NodeCheckpoint;
+import com.instaclustr.icarus.coordination.RestoreCheckpointStore;
+import com.instaclustr.icarus.coordination.RestoreCheckpointStore.Resumption;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class RestoreCheckpointStoreTest {
+
+    private Path checkpointDir;
+    private TestingCheckpointStore store;
+    private final Map<UUID, Operation<?>> operations = new ConcurrentHashMap<>();
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        checkpointDir = Files.createTempDirectory("checkpoints");
+        store = new TestingCheckpointStore();
+        operations.clear();
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        FileUtils.deleteDirectory(checkpointDir.toFile());
+    }
+
+    @Test
+    public void saveAndLoadTest() {
+        final RestoreCheckpoint checkpoint = checkpoint();
+
+        store.save(checkpoint);
+
+        final RestoreCheckpoint loaded = store.load(checkpoint.id).orElseThrow(IllegalStateException::new);
+
+        assertEquals(loaded.id, checkpoint.id);
+        assertEquals(loaded.operationId, checkpoint.operationId);
+        assertEquals(loaded.completedSteps, 2);
+        assertNotNull(loaded.request);
+
+        final NodeCheckpoint node = loaded.nodes.get("DOWNLOAD/host1");
+
+        assertEquals(node.phase, DOWNLOAD);
+        assertEquals(node.state, COMPLETED);
+        assertEquals(node.attempt, 1);
+
+        assertEquals(store.list().size(), 1);
+        assertFalse(store.load(UUID.randomUUID()).isPresent());
+
+        store.delete(checkpoint);
+
+        assertFalse(store.load(checkpoint.id).isPresent());
+        assertTrue(store.list().isEmpty());
+
+        // a deleted checkpoint is not saved again
+        store.save(checkpoint);
+
+        assertFalse(store.load(checkpoint.id).isPresent());
+    }
+
+    @Test
+    public void saveLaterTest() {
+        final RestoreCheckpoint checkpoint = checkpoint();
+
+        store.saveLater(checkpoint);
+
+        assertFalse(store.load(checkpoint.id).isPresent());
+
+        store.flush();
+
+        assertTrue(store.load(checkpoint.id).isPresent());
+    }
+
+    @Test
+    public void resumeTest() {
+        final RestoreCheckpoint checkpoint = checkpoint();
+        store.save(checkpoint);
+
+        assertFalse(store.resume(UUID.randomUUID(), this::operation, this::submit).isPresent());
+
+        // the restore is still coordinated
+        final Operation<?> coordinating = operation(checkpoint.operationId, RUNNING);
+
+        final Resumption running = store.resume(checkpoint.id, this::operation, this::submit).orElseThrow(IllegalStateException::new);
+
+        assertFalse(running.resumed);
+        assertSame(running.operation, coordinating);
+
+        coordinating.state = FAILED;
+
+        final Resumption resumed = store.resume(checkpoint.id, this::operation, this::submit).orElseThrow(IllegalStateException::new);
+
+        assertTrue(resumed.resumed);
+        assertEquals(store.load(checkpoint.id).orElseThrow(IllegalStateException::new).operationId, resumed.operation.id);
+
+        final RestoreOperationRequest request = (RestoreOperationRequest) resumed.operation.request;
+        final RestoreCheckpoint taken = store.takeResume(request).orElseThrow(IllegalStateException::new);
+
+        assertEquals(taken.id, checkpoint.id);
+        assertEquals(taken.completedSteps, 2);
+        assertFalse(store.takeResume(request).isPresent());
+    }
+
+    @Test
+    public void concurrentResumesTest() throws Exception {
+        final RestoreCheckpoint checkpoint = checkpoint();
+        store.save(checkpoint);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger submitted = new AtomicInteger();
+
+        try {
+            final List<Future<Resumption>> resumptions = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                resumptions.add(executor.submit(() -> {
+                    start.await();
+                    return store.resume(checkpoint.id, this::operation, request -> {
+                        submitted.incrementAndGet();
+                        return submit(request);
+                    }).orElseThrow(IllegalStateException::new);
+                }));
+            }
+
+            start.countDown();
+
+            int resumed = 0;
+
+            for (final Future<Resumption> resumption : resumptions) {
+                if (resumption.get(10, SECONDS).resumed) {
+                    resumed++;
+                }
+            }
+
+            assertEquals(resumed, 1);
+            assertEquals(submitted.get(), 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RestoreCheckpoint checkpoint() {
+        final RestoreCheckpoint checkpoint = new RestoreCheckpoint();
+        checkpoint.id = UUID.randomUUID();
+        checkpoint.operationId = checkpoint.id;
+        checkpoint.request = new RestoreOperationRequest();
+        checkpoint.completedSteps = 2;
+        checkpoint.timestamp = System.currentTimeMillis();
+
+        final NodeCheckpoint node = new NodeCheckpoint();
+        node.phase = DOWNLOAD;
+        node.hostId = "host1";
+        node.host = "127.0.0.1";
+        node.remoteOperationId = UUID.randomUUID();
+        node.state = COMPLETED;
+        node.progress = 1.0f;
+        node.attempt = 1;
+
+        checkpoint.nodes.put("DOWNLOAD/host1", node);
+
+        return checkpoint;
+    }
+
+    private Optional<Operation<?>> operation(final UUID id) {
+        return Optional.ofNullable(operations.get(id));
+    }
+
+    private Operation<?> operation(final UUID id, final Operation.State state) {
+        final FailingOperation operation = new FailingOperation("restore", id, null, state, new ArrayList<>(), 0, null);
+        operations.put(id, operation);
+        return operation;
+    }
+
+    private Operation<?> submit(final RestoreOperationRequest request) {
+        final Operation<RestoreOperationRequest> operation = new Operation<RestoreOperationRequest>(request) {
+            @Override
+            protected void run0() {
+            }
+        };
+
+        operations.put(operation.id, operation);
+
+        return operation;
+    }
+
+    private class TestingCheckpointStore extends RestoreCheckpointStore {
+
+        TestingCheckpointStore() {
+            // type ids of requests are resolved by Guice, a request of a checkpoint is always a restore request anyway
+            super(new ObjectMapper().addMixIn(OperationRequest.class, UntypedRequest.class), checkpointDir);
+        }
+
+        void flush() {
+            runOneIteration();
+        }
+    }
+
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
+    private interface UntypedRequest {
+    }
+}
@@ -0,0 +1,151 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.instaclustr.icarus.rest.IcarusClient.ResponseStatusException;
+import com.instaclustr.icarus.rest.RetryPolicy;
+import jakarta.ws.rs.ProcessingException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+public class RetryPolicyTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterClass
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void transientFailuresTest() {
+        assertTrue(RetryPolicy.isTransient(new ResponseStatusException("unavailable", 503)));
+        assertTrue(RetryPolicy.isTransient(new ResponseStatusException("internal error", 500)));
+        assertTrue(RetryPolicy.isTransient(new ResponseStatusException("timeout", 408)));
+        assertTrue(RetryPolicy.isTransient(new ResponseStatusException("too many requests", 429)));
+        assertTrue(RetryPolicy.isTransient(new ProcessingException("connection refused")));
+        assertTrue(RetryPolicy.isTransient(new IOException("connection reset")));
+        assertTrue(RetryPolicy.isTransient(new CompletionException(new IOException("connection reset"))));
+
+        assertFalse(RetryPolicy.isTransient(new ResponseStatusException("not found", 404)));
+        assertFalse(RetryPolicy.isTransient(new ResponseStatusException("bad request", 400)));
+        assertFalse(RetryPolicy.isTransient(new IllegalStateException("invalid")));
+    }
+
+    @Test
+    public void delaysTest() {
+        final RetryPolicy policy = new RetryPolicy(10, 100, 1000);
+
+        for (int failedAttempts = 1; failedAttempts <= 10; failedAttempts++) {
+            final long delay = Math.min(1000, 100L << (failedAttempts - 1));
+            final long jittered = policy.delayMillis(failedAttempts);
+
+            assertTrue(jittered >= delay / 2 && jittered < delay, failedAttempts + " failed attempts, delay " + jittered);
+        }
+
+        assertEquals(RetryPolicy.NONE.maxAttempts, 1);
+        assertEquals(RetryPolicy.NONE.delayMillis(1), 0);
+        assertEquals(new RetryPolicy(0, 0, 0).maxAttempts, 1);
+    }
+
+    @Test
+    public void transientFailureIsRetriedTest() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final String result = new RetryPolicy(3, 1, 1).execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ResponseStatusException("unavailable", 503);
+            }
+            return "done";
+        });
+
+        assertEquals(result, "done");
+        assertEquals(attempts.get(), 3);
+    }
+
+    @Test
+    public void attemptsRunOutTest() {
+        final AtomicInteger attempts = new AtomicInteger();
+        final ResponseStatusException failure = new ResponseStatusException("unavailable", 503);
+
+        try {
+            new RetryPolicy(3, 1, 1).execute(() -> {
+                attempts.incrementAndGet();
+                throw failure;
+            });
+            fail("attempts should have run out");
+        } catch (final Exception ex) {
+            assertSame(ex, failure);
+        }
+
+        assertEquals(attempts.get(), 3);
+    }
+
+    @Test
+    public void permanentFailureIsNotRetriedTest() {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            new RetryPolicy(3, 1, 1).execute(() -> {
+                attempts.incrementAndGet();
+                throw new ResponseStatusException("not found", 404);
+            });
+            fail("failure should not have been retried");
+        } catch (final Exception ex) {
+            assertEquals(((ResponseStatusException) ex).status, 404);
+        }
+
+        assertEquals(attempts.get(), 1);
+    }
+
+    @Test
+    public void asyncRetryTest() throws Exception {
+        final AtomicInteger attempts = new AtomicInteger();
+
+        final CompletableFuture<String> result = new RetryPolicy(3, 1, 1).executeAsync(() -> {
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+
+            if (attempts.incrementAndGet() < 3) {
+                attempt.completeExceptionally(new ProcessingException("connection refused"));
+            } else {
+                attempt.complete("done");
+            }
+
+            return attempt;
+        }, scheduler);
+
+        assertEquals(result.get(10, SECONDS), "done");
+        assertEquals(attempts.get(), 3);
+
+        attempts.set(0);
+
+        final CompletableFuture<String> failed = new RetryPolicy(3, 1, 1).executeAsync(() -> {
+            attempts.incrementAndGet();
+            final CompletableFuture<String> attempt = new CompletableFuture<>();
+            attempt.completeExceptionally(new ResponseStatusException("bad request", 400));
+            return attempt;
+        }, scheduler);
+
+        try {
+            failed.get(10, SECONDS);
+            fail("failure should not have been retried");
+        } catch (final ExecutionException ex) {
+            assertEquals(((ResponseStatusException) ex.getCause()).status, 400);
+        }
+
+        assertEquals(attempts.get(), 1);
+    }
+}
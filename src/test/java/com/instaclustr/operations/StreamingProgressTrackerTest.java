@@ -0,0 +1,149 @@
+package com.instaclustr.operations;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+import javax.management.openmbean.CompositeData;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.instaclustr.icarus.operations.streaming.StreamingPeer;
+import com.instaclustr.icarus.operations.streaming.StreamingProgressTracker;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperation;
+import com.instaclustr.operations.AbstractIcarusTest.FailingOperationRequest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class StreamingProgressTrackerTest {
+
+    private FakeCassandraJMXService cassandraJMXService;
+    private FailingOperation operation;
+    private volatile Map<String, StreamingPeer> peers;
+
+    @BeforeMethod
+    public void setup() {
+        final Set<CompositeData> streams = new HashSet<>();
+
+        streams.add(plan("plan1", StreamingProgressTracker.DECOMMISSION, session("127.0.0.2", 100, 400, 0, 0),
+                                                                          session("127.0.0.3", 0, 0, 50, 600)));
+        // a stream plan of another operation
+        streams.add(plan("plan2", StreamingProgressTracker.REBUILD, session("127.0.0.4", 500, 1000, 0, 0)));
+
+        cassandraJMXService = new FakeCassandraJMXService().answer("getCurrentStreams", streams);
+        operation = new FailingOperation(new FailingOperationRequest());
+        peers = Collections.emptyMap();
+    }
+
+    @Test
+    public void progressOfPlansIsReportedTest() throws Exception {
+        final StreamingProgressTracker tracker = StreamingProgressTracker.start(cassandraJMXService, operation, StreamingProgressTracker.DECOMMISSION, peers -> this.peers = peers);
+
+        try {
+            awaitProgress();
+
+            // bytes sent and received with all peers relative to all bytes to stream
+            assertEquals(operation.progress, 150f / 1000);
+            assertEquals(peers.keySet(), new HashSet<>(Arrays.asList("127.0.0.2", "127.0.0.3")));
+            assertEquals(peers.get("127.0.0.2").sentBytes, 100);
+            assertEquals(peers.get("127.0.0.2").totalSentBytes, 400);
+            assertEquals(peers.get("127.0.0.3").receivedBytes, 50);
+            assertEquals(peers.get("127.0.0.3").totalReceivedBytes, 600);
+
+            tracker.succeeded();
+        } finally {
+            tracker.close();
+        }
+
+        // plans still in progress are done once the call returns successfully
+        assertEquals(peers.get("127.0.0.2").sentBytes, 400);
+        assertEquals(peers.get("127.0.0.3").receivedBytes, 600);
+        assertEquals(peers.get("127.0.0.2").sendRate, 0);
+        assertFalse(peers.containsKey("127.0.0.4"));
+    }
+
+    @Test
+    public void plansOfFailedCallAreNotDoneTest() throws Exception {
+        final StreamingProgressTracker tracker = StreamingProgressTracker.start(cassandraJMXService, operation, StreamingProgressTracker.DECOMMISSION, peers -> this.peers = peers);
+
+        try {
+            awaitProgress();
+        } finally {
+            // the call has failed
+            tracker.close();
+        }
+
+        assertEquals(peers.get("127.0.0.2").sentBytes, 100);
+        assertEquals(peers.get("127.0.0.3").receivedBytes, 50);
+        assertEquals(peers.get("127.0.0.2").sendRate, 0);
+        assertEquals(operation.progress, 150f / 1000);
+    }
+
+    @Test
+    public void closedTrackerDoesNotPollTest() throws Exception {
+        final StreamingProgressTracker tracker = StreamingProgressTracker.start(cassandraJMXService, operation, StreamingProgressTracker.DECOMMISSION, peers -> this.peers = peers);
+
+        tracker.close();
+
+        SECONDS.sleep(StreamingProgressTracker.POLL_INTERVAL_SECONDS + 1);
+
+        assertEquals(cassandraJMXService.calls("getCurrentStreams"), 0);
+        assertEquals(operation.progress, 0f);
+        assertEquals(peers.size(), 0);
+    }
+
+    private void awaitProgress() throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + SECONDS.toMillis(StreamingProgressTracker.POLL_INTERVAL_SECONDS + 10);
+
+        while (operation.progress == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private static CompositeData plan(final String planId, final String description, final CompositeData... sessions) {
+        final Map<String, Object> plan = new HashMap<>();
+
+        plan.put("planId", planId);
+        plan.put("description", description);
+        plan.put("sessions", sessions);
+
+        return composite(plan);
+    }
+
+    private static CompositeData session(final String peer, final long sent, final long totalSent, final long received, final long totalReceived) {
+        final Map<String, Object> session = new HashMap<>();
+
+        session.put("peer", peer);
+        session.put("sendingFiles", new CompositeData[]{composite(Collections.singletonMap("currentBytes", sent))});
+        session.put("sendingSummaries", new CompositeData[]{composite(Collections.singletonMap("totalSize", totalSent))});
+        session.put("receivingFiles", new CompositeData[]{composite(Collections.singletonMap("currentBytes", received))});
+        session.put("receivingSummaries", new CompositeData[]{composite(Collections.singletonMap("totalSize", totalReceived))});
+
+        return composite(session);
+    }
+
+    /**
+     * Composite data of a stream plan only needs to tell its items by their keys.
+     */
+    private static CompositeData composite(final Map<String, ?> items) {
+        return (CompositeData) Proxy.newProxyInstance(CompositeData.class.getClassLoader(), new Class<?>[]{CompositeData.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "containsKey":
+                    return items.containsKey(args[0]);
+                case "get":
+                    return items.get(args[0]);
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return items.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.instaclustr.operations;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.net.InetAddress;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.instaclustr.icarus.coordination.CoordinationUtils;
+import com.instaclustr.icarus.rest.IcarusClient;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SubCoordinatorsTest {
+
+    private final UUID localHostId = UUID.randomUUID();
+    private Map<InetAddress, IcarusClient> clients;
+
+    @BeforeMethod
+    public void setup() {
+        clients = new LinkedHashMap<>();
+    }
+
+    @AfterMethod
+    public void teardown() {
+        clients.values().forEach(IcarusClient::close);
+    }
+
+    @Test
+    public void subCoordinatorPerDcTest() throws Exception {
+        addNode("127.0.0.3", "dc1", localHostId);
+        addNode("127.0.0.2", "dc1", UUID.randomUUID());
+        addNode("127.0.0.1", "dc1", UUID.randomUUID());
+        addNode("127.0.1.2", "dc2", UUID.randomUUID());
+        addNode("127.0.1.1", "dc2", UUID.randomUUID());
+
+        final Map<String, IcarusClient> subCoordinators = CoordinationUtils.pickSubCoordinators(clients, localHostId, true);
+
+        assertEquals(subCoordinators.size(), 2);
+        // the local node is never picked, other nodes are picked by their address so the pick is stable
+        assertEquals(subCoordinators.get("dc1").getHost(), "127.0.0.1");
+        assertEquals(subCoordinators.get("dc2").getHost(), "127.0.1.1");
+    }
+
+    @Test
+    public void dcOfLocalNodeOnlyIsCoordinatedDirectlyTest() throws Exception {
+        addNode("127.0.0.1", "dc1", localHostId);
+        addNode("127.0.1.1", "dc2", UUID.randomUUID());
+
+        final Map<String, IcarusClient> subCoordinators = CoordinationUtils.pickSubCoordinators(clients, localHostId, true);
+
+        assertEquals(subCoordinators.size(), 1);
+        assertEquals(subCoordinators.get("dc2").getHost(), "127.0.1.1");
+    }
+
+    @Test
+    public void noDelegationTest() throws Exception {
+        addNode("127.0.0.1", "dc1", localHostId);
+        addNode("127.0.0.2", "dc1", UUID.randomUUID());
+
+        // one DC only
+        assertTrue(CoordinationUtils.pickSubCoordinators(clients, localHostId, true).isEmpty());
+
+        addNode("127.0.1.1", "dc2", UUID.randomUUID());
+
+        // disabled
+        assertTrue(CoordinationUtils.pickSubCoordinators(clients, localHostId, false).isEmpty());
+    }
+
+    private void addNode(final String address, final String dc, final UUID hostId) throws Exception {
+        clients.put(InetAddress.getByName(address), new IcarusClient.Builder()
+                .withHostAddress(address)
+                .withDc(dc)
+                .withRack("rack1")
+                .withHostId(hostId)
+                .build());
+    }
+}
@@ -0,0 +1,106 @@
+package com.instaclustr.operations;
+
+import static org.testng.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.instaclustr.esop.impl.ManifestEntry;
+import com.instaclustr.esop.impl.StorageLocation;
+import com.instaclustr.icarus.coordination.UploadedSSTableIndex;
+import org.apache.commons.io.FileUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class UploadedSSTableIndexTest {
+
+    private final StorageLocation location = new StorageLocation("s3://bucket/cluster/dc1/node1");
+    // manifests which are in a bucket
+    private final Set<String> manifests = new HashSet<>();
+
+    private Path indexDir;
+    private UploadedSSTableIndex index;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        manifests.clear();
+        indexDir = Files.createTempDirectory("upload-index");
+        index = new UploadedSSTableIndex(new ObjectMapper(), indexDir);
+    }
+
+    @AfterMethod
+    public void teardown() throws Exception {
+        FileUtils.deleteDirectory(indexDir.toFile());
+    }
+
+    @Test
+    public void uploadedFilesAreSkippedTest() {
+        backup("backup1", "a", "b");
+
+        assertEquals(backup("backup2", "a", "b", "c"), Collections.singletonList("c"));
+
+        // a changed file of the same key is uploaded
+        assertEquals(keys(index.notUploaded(location, Collections.singletonList(entry("a", "changed")), manifests::contains)), Collections.singletonList("a"));
+
+        // an index is read from its directory again
+        index = new UploadedSSTableIndex(new ObjectMapper(), indexDir);
+
+        assertEquals(backup("backup3", "a", "b", "c"), Collections.emptyList());
+    }
+
+    @Test
+    public void filesOfRemovedBackupAreUploadedAgainTest() {
+        backup("backup1", "a", "b");
+
+        manifests.remove("manifests/backup1.json");
+
+        assertEquals(backup("backup2", "a", "b", "c"), Arrays.asList("a", "b", "c"));
+    }
+
+    @Test
+    public void filesReferencedByRemainingBackupAreSkippedTest() {
+        backup("backup1", "a", "b");
+        backup("backup2", "a", "b", "c");
+
+        // a removal of the first backup keeps files the second one references
+        manifests.remove("manifests/backup1.json");
+
+        assertEquals(backup("backup3", "a", "b", "c", "d"), Collections.singletonList("d"));
+
+        manifests.remove("manifests/backup2.json");
+        manifests.remove("manifests/backup3.json");
+
+        assertEquals(backup("backup4", "a", "b", "c", "d"), Arrays.asList("a", "b", "c", "d"));
+    }
+
+    /**
+     * @return keys of files a backup has uploaded
+     */
+    private List<String> backup(final String name, final String... files) {
+        final String manifest = "manifests/" + name + ".json";
+        final List<ManifestEntry> entries = Arrays.stream(files).map(file -> entry(file, "hash")).collect(Collectors.toList());
+        final List<ManifestEntry> uploaded = index.notUploaded(location, entries, manifests::contains);
+
+        manifests.add(manifest);
+        index.update(location, manifest, entries, uploaded);
+
+        return keys(uploaded);
+    }
+
+    private static List<String> keys(final List<ManifestEntry> entries) {
+        return entries.stream().map(entry -> entry.objectKey.toString()).collect(Collectors.toList());
+    }
+
+    private static ManifestEntry entry(final String key, final String hash) {
+        return new ManifestEntry(Paths.get(key), Paths.get("/data", key), ManifestEntry.Type.FILE, 10, null, hash, null);
+    }
+}